@@ -138,11 +138,14 @@ public class BfConsts {
   public static final String RELPATH_QUESTION_FILE = "question.json";
 
   public static final String SVC_BASE_RSC = "/batfishservice";
+  public static final String SVC_CACHED_SNAPSHOTS_KEY = "cachedsnapshots";
   public static final String SVC_FAILURE_KEY = "failure";
   public static final String SVC_GET_STATUS_RSC = "getstatus";
   public static final String SVC_GET_TASKSTATUS_RSC = "gettaskstatus";
+  public static final String SVC_NETWORK_KEY = "network";
   public static final Integer SVC_PORT = 9999;
   public static final String SVC_RUN_TASK_RSC = "run";
+  public static final String SVC_SNAPSHOT_KEY = "snapshot";
   public static final String SVC_SUCCESS_KEY = "success";
   public static final String SVC_TASK_KEY = "task";
   public static final String SVC_TASKID_KEY = "taskid";
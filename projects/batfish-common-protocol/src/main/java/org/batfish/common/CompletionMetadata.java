@@ -7,6 +7,7 @@ import static java.util.function.Function.identity;
 import static org.apache.commons.lang3.ObjectUtils.firstNonNull;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -17,6 +18,7 @@ import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.autocomplete.CompletionMetadataIndex;
 import org.batfish.common.autocomplete.IpCompletionMetadata;
 import org.batfish.common.autocomplete.LocationCompletionMetadata;
 import org.batfish.common.autocomplete.NodeCompletionMetadata;
@@ -185,6 +187,12 @@ public final class CompletionMetadata implements Serializable {
 
   private final Set<String> _zones;
 
+  /**
+   * Built on first use, and Java-serialized along with the rest of the metadata once built. Not
+   * part of the JSON representation.
+   */
+  private volatile @Nullable CompletionMetadataIndex _index;
+
   public static @Nonnull Builder builder() {
     return new Builder();
   }
@@ -263,6 +271,23 @@ public final class CompletionMetadata implements Serializable {
     return _filterNames;
   }
 
+  /** Returns the {@link CompletionMetadataIndex} of this metadata, building it if needed. */
+  @JsonIgnore
+  @Nonnull
+  public CompletionMetadataIndex getIndex() {
+    CompletionMetadataIndex index = _index;
+    if (index == null) {
+      synchronized (this) {
+        index = _index;
+        if (index == null) {
+          index = CompletionMetadataIndex.create(this);
+          _index = index;
+        }
+      }
+    }
+    return index;
+  }
+
   @JsonProperty(PROP_INTERFACES)
   @Nonnull
   public Set<NodeInterfacePair> getInterfaces() {
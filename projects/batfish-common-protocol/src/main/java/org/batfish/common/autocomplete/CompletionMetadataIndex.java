@@ -0,0 +1,256 @@
+package org.batfish.common.autocomplete;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.CompletionMetadata;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.collections.NodeInterfacePair;
+import org.batfish.specifier.ToSpecifierString;
+
+/**
+ * Substring indexes over the properties of a {@link CompletionMetadata}, so that autocomplete does
+ * not scan every property on every query.
+ *
+ * <p>Each {@code get*Candidates} method returns, in the iteration order of the metadata, a subset
+ * of the corresponding property that includes every element (or description) containing the query
+ * as a case-insensitive substring. Callers must still check the candidates against the query.
+ */
+@ParametersAreNonnullByDefault
+public final class CompletionMetadataIndex implements Serializable {
+
+  /**
+   * Separates the fields of an indexed document. Queries matched against separated fields never
+   * contain it, so they cannot match across fields.
+   */
+  private static final String FIELD_SEPARATOR = "\n";
+
+  public static @Nonnull CompletionMetadataIndex create(CompletionMetadata metadata) {
+    return new CompletionMetadataIndex(metadata);
+  }
+
+  private CompletionMetadataIndex(CompletionMetadata metadata) {
+    _filterNames = IndexedStrings.of(metadata.getFilterNames());
+    _interfaces =
+        IndexedStrings.of(
+            metadata.getInterfaces().stream()
+                .map(NodeInterfacePair::toString)
+                .collect(ImmutableSet.toImmutableSet()));
+    _interfaceNames =
+        IndexedStrings.of(
+            metadata.getInterfaces().stream()
+                .map(NodeInterfacePair::getInterface)
+                .collect(ImmutableSet.toImmutableSet()));
+    _ips = ImmutableList.copyOf(metadata.getIps().keySet());
+    _ipIndex =
+        SubstringIndex.create(
+            metadata.getIps().entrySet().stream()
+                .map(
+                    e ->
+                        Stream.concat(
+                                Stream.of(e.getKey().toString()),
+                                e.getValue().getRelevances().stream()
+                                    .flatMap(r -> r.getMatchTags().stream()))
+                            .collect(ImmutableList.toImmutableList()))
+                .map(fields -> String.join(FIELD_SEPARATOR, fields))
+                .collect(ImmutableList.toImmutableList()));
+    _mlagIds = IndexedStrings.of(metadata.getMlagIds());
+    _nodes =
+        IndexedStrings.of(
+            metadata.getNodes().entrySet().stream()
+                .collect(
+                    ImmutableMap.toImmutableMap(
+                        Entry::getKey, e -> Optional.ofNullable(e.getValue().getHumanName()))));
+    _prefixes = IndexedStrings.of(metadata.getPrefixes());
+    _routingPolicyNames = IndexedStrings.of(metadata.getRoutingPolicyNames());
+    _sourceLocations = IndexedStrings.of(getLocationsWithHumanNames(false, metadata));
+    _structureNames = IndexedStrings.of(metadata.getStructureNames());
+    _tracerouteSourceLocations = IndexedStrings.of(getLocationsWithHumanNames(true, metadata));
+    _vrfs = IndexedStrings.of(metadata.getVrfs());
+    _zones = IndexedStrings.of(metadata.getZones());
+  }
+
+  /**
+   * Returns a map from location to the (optional) human name of its node. When tracerouteSource is
+   * false, "natural" source locations (per location info) with IPs are considered. Otherwise,
+   * traceroute sources that are not source location with IPs are considered.
+   */
+  private static Map<String, Optional<String>> getLocationsWithHumanNames(
+      boolean tracerouteSource, CompletionMetadata completionMetadata) {
+    return (tracerouteSource
+            ? completionMetadata.getLocations().stream()
+                .filter(loc -> loc.isTracerouteSource() && !loc.isSourceWithIps())
+            : completionMetadata.getLocations().stream()
+                .filter(LocationCompletionMetadata::isSourceWithIps))
+        .map(LocationCompletionMetadata::getLocation)
+        .collect(
+            ImmutableMap.toImmutableMap(
+                ToSpecifierString::toSpecifierString,
+                location ->
+                    Optional.ofNullable(completionMetadata.getNodes().get(location.getNodeName()))
+                        .map(NodeCompletionMetadata::getHumanName)));
+  }
+
+  public @Nonnull Set<String> getFilterNameCandidates(String query) {
+    return _filterNames.getCandidates(query);
+  }
+
+  /** Candidates among the interfaces of the metadata, as {@link NodeInterfacePair} strings. */
+  public @Nonnull Set<String> getInterfaceCandidates(String query) {
+    return _interfaces.getCandidates(query);
+  }
+
+  /** Candidates among the names of the interfaces of the metadata, ignoring their nodes. */
+  public @Nonnull Set<String> getInterfaceNameCandidates(String query) {
+    return _interfaceNames.getCandidates(query);
+  }
+
+  /**
+   * Returns the IPs of the metadata for which each of {@code subQueries} may be a substring of the
+   * IP or of one of the match tags of its {@link IpCompletionRelevance relevances}. {@code
+   * subQueries} must not contain whitespace.
+   */
+  public @Nonnull Set<Ip> getIpCandidates(String[] subQueries) {
+    for (String subQuery : subQueries) {
+      checkArgument(!subQuery.contains(FIELD_SEPARATOR), "Subqueries must not contain whitespace");
+    }
+    int[] candidates = _ipIndex.getCandidates(subQueries);
+    ImmutableSet.Builder<Ip> ips = ImmutableSet.builder();
+    for (int candidate : candidates) {
+      ips.add(_ips.get(candidate));
+    }
+    return ips.build();
+  }
+
+  public @Nonnull Set<String> getMlagIdCandidates(String query) {
+    return _mlagIds.getCandidates(query);
+  }
+
+  /** Candidates among the nodes of the metadata, matched on their names and human names. */
+  public @Nonnull Map<String, Optional<String>> getNodeCandidates(String query) {
+    return _nodes.getCandidatesWithDescriptions(query);
+  }
+
+  public @Nonnull Set<String> getPrefixCandidates(String query) {
+    return _prefixes.getCandidates(query);
+  }
+
+  public @Nonnull Set<String> getRoutingPolicyNameCandidates(String query) {
+    return _routingPolicyNames.getCandidates(query);
+  }
+
+  /**
+   * Candidates among the source locations with IPs of the metadata, as specifier strings with the
+   * human names of their nodes.
+   */
+  public @Nonnull Map<String, Optional<String>> getSourceLocationCandidates(String query) {
+    return _sourceLocations.getCandidatesWithDescriptions(query);
+  }
+
+  public @Nonnull Set<String> getStructureNameCandidates(String query) {
+    return _structureNames.getCandidates(query);
+  }
+
+  /**
+   * Candidates among the traceroute source locations of the metadata that are not source locations
+   * with IPs, as specifier strings with the human names of their nodes.
+   */
+  public @Nonnull Map<String, Optional<String>> getTracerouteSourceLocationCandidates(
+      String query) {
+    return _tracerouteSourceLocations.getCandidatesWithDescriptions(query);
+  }
+
+  public @Nonnull Set<String> getVrfCandidates(String query) {
+    return _vrfs.getCandidates(query);
+  }
+
+  public @Nonnull Set<String> getZoneCandidates(String query) {
+    return _zones.getCandidates(query);
+  }
+
+  /** Strings, each with an optional description, indexed by both. */
+  private static final class IndexedStrings implements Serializable {
+
+    static @Nonnull IndexedStrings of(Collection<String> strings) {
+      String[] array = strings.toArray(new String[0]);
+      return new IndexedStrings(array, null, SubstringIndex.create(ImmutableList.copyOf(array)));
+    }
+
+    static @Nonnull IndexedStrings of(Map<String, Optional<String>> stringsWithDescriptions) {
+      int size = stringsWithDescriptions.size();
+      String[] strings = new String[size];
+      String[] descriptions = new String[size];
+      ImmutableList.Builder<String> documents = ImmutableList.builderWithExpectedSize(size);
+      int i = 0;
+      for (Entry<String, Optional<String>> entry : stringsWithDescriptions.entrySet()) {
+        strings[i] = entry.getKey();
+        descriptions[i] = entry.getValue().orElse(null);
+        documents.add(
+            descriptions[i] == null
+                ? strings[i]
+                : strings[i] + FIELD_SEPARATOR + descriptions[i]);
+        i++;
+      }
+      return new IndexedStrings(strings, descriptions, SubstringIndex.create(documents.build()));
+    }
+
+    private IndexedStrings(
+        String[] strings, @Nullable String[] descriptions, SubstringIndex index) {
+      _strings = strings;
+      _descriptions = descriptions;
+      _index = index;
+    }
+
+    @Nonnull
+    Set<String> getCandidates(String query) {
+      ImmutableSet.Builder<String> candidates = ImmutableSet.builder();
+      for (int candidate : _index.getCandidates(query)) {
+        candidates.add(_strings[candidate]);
+      }
+      return candidates.build();
+    }
+
+    @Nonnull
+    Map<String, Optional<String>> getCandidatesWithDescriptions(String query) {
+      ImmutableMap.Builder<String, Optional<String>> candidates = ImmutableMap.builder();
+      for (int candidate : _index.getCandidates(query)) {
+        candidates.put(
+            _strings[candidate],
+            Optional.ofNullable(_descriptions == null ? null : _descriptions[candidate]));
+      }
+      return candidates.build();
+    }
+
+    private final String[] _strings;
+    private final @Nullable String[] _descriptions;
+    private final SubstringIndex _index;
+  }
+
+  private final IndexedStrings _filterNames;
+  private final IndexedStrings _interfaces;
+  private final IndexedStrings _interfaceNames;
+  private final List<Ip> _ips;
+  private final SubstringIndex _ipIndex;
+  private final IndexedStrings _mlagIds;
+  private final IndexedStrings _nodes;
+  private final IndexedStrings _prefixes;
+  private final IndexedStrings _routingPolicyNames;
+  private final IndexedStrings _sourceLocations;
+  private final IndexedStrings _structureNames;
+  private final IndexedStrings _tracerouteSourceLocations;
+  private final IndexedStrings _vrfs;
+  private final IndexedStrings _zones;
+}
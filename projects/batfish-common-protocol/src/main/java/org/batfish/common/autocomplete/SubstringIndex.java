@@ -0,0 +1,168 @@
+package org.batfish.common.autocomplete;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A case-insensitive trigram index over a list of documents, used to find the documents that may
+ * contain a query as a substring without scanning all of them.
+ *
+ * <p>Each distinct trigram of the lower-cased documents maps to the ascending indices of the
+ * documents that contain it. A document contains a query of at least three characters only if it
+ * contains every trigram of the query, so intersecting their postings yields a superset of the
+ * matching documents, which callers then check directly.
+ */
+@ParametersAreNonnullByDefault
+public final class SubstringIndex implements Serializable {
+
+  /** Queries shorter than this have no trigrams, so every document is a candidate. */
+  private static final int GRAM_LENGTH = 3;
+
+  /** Builds an index over {@code documents}, which are identified by their position in the list. */
+  public static @Nonnull SubstringIndex create(List<String> documents) {
+    Map<Long, IntList> postings = new HashMap<>();
+    for (int id = 0; id < documents.size(); id++) {
+      String document = documents.get(id).toLowerCase();
+      for (int i = 0; i + GRAM_LENGTH <= document.length(); i++) {
+        IntList ids = postings.computeIfAbsent(gram(document, i), g -> new IntList());
+        // ids are added in ascending order, so repeats of a gram in a document are adjacent
+        if (ids._size == 0 || ids._ids[ids._size - 1] != id) {
+          ids.add(id);
+        }
+      }
+    }
+    long[] grams = postings.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    int[] starts = new int[grams.length + 1];
+    int total = postings.values().stream().mapToInt(ids -> ids._size).sum();
+    int[] ids = new int[total];
+    for (int i = 0; i < grams.length; i++) {
+      IntList gramIds = postings.get(grams[i]);
+      System.arraycopy(gramIds._ids, 0, ids, starts[i], gramIds._size);
+      starts[i + 1] = starts[i] + gramIds._size;
+    }
+    return new SubstringIndex(documents.size(), grams, starts, ids);
+  }
+
+  /**
+   * Returns the ascending indices of the documents that may contain {@code query}, ignoring case.
+   * All documents that do contain it are returned, but some returned documents may not.
+   */
+  public @Nonnull int[] getCandidates(String query) {
+    String lowerQuery = query.toLowerCase();
+    if (lowerQuery.length() < GRAM_LENGTH) {
+      return IntStream.range(0, _size).toArray();
+    }
+    // intersect postings, rarest first, so the working set only shrinks
+    List<Integer> postings = new ArrayList<>();
+    for (int i = 0; i + GRAM_LENGTH <= lowerQuery.length(); i++) {
+      int index = Arrays.binarySearch(_grams, gram(lowerQuery, i));
+      if (index < 0) {
+        return new int[0];
+      }
+      if (!postings.contains(index)) {
+        postings.add(index);
+      }
+    }
+    postings.sort(this::comparePostingSizes);
+    int[] candidates = null;
+    for (int index : postings) {
+      candidates =
+          candidates == null
+              ? Arrays.copyOfRange(_ids, _starts[index], _starts[index + 1])
+              : intersect(candidates, _ids, _starts[index], _starts[index + 1]);
+      if (candidates.length == 0) {
+        break;
+      }
+    }
+    assert candidates != null;
+    return candidates;
+  }
+
+  /**
+   * Returns the ascending indices of the documents that may contain each of {@code queries},
+   * ignoring case.
+   */
+  public @Nonnull int[] getCandidates(String[] queries) {
+    int[] candidates = null;
+    for (String query : queries) {
+      int[] queryCandidates = getCandidates(query);
+      candidates =
+          candidates == null
+              ? queryCandidates
+              : intersect(candidates, queryCandidates, 0, queryCandidates.length);
+    }
+    return candidates == null ? IntStream.range(0, _size).toArray() : candidates;
+  }
+
+  /** Returns the number of indexed documents. */
+  public int size() {
+    return _size;
+  }
+
+  private int comparePostingSizes(int index1, int index2) {
+    return Integer.compare(
+        _starts[index1 + 1] - _starts[index1], _starts[index2 + 1] - _starts[index2]);
+  }
+
+  /** Packs the {@link #GRAM_LENGTH} characters of {@code s} starting at {@code i}. */
+  private static long gram(String s, int i) {
+    return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+  }
+
+  /** Returns the elements of {@code sorted} that are in {@code ids[start, end)}. */
+  private static @Nonnull int[] intersect(int[] sorted, int[] ids, int start, int end) {
+    int[] result = new int[Math.min(sorted.length, end - start)];
+    int size = 0;
+    int i = 0;
+    int j = start;
+    while (i < sorted.length && j < end) {
+      if (sorted[i] < ids[j]) {
+        i++;
+      } else if (sorted[i] > ids[j]) {
+        j++;
+      } else {
+        result[size++] = sorted[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  /** A growable list of ints, to avoid boxing while building postings. */
+  private static final class IntList {
+    void add(int id) {
+      if (_size == _ids.length) {
+        _ids = Arrays.copyOf(_ids, _ids.length * 2);
+      }
+      _ids[_size++] = id;
+    }
+
+    private int[] _ids = new int[4];
+    private int _size;
+  }
+
+  private SubstringIndex(int size, long[] grams, int[] starts, int[] ids) {
+    _size = size;
+    _grams = grams;
+    _starts = starts;
+    _ids = ids;
+  }
+
+  private final int _size;
+
+  /** Sorted, distinct trigrams of the documents. */
+  private final long[] _grams;
+
+  /** Postings of {@code _grams[i]} are {@code _ids[_starts[i], _starts[i + 1])}. */
+  private final int[] _starts;
+
+  private final int[] _ids;
+}
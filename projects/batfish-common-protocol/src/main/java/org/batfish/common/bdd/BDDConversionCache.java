@@ -0,0 +1,96 @@
+package org.batfish.common.bdd;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import net.sf.javabdd.BDD;
+import org.batfish.datamodel.HeaderSpace;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.datamodel.acl.AclHashConsing;
+import org.batfish.datamodel.acl.CircularReferenceException;
+import org.batfish.datamodel.acl.UndefinedReferenceException;
+import org.batfish.datamodel.visitors.IpSpaceDereferencer;
+
+/**
+ * A cache of the {@link BDD BDDs} of {@link HeaderSpace header spaces}, shared by all the
+ * converters of a {@link BDDPacket}. Since converters are usually created per node, this lets
+ * identical ACLs on different nodes, or in different questions that reuse the packet, share a
+ * single conversion.
+ *
+ * <p>Header spaces are keyed by content: their {@link IpSpace} references are resolved in the
+ * named IP spaces of the converter, and the result is {@link AclHashConsing hash-consed}. The IP
+ * spaces of the resolved header spaces are then converted by the packet's own memoized {@link
+ * IpSpaceToBDD converters}, so they are shared as well.
+ *
+ * <p>Only header spaces are cached here. Whole ACLs are still memoized per converter: their lines
+ * may refer to the node's other ACLs and to its {@link BDDSourceManager source manager}, so their
+ * BDDs are not determined by their content alone.
+ */
+@ParametersAreNonnullByDefault
+public final class BDDConversionCache {
+
+  /** The maximum number of cached header spaces. Evicted BDDs are freed. */
+  private static final long MAX_HEADER_SPACES = 1_000_000;
+
+  BDDConversionCache(BDDPacket pkt) {
+    this(pkt, MAX_HEADER_SPACES);
+  }
+
+  @VisibleForTesting
+  BDDConversionCache(BDDPacket pkt, long maxHeaderSpaces) {
+    _headerSpaceToBdd = new HeaderSpaceToBDD(pkt, ImmutableMap.of());
+    _headerSpaceBdds =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxHeaderSpaces)
+            .recordStats()
+            // the cache owns its references, and callers get copies
+            .removalListener(
+                (RemovalNotification<HeaderSpace, BDD> notification) ->
+                    notification.getValue().free())
+            .build();
+  }
+
+  /**
+   * Returns a copy of the {@link BDD} of {@code headerSpace}, whose {@link IpSpace} references are
+   * resolved in {@code namedIpSpaces}, or {@code null} if they cannot be resolved.
+   */
+  @Nullable
+  BDD toBdd(HeaderSpace headerSpace, Map<String, IpSpace> namedIpSpaces) {
+    HeaderSpace key;
+    try {
+      key =
+          AclHashConsing.hashCons(
+              namedIpSpaces.isEmpty()
+                  ? headerSpace
+                  : IpSpaceDereferencer.dereferenceHeaderSpace(headerSpace, namedIpSpaces));
+    } catch (CircularReferenceException | UndefinedReferenceException e) {
+      // let the caller's converter report the bad reference
+      return null;
+    }
+    BDD bdd = _headerSpaceBdds.getIfPresent(key);
+    if (bdd != null) {
+      return bdd.id();
+    }
+    // own a reference, since the conversion may be shared with the packet's IP space converters
+    bdd = _headerSpaceToBdd.convert(key).id();
+    // copy before caching, since caching may evict (and free) any entry
+    BDD result = bdd.id();
+    _headerSpaceBdds.put(key, bdd);
+    return result;
+  }
+
+  /** Returns the hit and miss counts of the cached header spaces. */
+  public @Nonnull CacheStats getHeaderSpaceStats() {
+    return _headerSpaceBdds.stats();
+  }
+
+  private final HeaderSpaceToBDD _headerSpaceToBdd;
+  private final Cache<HeaderSpace, BDD> _headerSpaceBdds;
+}
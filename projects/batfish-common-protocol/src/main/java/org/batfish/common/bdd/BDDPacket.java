@@ -96,6 +96,7 @@ public class BDDPacket {
   private final BDDPairing _swapSourceAndDestinationPairing;
   private final IpSpaceToBDD _dstIpSpaceToBDD;
   private final IpSpaceToBDD _srcIpSpaceToBDD;
+  private final BDDConversionCache _conversionCache;
   private final @Nonnull BDD _saneFlow;
 
   // Generating flow preference for representative flow picking
@@ -170,6 +171,7 @@ public class BDDPacket {
 
     _dstIpSpaceToBDD = new MemoizedIpSpaceToBDD(_dstIp, ImmutableMap.of());
     _srcIpSpaceToBDD = new MemoizedIpSpaceToBDD(_srcIp, ImmutableMap.of());
+    _conversionCache = new BDDConversionCache(this);
 
     _saneFlow = saneIpFlow();
   }
@@ -235,6 +237,11 @@ public class BDDPacket {
     return _srcIpSpaceToBDD;
   }
 
+  /** The cache of header space conversions shared by all the converters of this packet. */
+  public BDDConversionCache getConversionCache() {
+    return _conversionCache;
+  }
+
   /** @return The {@link BDDFactory} used by this packet. */
   public BDDFactory getFactory() {
     return _factory;
@@ -23,6 +23,7 @@ public final class HeaderSpaceToBDD {
   private final BDDPacket _bddPacket;
   private final IpSpaceToBDD _dstIpSpaceToBdd;
   private final IpSpaceToBDD _srcIpSpaceToBdd;
+  private final Map<String, IpSpace> _namedIpSpaces;
 
   public HeaderSpaceToBDD(BDDPacket bddPacket, Map<String, IpSpace> namedIpSpaces) {
     _bddFactory = bddPacket.getFactory();
@@ -36,6 +37,7 @@ public final class HeaderSpaceToBDD {
         namedIpSpaces.isEmpty()
             ? bddPacket.getSrcIpSpaceToBDD()
             : new MemoizedIpSpaceToBDD(_bddPacket.getSrcIp(), namedIpSpaces);
+    _namedIpSpaces = namedIpSpaces;
   }
 
   public IpSpaceToBDD getDstIpSpaceToBdd() {
@@ -155,7 +157,17 @@ public final class HeaderSpaceToBDD {
         toBDD(tcpFlags.getUseAck(), tcpFlags.getTcpFlags().getAck(), _bddPacket.getTcpAck()));
   }
 
+  /**
+   * Returns the {@link BDD} of {@code headerSpace}. Header spaces with the same content are shared
+   * by all the converters of the packet, see {@link BDDConversionCache}.
+   */
   public BDD toBDD(HeaderSpace headerSpace) {
+    BDD bdd = _bddPacket.getConversionCache().toBdd(headerSpace, _namedIpSpaces);
+    return bdd == null ? convert(headerSpace) : bdd;
+  }
+
+  /** Converts {@code headerSpace} without looking it up in the shared cache. */
+  BDD convert(HeaderSpace headerSpace) {
     // Implementation: The final BDD is a big conjunction of BDDs for individual constraints.
     // To reuse as many intermediate BDDs as possible, we'd like that conjunction to proceed
     // from the leaf to the root. This means we want to use variables in REVERSE ORDER of their
@@ -172,6 +172,47 @@ public final class IpOwners {
   static Map<Ip, Map<String, Set<String>>> computeIpInterfaceOwners(
       Map<String, Set<Interface>> allInterfaces, boolean excludeInactive) {
     Map<Ip, Map<String, Set<String>>> ipOwners = new HashMap<>();
+    forEachIpInterfaceOwner(
+        allInterfaces,
+        excludeInactive,
+        (ip, hostname, iface) -> addOwner(ipOwners, ip, hostname, iface));
+
+    // freeze
+    return toImmutableMap(
+        ipOwners,
+        Entry::getKey,
+        ipOwnersEntry ->
+            toImmutableMap(
+                ipOwnersEntry.getValue(),
+                Entry::getKey, // hostname
+                hostIpOwnersEntry -> ImmutableSet.copyOf(hostIpOwnersEntry.getValue())));
+  }
+
+  private static void addOwner(
+      Map<Ip, Map<String, Set<String>>> ipOwners, Ip ip, String hostname, Interface iface) {
+    ipOwners
+        .computeIfAbsent(ip, k -> new HashMap<>())
+        .computeIfAbsent(hostname, k -> new HashSet<>())
+        .add(iface.getName());
+  }
+
+  /** Receives IP owners from {@link #forEachIpInterfaceOwner(Map, boolean, OwnerConsumer)}. */
+  @FunctionalInterface
+  interface OwnerConsumer {
+    void accept(Ip ip, String hostname, Interface iface);
+  }
+
+  /**
+   * Passes each IP and interface that owns it to {@code consumer}, in the same way as {@link
+   * #computeIpInterfaceOwners(Map, boolean)}. An owner may be passed more than once.
+   *
+   * <p>Takes into account VRRP and HSRP configuration.
+   *
+   * @param allInterfaces A mapping of interfaces: hostname -&gt; set of {@link Interface}
+   * @param excludeInactive whether to ignore inactive interfaces
+   */
+  static void forEachIpInterfaceOwner(
+      Map<String, Set<Interface>> allInterfaces, boolean excludeInactive, OwnerConsumer consumer) {
     Table<ConcreteInterfaceAddress, Integer, Set<Interface>> vrrpGroups = HashBasedTable.create();
     Table<Ip, Integer, Set<Interface>> hsrpGroups = HashBasedTable.create();
     allInterfaces.forEach(
@@ -205,12 +246,7 @@ public final class IpOwners {
                   // collect prefixes
                   i.getAllConcreteAddresses().stream()
                       .map(ConcreteInterfaceAddress::getIp)
-                      .forEach(
-                          ip ->
-                              ipOwners
-                                  .computeIfAbsent(ip, k -> new HashMap<>())
-                                  .computeIfAbsent(hostname, k -> new HashSet<>())
-                                  .add(i.getName()));
+                      .forEach(ip -> consumer.accept(ip, hostname, i));
                 }));
     vrrpGroups
         .cellSet()
@@ -231,22 +267,9 @@ public final class IpOwners {
                       Comparator.comparingInt(
                               (Interface o) -> o.getVrrpGroups().get(groupNum).getPriority())
                           .thenComparing(o -> o.getConcreteAddress().getIp()));
-              ipOwners
-                  .computeIfAbsent(address.getIp(), k -> new HashMap<>())
-                  .computeIfAbsent(vrrpMaster.getOwner().getHostname(), k -> new HashSet<>())
-                  .add(vrrpMaster.getName());
+              consumer.accept(address.getIp(), vrrpMaster.getOwner().getHostname(), vrrpMaster);
             });
-    processHsrpGroups(ipOwners, hsrpGroups);
-
-    // freeze
-    return toImmutableMap(
-        ipOwners,
-        Entry::getKey,
-        ipOwnersEntry ->
-            toImmutableMap(
-                ipOwnersEntry.getValue(),
-                Entry::getKey, // hostname
-                hostIpOwnersEntry -> ImmutableSet.copyOf(hostIpOwnersEntry.getValue())));
+    forEachHsrpMaster(hsrpGroups, consumer);
   }
 
   /** extract HSRP info from a given interface and add it to the {@code hsrpGroups} table */
@@ -284,6 +307,15 @@ public final class IpOwners {
   @VisibleForTesting
   static void processHsrpGroups(
       Map<Ip, Map<String, Set<String>>> ipOwners, Table<Ip, Integer, Set<Interface>> hsrpGroups) {
+    forEachHsrpMaster(hsrpGroups, (ip, hostname, iface) -> addOwner(ipOwners, ip, hostname, iface));
+  }
+
+  /**
+   * Take {@code hsrpGroups} table, run master interface selection process, and pass each
+   * IP/interface pair to {@code consumer}
+   */
+  private static void forEachHsrpMaster(
+      Table<Ip, Integer, Set<Interface>> hsrpGroups, OwnerConsumer consumer) {
     hsrpGroups
         .cellSet()
         .forEach(
@@ -308,10 +340,7 @@ public final class IpOwners {
                               (Interface i) ->
                                   computeHsrpPriority(i, i.getHsrpGroups().get(groupNum)))
                           .thenComparing(i -> i.getConcreteAddress().getIp()));
-              ipOwners
-                  .computeIfAbsent(ip, k -> new HashMap<>())
-                  .computeIfAbsent(hsrpMaster.getOwner().getHostname(), k -> new HashSet<>())
-                  .add(hsrpMaster.getName());
+              consumer.accept(ip, hsrpMaster.getOwner().getHostname(), hsrpMaster);
             });
   }
 
@@ -0,0 +1,435 @@
+package org.batfish.common.topology;
+
+import static org.batfish.common.topology.TopologyUtil.computeNodeInterfaces;
+import static org.batfish.common.util.CollectionUtil.toImmutableMap;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.primitives.ImmutableLongArray;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.AclIpSpace;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.EmptyIpSpace;
+import org.batfish.datamodel.Interface;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpSpace;
+
+/**
+ * An immutable index of the IPs owned by the interfaces of a snapshot, with the same ownership
+ * semantics (including VRRP and HSRP elections) as {@link IpOwners}.
+ *
+ * <p>Hostnames, VRF names, and interface names are each interned into a sorted table, and owners
+ * are stored as runs of integer ids in flat arrays. IPs are looked up by their {@code long} value
+ * in an open-addressing hash table, so lookups allocate nothing and the index has no per-IP
+ * objects. The index is computed once per snapshot by {@link TopologyProvider} and persisted with
+ * the other snapshot topologies.
+ */
+@ParametersAreNonnullByDefault
+public final class IpOwnershipIndex implements IpVrfOwners, Serializable {
+
+  /** Creates the index of the IPs owned by the interfaces of {@code configurations}. */
+  public static @Nonnull IpOwnershipIndex create(Map<String, Configuration> configurations) {
+    return new IpOwnershipIndex(computeNodeInterfaces(configurations));
+  }
+
+  private IpOwnershipIndex(Map<String, Set<Interface>> allInterfaces) {
+    // intern names
+    SortedSet<String> vrfs = new TreeSet<>();
+    SortedSet<String> interfaces = new TreeSet<>();
+    allInterfaces.values().stream()
+        .flatMap(Set::stream)
+        .forEach(
+            iface -> {
+              vrfs.add(iface.getVrfName());
+              interfaces.add(iface.getName());
+            });
+    _nodes = new TreeSet<>(allInterfaces.keySet()).toArray(new String[0]);
+    _vrfs = vrfs.toArray(new String[0]);
+    _interfaces = interfaces.toArray(new String[0]);
+
+    // number interfaces in (node, interface) order, so sorted owner records group owners by node
+    int numInterfaces = allInterfaces.values().stream().mapToInt(Set::size).sum();
+    int[] ownerNodes = new int[numInterfaces];
+    int[] ownerVrfs = new int[numInterfaces];
+    int[] ownerInterfaces = new int[numInterfaces];
+    Map<String, Map<String, Integer>> ownerIds = new HashMap<>();
+    int owner = 0;
+    for (int node = 0; node < _nodes.length; node++) {
+      Map<String, Integer> nodeOwnerIds = new HashMap<>();
+      ownerIds.put(_nodes[node], nodeOwnerIds);
+      for (Interface iface :
+          ImmutableSortedSet.copyOf(
+              Comparator.comparing(Interface::getName), allInterfaces.get(_nodes[node]))) {
+        ownerNodes[owner] = node;
+        ownerVrfs[owner] = id(_vrfs, iface.getVrfName());
+        ownerInterfaces[owner] = id(_interfaces, iface.getName());
+        nodeOwnerIds.put(iface.getName(), owner);
+        owner++;
+      }
+    }
+    long[] allRecords = ownerRecords(allInterfaces, false, ownerIds);
+    long[] activeRecords = ownerRecords(allInterfaces, true, ownerIds);
+
+    // number IPs densely in ascending order
+    long[] ips = new long[allRecords.length + activeRecords.length];
+    for (int r = 0; r < allRecords.length; r++) {
+      ips[r] = recordIp(allRecords[r]);
+    }
+    for (int r = 0; r < activeRecords.length; r++) {
+      ips[allRecords.length + r] = recordIp(activeRecords[r]);
+    }
+    ips = sortedDistinct(ips);
+    _ips = ips;
+    int capacity = Integer.highestOneBit(Math.max(ips.length, 1) * 2 - 1) << 1;
+    _slotKeys = new long[capacity];
+    Arrays.fill(_slotKeys, EMPTY);
+    _slotIndices = new int[capacity];
+    for (int i = 0; i < ips.length; i++) {
+      int slot = slot(ips[i]);
+      while (_slotKeys[slot] != EMPTY) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+      _slotKeys[slot] = ips[i];
+      _slotIndices[slot] = i;
+    }
+
+    // owner arrays
+    _allStarts = starts(ips, allRecords);
+    _allNodes = new int[allRecords.length];
+    _allInterfaces = new int[allRecords.length];
+    for (int r = 0; r < allRecords.length; r++) {
+      int o = recordOwner(allRecords[r]);
+      _allNodes[r] = ownerNodes[o];
+      _allInterfaces[r] = ownerInterfaces[o];
+    }
+    _activeStarts = starts(ips, activeRecords);
+    _activeNodes = new int[activeRecords.length];
+    _activeVrfs = new int[activeRecords.length];
+    _activeInterfaces = new int[activeRecords.length];
+    Map<String, Map<String, OwnedIps>> vrfOwnedIps = new TreeMap<>();
+    Map<String, Map<String, Map<String, OwnedIps>>> vrfIfaceOwnedIps = new TreeMap<>();
+    for (int r = 0; r < activeRecords.length; r++) {
+      int o = recordOwner(activeRecords[r]);
+      _activeNodes[r] = ownerNodes[o];
+      _activeVrfs[r] = ownerVrfs[o];
+      _activeInterfaces[r] = ownerInterfaces[o];
+      String node = _nodes[ownerNodes[o]];
+      String vrf = _vrfs[ownerVrfs[o]];
+      long ip = recordIp(activeRecords[r]);
+      vrfOwnedIps
+          .computeIfAbsent(node, k -> new TreeMap<>())
+          .computeIfAbsent(vrf, k -> new OwnedIps())
+          .add(ip);
+      vrfIfaceOwnedIps
+          .computeIfAbsent(node, k -> new TreeMap<>())
+          .computeIfAbsent(vrf, k -> new TreeMap<>())
+          .computeIfAbsent(_interfaces[ownerInterfaces[o]], k -> new OwnedIps())
+          .add(ip);
+    }
+    _vrfOwnedIpSpaces =
+        toImmutableMap(
+            vrfOwnedIps,
+            Entry::getKey, // node
+            nodeEntry ->
+                toImmutableMap(nodeEntry.getValue(), Entry::getKey, e -> e.getValue().build()));
+    _vrfIfaceOwnedIpSpaces =
+        toImmutableMap(
+            vrfIfaceOwnedIps,
+            Entry::getKey, // node
+            nodeEntry ->
+                toImmutableMap(
+                    nodeEntry.getValue(),
+                    Entry::getKey, // vrf
+                    vrfEntry ->
+                        toImmutableMap(
+                            vrfEntry.getValue(), Entry::getKey, e -> e.getValue().build())));
+  }
+
+  /**
+   * Returns the owner records {@code ip << OWNER_BITS | owner} of the IPs owned by {@code
+   * allInterfaces}, sorted and without duplicates.
+   */
+  private static long[] ownerRecords(
+      Map<String, Set<Interface>> allInterfaces,
+      boolean excludeInactive,
+      Map<String, Map<String, Integer>> ownerIds) {
+    ImmutableLongArray.Builder records = ImmutableLongArray.builder();
+    IpOwners.forEachIpInterfaceOwner(
+        allInterfaces,
+        excludeInactive,
+        (ip, hostname, iface) ->
+            records.add(ip.asLong() << OWNER_BITS | ownerIds.get(hostname).get(iface.getName())));
+    return sortedDistinct(records.build().toArray());
+  }
+
+  private static long recordIp(long record) {
+    return record >>> OWNER_BITS;
+  }
+
+  private static int recordOwner(long record) {
+    return (int) (record & ((1L << OWNER_BITS) - 1));
+  }
+
+  /** Sorts {@code values} in place and returns its distinct values. */
+  private static long[] sortedDistinct(long[] values) {
+    Arrays.sort(values);
+    int n = 0;
+    for (long value : values) {
+      if (n == 0 || values[n - 1] != value) {
+        values[n++] = value;
+      }
+    }
+    return n == values.length ? values : Arrays.copyOf(values, n);
+  }
+
+  /**
+   * Returns the start of the records of each IP in {@code records}, followed by the number of
+   * records.
+   */
+  private static int[] starts(long[] ips, long[] records) {
+    int[] starts = new int[ips.length + 1];
+    int r = 0;
+    for (int i = 0; i < ips.length; i++) {
+      starts[i] = r;
+      while (r < records.length && recordIp(records[r]) == ips[i]) {
+        r++;
+      }
+    }
+    starts[ips.length] = r;
+    return starts;
+  }
+
+  /** Accumulates the space of IPs owned by a VRF or interface, added in ascending order. */
+  private static final class OwnedIps {
+    private final AclIpSpace.Builder _ipSpace = AclIpSpace.builder();
+    private long _lastIp = EMPTY;
+
+    void add(long ip) {
+      if (ip != _lastIp) {
+        _ipSpace.thenPermitting(Ip.create(ip).toIpSpace());
+        _lastIp = ip;
+      }
+    }
+
+    IpSpace build() {
+      return _ipSpace.build();
+    }
+  }
+
+  /** Returns the id of {@code name} in the sorted table {@code names}, or a negative number. */
+  private static int id(String[] names, String name) {
+    return Arrays.binarySearch(names, name);
+  }
+
+  private int slot(long ip) {
+    // Fibonacci hashing spreads the low-entropy high bits of nearby IPs
+    return (int) ((ip * 0x9E3779B97F4A7C15L) >>> 33) & (_slotKeys.length - 1);
+  }
+
+  /** Returns the dense index of {@code ip}, or {@code -1} if it is not owned. */
+  private int indexOf(Ip ip) {
+    long key = ip.asLong();
+    int mask = _slotKeys.length - 1;
+    for (int slot = slot(key); _slotKeys[slot] != EMPTY; slot = (slot + 1) & mask) {
+      if (_slotKeys[slot] == key) {
+        return _slotIndices[slot];
+      }
+    }
+    return -1;
+  }
+
+  /** Returns the number of IPs owned by some interface, including inactive interfaces. */
+  public int size() {
+    return _ips.length;
+  }
+
+  /** Returns whether {@code ip} is owned by some interface, including inactive interfaces. */
+  public boolean isOwned(Ip ip) {
+    return indexOf(ip) >= 0;
+  }
+
+  @Override
+  public boolean isOwnedByVrf(Ip ip, String hostname, String vrf) {
+    int i = indexOf(ip);
+    int node = id(_nodes, hostname);
+    int vrfId = id(_vrfs, vrf);
+    if (i < 0 || node < 0 || vrfId < 0) {
+      return false;
+    }
+    for (int r = _activeStarts[i]; r < _activeStarts[i + 1]; r++) {
+      if (_activeNodes[r] == node && _activeVrfs[r] == vrfId) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the hostnames of the nodes owning {@code ip}, excluding inactive interfaces if {@code
+   * excludeInactive} is set.
+   */
+  public @Nonnull Set<String> getNodeOwners(Ip ip, boolean excludeInactive) {
+    int i = indexOf(ip);
+    if (i < 0) {
+      return ImmutableSet.of();
+    }
+    int[] starts = excludeInactive ? _activeStarts : _allStarts;
+    int[] owners = excludeInactive ? _activeNodes : _allNodes;
+    ImmutableSet.Builder<String> nodes = ImmutableSet.builder();
+    for (int r = starts[i]; r < starts[i + 1]; r++) {
+      nodes.add(_nodes[owners[r]]);
+    }
+    return nodes.build();
+  }
+
+  /**
+   * Returns a mapping from hostname to the names of interfaces owning {@code ip}, excluding
+   * inactive interfaces if {@code excludeInactive} is set.
+   */
+  public @Nonnull Map<String, Set<String>> getInterfaceOwners(Ip ip, boolean excludeInactive) {
+    int i = indexOf(ip);
+    if (i < 0) {
+      return ImmutableMap.of();
+    }
+    if (excludeInactive) {
+      return group(
+          _activeStarts[i], _activeStarts[i + 1], _activeNodes, _activeInterfaces, _interfaces);
+    }
+    return group(_allStarts[i], _allStarts[i + 1], _allNodes, _allInterfaces, _interfaces);
+  }
+
+  @Override
+  public @Nonnull Map<String, Set<String>> getVrfOwners(Ip ip) {
+    int i = indexOf(ip);
+    return i < 0 ? ImmutableMap.of() : vrfOwners(i);
+  }
+
+  /**
+   * Returns the space of IPs owned by active interfaces in VRF {@code vrf} of node {@code
+   * hostname}.
+   */
+  public @Nonnull IpSpace getVrfOwnedIpSpace(String hostname, String vrf) {
+    Map<String, IpSpace> nodeIpSpaces = _vrfOwnedIpSpaces.get(hostname);
+    IpSpace ipSpace = nodeIpSpaces == null ? null : nodeIpSpaces.get(vrf);
+    return ipSpace == null ? EmptyIpSpace.INSTANCE : ipSpace;
+  }
+
+  /**
+   * Returns a mapping from hostname to VRF name to the space of IPs owned by active interfaces in
+   * that VRF.
+   */
+  public @Nonnull Map<String, Map<String, IpSpace>> getVrfOwnedIpSpaces() {
+    return _vrfOwnedIpSpaces;
+  }
+
+  /**
+   * Returns a mapping from hostname to VRF name to interface name to the space of IPs owned by that
+   * interface, for active interfaces only, equal to {@link IpOwners#getVrfIfaceOwnedIpSpaces()}.
+   */
+  public @Nonnull Map<String, Map<String, Map<String, IpSpace>>> getVrfIfaceOwnedIpSpaces() {
+    return _vrfIfaceOwnedIpSpaces;
+  }
+
+  /**
+   * Returns a mapping from hostname to interface name to the IPs owned by that interface, including
+   * inactive interfaces, equal to {@link IpOwners#computeInterfaceOwnedIps(Map, boolean)} with
+   * {@code excludeInactive} unset.
+   */
+  public @Nonnull Map<String, Map<String, Set<Ip>>> getInterfaceOwnedIps() {
+    Map<String, Map<String, ImmutableSet.Builder<Ip>>> ownedIps = new HashMap<>();
+    for (int i = 0; i < _ips.length; i++) {
+      Ip ip = Ip.create(_ips[i]);
+      for (int r = _allStarts[i]; r < _allStarts[i + 1]; r++) {
+        ownedIps
+            .computeIfAbsent(_nodes[_allNodes[r]], k -> new HashMap<>())
+            .computeIfAbsent(_interfaces[_allInterfaces[r]], k -> ImmutableSet.builder())
+            .add(ip);
+      }
+    }
+    return toImmutableMap(
+        ownedIps,
+        Entry::getKey, // node
+        nodeEntry ->
+            toImmutableMap(nodeEntry.getValue(), Entry::getKey, e -> e.getValue().build()));
+  }
+
+  /** Returns the space of IPs owned by some interface, including inactive interfaces. */
+  public @Nonnull IpSpace getOwnedIpSpace() {
+    AclIpSpace.Builder ipSpace = AclIpSpace.builder();
+    for (long ip : _ips) {
+      ipSpace.thenPermitting(Ip.create(ip).toIpSpace());
+    }
+    return ipSpace.build();
+  }
+
+  /** Groups the owner records in {@code [start, end)} by node. */
+  private Map<String, Set<String>> group(
+      int start, int end, int[] nodeIds, int[] valueIds, String[] valueNames) {
+    ImmutableMap.Builder<String, Set<String>> byNode = ImmutableMap.builder();
+    int r = start;
+    while (r < end) {
+      int node = nodeIds[r];
+      ImmutableSet.Builder<String> values = ImmutableSet.builder();
+      for (; r < end && nodeIds[r] == node; r++) {
+        values.add(valueNames[valueIds[r]]);
+      }
+      byNode.put(_nodes[node], values.build());
+    }
+    return byNode.build();
+  }
+
+  private @Nonnull Map<String, Set<String>> vrfOwners(int i) {
+    return group(_activeStarts[i], _activeStarts[i + 1], _activeNodes, _activeVrfs, _vrfs);
+  }
+
+  /** Marks an unused slot; IPs are non-negative. */
+  private static final long EMPTY = -1L;
+
+  /** The number of low bits of an owner record holding the owner id; the IP is in the rest. */
+  private static final int OWNER_BITS = 31;
+
+  /** Interned hostnames, VRF names, and interface names, sorted. */
+  private final String[] _nodes;
+
+  private final String[] _vrfs;
+  private final String[] _interfaces;
+
+  /** Owned IPs as longs, sorted, indexed by dense IP index. */
+  private final long[] _ips;
+
+  /** Open-addressing table from IP to dense IP index. */
+  private final long[] _slotKeys;
+
+  private final int[] _slotIndices;
+
+  /**
+   * Owners of the IP with dense index {@code i} among all interfaces: records {@code
+   * [_allStarts[i], _allStarts[i + 1])} of the node and interface id arrays.
+   */
+  private final int[] _allStarts;
+
+  private final int[] _allNodes;
+  private final int[] _allInterfaces;
+
+  /** Owners among active interfaces, laid out like the owners among all interfaces. */
+  private final int[] _activeStarts;
+
+  private final int[] _activeNodes;
+  private final int[] _activeVrfs;
+  private final int[] _activeInterfaces;
+
+  private final Map<String, Map<String, IpSpace>> _vrfOwnedIpSpaces;
+  private final Map<String, Map<String, Map<String, IpSpace>>> _vrfIfaceOwnedIpSpaces;
+}
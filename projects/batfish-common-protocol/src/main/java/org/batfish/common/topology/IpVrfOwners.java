@@ -0,0 +1,37 @@
+package org.batfish.common.topology;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.Ip;
+
+/** Looks up the VRFs with an active interface owning an IP. */
+@ParametersAreNonnullByDefault
+public interface IpVrfOwners {
+
+  /**
+   * Returns a mapping from hostname to the names of VRFs with an active interface owning {@code
+   * ip}, or an empty map if there are none.
+   */
+  @Nonnull
+  Map<String, Set<String>> getVrfOwners(Ip ip);
+
+  /**
+   * Returns whether {@code ip} is owned by an active interface in VRF {@code vrf} of node {@code
+   * hostname}.
+   */
+  default boolean isOwnedByVrf(Ip ip, String hostname, String vrf) {
+    return getVrfOwners(ip).getOrDefault(hostname, ImmutableSet.of()).contains(vrf);
+  }
+
+  /**
+   * Returns the {@link IpVrfOwners} backed by a mapping from IP to hostname to the VRFs owning that
+   * IP, such as {@link IpOwners#getIpVrfOwners()}.
+   */
+  static @Nonnull IpVrfOwners of(Map<Ip, Map<String, Set<String>>> ipVrfOwners) {
+    return ip -> ipVrfOwners.getOrDefault(ip, ImmutableMap.of());
+  }
+}
@@ -11,7 +11,7 @@ import org.batfish.datamodel.ospf.OspfTopology;
 import org.batfish.datamodel.vxlan.VxlanTopology;
 
 /**
- * A provider of various topology-type data structures (e.g., IpOwners, L3 Topology,
+ * A provider of various topology-type data structures (e.g., IP ownership, L3 Topology,
  * protocol-specific topology graphs) for network snapshots.
  */
 @ParametersAreNonnullByDefault
@@ -55,11 +55,11 @@ public interface TopologyProvider {
   VxlanTopology getInitialVxlanTopology(NetworkSnapshot snapshot);
 
   /**
-   * Return {@link IpOwners} computed (based on configurations only) for a given {@link
-   * NetworkSnapshot}
+   * Return the {@link IpOwnershipIndex} (based on configurations only) for a given {@link
+   * NetworkSnapshot}, computed at most once per snapshot.
    */
   @Nonnull
-  IpOwners getIpOwners(NetworkSnapshot snapshot);
+  IpOwnershipIndex getIpOwnershipIndex(NetworkSnapshot snapshot);
 
   /**
    * Computes the {@link Layer1Topology} with respect to logical layer-1 edges for a given {@link
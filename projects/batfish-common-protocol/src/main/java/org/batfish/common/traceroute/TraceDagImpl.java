@@ -82,6 +82,11 @@ public final class TraceDagImpl implements TraceDag {
     return _nodes;
   }
 
+  /** Returns the IDs of the nodes at which traces start. */
+  public @Nonnull List<Integer> getRootIds() {
+    return _rootIds;
+  }
+
   @Override
   public int size() {
     return new SizeComputer().size();
@@ -0,0 +1,76 @@
+package org.batfish.common.util.intern;
+
+import com.google.common.base.MoreObjects;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/** A snapshot of the usage of a single interner. */
+@ParametersAreNonnullByDefault
+public final class InternerStats {
+  private final @Nonnull String _name;
+  private final long _hits;
+  private final long _misses;
+  private final long _size;
+
+  InternerStats(String name, long hits, long misses, long size) {
+    _name = name;
+    _hits = hits;
+    _misses = misses;
+    _size = size;
+  }
+
+  /** The name of the interner, usually the simple name of the interned type. */
+  public @Nonnull String getName() {
+    return _name;
+  }
+
+  /** Number of lookups that returned an existing instance. */
+  public long getHits() {
+    return _hits;
+  }
+
+  /** Number of lookups that created a new instance. */
+  public long getMisses() {
+    return _misses;
+  }
+
+  /**
+   * Number of entries in the interner, possibly including entries whose values were collected but
+   * not yet purged.
+   */
+  public long getSize() {
+    return _size;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof InternerStats)) {
+      return false;
+    }
+    InternerStats that = (InternerStats) o;
+    return _name.equals(that._name)
+        && _hits == that._hits
+        && _misses == that._misses
+        && _size == that._size;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(_name, _hits, _misses, _size);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("name", _name)
+        .add("hits", _hits)
+        .add("misses", _misses)
+        .add("size", _size)
+        .toString();
+  }
+}
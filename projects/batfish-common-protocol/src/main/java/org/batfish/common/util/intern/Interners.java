@@ -0,0 +1,74 @@
+package org.batfish.common.util.intern;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Factory and registry of the interners used by hot value types such as {@link
+ * org.batfish.datamodel.Ip} and {@link org.batfish.datamodel.Prefix}, and interner of repeated
+ * strings.
+ *
+ * <p>Interners created here are registered so that {@link #getStats()} can report their usage.
+ */
+@ParametersAreNonnullByDefault
+public final class Interners {
+
+  private static final Queue<Supplier<InternerStats>> REGISTERED = new ConcurrentLinkedQueue<>();
+
+  private static final WeakSelfInterner<String> STRINGS =
+      newWeakSelfInterner(String.class.getSimpleName());
+
+  /**
+   * Returns a new {@link WeakInterner} named {@code name}, whose values are weakly referenced and
+   * whose keys are strongly referenced until their value is collected.
+   */
+  public static @Nonnull <K, V> WeakInterner<K, V> newWeakInterner(String name) {
+    WeakInterner<K, V> interner = new WeakInterner<>(name);
+    REGISTERED.add(interner::getStats);
+    return interner;
+  }
+
+  /**
+   * Returns a new {@link WeakSelfInterner} named {@code name}, whose values are weakly referenced
+   * and are their own keys.
+   */
+  public static @Nonnull <T> WeakSelfInterner<T> newWeakSelfInterner(String name) {
+    WeakSelfInterner<T> interner = new WeakSelfInterner<>(name);
+    REGISTERED.add(interner::getStats);
+    return interner;
+  }
+
+  /**
+   * Returns a new {@link LongKeyedInterner} named {@code name}, whose values are weakly referenced
+   * and identified by the key computed by {@code keyFunction}.
+   */
+  public static @Nonnull <V> LongKeyedInterner<V> newLongKeyedInterner(
+      String name, ToLongFunction<? super V> keyFunction) {
+    LongKeyedInterner<V> interner = new LongKeyedInterner<>(name, keyFunction);
+    REGISTERED.add(interner::getStats);
+    return interner;
+  }
+
+  /**
+   * Returns the canonical {@link String} equal to {@code value}, for names and descriptions that
+   * are repeated across many objects, or {@code null} if {@code value} is {@code null}.
+   */
+  public static @Nullable String intern(@Nullable String value) {
+    return value == null ? null : STRINGS.intern(value);
+  }
+
+  /** Returns the current usage of every registered interner, in order of creation. */
+  public static @Nonnull List<InternerStats> getStats() {
+    return REGISTERED.stream().map(Supplier::get).collect(toImmutableList());
+  }
+
+  private Interners() {}
+}
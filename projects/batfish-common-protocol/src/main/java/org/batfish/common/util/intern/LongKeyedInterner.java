@@ -0,0 +1,69 @@
+package org.batfish.common.util.intern;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A thread-safe interner for values identified by a primitive {@code long} key, such as {@link
+ * org.batfish.datamodel.Ip} and {@link org.batfish.datamodel.Prefix}.
+ *
+ * <p>Lookups first consult a small direct-mapped table of recently interned values, which requires
+ * neither boxing the key nor allocating a candidate value. Misses fall back to a {@link
+ * WeakInterner}. Both tables are lock-free for reads. Values in the direct-mapped table are
+ * strongly referenced, so at most {@link #RECENT_SIZE} collectable values are retained.
+ */
+@ParametersAreNonnullByDefault
+public final class LongKeyedInterner<V> {
+
+  /** Number of slots in the direct-mapped table of recently interned values. */
+  static final int RECENT_SIZE = 1 << 12;
+
+  private final @Nonnull ToLongFunction<? super V> _keyFunction;
+  private final @Nonnull AtomicReferenceArray<V> _recent;
+  private final @Nonnull WeakInterner<Long, V> _table;
+  private final @Nonnull LongAdder _recentHits;
+
+  LongKeyedInterner(String name, ToLongFunction<? super V> keyFunction) {
+    _keyFunction = keyFunction;
+    _recent = new AtomicReferenceArray<>(RECENT_SIZE);
+    _table = new WeakInterner<>(name);
+    _recentHits = new LongAdder();
+  }
+
+  /**
+   * Returns the canonical value for {@code key}, creating it with {@code factory} if there is none.
+   * The key of the created value must be {@code key}.
+   */
+  public @Nonnull V intern(long key, LongFunction<? extends V> factory) {
+    int slot = slot(key);
+    V recent = _recent.get(slot);
+    if (recent != null && _keyFunction.applyAsLong(recent) == key) {
+      _recentHits.increment();
+      return recent;
+    }
+    V value = _table.intern(key, boxedKey -> factory.apply(boxedKey));
+    // values are immutable, so a lazy write is safe
+    _recent.lazySet(slot, value);
+    return value;
+  }
+
+  private static int slot(long key) {
+    // spread the bits, since keys such as IPs in a subnet differ only in their low bits
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h >>> (Long.SIZE - Integer.numberOfTrailingZeros(RECENT_SIZE)));
+  }
+
+  /** Returns the current usage of this interner. */
+  public @Nonnull InternerStats getStats() {
+    InternerStats tableStats = _table.getStats();
+    return new InternerStats(
+        tableStats.getName(),
+        tableStats.getHits() + _recentHits.sum(),
+        tableStats.getMisses(),
+        tableStats.getSize());
+  }
+}
@@ -0,0 +1,110 @@
+package org.batfish.common.util.intern;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A thread-safe table mapping keys to canonical, weakly-referenced values.
+ *
+ * <p>Lookups of existing values are lock-free reads of a {@link ConcurrentHashMap}; concurrent
+ * creations of the same value are resolved by compare-and-set, so at most one instance per key is
+ * ever returned while it is reachable. Entries whose values were garbage collected are purged
+ * during later calls to {@link #intern(Object, Function)}.
+ *
+ * <p>Keys are strongly referenced, so they must not strongly reference their values, or the values
+ * will never be collected. In particular, a value cannot be its own key; such values must be
+ * interned under a distinct but equal key.
+ */
+@ParametersAreNonnullByDefault
+public final class WeakInterner<K, V> {
+
+  private static final class WeakValue<K, V> extends WeakReference<V> {
+    private final @Nonnull K _key;
+
+    private WeakValue(K key, V value, ReferenceQueue<? super V> queue) {
+      super(value, queue);
+      _key = key;
+    }
+  }
+
+  private final @Nonnull String _name;
+  private final @Nonnull ConcurrentHashMap<K, WeakValue<K, V>> _table;
+  private final @Nonnull ReferenceQueue<V> _collected;
+  private final @Nonnull LongAdder _hits;
+  private final @Nonnull LongAdder _misses;
+
+  WeakInterner(String name) {
+    _name = name;
+    _table = new ConcurrentHashMap<>();
+    _collected = new ReferenceQueue<>();
+    _hits = new LongAdder();
+    _misses = new LongAdder();
+  }
+
+  /**
+   * Returns the canonical value for {@code key}, creating it with {@code factory} if there is none.
+   */
+  public @Nonnull V intern(K key, Function<? super K, ? extends V> factory) {
+    purgeCollected();
+    WeakValue<K, V> ref = _table.get(key);
+    V value = ref == null ? null : ref.get();
+    if (value != null) {
+      _hits.increment();
+      return value;
+    }
+    V created = factory.apply(key);
+    WeakValue<K, V> createdRef = new WeakValue<>(key, created, _collected);
+    while (true) {
+      WeakValue<K, V> existingRef = _table.putIfAbsent(key, createdRef);
+      if (existingRef == null) {
+        break;
+      }
+      V existing = existingRef.get();
+      if (existing != null) {
+        // another thread created the value first
+        _hits.increment();
+        return existing;
+      }
+      if (_table.replace(key, existingRef, createdRef)) {
+        break;
+      }
+    }
+    _misses.increment();
+    return created;
+  }
+
+  /**
+   * Returns the canonical value for {@code key} if there is one, or {@code null}. The key need not
+   * be of type {@code K}, as long as it is equal to the key of the value.
+   */
+  public @Nullable V getIfPresent(Object key) {
+    WeakValue<K, V> ref = _table.get(key);
+    V value = ref == null ? null : ref.get();
+    if (value != null) {
+      _hits.increment();
+    }
+    return value;
+  }
+
+  private void purgeCollected() {
+    // poll is lock-free when the queue is empty
+    Reference<? extends V> ref;
+    while ((ref = _collected.poll()) != null) {
+      @SuppressWarnings("unchecked") // only WeakValues are registered with the queue
+      WeakValue<K, V> weakValue = (WeakValue<K, V>) ref;
+      _table.remove(weakValue._key, weakValue);
+    }
+  }
+
+  /** Returns the current usage of this interner. */
+  public @Nonnull InternerStats getStats() {
+    return new InternerStats(_name, _hits.sum(), _misses.sum(), _table.mappingCount());
+  }
+}
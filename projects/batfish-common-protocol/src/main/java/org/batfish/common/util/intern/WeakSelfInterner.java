@@ -0,0 +1,49 @@
+package org.batfish.common.util.intern;
+
+import com.google.common.collect.Interner;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A thread-safe table of canonical, weakly-referenced values that are their own keys, for
+ * hash-consing immutable trees whose values have no separate key.
+ *
+ * <p>Unlike {@link WeakInterner}, values are only weakly referenced by the table, so a value may be
+ * its own key. The table cannot be sized cheaply, so the size reported in its {@link InternerStats}
+ * is the number of values ever added, including those that were since collected.
+ */
+@ParametersAreNonnullByDefault
+public final class WeakSelfInterner<T> {
+
+  private final @Nonnull String _name;
+  private final @Nonnull Interner<T> _interner;
+  private final @Nonnull LongAdder _hits;
+  private final @Nonnull LongAdder _misses;
+
+  WeakSelfInterner(String name) {
+    _name = name;
+    _interner = com.google.common.collect.Interners.newWeakInterner();
+    _hits = new LongAdder();
+    _misses = new LongAdder();
+  }
+
+  /**
+   * Returns the canonical value equal to {@code value}, which becomes canonical if there is none.
+   */
+  public @Nonnull T intern(T value) {
+    T canonical = _interner.intern(value);
+    if (canonical == value) {
+      _misses.increment();
+    } else {
+      _hits.increment();
+    }
+    return canonical;
+  }
+
+  /** Returns the current usage of this interner. */
+  public @Nonnull InternerStats getStats() {
+    long misses = _misses.sum();
+    return new InternerStats(_name, _hits.sum(), misses, misses);
+  }
+}
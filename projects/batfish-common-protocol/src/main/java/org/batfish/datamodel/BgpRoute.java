@@ -280,27 +280,11 @@ public abstract class BgpRoute<B extends Builder<B, R>, R extends BgpRoute<B, R>
   static final String PROP_SRC_PROTOCOL = "srcProtocol";
   static final String PROP_WEIGHT = "weight";
 
-  @Nonnull protected final AsPath _asPath;
-  @Nonnull protected final Set<Long> _clusterList;
-  @Nonnull protected final CommunitySet _communities;
-  protected final long _localPreference;
-  protected final long _med;
-  @Nonnull protected final Ip _originatorIp;
-  @Nonnull protected final OriginType _originType;
-  @Nonnull protected final RoutingProtocol _protocol;
-
   /**
-   * The {@link Ip} address of the (I)BGP peer from which the route was learned, or {@link Ip#ZERO}
-   * if the BGP route was originated locally.
-   *
-   * <p>Set on origination and on import.
+   * The interned path attributes of this route, which are shared with all other routes that have
+   * the same attributes.
    */
-  @Nullable protected final Ip _receivedFromIp;
-
-  protected final boolean _receivedFromRouteReflectorClient;
-  @Nullable protected final RoutingProtocol _srcProtocol;
-  /* NOTE: Cisco-only attribute */
-  protected final int _weight;
+  @Nonnull protected final BgpRouteAttributes _attributes;
 
   protected BgpRoute(
       @Nullable Prefix network,
@@ -310,11 +294,11 @@ public abstract class BgpRoute<B extends Builder<B, R>, R extends BgpRoute<B, R>
       @Nonnull CommunitySet communities,
       long localPreference,
       long med,
-      Ip originatorIp,
+      @Nonnull Ip originatorIp,
       @Nullable Set<Long> clusterList,
       boolean receivedFromRouteReflectorClient,
-      OriginType originType,
-      RoutingProtocol protocol,
+      @Nonnull OriginType originType,
+      @Nonnull RoutingProtocol protocol,
       @Nullable Ip receivedFromIp,
       @Nullable RoutingProtocol srcProtocol,
       long tag,
@@ -327,85 +311,86 @@ public abstract class BgpRoute<B extends Builder<B, R>, R extends BgpRoute<B, R>
             || protocol == RoutingProtocol.IBGP
             || protocol == RoutingProtocol.AGGREGATE,
         "Invalid BgpRoute protocol");
-    _asPath = firstNonNull(asPath, AsPath.empty());
-    _clusterList =
-        clusterList == null ? ImmutableSet.of() : CLUSTER_CACHE.getUnchecked(clusterList);
-    _communities = communities;
-    _localPreference = localPreference;
-    _med = med;
+    _attributes =
+        BgpRouteAttributes.create(
+            firstNonNull(asPath, AsPath.empty()),
+            clusterList == null ? ImmutableSet.of() : CLUSTER_CACHE.getUnchecked(clusterList),
+            communities,
+            localPreference,
+            med,
+            originatorIp,
+            originType,
+            protocol,
+            receivedFromIp,
+            receivedFromRouteReflectorClient,
+            srcProtocol,
+            weight);
     _nextHop = nextHop;
-    _originatorIp = originatorIp;
-    _originType = originType;
-    _protocol = protocol;
-    _receivedFromIp = receivedFromIp;
-    _receivedFromRouteReflectorClient = receivedFromRouteReflectorClient;
-    _srcProtocol = srcProtocol;
-    _weight = weight;
   }
 
   @Nonnull
   @JsonProperty(PROP_AS_PATH)
   @Override
   public AsPath getAsPath() {
-    return _asPath;
+    return _attributes.getAsPath();
   }
 
   public @Nonnull Set<Long> getClusterList() {
-    return _clusterList;
+    return _attributes.getClusterList();
   }
 
   /** Return the set of all community attributes */
   @Nonnull
   @Override
   public final CommunitySet getCommunities() {
-    return _communities;
+    return _attributes.getCommunities();
   }
 
   /** Return the set of all community attributes */
   @Nonnull
   @Override
   public final Set<Community> getCommunitiesAsSet() {
-    return _communities.getCommunities();
+    return _attributes.getCommunities().getCommunities();
   }
 
   /** Return only standard community attributes */
   @Nonnull
   @JsonIgnore
   public Set<StandardCommunity> getStandardCommunities() {
-    return _communities.getStandardCommunities();
+    return _attributes.getCommunities().getStandardCommunities();
   }
 
   /** Return only extended community attributes */
   @Nonnull
   @JsonIgnore
   public Set<ExtendedCommunity> getExtendedCommunities() {
-    return _communities.getExtendedCommunities();
+    return _attributes.getCommunities().getExtendedCommunities();
   }
 
   @JsonProperty(PROP_LOCAL_PREFERENCE)
   @Override
   public long getLocalPreference() {
-    return _localPreference;
+    return _attributes.getLocalPreference();
   }
 
   @JsonIgnore(false)
   @JsonProperty(PROP_METRIC)
   @Override
   public long getMetric() {
-    return _med;
+    return _attributes.getMed();
   }
 
   @Nonnull
   @JsonProperty(PROP_ORIGINATOR_IP)
   public Ip getOriginatorIp() {
-    return _originatorIp;
+    return _attributes.getOriginatorIp();
   }
 
   @Nonnull
   @JsonProperty(PROP_ORIGIN_TYPE)
   @Override
   public OriginType getOriginType() {
-    return _originType;
+    return _attributes.getOriginType();
   }
 
   @Nonnull
@@ -413,30 +398,36 @@ public abstract class BgpRoute<B extends Builder<B, R>, R extends BgpRoute<B, R>
   @JsonProperty(PROP_PROTOCOL)
   @Override
   public RoutingProtocol getProtocol() {
-    return _protocol;
+    return _attributes.getProtocol();
   }
 
+  /**
+   * Returns the {@link Ip} address of the (I)BGP peer from which the route was learned, or {@link
+   * Ip#ZERO} if the BGP route was originated locally.
+   *
+   * <p>Set on origination and on import.
+   */
   @Nullable
   @JsonProperty(PROP_RECEIVED_FROM_IP)
   public Ip getReceivedFromIp() {
-    return _receivedFromIp;
+    return _attributes.getReceivedFromIp();
   }
 
   @JsonProperty(PROP_RECEIVED_FROM_ROUTE_REFLECTOR_CLIENT)
   public boolean getReceivedFromRouteReflectorClient() {
-    return _receivedFromRouteReflectorClient;
+    return _attributes.getReceivedFromRouteReflectorClient();
   }
 
   @Nullable
   @JsonProperty(PROP_SRC_PROTOCOL)
   public RoutingProtocol getSrcProtocol() {
-    return _srcProtocol;
+    return _attributes.getSrcProtocol();
   }
 
   @JsonProperty(PROP_WEIGHT)
   @Override
   public int getWeight() {
-    return _weight;
+    return _attributes.getWeight();
   }
 
   @Override
@@ -444,11 +435,11 @@ public abstract class BgpRoute<B extends Builder<B, R>, R extends BgpRoute<B, R>
 
   @JsonProperty(PROP_CLUSTER_LIST)
   private @Nonnull SortedSet<Long> getJsonClusterList() {
-    return ImmutableSortedSet.copyOf(_clusterList);
+    return ImmutableSortedSet.copyOf(_attributes.getClusterList());
   }
 
   @JsonProperty(PROP_COMMUNITIES)
   private @Nonnull CommunitySet getJsonCommunities() {
-    return _communities;
+    return _attributes.getCommunities();
   }
 }
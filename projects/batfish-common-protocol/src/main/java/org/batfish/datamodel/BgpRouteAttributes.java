@@ -0,0 +1,228 @@
+package org.batfish.datamodel;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.MoreObjects;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.util.intern.Interners;
+import org.batfish.common.util.intern.WeakSelfInterner;
+import org.batfish.datamodel.routing_policy.communities.CommunitySet;
+
+/**
+ * The path attributes of a {@link BgpRoute}, i.e. all of its properties except its network, next
+ * hop, administrative cost, and tag.
+ *
+ * <p>Like the path attribute tables of BGP implementations, attributes are interned: routes with
+ * equal attributes, such as the routes of a full table learned from the same peer, all refer to a
+ * single canonical instance. This keeps each route small, and lets routes compare their attributes
+ * by identity.
+ */
+@ParametersAreNonnullByDefault
+final class BgpRouteAttributes implements Serializable {
+
+  private static final WeakSelfInterner<BgpRouteAttributes> INTERNER =
+      Interners.newWeakSelfInterner(BgpRouteAttributes.class.getSimpleName());
+
+  /** Returns the canonical {@link BgpRouteAttributes} with the given values. */
+  static @Nonnull BgpRouteAttributes create(
+      AsPath asPath,
+      Set<Long> clusterList,
+      CommunitySet communities,
+      long localPreference,
+      long med,
+      Ip originatorIp,
+      OriginType originType,
+      RoutingProtocol protocol,
+      @Nullable Ip receivedFromIp,
+      boolean receivedFromRouteReflectorClient,
+      @Nullable RoutingProtocol srcProtocol,
+      int weight) {
+    return INTERNER.intern(
+        new BgpRouteAttributes(
+            asPath,
+            clusterList,
+            communities,
+            localPreference,
+            med,
+            checkNotNull(originatorIp, "Missing %s", BgpRoute.PROP_ORIGINATOR_IP),
+            checkNotNull(originType, "Missing %s", BgpRoute.PROP_ORIGIN_TYPE),
+            checkNotNull(protocol, "Missing %s", AbstractRoute.PROP_PROTOCOL),
+            receivedFromIp,
+            receivedFromRouteReflectorClient,
+            srcProtocol,
+            weight));
+  }
+
+  private BgpRouteAttributes(
+      AsPath asPath,
+      Set<Long> clusterList,
+      CommunitySet communities,
+      long localPreference,
+      long med,
+      Ip originatorIp,
+      OriginType originType,
+      RoutingProtocol protocol,
+      @Nullable Ip receivedFromIp,
+      boolean receivedFromRouteReflectorClient,
+      @Nullable RoutingProtocol srcProtocol,
+      int weight) {
+    _asPath = asPath;
+    _clusterList = clusterList;
+    _communities = communities;
+    _localPreference = localPreference;
+    _med = med;
+    _originatorIp = originatorIp;
+    _originType = originType;
+    _protocol = protocol;
+    _receivedFromIp = receivedFromIp;
+    _receivedFromRouteReflectorClient = receivedFromRouteReflectorClient;
+    _srcProtocol = srcProtocol;
+    _weight = weight;
+  }
+
+  @Nonnull
+  AsPath getAsPath() {
+    return _asPath;
+  }
+
+  @Nonnull
+  Set<Long> getClusterList() {
+    return _clusterList;
+  }
+
+  @Nonnull
+  CommunitySet getCommunities() {
+    return _communities;
+  }
+
+  long getLocalPreference() {
+    return _localPreference;
+  }
+
+  long getMed() {
+    return _med;
+  }
+
+  @Nonnull
+  Ip getOriginatorIp() {
+    return _originatorIp;
+  }
+
+  @Nonnull
+  OriginType getOriginType() {
+    return _originType;
+  }
+
+  @Nonnull
+  RoutingProtocol getProtocol() {
+    return _protocol;
+  }
+
+  @Nullable
+  Ip getReceivedFromIp() {
+    return _receivedFromIp;
+  }
+
+  boolean getReceivedFromRouteReflectorClient() {
+    return _receivedFromRouteReflectorClient;
+  }
+
+  @Nullable
+  RoutingProtocol getSrcProtocol() {
+    return _srcProtocol;
+  }
+
+  int getWeight() {
+    return _weight;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    } else if (!(o instanceof BgpRouteAttributes)) {
+      return false;
+    }
+    BgpRouteAttributes other = (BgpRouteAttributes) o;
+    return (_hashCode == other._hashCode || _hashCode == 0 || other._hashCode == 0)
+        && _localPreference == other._localPreference
+        && _med == other._med
+        && _receivedFromRouteReflectorClient == other._receivedFromRouteReflectorClient
+        && _weight == other._weight
+        && _originType == other._originType
+        && _protocol == other._protocol
+        && _srcProtocol == other._srcProtocol
+        && _asPath.equals(other._asPath)
+        && _clusterList.equals(other._clusterList)
+        && _communities.equals(other._communities)
+        && _originatorIp.equals(other._originatorIp)
+        && Objects.equals(_receivedFromIp, other._receivedFromIp);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = _hashCode;
+    if (h == 0) {
+      h = _asPath.hashCode();
+      h = h * 31 + _clusterList.hashCode();
+      h = h * 31 + _communities.hashCode();
+      h = h * 31 + Long.hashCode(_localPreference);
+      h = h * 31 + Long.hashCode(_med);
+      h = h * 31 + _originatorIp.hashCode();
+      h = h * 31 + _originType.ordinal();
+      h = h * 31 + _protocol.ordinal();
+      h = h * 31 + Objects.hashCode(_receivedFromIp);
+      h = h * 31 + Boolean.hashCode(_receivedFromRouteReflectorClient);
+      h = h * 31 + (_srcProtocol == null ? 0 : _srcProtocol.ordinal());
+      h = h * 31 + _weight;
+      _hashCode = h;
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .omitNullValues()
+        .add("asPath", _asPath)
+        .add("clusterList", _clusterList)
+        .add("communities", _communities)
+        .add("localPreference", _localPreference)
+        .add("med", _med)
+        .add("originatorIp", _originatorIp)
+        .add("originType", _originType)
+        .add("protocol", _protocol)
+        .add("receivedFromIp", _receivedFromIp)
+        .add("receivedFromRouteReflectorClient", _receivedFromRouteReflectorClient)
+        .add("srcProtocol", _srcProtocol)
+        .add("weight", _weight)
+        .toString();
+  }
+
+  /** Re-interns deserialized attributes, so that they are shared with the existing routes. */
+  private Object readResolve() {
+    return INTERNER.intern(this);
+  }
+
+  private final @Nonnull AsPath _asPath;
+  private final @Nonnull Set<Long> _clusterList;
+  private final @Nonnull CommunitySet _communities;
+  private final long _localPreference;
+  private final long _med;
+  private final @Nonnull Ip _originatorIp;
+  private final @Nonnull OriginType _originType;
+  private final @Nonnull RoutingProtocol _protocol;
+  private final @Nullable Ip _receivedFromIp;
+  private final boolean _receivedFromRouteReflectorClient;
+  private final @Nullable RoutingProtocol _srcProtocol;
+  /* NOTE: Cisco-only attribute */
+  private final int _weight;
+
+  /* Cache the hashcode */
+  private transient int _hashCode = 0;
+}
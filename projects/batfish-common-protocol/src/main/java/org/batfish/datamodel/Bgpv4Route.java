@@ -7,7 +7,6 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
-import java.util.Objects;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -182,20 +181,20 @@ public final class Bgpv4Route extends BgpRoute<Bgpv4Route.Builder, Bgpv4Route> {
         .setAdmin(getAdministrativeCost())
         .setNonRouting(getNonRouting())
         .setNonForwarding(getNonForwarding())
-        .setAsPath(_asPath)
-        .setClusterList(_clusterList)
-        .setCommunities(_communities)
-        .setLocalPreference(_localPreference)
-        .setMetric(_med)
+        .setAsPath(getAsPath())
+        .setClusterList(getClusterList())
+        .setCommunities(getCommunities())
+        .setLocalPreference(getLocalPreference())
+        .setMetric(getMetric())
         .setNextHop(_nextHop)
-        .setOriginatorIp(_originatorIp)
-        .setOriginType(_originType)
-        .setProtocol(_protocol)
-        .setReceivedFromIp(_receivedFromIp)
-        .setReceivedFromRouteReflectorClient(_receivedFromRouteReflectorClient)
-        .setSrcProtocol(_srcProtocol)
+        .setOriginatorIp(getOriginatorIp())
+        .setOriginType(getOriginType())
+        .setProtocol(getProtocol())
+        .setReceivedFromIp(getReceivedFromIp())
+        .setReceivedFromRouteReflectorClient(getReceivedFromRouteReflectorClient())
+        .setSrcProtocol(getSrcProtocol())
         .setTag(_tag)
-        .setWeight(_weight);
+        .setWeight(getWeight());
   }
 
   @Override
@@ -210,23 +209,12 @@ public final class Bgpv4Route extends BgpRoute<Bgpv4Route.Builder, Bgpv4Route> {
     return (_hashCode == other._hashCode || _hashCode == 0 || other._hashCode == 0)
         && _network.equals(other._network)
         && _nextHop.equals(other._nextHop)
-        && _originatorIp.equals(other._originatorIp)
-        && Objects.equals(_receivedFromIp, other._receivedFromIp)
+        && _attributes.equals(other._attributes)
         // Things above this line are more likely to cause false earlier.
         && _admin == other._admin
-        && _localPreference == other._localPreference
-        && _med == other._med
-        && _originType == other._originType
-        && _protocol == other._protocol
-        && _receivedFromRouteReflectorClient == other._receivedFromRouteReflectorClient
-        && _srcProtocol == other._srcProtocol
         && _tag == other._tag
-        && _weight == other._weight
         && getNonRouting() == other.getNonRouting()
-        && getNonForwarding() == other.getNonForwarding()
-        && _asPath.equals(other._asPath)
-        && _clusterList.equals(other._clusterList)
-        && _communities.equals(other._communities);
+        && getNonForwarding() == other.getNonForwarding();
   }
 
   @Override
@@ -234,23 +222,12 @@ public final class Bgpv4Route extends BgpRoute<Bgpv4Route.Builder, Bgpv4Route> {
     int h = _hashCode;
     if (h == 0) {
       h = _admin;
-      h = h * 31 + _asPath.hashCode();
-      h = h * 31 + _clusterList.hashCode();
-      h = h * 31 + _communities.hashCode();
-      h = h * 31 + Long.hashCode(_localPreference);
-      h = h * 31 + Long.hashCode(_med);
+      h = h * 31 + _attributes.hashCode();
       h = h * 31 + _network.hashCode();
       h = h * 31 + _nextHop.hashCode();
       h = h * 31 + Boolean.hashCode(getNonForwarding());
       h = h * 31 + Boolean.hashCode(getNonRouting());
-      h = h * 31 + _originatorIp.hashCode();
-      h = h * 31 + _originType.ordinal();
-      h = h * 31 + _protocol.ordinal();
-      h = h * 31 + Objects.hashCode(_receivedFromIp);
-      h = h * 31 + Boolean.hashCode(_receivedFromRouteReflectorClient);
-      h = h * 31 + (_srcProtocol == null ? 0 : _srcProtocol.ordinal());
       h = h * 31 + Long.hashCode(_tag);
-      h = h * 31 + _weight;
 
       _hashCode = h;
     }
@@ -264,19 +241,19 @@ public final class Bgpv4Route extends BgpRoute<Bgpv4Route.Builder, Bgpv4Route> {
         .add("_network", _network)
         .add("_admin", _admin)
         .add("_tag", _tag)
-        .add("_asPath", _asPath)
-        .add("_clusterList", _clusterList)
-        .add("_communities", _communities)
-        .add("_localPreference", _localPreference)
-        .add("_med", _med)
+        .add("_asPath", getAsPath())
+        .add("_clusterList", getClusterList())
+        .add("_communities", getCommunities())
+        .add("_localPreference", getLocalPreference())
+        .add("_med", getMetric())
         .add("_nextHop", _nextHop)
-        .add("_originatorIp", _originatorIp)
-        .add("_originType", _originType)
-        .add("_protocol", _protocol)
-        .add("_receivedFromIp", _receivedFromIp)
-        .add("_receivedFromRouteReflectorClient", _receivedFromRouteReflectorClient)
-        .add("_srcProtocol", _srcProtocol)
-        .add("_weight", _weight)
+        .add("_originatorIp", getOriginatorIp())
+        .add("_originType", getOriginType())
+        .add("_protocol", getProtocol())
+        .add("_receivedFromIp", getReceivedFromIp())
+        .add("_receivedFromRouteReflectorClient", getReceivedFromRouteReflectorClient())
+        .add("_srcProtocol", getSrcProtocol())
+        .add("_weight", getWeight())
         .toString();
   }
 }
@@ -0,0 +1,158 @@
+package org.batfish.datamodel;
+
+import com.google.common.collect.ImmutableSet;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.PrefixTrieMultiMap.FoldOperator;
+
+/**
+ * An immutable, read-optimized copy of a {@link PrefixTrieMultiMap}, created by {@link
+ * PrefixTrieMultiMap#compact()}.
+ *
+ * <p>Nodes are stored in pre-order in parallel arrays of their start IPs, prefix lengths, child
+ * indices, and element sets, instead of as objects holding a {@link Prefix} and child references.
+ * This roughly halves the heap used per node, and lookups walk primitive arrays.
+ */
+@ParametersAreNonnullByDefault
+public final class CompactPrefixTrieMultiMap<T> implements Serializable {
+
+  /** Child index of a missing child. */
+  static final int NONE = -1;
+
+  /** The root, if any, is always the first node. */
+  private static final int ROOT = 0;
+
+  /** {@code MASKS[n]} has the {@code n} high-order bits set. */
+  private static final int[] MASKS = new int[Prefix.MAX_PREFIX_LENGTH + 1];
+
+  static {
+    for (int length = 1; length <= Prefix.MAX_PREFIX_LENGTH; length++) {
+      MASKS[length] = -1 << (Prefix.MAX_PREFIX_LENGTH - length);
+    }
+  }
+
+  CompactPrefixTrieMultiMap(
+      int[] starts, byte[] lengths, int[] left, int[] right, List<Set<T>> elements) {
+    _starts = starts;
+    _lengths = lengths;
+    _left = left;
+    _right = right;
+    _elements = elements;
+  }
+
+  /**
+   * Perform a fold over the trie. The fold applies the same operation at each node of the trie,
+   * bottom-up, exactly as {@link PrefixTrieMultiMap#fold(FoldOperator)} does.
+   */
+  public @Nullable <R> R fold(FoldOperator<T, R> operator) {
+    return _starts.length == 0 ? null : fold(ROOT, operator);
+  }
+
+  private @Nonnull <R> R fold(int node, FoldOperator<T, R> operator) {
+    R leftResult = _left[node] == NONE ? null : fold(_left[node], operator);
+    R rightResult = _right[node] == NONE ? null : fold(_right[node], operator);
+    return operator.fold(getPrefix(node), _elements.get(node), leftResult, rightResult);
+  }
+
+  /** Returns the elements for the given prefix, or an empty set if it is not a key of the trie. */
+  public @Nonnull Set<T> get(Prefix p) {
+    int start = (int) p.getStartIp().asLong();
+    int length = p.getPrefixLength();
+    int node = _starts.length == 0 ? NONE : ROOT;
+    while (node != NONE && _lengths[node] <= length && matches(node, start)) {
+      if (_lengths[node] == length) {
+        return _elements.get(node);
+      }
+      node = childToward(node, start);
+    }
+    return ImmutableSet.of();
+  }
+
+  /** @return all elements in the trie. */
+  public @Nonnull Set<T> getAllElements() {
+    ImmutableSet.Builder<T> b = ImmutableSet.builder();
+    _elements.forEach(b::addAll);
+    return b.build();
+  }
+
+  /** Find the elements associated with the longest matching prefix of a given IP address. */
+  public @Nonnull Set<T> longestPrefixMatch(Ip address) {
+    return longestPrefixMatch(address, Prefix.MAX_PREFIX_LENGTH);
+  }
+
+  /**
+   * Find the elements associated with the longest matching prefix of a given IP address, up to the
+   * given maximum length.
+   */
+  public @Nonnull Set<T> longestPrefixMatch(Ip address, int maxPrefixLength) {
+    int ip = (int) address.asLong();
+    int longestNonEmpty = NONE;
+    int node = _starts.length == 0 ? NONE : ROOT;
+    while (node != NONE && _lengths[node] <= maxPrefixLength && matches(node, ip)) {
+      if (!_elements.get(node).isEmpty()) {
+        longestNonEmpty = node;
+      }
+      node = childToward(node, ip);
+    }
+    return longestNonEmpty == NONE ? ImmutableSet.of() : _elements.get(longestNonEmpty);
+  }
+
+  /** Returns the number of nodes in the trie, including those without elements. */
+  public int size() {
+    return _starts.length;
+  }
+
+  /**
+   * Post-order traversal over the entries, in the same order as {@link
+   * PrefixTrieMultiMap#traverseEntries(BiConsumer)}.
+   */
+  public void traverseEntries(BiConsumer<Prefix, Set<T>> consumer) {
+    if (_starts.length > 0) {
+      traverseEntries(ROOT, consumer);
+    }
+  }
+
+  private void traverseEntries(int node, BiConsumer<Prefix, Set<T>> consumer) {
+    if (_left[node] != NONE) {
+      traverseEntries(_left[node], consumer);
+    }
+    if (_right[node] != NONE) {
+      traverseEntries(_right[node], consumer);
+    }
+    consumer.accept(getPrefix(node), _elements.get(node));
+  }
+
+  /**
+   * Returns the child of {@code node} whose prefix may contain {@code ip}, or {@link #NONE} if the
+   * prefix of {@code node} is a full-length prefix.
+   */
+  private int childToward(int node, int ip) {
+    int length = _lengths[node];
+    if (length == Prefix.MAX_PREFIX_LENGTH) {
+      return NONE;
+    }
+    return (ip << length) < 0 ? _right[node] : _left[node];
+  }
+
+  private @Nonnull Prefix getPrefix(int node) {
+    return Prefix.create(Ip.create(Integer.toUnsignedLong(_starts[node])), _lengths[node]);
+  }
+
+  /** Returns whether the prefix of {@code node} contains {@code ip}. */
+  private boolean matches(int node, int ip) {
+    return ((ip ^ _starts[node]) & MASKS[_lengths[node]]) == 0;
+  }
+
+  private final int[] _starts;
+  private final byte[] _lengths;
+  private final int[] _left;
+  private final int[] _right;
+
+  /** Element sets of the nodes. Nodes without elements share the empty set. */
+  private final List<Set<T>> _elements;
+}
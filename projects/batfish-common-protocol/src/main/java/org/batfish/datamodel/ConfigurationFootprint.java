@@ -0,0 +1,136 @@
+package org.batfish.datamodel;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.apache.commons.lang3.SerializationUtils;
+
+/**
+ * Measures how many bytes each component of a {@link Configuration}, such as its interfaces or its
+ * ACLs, contributes to the configuration.
+ *
+ * <p>The size of a component is the number of serialized bytes that are saved by removing it, i.e.
+ * the bytes of the objects that are only reachable through that component. Objects that are shared
+ * with other components, such as ACLs used as interface filters, are not counted. Serialized sizes
+ * are a proxy for heap usage: they are smaller, but grow with the same fields and collections.
+ */
+@ParametersAreNonnullByDefault
+public final class ConfigurationFootprint {
+
+  /** The name of the size of the entire configuration in the result of {@link #measure}. */
+  public static final String TOTAL = "total";
+
+  private static final List<Component<?, ?>> COMPONENTS =
+      ImmutableList.of(
+          component(
+              "asPathAccessLists",
+              Configuration::getAsPathAccessLists,
+              Configuration::setAsPathAccessLists),
+          component(
+              "communitySets", Configuration::getCommunitySets, Configuration::setCommunitySets),
+          component(
+              "generatedReferenceBooks",
+              Configuration::getGeneratedReferenceBooks,
+              Configuration::setGeneratedReferenceBooks),
+          component("interfaces", Configuration::getAllInterfaces, Configuration::setInterfaces),
+          component(
+              "ip6AccessLists", Configuration::getIp6AccessLists, Configuration::setIp6AccessLists),
+          component(
+              "ipAccessLists", Configuration::getIpAccessLists, Configuration::setIpAccessLists),
+          component(
+              "ipSpaceMetadata",
+              Configuration::getIpSpaceMetadata,
+              Configuration::setIpSpaceMetadata),
+          component("ipSpaces", Configuration::getIpSpaces, Configuration::setIpSpaces),
+          component(
+              "packetPolicies", Configuration::getPacketPolicies, Configuration::setPacketPolicies),
+          component(
+              "route6FilterLists",
+              Configuration::getRoute6FilterLists,
+              Configuration::setRoute6FilterLists),
+          component(
+              "routeFilterLists",
+              Configuration::getRouteFilterLists,
+              Configuration::setRouteFilterLists),
+          component(
+              "routingPolicies",
+              Configuration::getRoutingPolicies,
+              Configuration::setRoutingPolicies),
+          component("vrfs", Configuration::getVrfs, Configuration::setVrfs),
+          component("zones", Configuration::getZones, Configuration::setZones));
+
+  /**
+   * Returns the serialized size of {@code c} under {@link #TOTAL}, followed by the sizes of its
+   * components in decreasing order. {@code c} is not modified.
+   */
+  public static @Nonnull Map<String, Long> measure(Configuration c) {
+    // components are removed from a copy, so that c may be in use by other threads
+    Configuration copy = SerializationUtils.clone(c);
+    long total = serializedSize(copy);
+    Map<String, Long> sizes = new HashMap<>();
+    for (Component<?, ?> component : COMPONENTS) {
+      sizes.put(component._name, component.sizeIn(copy, total));
+    }
+    ImmutableMap.Builder<String, Long> result = ImmutableMap.builder();
+    result.put(TOTAL, total);
+    sizes.entrySet().stream()
+        .sorted(
+            Comparator.<Entry<String, Long>, Long>comparing(Entry::getValue)
+                .reversed()
+                .thenComparing(Entry::getKey))
+        .forEach(result::put);
+    return result.build();
+  }
+
+  private static long serializedSize(Configuration c) {
+    return SerializationUtils.serialize(c).length;
+  }
+
+  private static <K, V> Component<K, V> component(
+      String name,
+      Function<Configuration, Map<K, V>> getter,
+      BiConsumer<Configuration, Map<K, V>> setter) {
+    return new Component<>(name, getter, setter);
+  }
+
+  /** A map of named structures in a configuration, which can be removed and restored. */
+  private static final class Component<K, V> {
+    private final String _name;
+    private final Function<Configuration, Map<K, V>> _getter;
+    private final BiConsumer<Configuration, Map<K, V>> _setter;
+
+    private Component(
+        String name,
+        Function<Configuration, Map<K, V>> getter,
+        BiConsumer<Configuration, Map<K, V>> setter) {
+      _name = name;
+      _getter = getter;
+      _setter = setter;
+    }
+
+    /** Returns the size of this component in {@code c}, whose serialized size is {@code total}. */
+    private long sizeIn(Configuration c, long total) {
+      Map<K, V> value = _getter.apply(c);
+      if (value.isEmpty()) {
+        // replacing an empty map by another one only measures the difference of their classes
+        return 0L;
+      }
+      _setter.accept(c, ImmutableMap.of());
+      try {
+        return total - serializedSize(c);
+      } finally {
+        _setter.accept(c, value);
+      }
+    }
+  }
+
+  private ConfigurationFootprint() {}
+}
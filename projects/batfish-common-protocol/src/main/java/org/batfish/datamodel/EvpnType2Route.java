@@ -224,23 +224,23 @@ public final class EvpnType2Route extends EvpnRoute<EvpnType2Route.Builder, Evpn
         .setAdmin(getAdministrativeCost())
         .setNonRouting(getNonRouting())
         .setNonForwarding(getNonForwarding())
-        .setAsPath(_asPath)
-        .setClusterList(_clusterList)
-        .setCommunities(_communities)
+        .setAsPath(getAsPath())
+        .setClusterList(getClusterList())
+        .setCommunities(getCommunities())
         .setIp(_ip)
-        .setLocalPreference(_localPreference)
+        .setLocalPreference(getLocalPreference())
         .setMacAddress(_macAddress)
-        .setMetric(_med)
+        .setMetric(getMetric())
         .setNextHop(_nextHop)
-        .setOriginatorIp(_originatorIp)
-        .setOriginType(_originType)
-        .setProtocol(_protocol)
-        .setReceivedFromIp(_receivedFromIp)
-        .setReceivedFromRouteReflectorClient(_receivedFromRouteReflectorClient)
+        .setOriginatorIp(getOriginatorIp())
+        .setOriginType(getOriginType())
+        .setProtocol(getProtocol())
+        .setReceivedFromIp(getReceivedFromIp())
+        .setReceivedFromRouteReflectorClient(getReceivedFromRouteReflectorClient())
         .setRouteDistinguisher(_routeDistinguisher)
-        .setSrcProtocol(_srcProtocol)
+        .setSrcProtocol(getSrcProtocol())
         .setTag(_tag)
-        .setWeight(_weight);
+        .setWeight(getWeight());
   }
 
   @Override
@@ -258,21 +258,10 @@ public final class EvpnType2Route extends EvpnRoute<EvpnType2Route.Builder, Evpn
         && getNonRouting() == other.getNonRouting()
         && getNonForwarding() == other.getNonForwarding()
         && Objects.equals(_ip, other._ip)
-        && _localPreference == other._localPreference
+        && _attributes.equals(other._attributes)
         && Objects.equals(_macAddress, other._macAddress)
-        && _med == other._med
-        && _receivedFromRouteReflectorClient == other._receivedFromRouteReflectorClient
-        && _weight == other._weight
-        && Objects.equals(_asPath, other._asPath)
-        && Objects.equals(_clusterList, other._clusterList)
-        && Objects.equals(_communities, other._communities)
         && Objects.equals(_nextHop, other._nextHop)
-        && Objects.equals(_originatorIp, other._originatorIp)
-        && _originType == other._originType
-        && _protocol == other._protocol
-        && Objects.equals(_receivedFromIp, other._receivedFromIp)
         && Objects.equals(_routeDistinguisher, other._routeDistinguisher)
-        && _srcProtocol == other._srcProtocol
         && _tag == other._tag;
   }
 
@@ -281,24 +270,13 @@ public final class EvpnType2Route extends EvpnRoute<EvpnType2Route.Builder, Evpn
     int h = _hashCode;
     if (h == 0) {
       h = _admin;
-      h = h * 31 + _asPath.hashCode();
-      h = h * 31 + _clusterList.hashCode();
-      h = h * 31 + _communities.hashCode();
+      h = h * 31 + _attributes.hashCode();
       h = h * 31 + _ip.hashCode();
-      h = h * 31 + Long.hashCode(_localPreference);
       h = h * 31 + Objects.hashCode(_macAddress);
-      h = h * 31 + Long.hashCode(_med);
       h = h * 31 + _network.hashCode();
       h = h * 31 + _nextHop.hashCode();
-      h = h * 31 + _originatorIp.hashCode();
-      h = h * 31 + _originType.ordinal();
-      h = h * 31 + _protocol.ordinal();
-      h = h * 31 + Objects.hashCode(_receivedFromIp);
-      h = h * 31 + Boolean.hashCode(_receivedFromRouteReflectorClient);
       h = h * 31 + _routeDistinguisher.hashCode();
-      h = h * 31 + (_srcProtocol == null ? 0 : _srcProtocol.ordinal());
       h = h * 31 + Long.hashCode(_tag);
-      h = h * 31 + _weight;
 
       _hashCode = h;
     }
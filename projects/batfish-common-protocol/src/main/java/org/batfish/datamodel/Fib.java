@@ -1,6 +1,8 @@
 package org.batfish.datamodel;
 
+import com.google.common.collect.ImmutableList;
 import java.io.Serializable;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
@@ -13,6 +15,16 @@ public interface Fib extends Serializable {
   @Nonnull
   Set<FibEntry> get(Ip ip);
 
+  /**
+   * Return the {@link FibEntry fib entries} that match each of the given IPs (using longest prefix
+   * match), in the same order. Implementations may look up many IPs faster than repeated calls to
+   * {@link #get(Ip)}.
+   */
+  @Nonnull
+  default List<Set<FibEntry>> get(List<Ip> ips) {
+    return ips.stream().map(this::get).collect(ImmutableList.toImmutableList());
+  }
+
   /** Return the set of all entries */
   @Nonnull
   Set<FibEntry> allEntries();
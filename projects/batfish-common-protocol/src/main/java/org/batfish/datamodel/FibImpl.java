@@ -9,7 +9,9 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.ImmutableSortedSet;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -82,24 +84,31 @@ public final class FibImpl implements Fib {
   private static final int MAX_DEPTH = 10;
 
   /** This trie is the source of truth for all resolved FIB routes */
-  @Nonnull private final PrefixTrieMultiMap<FibEntry> _root;
+  @Nonnull private final CompactPrefixTrieMultiMap<FibEntry> _root;
 
   private transient Supplier<Set<FibEntry>> _entries;
 
+  /** Built on first lookup rather than serialized, since it is derived from {@link #_root}. */
+  private transient Supplier<LongestPrefixMatchTable<FibEntry>> _lookupTable;
+
   public <R extends AbstractRouteDecorator> FibImpl(
       @Nonnull GenericRib<R> rib, ResolutionRestriction<R> restriction) {
-    _root = new PrefixTrieMultiMap<>(Prefix.ZERO);
+    // Resolve all routes first, so the trie is built in one pass and never modified afterwards.
+    Map<Prefix, Set<FibEntry>> entries = new HashMap<>();
+    entries.put(Prefix.ZERO, new LinkedHashSet<>());
     rib.getTypedRoutes()
         .forEach(
-            r -> {
-              Set<FibEntry> s = resolveRoute(rib, r.getAbstractRoute(), restriction);
-              _root.putAll(r.getNetwork(), s);
-            });
+            r ->
+                entries
+                    .computeIfAbsent(r.getNetwork(), p -> new LinkedHashSet<>())
+                    .addAll(resolveRoute(rib, r.getAbstractRoute(), restriction)));
+    _root = PrefixTrieMultiMap.create(entries).compact();
     initSuppliers();
   }
 
   private void initSuppliers() {
     _entries = Suppliers.memoize(this::computeEntries);
+    _lookupTable = Suppliers.memoize(() -> LongestPrefixMatchTable.create(_root));
   }
 
   private Set<FibEntry> computeEntries() {
@@ -316,7 +325,13 @@ public final class FibImpl implements Fib {
   @Nonnull
   @Override
   public Set<FibEntry> get(Ip ip) {
-    return _root.longestPrefixMatch(ip);
+    return _lookupTable.get().get(ip);
+  }
+
+  @Nonnull
+  @Override
+  public List<Set<FibEntry>> get(List<Ip> ips) {
+    return _lookupTable.get().get(ips);
   }
 
   @Nonnull
@@ -4,8 +4,10 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.Ordering.natural;
 import static org.batfish.common.util.CollectionUtil.toImmutableMap;
+import static org.batfish.common.util.CollectionUtil.toImmutableMapInParallel;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ForwardingMap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
@@ -21,6 +23,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -29,7 +32,7 @@ import net.sf.javabdd.BDD;
 import org.batfish.common.bdd.BDDPacket;
 import org.batfish.common.bdd.IpSpaceToBDD;
 import org.batfish.common.bdd.MemoizedIpSpaceToBDD;
-import org.batfish.common.topology.IpOwners;
+import org.batfish.common.topology.IpOwnershipIndex;
 import org.batfish.datamodel.collections.NodeInterfacePair;
 import org.batfish.specifier.InterfaceLinkLocation;
 import org.batfish.specifier.Location;
@@ -77,6 +80,19 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
       Map<String, Map<String, Fib>> fibs,
       Topology topology,
       Map<Location, LocationInfo> locationInfo) {
+    this(configurations, fibs, topology, locationInfo, IpOwnershipIndex.create(configurations));
+  }
+
+  /**
+   * Creates the forwarding analysis of a data plane, using the already computed {@link
+   * IpOwnershipIndex} of {@code configurations}.
+   */
+  public ForwardingAnalysisImpl(
+      Map<String, Configuration> configurations,
+      Map<String, Map<String, Fib>> fibs,
+      Topology topology,
+      Map<Location, LocationInfo> locationInfo,
+      IpOwnershipIndex ipOwnershipIndex) {
     Span span = GlobalTracer.get().buildSpan("Construct ForwardingAnalysis").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
@@ -85,19 +101,16 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
       IpSpaceToBDD ipSpaceToBDD =
           new MemoizedIpSpaceToBDD(new BDDPacket().getDstIp(), ImmutableMap.of());
 
-      IpOwners ipOwners = new IpOwners(configurations);
-
       // IPs belonging to any interface in the network, even inactive interfaces
       // node -> interface -> IPs owned by that interface
-      Map<String, Map<String, Set<Ip>>> interfaceOwnedIps =
-          IpOwners.computeInterfaceOwnedIps(configurations, /*excludeInactive=*/ false);
+      Map<String, Map<String, Set<Ip>>> interfaceOwnedIps = ipOwnershipIndex.getInterfaceOwnedIps();
 
       // Owned (i.e., internal to the network) IPs
       IpSpace ownedIps = computeOwnedIps(interfaceOwnedIps);
       // Unowned (i.e., external to the network) IPs
       BDD unownedIpsBDD = ipSpaceToBDD.visit(ownedIps).not();
 
-      _acceptedIps = computeAcceptedIps(ipOwners);
+      _acceptedIps = computeAcceptedIps(ipOwnershipIndex);
 
       // IpSpaces matched by each prefix
       // -- only will have entries for active interfaces if FIB is correct
@@ -301,8 +314,8 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
    */
   // TODO: Account for special case VRF-accepted IPs that are not interface IPs.
   private static Map<String, Map<String, Map<String, IpSpace>>> computeAcceptedIps(
-      IpOwners ipOwners) {
-    return ipOwners.getVrfIfaceOwnedIpSpaces();
+      IpOwnershipIndex ipOwnershipIndex) {
+    return ipOwnershipIndex.getVrfIfaceOwnedIpSpaces();
   }
 
   /**
@@ -324,7 +337,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
     Span span = GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeArpReplies").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           configurations,
           Entry::getKey,
           nodeEntry -> {
@@ -371,7 +384,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
     Span span = GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeArpTrueEdge").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           arpTrueEdgeDestIp,
           Entry::getKey, // node
           nodeEntry ->
@@ -402,7 +415,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
         GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeArpTrueEdgeDestIp").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           routesWithDestIpEdge,
           Entry::getKey, // node
           nodeEntry ->
@@ -441,7 +454,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
         GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeArpTrueEdgeNextHopIp").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           routesWithNextHopIpArpTrue,
           Entry::getKey, // node
           nodeEntry ->
@@ -532,7 +545,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
             .start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           routesWithNextHop,
           Entry::getKey /* hostname */,
           nodeEntry -> {
@@ -574,7 +587,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
         GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeArpFalseDestIp").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           routesWhereDstIpCanBeArpIp,
           Entry::getKey /* hostname */,
           nodeEntry -> {
@@ -620,7 +633,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
         GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeArpFalseNextHopIp").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return routesWithNextHopIpArpFalse.entrySet().stream()
+      return routesWithNextHopIpArpFalse.entrySet().parallelStream()
           .collect(
               ImmutableMap.toImmutableMap(
                   Entry::getKey /* hostname */,
@@ -662,7 +675,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
     Span span = GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeNullRoutedIps").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return fibs.entrySet().stream()
+      return fibs.entrySet().parallelStream()
           .collect(
               ImmutableMap.toImmutableMap(
                   Entry::getKey /* hostname */,
@@ -699,7 +712,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
     Span span = GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeNextVrfIps").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return fibs.entrySet().stream()
+      return fibs.entrySet().parallelStream()
           .collect(
               ImmutableMap.toImmutableMap(
                   Entry::getKey /* hostname */,
@@ -743,7 +756,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
     Span span = GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeRoutableIps").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           fibs,
           Entry::getKey, // node
           nodeEntry ->
@@ -769,14 +782,14 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
     Span span = GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeMatchingIps").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           fibs,
           Entry::getKey, // node
           nodeEntry ->
               toImmutableMap(
                   nodeEntry.getValue(),
                   Entry::getKey, // vrf
-                  vrfEntry -> vrfEntry.getValue().getMatchingIps()));
+                  vrfEntry -> new VrfMatchingIps(vrfEntry.getValue().getMatchingIps())));
     } finally {
       span.finish();
     }
@@ -785,6 +798,9 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
   @VisibleForTesting
   static IpSpace computeRouteMatchConditions(
       Set<AbstractRoute> routes, Map<Prefix, IpSpace> matchingIps) {
+    if (matchingIps instanceof VrfMatchingIps) {
+      return ((VrfMatchingIps) matchingIps).getRouteMatchConditions(routes);
+    }
     // get the union of IpSpace that match one of the routes
     return computeRouteMatchConditionsFilter(routes, matchingIps, r -> true);
   }
@@ -819,7 +835,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
     Span span = GlobalTracer.get().buildSpan("construct BDDFlowConstraintGenerator").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           routesWithNextHop,
           Entry::getKey /* hostname */,
           nodeEntry -> {
@@ -866,7 +882,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
 
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           routesWhereDstIpCanBeArpIp,
           Entry::getKey, // node
           nodeEntry ->
@@ -900,7 +916,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
         GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeRoutesWithNextHop").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           fibs,
           Entry::getKey,
           nodeEntry ->
@@ -934,7 +950,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
             .start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           routesWithNextHop,
           Entry::getKey /* hostname */,
           nodeEntry -> {
@@ -994,7 +1010,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
             .start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           routesWithNextHop,
           Entry::getKey, // node
           nodeEntry ->
@@ -1155,7 +1171,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
           ipSpaces1.keySet(),
           ipSpaces2.keySet());
 
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           ipSpaces1,
           Entry::getKey, /* hostname */
           nodeEntry -> {
@@ -1221,7 +1237,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
         GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeDeliveredToSubnet").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           arpFalseDestIp,
           Entry::getKey,
           nodeEntry ->
@@ -1262,7 +1278,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
     Span span = GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeExitsNetwork").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           dstIpsWithUnownedNextHopIpArpFalse,
           Entry::getKey,
           nodeEntry -> {
@@ -1332,7 +1348,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
 
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           arpFalseDestIp,
           Entry::getKey,
           nodeEntry ->
@@ -1411,7 +1427,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
         GlobalTracer.get().buildSpan("ForwardingAnalysisImpl.computeNeighborUnreachable").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           arpFalse,
           Entry::getKey,
           nodeEntry ->
@@ -1674,7 +1690,7 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
             .start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return toImmutableMap(
+      return toImmutableMapInParallel(
           fibsByNode,
           Entry::getKey,
           fibsByNodeEntry ->
@@ -1687,6 +1703,40 @@ public final class ForwardingAnalysisImpl implements ForwardingAnalysis, Seriali
     }
   }
 
+  /**
+   * The IPs matched by each prefix of a VRF's FIB, which also memoizes the unions computed by
+   * {@link #computeRouteMatchConditions(Set, Map)}. The same route sets recur across the steps of
+   * the analysis (e.g., once per neighbor of an interface), and sharing the resulting {@link
+   * IpSpace} instances also lets the later BDD conversion reuse its cached results.
+   */
+  private static final class VrfMatchingIps extends ForwardingMap<Prefix, IpSpace> {
+    private VrfMatchingIps(Map<Prefix, IpSpace> matchingIps) {
+      _matchingIps = matchingIps;
+      _routeMatchConditions = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    protected Map<Prefix, IpSpace> delegate() {
+      return _matchingIps;
+    }
+
+    private @Nonnull IpSpace getRouteMatchConditions(Set<AbstractRoute> routes) {
+      Set<Prefix> networks =
+          routes.stream().map(AbstractRoute::getNetwork).collect(ImmutableSet.toImmutableSet());
+      return _routeMatchConditions.computeIfAbsent(
+          networks,
+          n ->
+              firstNonNull(
+                  AclIpSpace.union(n.stream().map(_matchingIps::get).toArray(IpSpace[]::new)),
+                  EmptyIpSpace.INSTANCE));
+    }
+
+    private final Map<Prefix, IpSpace> _matchingIps;
+
+    /** Route networks -&gt; union of the IPs they match. */
+    private final Map<Set<Prefix>, IpSpace> _routeMatchConditions;
+  }
+
   /** Mapping: route -&gt; nexthopinterface -&gt; resolved nextHopIp -&gt; interfaceRoutes */
   private static Map<AbstractRoute, Map<String, Map<Ip, Set<AbstractRoute>>>>
       computeNextHopInterfaces(Fib fib) {
@@ -13,6 +13,9 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Iterables;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
@@ -29,6 +32,7 @@ import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import org.batfish.common.BatfishException;
 import org.batfish.common.util.ComparableStructure;
+import org.batfish.common.util.intern.Interners;
 import org.batfish.datamodel.eigrp.EigrpInterfaceSettings;
 import org.batfish.datamodel.hsrp.HsrpGroup;
 import org.batfish.datamodel.isis.IsisInterfaceSettings;
@@ -914,7 +918,7 @@ public final class Interface extends ComparableStructure<String> {
   }
 
   private Interface(String name, Configuration owner, @Nonnull InterfaceType interfaceType) {
-    super(name);
+    super(Interners.intern(name));
     _active = true;
     _additionalArpIps = EmptyIpSpace.INSTANCE;
     _addressMetadata = ImmutableSortedMap.of();
@@ -1574,22 +1578,22 @@ public final class Interface extends ComparableStructure<String> {
 
   @JsonProperty(PROP_CHANNEL_GROUP)
   public void setChannelGroup(String channelGroup) {
-    _channelGroup = channelGroup;
+    _channelGroup = Interners.intern(channelGroup);
   }
 
   @JsonProperty(PROP_CHANNEL_GROUP_MEMBERS)
   public void setChannelGroupMembers(Iterable<String> channelGroupMembers) {
-    _channelGroupMembers = ImmutableSortedSet.copyOf(channelGroupMembers);
+    _channelGroupMembers = internAll(channelGroupMembers);
   }
 
   @JsonProperty(PROP_CRYPTO_MAP)
   public void setCryptoMap(String cryptoMap) {
-    _cryptoMap = cryptoMap;
+    _cryptoMap = Interners.intern(cryptoMap);
   }
 
   @JsonProperty(PROP_DECLARED_NAMES)
   public void setDeclaredNames(SortedSet<String> declaredNames) {
-    _declaredNames = ImmutableSortedSet.copyOf(declaredNames);
+    _declaredNames = internAll(declaredNames);
   }
 
   /** Set (overwrite) all dependencies for this interface */
@@ -1606,7 +1610,7 @@ public final class Interface extends ComparableStructure<String> {
 
   @JsonProperty(PROP_DESCRIPTION)
   public void setDescription(String description) {
-    _description = description;
+    _description = Interners.intern(description);
   }
 
   @JsonProperty(PROP_DHCP_RELAY_ADDRESSES)
@@ -1632,17 +1636,17 @@ public final class Interface extends ComparableStructure<String> {
 
   @JsonProperty(PROP_HSRP_GROUPS)
   public void setHsrpGroups(@Nonnull Map<Integer, HsrpGroup> hsrpGroups) {
-    _hsrpGroups = hsrpGroups;
+    _hsrpGroups = ImmutableSortedMap.copyOf(hsrpGroups);
   }
 
   @JsonProperty(PROP_HSRP_VERSION)
   public void setHsrpVersion(String hsrpVersion) {
-    _hsrpVersion = hsrpVersion;
+    _hsrpVersion = Interners.intern(hsrpVersion);
   }
 
   @JsonProperty(PROP_HUMAN_NAME)
   public void setHumanName(@Nullable String humanName) {
-    _humanName = humanName;
+    _humanName = Interners.intern(humanName);
   }
 
   @JsonIgnore
@@ -1775,7 +1779,7 @@ public final class Interface extends ComparableStructure<String> {
 
   @JsonProperty(PROP_ROUTING_POLICY)
   public void setPacketPolicy(String packetPolicyName) {
-    _packetPolicyName = packetPolicyName;
+    _packetPolicyName = Interners.intern(packetPolicyName);
   }
 
   @JsonProperty(PROP_SPANNING_TREE_PORTFAST)
@@ -1828,12 +1832,12 @@ public final class Interface extends ComparableStructure<String> {
 
   @JsonProperty(PROP_VRRP_GROUPS)
   public void setVrrpGroups(SortedMap<Integer, VrrpGroup> vrrpGroups) {
-    _vrrpGroups = vrrpGroups;
+    _vrrpGroups = ImmutableSortedMap.copyOf(vrrpGroups);
   }
 
   @JsonProperty(PROP_ZONE)
   public void setZoneName(String zoneName) {
-    _zoneName = zoneName;
+    _zoneName = Interners.intern(zoneName);
   }
 
   public void addVrrpGroup(Integer num, @Nonnull VrrpGroup group) {
@@ -1844,6 +1848,25 @@ public final class Interface extends ComparableStructure<String> {
             .build();
   }
 
+  private static @Nonnull SortedSet<String> internAll(Iterable<String> strings) {
+    return ImmutableSortedSet.copyOf(Iterables.transform(strings, Interners::intern));
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    // Each configuration is deserialized separately, so share the strings repeated across them.
+    _key = Interners.intern(_key);
+    _channelGroup = Interners.intern(_channelGroup);
+    _channelGroupMembers = internAll(_channelGroupMembers);
+    _cryptoMap = Interners.intern(_cryptoMap);
+    _declaredNames = internAll(_declaredNames);
+    _description = Interners.intern(_description);
+    _hsrpVersion = Interners.intern(_hsrpVersion);
+    _humanName = Interners.intern(_humanName);
+    _packetPolicyName = Interners.intern(_packetPolicyName);
+    _zoneName = Interners.intern(_zoneName);
+  }
+
   /** Blacklist this interface, making it inactive and blacklisted */
   public void blacklist() {
     setActive(false);
@@ -4,23 +4,20 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.batfish.common.util.intern.Interners;
+import org.batfish.common.util.intern.LongKeyedInterner;
 
 /** An IPv4 address */
 public class Ip implements Comparable<Ip>, Serializable {
 
-  // Soft values: let it be garbage collected in times of pressure.
-  // Maximum size 2^20: Just some upper bound on cache size, well less than GiB.
-  //   (8 bytes seems smallest possible entry (long), would be 8 MiB total).
-  private static final LoadingCache<Ip, Ip> CACHE =
-      CacheBuilder.newBuilder().softValues().maximumSize(1 << 20).build(CacheLoader.from(x -> x));
+  // Weak values: let it be garbage collected when no longer in use.
+  private static final LongKeyedInterner<Ip> INTERNER =
+      Interners.newLongKeyedInterner(Ip.class.getSimpleName(), Ip::asLong);
 
   public static final Ip AUTO = create(-1L);
 
@@ -132,8 +129,7 @@ public class Ip implements Comparable<Ip>, Serializable {
 
   public static Ip create(long ipAsLong) {
     checkArgument(ipAsLong <= 0xFFFFFFFFL, "Invalid IP value: %s", ipAsLong);
-    Ip ip = new Ip(ipAsLong);
-    return CACHE.getUnchecked(ip);
+    return INTERNER.intern(ipAsLong, Ip::new);
   }
 
   public long asLong() {
@@ -257,6 +253,6 @@ public class Ip implements Comparable<Ip>, Serializable {
 
   /** Cache after deserialization. */
   private Object readResolve() throws ObjectStreamException {
-    return CACHE.getUnchecked(this);
+    return INTERNER.intern(_ip, ip -> this);
   }
 }
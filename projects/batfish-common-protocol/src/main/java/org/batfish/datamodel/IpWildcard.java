@@ -5,24 +5,21 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.Comparator;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.util.intern.Interners;
+import org.batfish.common.util.intern.LongKeyedInterner;
 
 /** An IP wildcard consisting of a IP address and a wildcard (also expressed as an IP address) */
 @ParametersAreNonnullByDefault
 public final class IpWildcard implements Serializable, Comparable<IpWildcard> {
-  // Soft values: let it be garbage collected in times of pressure.
-  // Maximum size 2^20: Just some upper bound on cache size, well less than GiB.
-  //   (16 bytes seems smallest possible entry (long), would be 16 MiB total).
-  private static final LoadingCache<IpWildcard, IpWildcard> CACHE =
-      CacheBuilder.newBuilder().softValues().maximumSize(1 << 20).build(CacheLoader.from(x -> x));
+  // Weak values: let it be garbage collected when no longer in use.
+  private static final LongKeyedInterner<IpWildcard> INTERNER =
+      Interners.newLongKeyedInterner(IpWildcard.class.getSimpleName(), IpWildcard::internKey);
 
   @Nonnull private final Ip _ip;
   // Set bits are "don't care" bits
@@ -66,8 +63,21 @@ public final class IpWildcard implements Serializable, Comparable<IpWildcard> {
    * <p>Bits that are set in the {@code wildcardMask} are "don't care" bits.
    */
   public static IpWildcard ipWithWildcardMask(Ip address, long wildcardMask) {
-    IpWildcard wildcard = new IpWildcard(address, wildcardMask);
-    return CACHE.getUnchecked(wildcard);
+    checkArgument(address.valid(), "Invalid IP address %s", address);
+    checkArgument(
+        (wildcardMask & ALL_BITS_MASKED) == wildcardMask, "Invalid mask %s", wildcardMask);
+    long canonicalIp = address.asLong() & (ALL_BITS_MASKED ^ wildcardMask);
+    return INTERNER.intern(
+        internKey(canonicalIp, wildcardMask), key -> new IpWildcard(address, wildcardMask));
+  }
+
+  /** Packs a canonical address and a wildcard mask, each 32 bits, into a key for interning. */
+  private static long internKey(long canonicalIp, long wildcardMask) {
+    return (canonicalIp << Integer.SIZE) | wildcardMask;
+  }
+
+  private static long internKey(IpWildcard wildcard) {
+    return internKey(wildcard._ip.asLong(), wildcard._wildcardMask);
   }
 
   /**
@@ -214,10 +224,6 @@ public final class IpWildcard implements Serializable, Comparable<IpWildcard> {
   }
 
   private IpWildcard(Ip address, long wildcardMask) {
-    checkArgument(address.valid(), "Invalid IP address %s", address);
-    checkArgument(
-        (wildcardMask & ALL_BITS_MASKED) == wildcardMask, "Invalid mask %s", wildcardMask);
-
     long inputIp = address.asLong();
     long canonicalIp = inputIp & (ALL_BITS_MASKED ^ wildcardMask);
     _ip = (canonicalIp == inputIp) ? address : Ip.create(canonicalIp);
@@ -226,6 +232,6 @@ public final class IpWildcard implements Serializable, Comparable<IpWildcard> {
 
   /** Cache after deserialization. */
   private Object readResolve() throws ObjectStreamException {
-    return CACHE.getUnchecked(this);
+    return INTERNER.intern(internKey(this), key -> this);
   }
 }
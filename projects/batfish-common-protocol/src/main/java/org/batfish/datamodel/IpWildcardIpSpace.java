@@ -3,28 +3,22 @@ package org.batfish.datamodel;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.MoreObjects;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.io.ObjectStreamException;
+import org.batfish.common.util.intern.Interners;
+import org.batfish.common.util.intern.WeakInterner;
 import org.batfish.datamodel.visitors.GenericIpSpaceVisitor;
 
 public class IpWildcardIpSpace extends IpSpace {
-  // Soft values: let it be garbage collected in times of pressure.
-  // Maximum size 2^20: Just some upper bound on cache size, well less than GiB.
-  //   (12 bytes seems smallest possible entry (long + int), would be 12 MiB total).
-  private static final LoadingCache<IpWildcard, IpWildcardIpSpace> CACHE =
-      CacheBuilder.newBuilder()
-          .softValues()
-          .maximumSize(1 << 20)
-          .build(CacheLoader.from(IpWildcardIpSpace::new));
+  // Weak values: let it be garbage collected when no longer in use.
+  private static final WeakInterner<IpWildcard, IpWildcardIpSpace> INTERNER =
+      Interners.newWeakInterner(IpWildcardIpSpace.class.getSimpleName());
   private static final String PROP_IP_WILDCARD = "ipWildcard";
 
   private final IpWildcard _ipWildcard;
 
   @JsonCreator
   static IpWildcardIpSpace create(@JsonProperty(PROP_IP_WILDCARD) IpWildcard ipWildcard) {
-    return CACHE.getUnchecked(ipWildcard);
+    return INTERNER.intern(ipWildcard, IpWildcardIpSpace::new);
   }
 
   private IpWildcardIpSpace(IpWildcard ipWildcard) {
@@ -63,6 +57,6 @@ public class IpWildcardIpSpace extends IpSpace {
 
   /** Cache after deserialization. */
   private Object readResolve() throws ObjectStreamException {
-    return CACHE.getUnchecked(_ipWildcard);
+    return INTERNER.intern(_ipWildcard, key -> this);
   }
 }
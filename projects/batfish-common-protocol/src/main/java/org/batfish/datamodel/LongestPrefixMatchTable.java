@@ -0,0 +1,164 @@
+package org.batfish.datamodel;
+
+import static com.google.common.collect.Maps.immutableEntry;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A frozen longest-prefix-match lookup structure over the non-empty entries of a {@link
+ * CompactPrefixTrieMultiMap}.
+ *
+ * <p>The IP address space is flattened into disjoint ranges, each labeled with the elements of the
+ * longest prefix that matches every IP in it. A lookup is a binary search over a primitive array of
+ * range starts, rather than a walk down trie nodes, and batched lookups of many IPs sort them once
+ * and sweep the ranges in order.
+ *
+ * <p>Unlike a multibit (e.g., DIR-24-8) table, the size is linear in the number of prefixes: there
+ * are at most {@code 2n + 1} ranges for {@code n} prefixes.
+ */
+@ParametersAreNonnullByDefault
+public final class LongestPrefixMatchTable<T> {
+
+  /** Number of IPs in the address space. */
+  private static final long NUM_IPS = 1L << Prefix.MAX_PREFIX_LENGTH;
+
+  /** Creates a table for longest-prefix matches in {@code trie}. */
+  public static @Nonnull <T> LongestPrefixMatchTable<T> create(CompactPrefixTrieMultiMap<T> trie) {
+    List<Entry<Prefix, Set<T>>> entries = new ArrayList<>();
+    trie.traverseEntries(
+        (prefix, elements) -> {
+          if (!elements.isEmpty()) {
+            entries.add(immutableEntry(prefix, elements));
+          }
+        });
+    // shorter prefixes before the longer prefixes they contain
+    entries.sort(Comparator.comparing(Entry::getKey));
+    return new Builder<T>().build(entries);
+  }
+
+  /** Sweeps sorted prefixes, keeping a stack of those containing the current position. */
+  private static final class Builder<T> {
+    LongestPrefixMatchTable<T> build(List<Entry<Prefix, Set<T>>> entries) {
+      for (Entry<Prefix, Set<T>> entry : entries) {
+        Prefix prefix = entry.getKey();
+        long start = prefix.getStartIp().asLong();
+        popEndingBefore(start);
+        if (_position < start) {
+          emit(start, currentElements());
+        }
+        _ends.add(prefix.getEndIp().asLong() + 1);
+        _stackElements.add(entry.getValue());
+      }
+      popEndingBefore(NUM_IPS);
+      if (_position < NUM_IPS) {
+        emit(NUM_IPS, ImmutableSet.of());
+      }
+      int size = _starts.size();
+      int[] starts = new int[size];
+      for (int i = 0; i < size; i++) {
+        starts[i] = toSortable(_starts.get(i));
+      }
+      return new LongestPrefixMatchTable<>(starts, ImmutableList.copyOf(_elements));
+    }
+
+    private Set<T> currentElements() {
+      return _stackElements.isEmpty()
+          ? ImmutableSet.of()
+          : _stackElements.get(_stackElements.size() - 1);
+    }
+
+    /** Labels {@code [_position, end)} with {@code elements}, merging with the previous range. */
+    private void emit(long end, Set<T> elements) {
+      int last = _elements.size() - 1;
+      if (last < 0 || _elements.get(last) != elements) {
+        _starts.add(_position);
+        _elements.add(elements);
+      }
+      _position = end;
+    }
+
+    /** Emits and pops the stacked prefixes that end before {@code position}. */
+    private void popEndingBefore(long position) {
+      while (!_ends.isEmpty() && _ends.get(_ends.size() - 1) <= position) {
+        long end = _ends.remove(_ends.size() - 1);
+        Set<T> elements = _stackElements.remove(_stackElements.size() - 1);
+        if (_position < end) {
+          emit(end, elements);
+        }
+      }
+    }
+
+    private final List<Long> _ends = new ArrayList<>();
+    private final List<Set<T>> _stackElements = new ArrayList<>();
+    private final List<Long> _starts = new ArrayList<>();
+    private final List<Set<T>> _elements = new ArrayList<>();
+    private long _position;
+  }
+
+  private LongestPrefixMatchTable(int[] starts, List<Set<T>> elements) {
+    _starts = starts;
+    _elements = elements;
+  }
+
+  /** Returns the elements of the longest prefix matching {@code ip}, or an empty set if none. */
+  public @Nonnull Set<T> get(Ip ip) {
+    return _elements.get(rangeOf(toSortable(ip.asLong()), 0));
+  }
+
+  /**
+   * Returns the elements of the longest prefix matching each of {@code ips}, in the same order.
+   * Equivalent to calling {@link #get(Ip)} on each IP, but sweeps the ranges once in IP order.
+   */
+  public @Nonnull List<Set<T>> get(List<Ip> ips) {
+    int size = ips.size();
+    // sort (IP, index) pairs by IP, packed so that primitive sorting suffices
+    long[] keys = new long[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = ((long) toSortable(ips.get(i).asLong()) << Integer.SIZE) | i;
+    }
+    Arrays.sort(keys);
+    List<Set<T>> results = new ArrayList<>(Collections.nCopies(size, ImmutableSet.of()));
+    int range = 0;
+    for (long key : keys) {
+      range = rangeOf((int) (key >> Integer.SIZE), range);
+      results.set((int) key, _elements.get(range));
+    }
+    return ImmutableList.copyOf(results);
+  }
+
+  /** Returns the number of ranges of the address space with distinct longest matches. */
+  public int size() {
+    return _starts.length;
+  }
+
+  /**
+   * Returns the index of the range containing the sortable IP {@code ip}, which must be at or after
+   * range {@code from}.
+   */
+  private int rangeOf(int ip, int from) {
+    int index = Arrays.binarySearch(_starts, from, _starts.length, ip);
+    // otherwise, index is -(insertion point) - 1, and the range starts just before that point
+    return index >= 0 ? index : -index - 2;
+  }
+
+  /** Maps an unsigned 32-bit IP to an int whose signed order is the IP's unsigned order. */
+  private static int toSortable(long ip) {
+    return (int) ip ^ Integer.MIN_VALUE;
+  }
+
+  /** Sortable starts of the ranges, ascending. The first range starts at {@code 0.0.0.0}. */
+  private final int[] _starts;
+
+  /** Elements of the longest prefix matching each range. */
+  private final List<Set<T>> _elements;
+}
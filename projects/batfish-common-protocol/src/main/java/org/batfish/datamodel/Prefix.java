@@ -4,25 +4,22 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.util.intern.Interners;
+import org.batfish.common.util.intern.LongKeyedInterner;
 
 /** An IPv4 Prefix */
 @ParametersAreNonnullByDefault
 public final class Prefix implements Comparable<Prefix>, Serializable {
 
-  // Soft values: let it be garbage collected in times of pressure.
-  // Maximum size 2^20: Just some upper bound on cache size, well less than GiB.
-  //   (12 bytes seems smallest possible entry (long + int), would be 12 MiB total).
-  private static final LoadingCache<Prefix, Prefix> CACHE =
-      CacheBuilder.newBuilder().softValues().maximumSize(1 << 20).build(CacheLoader.from(x -> x));
+  // Weak values: let it be garbage collected when no longer in use.
+  private static final LongKeyedInterner<Prefix> INTERNER =
+      Interners.newLongKeyedInterner(Prefix.class.getSimpleName(), Prefix::internKey);
 
   /** Maximum prefix length (number of bits) for a IPv4 address, which is 32 */
   public static final int MAX_PREFIX_LENGTH = 32;
@@ -97,10 +94,6 @@ public final class Prefix implements Comparable<Prefix>, Serializable {
   private final int _prefixLength;
 
   private Prefix(Ip ip, int prefixLength) {
-    checkArgument(
-        prefixLength >= 0 && prefixLength <= MAX_PREFIX_LENGTH,
-        "Invalid prefix length %s",
-        prefixLength);
     if (ip.valid()) {
       // TODO: stop using Ip as a holder for invalid values.
       _ip = ip.getNetworkAddress(prefixLength);
@@ -111,8 +104,25 @@ public final class Prefix implements Comparable<Prefix>, Serializable {
   }
 
   public static Prefix create(Ip ip, int prefixLength) {
-    Prefix p = new Prefix(ip, prefixLength);
-    return CACHE.getUnchecked(p);
+    checkArgument(
+        prefixLength >= 0 && prefixLength <= MAX_PREFIX_LENGTH,
+        "Invalid prefix length %s",
+        prefixLength);
+    long ipAsLong = ip.asLong();
+    long networkAsLong =
+        ip.valid() ? ipAsLong & ~wildcardMaskForPrefixLength(prefixLength) : ipAsLong;
+    return INTERNER.intern(
+        internKey(networkAsLong, prefixLength), key -> new Prefix(ip, prefixLength));
+  }
+
+  /** Packs a network address and prefix length into a unique key for interning. */
+  private static long internKey(long networkAsLong, int prefixLength) {
+    // prefix length needs 6 bits; shifting left is injective for all Ip values including AUTO
+    return (networkAsLong << 6) | prefixLength;
+  }
+
+  private static long internKey(Prefix prefix) {
+    return internKey(prefix._ip.asLong(), prefix._prefixLength);
   }
 
   public static Prefix create(Ip address, Ip mask) {
@@ -253,6 +263,6 @@ public final class Prefix implements Comparable<Prefix>, Serializable {
 
   /** Cache after deserialization. */
   private Object readResolve() throws ObjectStreamException {
-    return CACHE.getUnchecked(this);
+    return INTERNER.intern(internKey(this), key -> this);
   }
 }
@@ -3,23 +3,17 @@ package org.batfish.datamodel;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.MoreObjects;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.io.ObjectStreamException;
 import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.util.intern.Interners;
+import org.batfish.common.util.intern.WeakInterner;
 import org.batfish.datamodel.visitors.GenericIpSpaceVisitor;
 
 @ParametersAreNonnullByDefault
 public final class PrefixIpSpace extends IpSpace {
-  // Soft values: let it be garbage collected in times of pressure.
-  // Maximum size 2^20: Just some upper bound on cache size, well less than GiB.
-  //   (12 bytes seems smallest possible entry (long + int), would be 12 MiB total).
-  private static final LoadingCache<Prefix, PrefixIpSpace> CACHE =
-      CacheBuilder.newBuilder()
-          .softValues()
-          .maximumSize(1 << 20)
-          .build(CacheLoader.from(PrefixIpSpace::new));
+  // Weak values: let it be garbage collected when no longer in use.
+  private static final WeakInterner<Prefix, PrefixIpSpace> INTERNER =
+      Interners.newWeakInterner(PrefixIpSpace.class.getSimpleName());
 
   private static final String PROP_PREFIX = "prefix";
 
@@ -27,7 +21,7 @@ public final class PrefixIpSpace extends IpSpace {
 
   @JsonCreator
   static PrefixIpSpace create(@JsonProperty(PROP_PREFIX) Prefix prefix) {
-    return CACHE.getUnchecked(prefix);
+    return INTERNER.intern(prefix, PrefixIpSpace::new);
   }
 
   private PrefixIpSpace(Prefix prefix) {
@@ -66,6 +60,6 @@ public final class PrefixIpSpace extends IpSpace {
 
   /** Cache after deserialization. */
   private Object readResolve() throws ObjectStreamException {
-    return CACHE.getUnchecked(_prefix);
+    return INTERNER.intern(_prefix, key -> this);
   }
 }
@@ -9,8 +9,12 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.graph.Traverser;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -285,6 +289,98 @@ public final class PrefixTrieMultiMap<T> implements Serializable {
     _root = null;
   }
 
+  private PrefixTrieMultiMap(@Nullable Node<T> root) {
+    _root = root;
+  }
+
+  /**
+   * Creates a trie containing the given entries in one pass, without the intermediate nodes and
+   * element set copies of repeated calls to {@link #putAll(Prefix, Collection)}. The result is
+   * equal to the trie built by those calls. Keys with no elements still get a node, as with {@link
+   * #PrefixTrieMultiMap(Prefix)}.
+   */
+  public static @Nonnull <T> PrefixTrieMultiMap<T> create(
+      Map<Prefix, ? extends Collection<T>> entries) {
+    if (entries.isEmpty()) {
+      return new PrefixTrieMultiMap<>();
+    }
+    Prefix[] prefixes = entries.keySet().toArray(new Prefix[0]);
+    // sorted input (e.g., from a SortedMap) is detected and not re-sorted
+    Arrays.sort(prefixes);
+    return new PrefixTrieMultiMap<>(buildNode(prefixes, 0, prefixes.length, entries));
+  }
+
+  /**
+   * Builds the subtrie of the sorted, distinct keys {@code prefixes[start, end)}. Its root is the
+   * longest common prefix of the first and last keys, which contains all keys in between.
+   */
+  private static @Nonnull <T> Node<T> buildNode(
+      Prefix[] prefixes, int start, int end, Map<Prefix, ? extends Collection<T>> entries) {
+    Prefix first = prefixes[start];
+    Prefix prefix = end - start == 1 ? first : longestCommonPrefix(first, prefixes[end - 1]);
+    Node<T> node;
+    int childrenStart;
+    if (prefix.equals(first)) {
+      node = new Node<>(prefix, entries.get(first));
+      childrenStart = start + 1;
+    } else {
+      node = new Node<>(prefix);
+      childrenStart = start;
+    }
+    if (childrenStart == end) {
+      return node;
+    }
+    // keys with a 0 at the branching bit sort before those with a 1
+    int length = prefix.getPrefixLength();
+    int low = childrenStart;
+    int high = end;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (Ip.getBitAtPosition(prefixes[mid].getStartIp(), length)) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    if (childrenStart < low) {
+      node.setLeft(buildNode(prefixes, childrenStart, low, entries));
+    }
+    if (low < end) {
+      node.setRight(buildNode(prefixes, low, end, entries));
+    }
+    return node;
+  }
+
+  /**
+   * Returns an immutable copy of this trie in a compact, read-optimized representation, for tries
+   * that are no longer modified.
+   */
+  public @Nonnull CompactPrefixTrieMultiMap<T> compact() {
+    List<Node<T>> nodes = new ArrayList<>();
+    if (_root != null) {
+      Traverser.<Node<T>>forTree(Node::getChildren).depthFirstPreOrder(_root).forEach(nodes::add);
+    }
+    int size = nodes.size();
+    Map<Node<T>, Integer> indices = new IdentityHashMap<>(size);
+    for (int i = 0; i < size; i++) {
+      indices.put(nodes.get(i), i);
+    }
+    int[] starts = new int[size];
+    byte[] lengths = new byte[size];
+    int[] left = new int[size];
+    int[] right = new int[size];
+    ImmutableList.Builder<Set<T>> elements = ImmutableList.builderWithExpectedSize(size);
+    for (int i = 0; i < size; i++) {
+      Node<T> node = nodes.get(i);
+      starts[i] = (int) node._prefix.getStartIp().asLong();
+      lengths[i] = (byte) node._prefix.getPrefixLength();
+      left[i] = node._left == null ? CompactPrefixTrieMultiMap.NONE : indices.get(node._left);
+      right[i] = node._right == null ? CompactPrefixTrieMultiMap.NONE : indices.get(node._right);
+      elements.add(ImmutableSet.copyOf(node._elements));
+    }
+    return new CompactPrefixTrieMultiMap<>(starts, lengths, left, right, elements.build());
+  }
+
   /**
    * Post-order traversal over the entries. Entries will always contain non-null keys and values.
    * The traversal may not mutate the entries (the values are immutable sets).
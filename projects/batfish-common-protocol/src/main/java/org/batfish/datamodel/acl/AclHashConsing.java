@@ -0,0 +1,278 @@
+package org.batfish.datamodel.acl;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.util.intern.Interners;
+import org.batfish.common.util.intern.WeakSelfInterner;
+import org.batfish.datamodel.AclAclLine;
+import org.batfish.datamodel.AclIpSpace;
+import org.batfish.datamodel.AclIpSpaceLine;
+import org.batfish.datamodel.AclLine;
+import org.batfish.datamodel.EmptyIpSpace;
+import org.batfish.datamodel.ExprAclLine;
+import org.batfish.datamodel.HeaderSpace;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.IpIpSpace;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.datamodel.IpSpaceReference;
+import org.batfish.datamodel.IpWildcardIpSpace;
+import org.batfish.datamodel.IpWildcardSetIpSpace;
+import org.batfish.datamodel.PrefixIpSpace;
+import org.batfish.datamodel.UniverseIpSpace;
+import org.batfish.datamodel.visitors.GenericIpSpaceVisitor;
+
+/**
+ * Hash-consing of {@link AclLine ACL lines}, {@link AclLineMatchExpr match expressions}, {@link
+ * HeaderSpace header spaces}, and {@link IpSpace IP spaces}: returns canonical instances, in which
+ * structurally equal subtrees are the same object across all configurations.
+ *
+ * <p>Trees are rebuilt bottom-up, so a node is only copied if one of its children was replaced by a
+ * canonical instance. The canonical instances are weakly referenced, and their usage is reported by
+ * {@link Interners#getStats()}.
+ */
+@ParametersAreNonnullByDefault
+public final class AclHashConsing {
+
+  private static final WeakSelfInterner<AclLine> LINES =
+      Interners.newWeakSelfInterner(AclLine.class.getSimpleName());
+  private static final WeakSelfInterner<AclLineMatchExpr> EXPRS =
+      Interners.newWeakSelfInterner(AclLineMatchExpr.class.getSimpleName());
+  private static final WeakSelfInterner<HeaderSpace> HEADER_SPACES =
+      Interners.newWeakSelfInterner(HeaderSpace.class.getSimpleName());
+  private static final WeakSelfInterner<IpSpace> IP_SPACES =
+      Interners.newWeakSelfInterner(IpSpace.class.getSimpleName());
+
+  /**
+   * Returns an {@link IpAccessList} equal to {@code acl} whose lines are canonical, or {@code acl}
+   * itself if its lines already are.
+   */
+  public static @Nonnull IpAccessList hashCons(IpAccessList acl) {
+    List<AclLine> lines = hashConsAll(acl.getLines(), AclHashConsing::hashCons);
+    if (lines == acl.getLines()) {
+      return acl;
+    }
+    return IpAccessList.builder()
+        .setName(acl.getName())
+        .setLines(lines)
+        .setSourceName(acl.getSourceName())
+        .setSourceType(acl.getSourceType())
+        .build();
+  }
+
+  /** Returns the canonical {@link AclLine} equal to {@code line}. */
+  public static @Nonnull AclLine hashCons(AclLine line) {
+    return LINES.intern(LINE_VISITOR.visit(line));
+  }
+
+  /** Returns the canonical {@link AclLineMatchExpr} equal to {@code expr}. */
+  public static @Nonnull AclLineMatchExpr hashCons(AclLineMatchExpr expr) {
+    return EXPRS.intern(EXPR_VISITOR.visit(expr));
+  }
+
+  /** Returns the canonical {@link HeaderSpace} equal to {@code headerSpace}. */
+  public static @Nonnull HeaderSpace hashCons(HeaderSpace headerSpace) {
+    IpSpace dstIps = hashConsNullable(headerSpace.getDstIps());
+    IpSpace notDstIps = hashConsNullable(headerSpace.getNotDstIps());
+    IpSpace srcIps = hashConsNullable(headerSpace.getSrcIps());
+    IpSpace notSrcIps = hashConsNullable(headerSpace.getNotSrcIps());
+    IpSpace srcOrDstIps = hashConsNullable(headerSpace.getSrcOrDstIps());
+    HeaderSpace candidate = headerSpace;
+    if (dstIps != headerSpace.getDstIps()
+        || notDstIps != headerSpace.getNotDstIps()
+        || srcIps != headerSpace.getSrcIps()
+        || notSrcIps != headerSpace.getNotSrcIps()
+        || srcOrDstIps != headerSpace.getSrcOrDstIps()) {
+      candidate =
+          headerSpace.toBuilder()
+              .setDstIps(dstIps)
+              .setNotDstIps(notDstIps)
+              .setSrcIps(srcIps)
+              .setNotSrcIps(notSrcIps)
+              .setSrcOrDstIps(srcOrDstIps)
+              .build();
+    }
+    return HEADER_SPACES.intern(candidate);
+  }
+
+  /** Returns the canonical {@link IpSpace} equal to {@code ipSpace}. */
+  public static @Nonnull IpSpace hashCons(IpSpace ipSpace) {
+    return IP_SPACES_VISITOR.visit(ipSpace);
+  }
+
+  private static @Nullable IpSpace hashConsNullable(@Nullable IpSpace ipSpace) {
+    return ipSpace == null ? null : hashCons(ipSpace);
+  }
+
+  /**
+   * Returns the canonical versions of {@code elements}, or {@code elements} itself if they already
+   * are canonical.
+   */
+  private static <T> List<T> hashConsAll(List<T> elements, Function<T, T> hashCons) {
+    ImmutableList.Builder<T> canonical = ImmutableList.builderWithExpectedSize(elements.size());
+    boolean changed = false;
+    for (T element : elements) {
+      T canonicalElement = hashCons.apply(element);
+      changed |= canonicalElement != element;
+      canonical.add(canonicalElement);
+    }
+    return changed ? canonical.build() : elements;
+  }
+
+  /** Returns the line with canonical children. */
+  private static final GenericAclLineVisitor<AclLine> LINE_VISITOR =
+      new GenericAclLineVisitor<AclLine>() {
+        @Override
+        public AclLine visitAclAclLine(AclAclLine aclAclLine) {
+          return aclAclLine;
+        }
+
+        @Override
+        public AclLine visitExprAclLine(ExprAclLine exprAclLine) {
+          AclLineMatchExpr matchCondition = hashCons(exprAclLine.getMatchCondition());
+          return matchCondition == exprAclLine.getMatchCondition()
+              ? exprAclLine
+              : exprAclLine.toBuilder().setMatchCondition(matchCondition).build();
+        }
+      };
+
+  /** Returns the expression with canonical children. */
+  private static final GenericAclLineMatchExprVisitor<AclLineMatchExpr> EXPR_VISITOR =
+      new GenericAclLineMatchExprVisitor<AclLineMatchExpr>() {
+        @Override
+        public AclLineMatchExpr visitAndMatchExpr(AndMatchExpr andMatchExpr) {
+          List<AclLineMatchExpr> conjuncts =
+              hashConsAll(andMatchExpr.getConjuncts(), AclHashConsing::hashCons);
+          return conjuncts == andMatchExpr.getConjuncts()
+              ? andMatchExpr
+              : new AndMatchExpr(conjuncts, andMatchExpr.getTraceElement());
+        }
+
+        @Override
+        public AclLineMatchExpr visitDeniedByAcl(DeniedByAcl deniedByAcl) {
+          return deniedByAcl;
+        }
+
+        @Override
+        public AclLineMatchExpr visitFalseExpr(FalseExpr falseExpr) {
+          return falseExpr;
+        }
+
+        @Override
+        public AclLineMatchExpr visitMatchHeaderSpace(MatchHeaderSpace matchHeaderSpace) {
+          HeaderSpace headerSpace = hashCons(matchHeaderSpace.getHeaderspace());
+          return headerSpace == matchHeaderSpace.getHeaderspace()
+              ? matchHeaderSpace
+              : new MatchHeaderSpace(headerSpace, matchHeaderSpace.getTraceElement());
+        }
+
+        @Override
+        public AclLineMatchExpr visitMatchSrcInterface(MatchSrcInterface matchSrcInterface) {
+          return matchSrcInterface;
+        }
+
+        @Override
+        public AclLineMatchExpr visitNotMatchExpr(NotMatchExpr notMatchExpr) {
+          AclLineMatchExpr operand = hashCons(notMatchExpr.getOperand());
+          return operand == notMatchExpr.getOperand()
+              ? notMatchExpr
+              : new NotMatchExpr(operand, notMatchExpr.getTraceElement());
+        }
+
+        @Override
+        public AclLineMatchExpr visitOriginatingFromDevice(
+            OriginatingFromDevice originatingFromDevice) {
+          return originatingFromDevice;
+        }
+
+        @Override
+        public AclLineMatchExpr visitOrMatchExpr(OrMatchExpr orMatchExpr) {
+          List<AclLineMatchExpr> disjuncts =
+              hashConsAll(orMatchExpr.getDisjuncts(), AclHashConsing::hashCons);
+          return disjuncts == orMatchExpr.getDisjuncts()
+              ? orMatchExpr
+              : new OrMatchExpr(disjuncts, orMatchExpr.getTraceElement());
+        }
+
+        @Override
+        public AclLineMatchExpr visitPermittedByAcl(PermittedByAcl permittedByAcl) {
+          return permittedByAcl;
+        }
+
+        @Override
+        public AclLineMatchExpr visitTrueExpr(TrueExpr trueExpr) {
+          return trueExpr;
+        }
+      };
+
+  /**
+   * Returns the canonical IP space. The leaf IP spaces that are already interned by their own
+   * classes are returned as is.
+   */
+  private static final GenericIpSpaceVisitor<IpSpace> IP_SPACES_VISITOR =
+      new GenericIpSpaceVisitor<IpSpace>() {
+        @Override
+        public IpSpace castToGenericIpSpaceVisitorReturnType(Object o) {
+          return (IpSpace) o;
+        }
+
+        @Override
+        public IpSpace visitAclIpSpace(AclIpSpace aclIpSpace) {
+          List<AclIpSpaceLine> lines =
+              hashConsAll(
+                  aclIpSpace.getLines(),
+                  line -> {
+                    IpSpace ipSpace = hashCons(line.getIpSpace());
+                    return ipSpace == line.getIpSpace()
+                        ? line
+                        : AclIpSpaceLine.builder()
+                            .setAction(line.getAction())
+                            .setIpSpace(ipSpace)
+                            .setSrcText(line.getSrcText())
+                            .build();
+                  });
+          return IP_SPACES.intern(
+              lines == aclIpSpace.getLines() ? aclIpSpace : AclIpSpace.of(lines));
+        }
+
+        @Override
+        public IpSpace visitEmptyIpSpace(EmptyIpSpace emptyIpSpace) {
+          return emptyIpSpace;
+        }
+
+        @Override
+        public IpSpace visitIpIpSpace(IpIpSpace ipIpSpace) {
+          return ipIpSpace;
+        }
+
+        @Override
+        public IpSpace visitIpSpaceReference(IpSpaceReference ipSpaceReference) {
+          return IP_SPACES.intern(ipSpaceReference);
+        }
+
+        @Override
+        public IpSpace visitIpWildcardIpSpace(IpWildcardIpSpace ipWildcardIpSpace) {
+          return ipWildcardIpSpace;
+        }
+
+        @Override
+        public IpSpace visitIpWildcardSetIpSpace(IpWildcardSetIpSpace ipWildcardSetIpSpace) {
+          return IP_SPACES.intern(ipWildcardSetIpSpace);
+        }
+
+        @Override
+        public IpSpace visitPrefixIpSpace(PrefixIpSpace prefixIpSpace) {
+          return prefixIpSpace;
+        }
+
+        @Override
+        public IpSpace visitUniverseIpSpace(UniverseIpSpace universeIpSpace) {
+          return universeIpSpace;
+        }
+      };
+
+  private AclHashConsing() {}
+}
@@ -0,0 +1,617 @@
+package org.batfish.datamodel.acl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.BoundType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.AclAclLine;
+import org.batfish.datamodel.AclIpSpace;
+import org.batfish.datamodel.AclIpSpaceLine;
+import org.batfish.datamodel.AclLine;
+import org.batfish.datamodel.EmptyIpSpace;
+import org.batfish.datamodel.ExprAclLine;
+import org.batfish.datamodel.FilterResult;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.HeaderSpace;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.IpIpSpace;
+import org.batfish.datamodel.IpProtocol;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.datamodel.IpSpaceReference;
+import org.batfish.datamodel.IpWildcard;
+import org.batfish.datamodel.IpWildcardIpSpace;
+import org.batfish.datamodel.IpWildcardSetIpSpace;
+import org.batfish.datamodel.LineAction;
+import org.batfish.datamodel.PrefixIpSpace;
+import org.batfish.datamodel.SubRange;
+import org.batfish.datamodel.UniverseIpSpace;
+import org.batfish.datamodel.visitors.GenericIpSpaceVisitor;
+
+/**
+ * An {@link IpAccessList} compiled for fast first-match evaluation of concrete {@link Flow flows}.
+ *
+ * <p>Each line is summarized by an over-approximation of the source IPs, destination IPs, IP
+ * protocols, source ports and destination ports it can match. For each of those fields, the domain
+ * is split into elementary intervals and each interval is mapped to the sorted indices of the lines
+ * whose summary overlaps it. Filtering a flow looks up one interval per field and intersects the
+ * resulting line lists in line order, so only lines that may match the flow are evaluated exactly.
+ *
+ * <p>Use {@link CompiledIpAccessLists} to compile and cache all the ACLs of a {@link
+ * org.batfish.datamodel.Configuration}, which is also needed to evaluate lines that refer to other
+ * ACLs.
+ */
+@ParametersAreNonnullByDefault
+public final class CompiledIpAccessList {
+
+  /**
+   * Compiles the given {@link IpAccessList}. {@code namedIpSpaces} is used to summarize lines that
+   * reference named {@link IpSpace IpSpaces}.
+   */
+  public static @Nonnull CompiledIpAccessList compile(
+      IpAccessList acl, Map<String, IpSpace> namedIpSpaces) {
+    List<AclLine> lines = acl.getLines();
+    ImmutableList.Builder<FieldIndex> indices = ImmutableList.builder();
+    for (Field field : Field.values()) {
+      LineSummarizer summarizer = new LineSummarizer(field, namedIpSpaces);
+      List<RangeSet<Long>> summaries = new ArrayList<>(lines.size());
+      for (AclLine line : lines) {
+        summaries.add(summarizer.summarize(line));
+      }
+      FieldIndex index = FieldIndex.build(field, summaries);
+      if (index != null) {
+        indices.add(index);
+      }
+    }
+    return new CompiledIpAccessList(acl, indices.build());
+  }
+
+  /** Returns the {@link IpAccessList} this was compiled from. */
+  public @Nonnull IpAccessList getAcl() {
+    return _acl;
+  }
+
+  /** Returns the fields that are used to narrow down the candidate lines for each flow. */
+  @VisibleForTesting
+  @Nonnull
+  List<Field> getIndexedFields() {
+    return _indices.stream().map(FieldIndex::getField).collect(ImmutableList.toImmutableList());
+  }
+
+  /**
+   * Filters the given {@link Flow}, returning the same {@link FilterResult} as {@link
+   * IpAccessList#filter(Flow, String, Map, Map)} would on the original ACL.
+   */
+  public @Nonnull FilterResult filter(
+      Flow flow, @Nullable String srcInterface, CompiledIpAccessLists context) {
+    return filter(new CompiledAclLineEvaluator(flow, srcInterface, context));
+  }
+
+  private @Nonnull FilterResult filter(CompiledAclLineEvaluator evaluator) {
+    List<AclLine> lines = _acl.getLines();
+    List<LineCursor> cursors = new ArrayList<>(_indices.size());
+    for (FieldIndex index : _indices) {
+      LineCursor cursor = index.lookup(evaluator._flow);
+      if (cursor != null) {
+        cursors.add(cursor);
+      }
+    }
+    int candidate = 0;
+    while (candidate < lines.size()) {
+      candidate = nextCommonLine(cursors, candidate);
+      if (candidate == NO_LINE) {
+        break;
+      }
+      LineAction action = evaluator.visit(lines.get(candidate));
+      if (action != null) {
+        return new FilterResult(candidate, action);
+      }
+      candidate++;
+    }
+    return new FilterResult(null, LineAction.DENY);
+  }
+
+  /**
+   * Returns the smallest line index that is at least {@code from} and present in every cursor, or
+   * {@link #NO_LINE} if there is none.
+   */
+  private static int nextCommonLine(List<LineCursor> cursors, int from) {
+    int target = from;
+    int agreeing = 0;
+    int i = 0;
+    while (agreeing < cursors.size()) {
+      int next = cursors.get(i).seek(target);
+      if (next == NO_LINE) {
+        return NO_LINE;
+      }
+      if (next == target) {
+        agreeing++;
+      } else {
+        target = next;
+        agreeing = 1;
+      }
+      i = (i + 1) % cursors.size();
+    }
+    return target;
+  }
+
+  private static final int NO_LINE = -1;
+
+  /**
+   * Upper bound on the average number of intervals each line may be indexed in for a single field.
+   * Fields whose index would exceed it (e.g. many nested prefixes) are not indexed, since
+   * intersecting their line lists would not pay for their memory.
+   */
+  private static final int MAX_POSTINGS_PER_LINE = 64;
+
+  private final @Nonnull IpAccessList _acl;
+  private final @Nonnull List<FieldIndex> _indices;
+
+  private CompiledIpAccessList(IpAccessList acl, List<FieldIndex> indices) {
+    _acl = acl;
+    _indices = indices;
+  }
+
+  /** Packet header fields used to index lines. */
+  @VisibleForTesting
+  enum Field {
+    SRC_IP(Ip.MAX.asLong(), flow -> flow.getSrcIp().asLong()),
+    DST_IP(Ip.MAX.asLong(), flow -> flow.getDstIp().asLong()),
+    IP_PROTOCOL(
+        255L, flow -> flow.getIpProtocol() == null ? null : (long) flow.getIpProtocol().number()),
+    SRC_PORT(65535L, flow -> flow.getSrcPort() == null ? null : flow.getSrcPort().longValue()),
+    DST_PORT(65535L, flow -> flow.getDstPort() == null ? null : flow.getDstPort().longValue());
+
+    private final @Nonnull Range<Long> _domain;
+    private final @Nonnull Function<Flow, Long> _getter;
+
+    Field(long max, Function<Flow, Long> getter) {
+      _domain = Range.closed(0L, max);
+      _getter = getter;
+    }
+
+    @Nullable
+    Long getValue(Flow flow) {
+      return _getter.apply(flow);
+    }
+  }
+
+  /** Maps the intervals of one {@link Field} to the lines that may match values in them. */
+  private static final class FieldIndex {
+
+    /**
+     * Builds the index for {@code field} given per-line summaries (where a summary enclosing the
+     * whole domain means the line does not constrain the field). Returns {@code null} if the field
+     * is not worth indexing.
+     */
+    static @Nullable FieldIndex build(Field field, List<RangeSet<Long>> summaries) {
+      SortedSet<Long> boundaries = new TreeSet<>();
+      boundaries.add(field._domain.lowerEndpoint());
+      List<Integer> unconstrained = new ArrayList<>();
+      for (int line = 0; line < summaries.size(); line++) {
+        RangeSet<Long> summary = summaries.get(line);
+        if (summary.encloses(field._domain)) {
+          unconstrained.add(line);
+          continue;
+        }
+        for (Range<Long> range : summary.asRanges()) {
+          long lowest = lowestIncluded(range);
+          long highest = highestIncluded(range);
+          if (lowest > highest) {
+            continue;
+          }
+          boundaries.add(lowest);
+          if (highest < field._domain.upperEndpoint()) {
+            boundaries.add(highest + 1);
+          }
+        }
+      }
+      if (unconstrained.size() == summaries.size()) {
+        return null;
+      }
+      long[] starts = boundaries.stream().mapToLong(Long::longValue).toArray();
+      List<List<Integer>> linesByInterval = new ArrayList<>(starts.length);
+      for (int i = 0; i < starts.length; i++) {
+        linesByInterval.add(new ArrayList<>());
+      }
+      long postings = 0;
+      long maxPostings = (long) MAX_POSTINGS_PER_LINE * summaries.size();
+      for (int line = 0; line < summaries.size(); line++) {
+        RangeSet<Long> summary = summaries.get(line);
+        if (summary.encloses(field._domain)) {
+          continue;
+        }
+        for (Range<Long> range : summary.asRanges()) {
+          long lowest = lowestIncluded(range);
+          long highest = highestIncluded(range);
+          if (lowest > highest) {
+            continue;
+          }
+          int first = intervalOf(starts, lowest);
+          int last = intervalOf(starts, highest);
+          postings += last - first + 1;
+          if (postings > maxPostings) {
+            return null;
+          }
+          for (int i = first; i <= last; i++) {
+            linesByInterval.get(i).add(line);
+          }
+        }
+      }
+      // Adjacent intervals frequently have identical lines, so share their arrays.
+      Map<List<Integer>, int[]> distinctLines = new HashMap<>();
+      int[][] lines = new int[starts.length][];
+      for (int i = 0; i < starts.length; i++) {
+        lines[i] = distinctLines.computeIfAbsent(linesByInterval.get(i), FieldIndex::toIntArray);
+      }
+      return new FieldIndex(field, starts, lines, toIntArray(unconstrained));
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+      return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** Returns the index of the interval containing {@code value}. */
+    private static int intervalOf(long[] starts, long value) {
+      int pos = Arrays.binarySearch(starts, value);
+      return pos >= 0 ? pos : -pos - 2;
+    }
+
+    private final @Nonnull Field _field;
+    private final @Nonnull long[] _starts;
+    private final @Nonnull int[][] _lines;
+    private final @Nonnull int[] _unconstrained;
+
+    private FieldIndex(Field field, long[] starts, int[][] lines, int[] unconstrained) {
+      _field = field;
+      _starts = starts;
+      _lines = lines;
+      _unconstrained = unconstrained;
+    }
+
+    @Nonnull
+    Field getField() {
+      return _field;
+    }
+
+    /**
+     * Returns a cursor over the lines that may match the given flow, or {@code null} if the flow
+     * has no value for this field (in which case any line may match).
+     */
+    @Nullable
+    LineCursor lookup(Flow flow) {
+      Long value = _field.getValue(flow);
+      if (value == null || !_field._domain.contains(value)) {
+        return null;
+      }
+      return new LineCursor(_lines[intervalOf(_starts, value)], _unconstrained);
+    }
+  }
+
+  /** Iterates in increasing order over the union of two sorted arrays of line indices. */
+  private static final class LineCursor {
+    private final @Nonnull int[] _a;
+    private final @Nonnull int[] _b;
+    private int _aPos;
+    private int _bPos;
+
+    LineCursor(int[] a, int[] b) {
+      _a = a;
+      _b = b;
+    }
+
+    /**
+     * Returns the smallest line index that is at least {@code target}, or {@link #NO_LINE}. Targets
+     * must be non-decreasing across calls.
+     */
+    int seek(int target) {
+      _aPos = ceilingPosition(_a, _aPos, target);
+      _bPos = ceilingPosition(_b, _bPos, target);
+      int a = _aPos < _a.length ? _a[_aPos] : Integer.MAX_VALUE;
+      int b = _bPos < _b.length ? _b[_bPos] : Integer.MAX_VALUE;
+      int next = Math.min(a, b);
+      return next == Integer.MAX_VALUE ? NO_LINE : next;
+    }
+
+    private static int ceilingPosition(int[] array, int from, int target) {
+      if (from >= array.length || array[from] >= target) {
+        return from;
+      }
+      int pos = Arrays.binarySearch(array, from, array.length, target);
+      return pos >= 0 ? pos : -pos - 1;
+    }
+  }
+
+  private static long lowestIncluded(Range<Long> range) {
+    return range.lowerEndpoint() + (range.lowerBoundType() == BoundType.OPEN ? 1 : 0);
+  }
+
+  private static long highestIncluded(Range<Long> range) {
+    return range.upperEndpoint() - (range.upperBoundType() == BoundType.OPEN ? 1 : 0);
+  }
+
+  /**
+   * Computes, for a single {@link Field}, an over-approximation of the values of that field for
+   * which a line may match.
+   */
+  private static final class LineSummarizer
+      implements GenericAclLineVisitor<RangeSet<Long>>,
+          GenericAclLineMatchExprVisitor<RangeSet<Long>> {
+
+    private final @Nonnull Field _field;
+    private final @Nonnull RangeSet<Long> _all;
+    private final @Nonnull Map<String, IpSpace> _namedIpSpaces;
+
+    LineSummarizer(Field field, Map<String, IpSpace> namedIpSpaces) {
+      _field = field;
+      _all = ImmutableRangeSet.of(field._domain);
+      _namedIpSpaces = namedIpSpaces;
+    }
+
+    @Nonnull
+    RangeSet<Long> summarize(AclLine line) {
+      return line.accept(this);
+    }
+
+    @Override
+    public RangeSet<Long> visitAclAclLine(AclAclLine aclAclLine) {
+      return _all;
+    }
+
+    @Override
+    public RangeSet<Long> visitExprAclLine(ExprAclLine exprAclLine) {
+      return exprAclLine.getMatchCondition().accept(this);
+    }
+
+    @Override
+    public RangeSet<Long> visitAndMatchExpr(AndMatchExpr andMatchExpr) {
+      RangeSet<Long> result = TreeRangeSet.create(_all);
+      for (AclLineMatchExpr conjunct : andMatchExpr.getConjuncts()) {
+        result.removeAll(conjunct.accept(this).complement());
+      }
+      return result;
+    }
+
+    @Override
+    public RangeSet<Long> visitDeniedByAcl(DeniedByAcl deniedByAcl) {
+      return _all;
+    }
+
+    @Override
+    public RangeSet<Long> visitFalseExpr(FalseExpr falseExpr) {
+      return ImmutableRangeSet.of();
+    }
+
+    @Override
+    public RangeSet<Long> visitMatchHeaderSpace(MatchHeaderSpace matchHeaderSpace) {
+      HeaderSpace headerSpace = matchHeaderSpace.getHeaderspace();
+      if (headerSpace.getNegate()) {
+        return _all;
+      }
+      switch (_field) {
+        case SRC_IP:
+          return ipSpaceRanges(headerSpace.getSrcIps());
+        case DST_IP:
+          return ipSpaceRanges(headerSpace.getDstIps());
+        case IP_PROTOCOL:
+          if (headerSpace.getIpProtocols().isEmpty()) {
+            return _all;
+          }
+          RangeSet<Long> protocols = TreeRangeSet.create();
+          for (IpProtocol protocol : headerSpace.getIpProtocols()) {
+            protocols.add(Range.singleton((long) protocol.number()));
+          }
+          return protocols;
+        case SRC_PORT:
+          return subRanges(headerSpace.getSrcPorts());
+        case DST_PORT:
+          return subRanges(headerSpace.getDstPorts());
+        default:
+          throw new IllegalStateException("Unsupported field " + _field);
+      }
+    }
+
+    private @Nonnull RangeSet<Long> ipSpaceRanges(@Nullable IpSpace ipSpace) {
+      return ipSpace == null
+          ? _all
+          : new IpSpaceRanges(_namedIpSpaces, new HashSet<>()).visit(ipSpace);
+    }
+
+    private @Nonnull RangeSet<Long> subRanges(SortedSet<SubRange> subRanges) {
+      if (subRanges.isEmpty()) {
+        return _all;
+      }
+      RangeSet<Long> ranges = TreeRangeSet.create();
+      for (SubRange subRange : subRanges) {
+        if (subRange.getStart() <= subRange.getEnd()) {
+          ranges.add(Range.closed((long) subRange.getStart(), (long) subRange.getEnd()));
+        }
+      }
+      return ranges;
+    }
+
+    @Override
+    public RangeSet<Long> visitMatchSrcInterface(MatchSrcInterface matchSrcInterface) {
+      return _all;
+    }
+
+    @Override
+    public RangeSet<Long> visitNotMatchExpr(NotMatchExpr notMatchExpr) {
+      return _all;
+    }
+
+    @Override
+    public RangeSet<Long> visitOriginatingFromDevice(OriginatingFromDevice originatingFromDevice) {
+      return _all;
+    }
+
+    @Override
+    public RangeSet<Long> visitOrMatchExpr(OrMatchExpr orMatchExpr) {
+      RangeSet<Long> result = TreeRangeSet.create();
+      for (AclLineMatchExpr disjunct : orMatchExpr.getDisjuncts()) {
+        result.addAll(disjunct.accept(this));
+        if (result.encloses(_field._domain)) {
+          return _all;
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public RangeSet<Long> visitPermittedByAcl(PermittedByAcl permittedByAcl) {
+      return _all;
+    }
+
+    @Override
+    public RangeSet<Long> visitTrueExpr(TrueExpr trueExpr) {
+      return _all;
+    }
+  }
+
+  /** Computes an over-approximation of an {@link IpSpace} as ranges of {@link Ip#asLong()}. */
+  private static final class IpSpaceRanges implements GenericIpSpaceVisitor<RangeSet<Long>> {
+    private static final RangeSet<Long> ALL_IPS =
+        ImmutableRangeSet.of(Range.closed(0L, Ip.MAX.asLong()));
+
+    private final @Nonnull Map<String, IpSpace> _namedIpSpaces;
+    private final @Nonnull Set<String> _visitingReferences;
+
+    IpSpaceRanges(Map<String, IpSpace> namedIpSpaces, Set<String> visitingReferences) {
+      _namedIpSpaces = namedIpSpaces;
+      _visitingReferences = visitingReferences;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public RangeSet<Long> castToGenericIpSpaceVisitorReturnType(Object o) {
+      return (RangeSet<Long>) o;
+    }
+
+    @Override
+    public RangeSet<Long> visitAclIpSpace(AclIpSpace aclIpSpace) {
+      // Permitted IPs are a subset of the union of the permitting lines' spaces.
+      RangeSet<Long> result = TreeRangeSet.create();
+      for (AclIpSpaceLine line : aclIpSpace.getLines()) {
+        if (line.getAction() == LineAction.PERMIT) {
+          result.addAll(visit(line.getIpSpace()));
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public RangeSet<Long> visitEmptyIpSpace(EmptyIpSpace emptyIpSpace) {
+      return ImmutableRangeSet.of();
+    }
+
+    @Override
+    public RangeSet<Long> visitIpIpSpace(IpIpSpace ipIpSpace) {
+      return ImmutableRangeSet.of(Range.singleton(ipIpSpace.getIp().asLong()));
+    }
+
+    @Override
+    public RangeSet<Long> visitIpSpaceReference(IpSpaceReference ipSpaceReference) {
+      String name = ipSpaceReference.getName();
+      IpSpace referenced = _namedIpSpaces.get(name);
+      if (referenced == null || !_visitingReferences.add(name)) {
+        // Undefined or circular: let exact evaluation decide.
+        return ALL_IPS;
+      }
+      RangeSet<Long> result = visit(referenced);
+      _visitingReferences.remove(name);
+      return result;
+    }
+
+    @Override
+    public RangeSet<Long> visitIpWildcardIpSpace(IpWildcardIpSpace ipWildcardIpSpace) {
+      return wildcardRange(ipWildcardIpSpace.getIpWildcard());
+    }
+
+    @Override
+    public RangeSet<Long> visitIpWildcardSetIpSpace(IpWildcardSetIpSpace ipWildcardSetIpSpace) {
+      RangeSet<Long> result = TreeRangeSet.create();
+      for (IpWildcard wildcard : ipWildcardSetIpSpace.getWhitelist()) {
+        result.addAll(wildcardRange(wildcard));
+      }
+      return result;
+    }
+
+    @Override
+    public RangeSet<Long> visitPrefixIpSpace(PrefixIpSpace prefixIpSpace) {
+      return ImmutableRangeSet.of(
+          Range.closed(
+              prefixIpSpace.getPrefix().getStartIp().asLong(),
+              prefixIpSpace.getPrefix().getEndIp().asLong()));
+    }
+
+    @Override
+    public RangeSet<Long> visitUniverseIpSpace(UniverseIpSpace universeIpSpace) {
+      return ALL_IPS;
+    }
+
+    /**
+     * All IPs matched by a wildcard lie between the IP with all wildcard bits cleared and the IP
+     * with all wildcard bits set. This is exact for prefix wildcards.
+     */
+    private static RangeSet<Long> wildcardRange(IpWildcard wildcard) {
+      long low = wildcard.getIp().asLong() & wildcard.getMask();
+      long high = low | wildcard.getWildcardMask();
+      return ImmutableRangeSet.of(Range.closed(low, high));
+    }
+  }
+
+  /**
+   * Evaluates lines exactly, using compiled ACLs from a {@link CompiledIpAccessLists} for lines
+   * that refer to other ACLs.
+   */
+  private static final class CompiledAclLineEvaluator extends AclLineEvaluator {
+    private final @Nonnull CompiledIpAccessLists _context;
+
+    CompiledAclLineEvaluator(
+        Flow flow, @Nullable String srcInterface, CompiledIpAccessLists context) {
+      super(flow, srcInterface, context.getAcls(), context.getNamedIpSpaces());
+      _context = context;
+    }
+
+    private @Nonnull FilterResult filterReferenced(String aclName) {
+      CompiledIpAccessList referenced =
+          checkNotNull(
+              _context.get(aclName), "Reference to undefined IpAccessList %s", aclName);
+      return referenced.filter(this);
+    }
+
+    @Override
+    public LineAction visitAclAclLine(AclAclLine aclAclLine) {
+      FilterResult result = filterReferenced(aclAclLine.getAclName());
+      return result.getMatchLine() == null ? null : result.getAction();
+    }
+
+    @Override
+    public Boolean visitDeniedByAcl(DeniedByAcl deniedByAcl) {
+      return filterReferenced(deniedByAcl.getAclName()).getAction() == LineAction.DENY;
+    }
+
+    @Override
+    public Boolean visitPermittedByAcl(PermittedByAcl permittedByAcl) {
+      return filterReferenced(permittedByAcl.getAclName()).getAction() == LineAction.PERMIT;
+    }
+  }
+}
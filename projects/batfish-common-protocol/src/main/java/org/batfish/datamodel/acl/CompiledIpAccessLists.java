@@ -0,0 +1,76 @@
+package org.batfish.datamodel.acl;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.FilterResult;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.IpSpace;
+
+/**
+ * Lazily compiles and caches {@link CompiledIpAccessList CompiledIpAccessLists} for the ACLs of a
+ * single {@link Configuration}. Thread-safe, so one instance can be shared by all flows traced
+ * through a node.
+ */
+@ParametersAreNonnullByDefault
+public final class CompiledIpAccessLists {
+
+  public static @Nonnull CompiledIpAccessLists forConfiguration(Configuration c) {
+    return new CompiledIpAccessLists(c.getIpAccessLists(), c.getIpSpaces());
+  }
+
+  private final @Nonnull Map<String, IpAccessList> _acls;
+  private final @Nonnull LoadingCache<IpAccessList, CompiledIpAccessList> _compiled;
+  private final @Nonnull Map<String, IpSpace> _namedIpSpaces;
+
+  public CompiledIpAccessLists(Map<String, IpAccessList> acls, Map<String, IpSpace> namedIpSpaces) {
+    _acls = acls;
+    _namedIpSpaces = namedIpSpaces;
+    // weakKeys() makes the cache compare ACLs by identity, which avoids deep hashing of lines.
+    _compiled =
+        CacheBuilder.newBuilder()
+            .weakKeys()
+            .build(CacheLoader.from(acl -> CompiledIpAccessList.compile(acl, _namedIpSpaces)));
+  }
+
+  /**
+   * Returns the compiled form of the ACL with the given name, or {@code null} if there is no such
+   * ACL.
+   */
+  public @Nullable CompiledIpAccessList get(String aclName) {
+    IpAccessList acl = _acls.get(aclName);
+    return acl == null ? null : get(acl);
+  }
+
+  /**
+   * Returns the compiled form of the given ACL. References from it to other ACLs are resolved
+   * against this {@link CompiledIpAccessLists}.
+   */
+  public @Nonnull CompiledIpAccessList get(IpAccessList acl) {
+    return _compiled.getUnchecked(acl);
+  }
+
+  /**
+   * Filters the given {@link Flow} through {@code acl}. Equivalent to {@link
+   * IpAccessList#filter(Flow, String, Map, Map)} with this object's ACLs and named IP spaces.
+   */
+  public @Nonnull FilterResult filter(IpAccessList acl, Flow flow, @Nullable String srcInterface) {
+    return get(acl).filter(flow, srcInterface, this);
+  }
+
+  @Nonnull
+  Map<String, IpAccessList> getAcls() {
+    return _acls;
+  }
+
+  @Nonnull
+  Map<String, IpSpace> getNamedIpSpaces() {
+    return _namedIpSpaces;
+  }
+}
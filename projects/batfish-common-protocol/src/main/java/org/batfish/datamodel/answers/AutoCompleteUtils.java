@@ -3,9 +3,9 @@ package org.batfish.datamodel.answers;
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static org.batfish.common.util.CollectionUtil.toImmutableMap;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.CharMatcher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -19,10 +19,10 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -31,9 +31,9 @@ import javax.annotation.ParametersAreNonnullByDefault;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.similarity.LevenshteinDistance;
 import org.batfish.common.CompletionMetadata;
+import org.batfish.common.autocomplete.CompletionMetadataIndex;
 import org.batfish.common.autocomplete.IpCompletionMetadata;
 import org.batfish.common.autocomplete.IpCompletionRelevance;
-import org.batfish.common.autocomplete.LocationCompletionMetadata;
 import org.batfish.datamodel.InterfaceType;
 import org.batfish.datamodel.Ip;
 import org.batfish.datamodel.Protocol;
@@ -44,7 +44,6 @@ import org.batfish.referencelibrary.ReferenceBook;
 import org.batfish.referencelibrary.ReferenceLibrary;
 import org.batfish.role.NodeRolesData;
 import org.batfish.specifier.DispositionSpecifier;
-import org.batfish.specifier.ToSpecifierString;
 import org.batfish.specifier.parboiled.Grammar;
 import org.batfish.specifier.parboiled.ParboiledAutoComplete;
 
@@ -54,6 +53,9 @@ public final class AutoCompleteUtils {
 
   private static final int MAX_SUGGESTIONS_PER_TYPE = 5;
 
+  /** Characters of a query that make {@link #baseAutoComplete} not a plain substring match. */
+  private static final CharMatcher REGEX_METACHARACTERS = CharMatcher.anyOf("\\.[]{}()*+?^$|");
+
   @Nonnull
   public static List<AutocompleteSuggestion> autoComplete(
       Variable.Type completionType, String query, int maxSuggestions) {
@@ -100,19 +102,21 @@ public final class AutoCompleteUtils {
       @Nullable String network,
       @Nullable String snapshot,
       Variable.Type completionType,
-      String query,
+      @Nullable String query,
       int maxSuggestions,
       @Nullable CompletionMetadata completionMetadata,
       @Nullable NodeRolesData nodeRolesData,
       @Nullable ReferenceLibrary referenceLibrary,
       boolean fuzzyMatching) {
+    // a missing query matches everything, as the empty query does
+    String nonNullQuery = firstNonNull(query, "");
 
     List<AutocompleteSuggestion> suggestions =
         getPotentialMatches(
             network,
             snapshot,
             completionType,
-            query,
+            nonNullQuery,
             maxSuggestions,
             completionMetadata,
             nodeRolesData,
@@ -122,7 +126,7 @@ public final class AutoCompleteUtils {
       // If there are no suggestions, remove characters from the end of the query until there are
       // suggestions or the query is the empty string. This logic is done here to ensure that all
       // possible suggestions types have been considered before relaxing the query
-      String relaxedQuery = query;
+      String relaxedQuery = nonNullQuery;
       while (relaxedQuery.length() > 0 && suggestions.isEmpty()) {
         relaxedQuery = relaxedQuery.substring(0, relaxedQuery.length() - 1);
         suggestions =
@@ -139,7 +143,7 @@ public final class AutoCompleteUtils {
     }
 
     return limitSuggestionsByType(
-        orderSuggestions(query, suggestions), maxSuggestions, MAX_SUGGESTIONS_PER_TYPE);
+        orderSuggestions(nonNullQuery, suggestions), maxSuggestions, MAX_SUGGESTIONS_PER_TYPE);
   }
 
   /** Basic ordering logic, by suggestion type, rank, and then by suggestion text */
@@ -364,13 +368,20 @@ public final class AutoCompleteUtils {
         case FILTER_NAME:
           {
             checkCompletionMetadata(completionMetadata, network, snapshot);
-            suggestions = stringAutoComplete(query, completionMetadata.getFilterNames());
+            suggestions =
+                stringAutoComplete(
+                    query, completionMetadata.getIndex().getFilterNameCandidates(query));
             break;
           }
         case FILTER:
           {
             checkCompletionMetadata(completionMetadata, network, snapshot);
-            suggestions = baseAutoComplete(query, completionMetadata.getFilterNames());
+            suggestions =
+                baseAutoComplete(
+                    query,
+                    isLiteral(query)
+                        ? completionMetadata.getIndex().getFilterNameCandidates(query)
+                        : completionMetadata.getFilterNames());
             break;
           }
         case FILTER_SPEC:
@@ -393,9 +404,11 @@ public final class AutoCompleteUtils {
             suggestions =
                 baseAutoComplete(
                     query,
-                    completionMetadata.getInterfaces().stream()
-                        .map(NodeInterfacePair::toString)
-                        .collect(ImmutableSet.toImmutableSet()));
+                    isLiteral(query)
+                        ? completionMetadata.getIndex().getInterfaceCandidates(query)
+                        : completionMetadata.getInterfaces().stream()
+                            .map(NodeInterfacePair::toString)
+                            .collect(ImmutableSet.toImmutableSet()));
             break;
           }
         case INTERFACE_GROUP_AND_BOOK:
@@ -417,10 +430,7 @@ public final class AutoCompleteUtils {
             checkCompletionMetadata(completionMetadata, network, snapshot);
             suggestions =
                 stringAutoComplete(
-                    query,
-                    completionMetadata.getInterfaces().stream()
-                        .map(NodeInterfacePair::getInterface)
-                        .collect(Collectors.toSet()));
+                    query, completionMetadata.getIndex().getInterfaceNameCandidates(query));
             break;
           }
         case INTERFACE_TYPE:
@@ -464,7 +474,7 @@ public final class AutoCompleteUtils {
         case IP:
           {
             checkCompletionMetadata(completionMetadata, network, snapshot);
-            suggestions = ipStringAutoComplete(query, completionMetadata.getIps());
+            suggestions = ipStringAutoComplete(query, completionMetadata);
             break;
           }
         case IP_PROTOCOL_SPEC:
@@ -486,7 +496,7 @@ public final class AutoCompleteUtils {
             checkCompletionMetadata(completionMetadata, network, snapshot);
             // first, get the suggestions based on IP metadata
             List<AutocompleteSuggestion> metadataSuggestions =
-                ipStringAutoComplete(query, completionMetadata.getIps());
+                ipStringAutoComplete(query, completionMetadata);
             Set<String> metadataSuggestionTexts =
                 metadataSuggestions.stream()
                     .map(s -> s.getText())
@@ -544,7 +554,8 @@ public final class AutoCompleteUtils {
         case MLAG_ID:
           {
             checkCompletionMetadata(completionMetadata, network, snapshot);
-            suggestions = stringAutoComplete(query, completionMetadata.getMlagIds());
+            suggestions =
+                stringAutoComplete(query, completionMetadata.getIndex().getMlagIdCandidates(query));
             break;
           }
         case MLAG_ID_SPEC:
@@ -578,12 +589,8 @@ public final class AutoCompleteUtils {
         case NODE_NAME:
           {
             checkCompletionMetadata(completionMetadata, network, snapshot);
-            Map<String, Optional<String>> nodesWithDescriptions =
-                toImmutableMap(
-                    completionMetadata.getNodes(),
-                    Entry::getKey,
-                    entry -> Optional.ofNullable(entry.getValue().getHumanName()));
-            suggestions = stringAutoComplete(query, nodesWithDescriptions);
+            suggestions =
+                stringAutoComplete(query, completionMetadata.getIndex().getNodeCandidates(query));
             break;
           }
         case NODE_PROPERTY_SPEC:
@@ -683,7 +690,8 @@ public final class AutoCompleteUtils {
         case PREFIX:
           {
             checkCompletionMetadata(completionMetadata, network, snapshot);
-            suggestions = stringAutoComplete(query, completionMetadata.getPrefixes());
+            suggestions =
+                stringAutoComplete(query, completionMetadata.getIndex().getPrefixCandidates(query));
             break;
           }
         case PROTOCOL:
@@ -708,7 +716,9 @@ public final class AutoCompleteUtils {
         case ROUTING_POLICY_NAME:
           {
             checkCompletionMetadata(completionMetadata, network, snapshot);
-            suggestions = stringAutoComplete(query, completionMetadata.getRoutingPolicyNames());
+            suggestions =
+                stringAutoComplete(
+                    query, completionMetadata.getIndex().getRoutingPolicyNameCandidates(query));
             break;
           }
         case ROUTING_POLICY_SPEC:
@@ -761,7 +771,12 @@ public final class AutoCompleteUtils {
         case STRUCTURE_NAME:
           {
             checkCompletionMetadata(completionMetadata, network, snapshot);
-            suggestions = baseAutoComplete(query, completionMetadata.getStructureNames());
+            suggestions =
+                baseAutoComplete(
+                    query,
+                    isLiteral(query)
+                        ? completionMetadata.getIndex().getStructureNameCandidates(query)
+                        : completionMetadata.getStructureNames());
             break;
           }
         case TRACEROUTE_SOURCE_LOCATION:
@@ -772,13 +787,23 @@ public final class AutoCompleteUtils {
         case VRF:
           {
             checkCompletionMetadata(completionMetadata, network, snapshot);
-            suggestions = baseAutoComplete(query, completionMetadata.getVrfs());
+            suggestions =
+                baseAutoComplete(
+                    query,
+                    isLiteral(query)
+                        ? completionMetadata.getIndex().getVrfCandidates(query)
+                        : completionMetadata.getVrfs());
             break;
           }
         case ZONE:
           {
             checkCompletionMetadata(completionMetadata, network, snapshot);
-            suggestions = baseAutoComplete(query, completionMetadata.getZones());
+            suggestions =
+                baseAutoComplete(
+                    query,
+                    isLiteral(query)
+                        ? completionMetadata.getIndex().getZoneCandidates(query)
+                        : completionMetadata.getZones());
             break;
           }
         default:
@@ -799,42 +824,38 @@ public final class AutoCompleteUtils {
    */
   @Nonnull
   static List<AutocompleteSuggestion> autoCompleteSourceLocation(
-      String query, boolean tracerouteSource, @Nullable CompletionMetadata completionMetadata) {
+      @Nullable String query,
+      boolean tracerouteSource,
+      @Nullable CompletionMetadata completionMetadata) {
+    String nonNullQuery = firstNonNull(query, "");
     checkNotNull(
         completionMetadata, "Cannot autocomplete source locations without completion metadata");
     checkNotNull(
         completionMetadata.getLocations(),
         "cannot autocomplete source locations without location metadata");
     List<AutocompleteSuggestion> sourceSuggestions =
-        stringAutoComplete(query, getLocationsWithHumanNames(false, completionMetadata), 1);
+        stringAutoComplete(
+            nonNullQuery,
+            completionMetadata.getIndex().getSourceLocationCandidates(nonNullQuery),
+            1);
     if (!tracerouteSource) {
       return sourceSuggestions;
     }
     List<AutocompleteSuggestion> tracerouteSourceSuggestions =
-        stringAutoComplete(query, getLocationsWithHumanNames(true, completionMetadata), 2);
+        stringAutoComplete(
+            nonNullQuery,
+            completionMetadata.getIndex().getTracerouteSourceLocationCandidates(nonNullQuery),
+            2);
     return Streams.concat(sourceSuggestions.stream(), tracerouteSourceSuggestions.stream())
         .collect(ImmutableList.toImmutableList());
   }
 
   /**
-   * Returns a map from location to the (optional) human name of its node. When tracerouteSource is
-   * false, "natural" source locations (per location info) with IPs are considered. Otherwise,
-   * traceroute sources that are not source location with IPs are considered.
+   * Returns whether {@code query} matches the same properties in {@link #baseAutoComplete} as a
+   * substring does, so that candidates can be taken from a {@link CompletionMetadataIndex}.
    */
-  private static Map<String, Optional<String>> getLocationsWithHumanNames(
-      boolean tracerouteSource, CompletionMetadata completionMetadata) {
-    return (tracerouteSource
-            ? completionMetadata.getLocations().stream()
-                .filter(loc -> loc.isTracerouteSource() && !loc.isSourceWithIps())
-            : completionMetadata.getLocations().stream()
-                .filter(LocationCompletionMetadata::isSourceWithIps))
-        .map(LocationCompletionMetadata::getLocation)
-        .collect(
-            ImmutableMap.toImmutableMap(
-                ToSpecifierString::toSpecifierString,
-                location ->
-                    Optional.ofNullable(
-                        completionMetadata.getNodes().get(location.getNodeName()).getHumanName())));
+  private static boolean isLiteral(String query) {
+    return REGEX_METACHARACTERS.matchesNoneOf(query);
   }
 
   /**
@@ -917,6 +938,22 @@ public final class AutoCompleteUtils {
         .collect(ImmutableList.toImmutableList());
   }
 
+  /**
+   * Returns a list of suggestions based on a query for the Ips of {@code completionMetadata}, as
+   * {@link #ipStringAutoComplete(String, Map)} does, but only considers the Ips that its {@link
+   * CompletionMetadataIndex} returns as candidates.
+   */
+  @Nonnull
+  private static ImmutableList<AutocompleteSuggestion> ipStringAutoComplete(
+      @Nullable String query, CompletionMetadata completionMetadata) {
+    String[] subQueries = (query == null ? "" : query.toLowerCase()).split("\\s+");
+    Map<Ip, IpCompletionMetadata> ips = completionMetadata.getIps();
+    return ipStringAutoComplete(
+        query,
+        completionMetadata.getIndex().getIpCandidates(subQueries).stream()
+            .collect(ImmutableMap.toImmutableMap(Function.identity(), ips::get)));
+  }
+
   /**
    * Returns a list of suggestions based on a query for Ips.
    *
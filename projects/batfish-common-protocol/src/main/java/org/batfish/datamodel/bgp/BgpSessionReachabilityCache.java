@@ -0,0 +1,161 @@
+package org.batfish.datamodel.bgp;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.BgpPeerConfigId;
+import org.batfish.datamodel.Edge;
+import org.batfish.datamodel.Fib;
+import org.batfish.datamodel.Topology;
+
+/**
+ * Remembers the results of BGP session reachability checks across the topology iterations of a
+ * single data plane computation, so that {@link BgpTopologyUtils#initBgpTopology(Map,
+ * org.batfish.common.topology.IpVrfOwners, boolean, boolean,
+ * org.batfish.common.plugin.TracerouteEngine, org.batfish.common.topology.L3Adjacencies,
+ * BgpSessionReachabilityCache)} only re-checks sessions whose outcome may have changed.
+ *
+ * <p>The result of a check depends on the FIBs of the nodes its traces traversed, and (through
+ * ARP) of their layer-3 neighbors. A result is reused as long as the layer-3 topology and the FIBs
+ * of all of those nodes are unchanged. Configurations are assumed not to change between calls to
+ * {@link #update(Map, Topology)}.
+ *
+ * <p>Not thread-safe.
+ */
+@ParametersAreNonnullByDefault
+public final class BgpSessionReachabilityCache {
+
+  private static final class CachedResult {
+    private final boolean _successful;
+    private final @Nonnull Set<String> _dependentNodes;
+
+    private CachedResult(boolean successful, Set<String> dependentNodes) {
+      _successful = successful;
+      _dependentNodes = dependentNodes;
+    }
+  }
+
+  /** Results by initiator, then by listener. */
+  private final @Nonnull Map<BgpPeerConfigId, Map<BgpPeerConfigId, CachedResult>> _results;
+
+  private @Nullable Map<String, Map<String, Fib>> _fibs;
+  private @Nullable Topology _layer3Topology;
+  private int _numChecked;
+  private int _numSkipped;
+
+  public BgpSessionReachabilityCache() {
+    _results = new HashMap<>();
+  }
+
+  /**
+   * Records the data plane state for the next BGP topology computation, and invalidates cached
+   * results that depend on nodes whose FIBs changed since the previous call. Also resets the
+   * counts of checked and skipped sessions.
+   */
+  public void update(Map<String, Map<String, Fib>> fibs, Topology layer3Topology) {
+    if (_fibs == null || !layer3Topology.equals(_layer3Topology)) {
+      _results.clear();
+    } else {
+      Map<String, Map<String, Fib>> oldFibs = _fibs;
+      Set<String> changedNodes =
+          Sets.union(oldFibs.keySet(), fibs.keySet()).stream()
+              .filter(node -> !fibsEqual(oldFibs.get(node), fibs.get(node)))
+              .collect(ImmutableSet.toImmutableSet());
+      if (!changedNodes.isEmpty()) {
+        _results
+            .values()
+            .forEach(
+                byListener ->
+                    byListener
+                        .values()
+                        .removeIf(
+                            result ->
+                                !Sets.intersection(result._dependentNodes, changedNodes)
+                                    .isEmpty()));
+      }
+    }
+    _fibs = fibs;
+    _layer3Topology = layer3Topology;
+    _numChecked = 0;
+    _numSkipped = 0;
+  }
+
+  private static boolean fibsEqual(
+      @Nullable Map<String, Fib> oldFibs, @Nullable Map<String, Fib> newFibs) {
+    if (oldFibs == null || newFibs == null) {
+      return oldFibs == newFibs;
+    }
+    if (!oldFibs.keySet().equals(newFibs.keySet())) {
+      return false;
+    }
+    return oldFibs.entrySet().stream()
+        .allMatch(
+            e -> {
+              Fib oldFib = e.getValue();
+              Fib newFib = newFibs.get(e.getKey());
+              return oldFib == newFib || oldFib.allEntries().equals(newFib.allEntries());
+            });
+  }
+
+  /**
+   * Returns the cached result of the check from {@code initiatorId} to {@code listenerId}, or
+   * {@code null} if it must be recomputed. Counts a skipped check if a result is returned.
+   */
+  @Nullable
+  Boolean get(BgpPeerConfigId initiatorId, BgpPeerConfigId listenerId) {
+    CachedResult result = _results.getOrDefault(initiatorId, ImmutableMap.of()).get(listenerId);
+    if (result == null) {
+      return null;
+    }
+    _numSkipped++;
+    return result._successful;
+  }
+
+  /**
+   * Caches the result of a check from {@code initiatorId} to {@code listenerId}, whose traces
+   * traversed {@code traversedNodes}. Counts a performed check.
+   */
+  void put(
+      BgpPeerConfigId initiatorId,
+      BgpPeerConfigId listenerId,
+      boolean successful,
+      Set<String> traversedNodes) {
+    _numChecked++;
+    ImmutableSet.Builder<String> dependentNodes =
+        ImmutableSet.<String>builder()
+            .add(initiatorId.getHostname(), listenerId.getHostname())
+            .addAll(traversedNodes);
+    Map<String, SortedSet<Edge>> nodeEdges =
+        Objects.requireNonNull(_layer3Topology, "update must be called first").getNodeEdges();
+    for (String node : traversedNodes) {
+      for (Edge edge : nodeEdges.getOrDefault(node, ImmutableSortedSet.of())) {
+        dependentNodes.add(edge.getNode1(), edge.getNode2());
+      }
+    }
+    _results
+        .computeIfAbsent(initiatorId, k -> new HashMap<>())
+        .put(listenerId, new CachedResult(successful, dependentNodes.build()));
+  }
+
+  /** Number of sessions checked with traceroute since the last {@link #update(Map, Topology)}. */
+  public int getNumChecked() {
+    return _numChecked;
+  }
+
+  /**
+   * Number of sessions whose check was skipped because a cached result was reused, since the last
+   * {@link #update(Map, Topology)}.
+   */
+  public int getNumSkipped() {
+    return _numSkipped;
+  }
+}
@@ -5,26 +5,37 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.graph.EndpointPair;
 import com.google.common.graph.MutableValueGraph;
 import com.google.common.graph.Network;
 import com.google.common.graph.ValueGraphBuilder;
 import io.opentracing.Scope;
 import io.opentracing.Span;
 import io.opentracing.util.GlobalTracer;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.batfish.common.plugin.TracerouteEngine;
-import org.batfish.common.topology.IpOwners;
+import org.batfish.common.topology.IpOwnershipIndex;
+import org.batfish.common.topology.IpVrfOwners;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.datamodel.BgpActivePeerConfig;
 import org.batfish.datamodel.BgpPassivePeerConfig;
@@ -46,6 +57,7 @@ import org.batfish.datamodel.NetworkConfigurations;
 import org.batfish.datamodel.Prefix;
 import org.batfish.datamodel.Vrf;
 import org.batfish.datamodel.collections.NodeInterfacePair;
+import org.batfish.datamodel.flow.FirewallSessionTraceInfo;
 import org.batfish.datamodel.flow.Hop;
 import org.batfish.datamodel.flow.Trace;
 import org.batfish.datamodel.flow.TraceAndReverseFlow;
@@ -96,11 +108,11 @@ public final class BgpTopologyUtils {
 
   /**
    * Compute the BGP topology -- a network of {@link BgpPeerConfig}s connected by {@link
-   * BgpSessionProperties}. See {@link #initBgpTopology(Map, Map, boolean, boolean,
-   * TracerouteEngine, L3Adjacencies)} for more details.
+   * BgpSessionProperties}. See {@link #initBgpTopology(Map, IpVrfOwners, boolean,
+   * boolean, TracerouteEngine, L3Adjacencies)} for more details.
    *
    * @param configurations configuration keyed by hostname
-   * @param ipOwners Ip owners (see {@link IpOwners#computeIpNodeOwners(Map, boolean)}
+   * @param ipOwners VRF owners of network IPs (see {@link IpOwnershipIndex})
    * @param keepInvalid whether to keep improperly configured neighbors. If performing configuration
    *     checks, you probably want this set to {@code true}, otherwise (e.g., computing dataplane)
    *     you want this to be {@code false}.
@@ -108,7 +120,7 @@ public final class BgpTopologyUtils {
    */
   public static @Nonnull BgpTopology initBgpTopology(
       Map<String, Configuration> configurations,
-      Map<Ip, Map<String, Set<String>>> ipOwners,
+      IpVrfOwners ipOwners,
       boolean keepInvalid,
       L3Adjacencies l3Adjacencies) {
     return initBgpTopology(configurations, ipOwners, keepInvalid, false, null, l3Adjacencies);
@@ -119,8 +131,7 @@ public final class BgpTopologyUtils {
    * BgpSessionProperties}.
    *
    * @param configurations node configurations, keyed by hostname
-   * @param ipVrfOwners network Ip owners (see {@link IpOwners#computeIpNodeOwners(Map, boolean)}
-   *     for reference)
+   * @param ipVrfOwners VRF owners of network IPs (see {@link IpOwnershipIndex})
    * @param keepInvalid whether to keep improperly configured neighbors. If performing configuration
    *     checks, you probably want this set to {@code true}, otherwise (e.g., computing dataplane)
    *     you want this to be {@code false}.
@@ -135,11 +146,38 @@ public final class BgpTopologyUtils {
    */
   public static @Nonnull BgpTopology initBgpTopology(
       Map<String, Configuration> configurations,
-      Map<Ip, Map<String, Set<String>>> ipVrfOwners,
+      IpVrfOwners ipVrfOwners,
       boolean keepInvalid,
       boolean checkReachability,
       @Nullable TracerouteEngine tracerouteEngine,
       L3Adjacencies l3Adjacencies) {
+    return initBgpTopology(
+        configurations,
+        ipVrfOwners,
+        keepInvalid,
+        checkReachability,
+        tracerouteEngine,
+        l3Adjacencies,
+        null);
+  }
+
+  /**
+   * Compute the BGP topology -- a network of {@link BgpPeerConfigId}s connected by {@link
+   * BgpSessionProperties}. See {@link #initBgpTopology(Map, IpVrfOwners, boolean,
+   * boolean, TracerouteEngine, L3Adjacencies)} for more details.
+   *
+   * <p>When checking reachability, all sessions are checked with a single batch of traceroutes,
+   * and results cached in {@code reachabilityCache} (if not {@code null}) whose inputs have not
+   * changed since they were computed are reused.
+   */
+  public static @Nonnull BgpTopology initBgpTopology(
+      Map<String, Configuration> configurations,
+      IpVrfOwners ipVrfOwners,
+      boolean keepInvalid,
+      boolean checkReachability,
+      @Nullable TracerouteEngine tracerouteEngine,
+      L3Adjacencies l3Adjacencies,
+      @Nullable BgpSessionReachabilityCache reachabilityCache) {
     checkArgument(
         !checkReachability || !keepInvalid,
         "Cannot check reachability while keeping invalid peers");
@@ -210,20 +248,23 @@ public final class BgpTopologyUtils {
             receivers.computeIfAbsent(peer.getHostname(), name -> LinkedListMultimap.create());
         vrf.put(peer.getVrfName(), peer);
       }
+      // Active sessions that pass sanity checks but must still be checked for reachability, in the
+      // order they are encountered.
+      List<EndpointPair<BgpPeerConfigId>> sessionsToCheck = new ArrayList<>();
       for (BgpPeerConfigId neighborId : graph.nodes()) {
         switch (neighborId.getType()) {
           case DYNAMIC:
             // Passive end of the peering cannot initiate a connection
             continue;
           case ACTIVE:
-            addActivePeerEdges(
-                neighborId,
-                graph,
-                networkConfigurations,
-                ipVrfOwners,
-                receivers,
-                checkReachability,
-                tracerouteEngine);
+            if (checkReachability) {
+              getActivePeerCandidates(neighborId, networkConfigurations, ipVrfOwners, receivers)
+                  .forEach(
+                      candidateId ->
+                          sessionsToCheck.add(EndpointPair.ordered(neighborId, candidateId)));
+            } else {
+              addActivePeerEdges(neighborId, graph, networkConfigurations, ipVrfOwners, receivers);
+            }
             break;
           case UNNUMBERED:
             addUnnumberedPeerEdges(neighborId, graph, networkConfigurations, l3Adjacencies);
@@ -233,6 +274,14 @@ public final class BgpTopologyUtils {
                 String.format("Unrecognized peer type: %s", neighborId));
         }
       }
+      if (checkReachability) {
+        addReachableActivePeerEdges(
+            sessionsToCheck,
+            graph,
+            networkConfigurations,
+            Objects.requireNonNull(tracerouteEngine),
+            reachabilityCache);
+      }
       return new BgpTopology(graph);
     } finally {
       span.finish();
@@ -243,25 +292,42 @@ public final class BgpTopologyUtils {
       BgpPeerConfigId neighborId,
       MutableValueGraph<BgpPeerConfigId, BgpSessionProperties> graph,
       NetworkConfigurations nc,
-      Map<Ip, Map<String, Set<String>>> ipOwners,
-      Map<String, Multimap<String, BgpPeerConfigId>> receivers,
-      boolean checkReachability,
-      TracerouteEngine tracerouteEngine) {
+      IpVrfOwners ipOwners,
+      Map<String, Multimap<String, BgpPeerConfigId>> receivers) {
+    BgpActivePeerConfig neighbor = nc.getBgpPointToPointPeerConfig(neighborId);
+    // If edge is already established (i.e., we already found that candidate can initiate the
+    // session), don't bother adding it in this direction
+    Set<BgpPeerConfigId> alreadyEstablished = graph.adjacentNodes(neighborId);
+    getActivePeerCandidates(neighborId, nc, ipOwners, receivers).stream()
+        .filter(candidateId -> !alreadyEstablished.contains(candidateId))
+        .forEach(remoteId -> addEdges(neighbor, neighborId, remoteId, graph, nc));
+  }
+
+  /**
+   * Returns the candidate peers of the active peer {@code neighborId} that own its peer address
+   * and pass sanity checks (see {@link #bgpCandidatePassesSanityChecks(BgpPeerConfigId,
+   * BgpActivePeerConfig, BgpPeerConfigId, NetworkConfigurations)}).
+   */
+  private static @Nonnull List<BgpPeerConfigId> getActivePeerCandidates(
+      BgpPeerConfigId neighborId,
+      NetworkConfigurations nc,
+      IpVrfOwners ipOwners,
+      Map<String, Multimap<String, BgpPeerConfigId>> receivers) {
     BgpActivePeerConfig neighbor = nc.getBgpPointToPointPeerConfig(neighborId);
     if (neighbor == null
         || neighbor.getLocalIp() == null
         || neighbor.getLocalAs() == null
         || neighbor.getPeerAddress() == null
         || neighbor.getRemoteAsns().isEmpty()) {
-      return;
+      return ImmutableList.of();
     }
     // Find nodes that own the neighbor's peer address
-    Map<String, Set<String>> possibleVrfs = ipOwners.get(neighbor.getPeerAddress());
-    if (possibleVrfs == null) {
-      return;
+    Map<String, Set<String>> possibleVrfs = ipOwners.getVrfOwners(neighbor.getPeerAddress());
+    if (possibleVrfs.isEmpty()) {
+      return ImmutableList.of();
     }
 
-    Set<BgpPeerConfigId> alreadyEstablished = graph.adjacentNodes(neighborId);
+    ImmutableList.Builder<BgpPeerConfigId> candidates = ImmutableList.builder();
     for (Entry<String, Set<String>> entry : possibleVrfs.entrySet()) {
       String node = entry.getKey();
       Set<String> vrfs = entry.getValue();
@@ -271,26 +337,103 @@ public final class BgpTopologyUtils {
       }
       for (String vrf : vrfs) {
         receiversByVrf.get(vrf).stream()
+            // Ensure candidate has compatible local/remote IP, AS, & hostname
             .filter(
                 candidateId ->
-                    // If edge is already established (i.e., we already found that candidate can
-                    // initiate the session), don't bother checking in this direction
-                    !alreadyEstablished.contains(candidateId)
-                        // Ensure candidate has compatible local/remote IP, AS, & hostname
-                        && bgpCandidatePassesSanityChecks(neighborId, neighbor, candidateId, nc)
-                        // If checking reachability, ensure candidate is reachable
-                        && (!checkReachability
-                            // We initiate the session from the initiator to the listener since the
-                            // other direction will be checked once we pick up the listener as the
-                            // source. This is consistent with the directional nature of BGP graph.
-                            || initiateBgpSession(
-                                    neighborId, candidateId, neighbor, tracerouteEngine)
-                                .isSuccessful()))
-            .forEach(remoteId -> addEdges(neighbor, neighborId, remoteId, graph, nc));
+                    bgpCandidatePassesSanityChecks(neighborId, neighbor, candidateId, nc))
+            .forEach(candidates::add);
+      }
+    }
+    return candidates.build();
+  }
+
+  /**
+   * Checks reachability of the given active sessions, and adds edges to {@code graph} for those
+   * that can be established.
+   *
+   * <p>We initiate each session from the initiator to the listener since the other direction is
+   * checked separately. This is consistent with the directional nature of BGP graph. If a session
+   * can be initiated in one direction, the other direction is not checked. So the sessions are
+   * checked in two batches: first each session in the direction it was first encountered, then
+   * the reverse direction of the sessions that could not be initiated.
+   */
+  private static void addReachableActivePeerEdges(
+      List<EndpointPair<BgpPeerConfigId>> sessions,
+      MutableValueGraph<BgpPeerConfigId, BgpSessionProperties> graph,
+      NetworkConfigurations nc,
+      TracerouteEngine tracerouteEngine,
+      @Nullable BgpSessionReachabilityCache reachabilityCache) {
+    Set<EndpointPair<BgpPeerConfigId>> firstBatch = new LinkedHashSet<>();
+    for (EndpointPair<BgpPeerConfigId> session : sessions) {
+      if (!firstBatch.contains(reverse(session))) {
+        firstBatch.add(session);
+      }
+    }
+    Set<EndpointPair<BgpPeerConfigId>> reachable =
+        new HashSet<>(checkReachability(firstBatch, nc, tracerouteEngine, reachabilityCache));
+    List<EndpointPair<BgpPeerConfigId>> secondBatch =
+        sessions.stream()
+            .filter(
+                session -> !firstBatch.contains(session) && !reachable.contains(reverse(session)))
+            .collect(ImmutableList.toImmutableList());
+    reachable.addAll(checkReachability(secondBatch, nc, tracerouteEngine, reachabilityCache));
+    for (EndpointPair<BgpPeerConfigId> session : sessions) {
+      if (reachable.contains(session) && !graph.hasEdgeConnecting(session)) {
+        BgpPeerConfigId initiatorId = session.source();
+        addEdges(
+            nc.getBgpPointToPointPeerConfig(initiatorId), initiatorId, session.target(), graph, nc);
       }
     }
   }
 
+  private static @Nonnull EndpointPair<BgpPeerConfigId> reverse(
+      EndpointPair<BgpPeerConfigId> session) {
+    return EndpointPair.ordered(session.target(), session.source());
+  }
+
+  /**
+   * Returns the given sessions that can be initiated, using cached results from {@code
+   * reachabilityCache} where possible and a single batch of traceroutes for the rest.
+   */
+  private static @Nonnull Set<EndpointPair<BgpPeerConfigId>> checkReachability(
+      Collection<EndpointPair<BgpPeerConfigId>> sessions,
+      NetworkConfigurations nc,
+      TracerouteEngine tracerouteEngine,
+      @Nullable BgpSessionReachabilityCache reachabilityCache) {
+    ImmutableSet.Builder<EndpointPair<BgpPeerConfigId>> reachable = ImmutableSet.builder();
+    Map<EndpointPair<BgpPeerConfigId>, BgpActivePeerConfig> toTrace = new LinkedHashMap<>();
+    for (EndpointPair<BgpPeerConfigId> session : sessions) {
+      Boolean cachedResult =
+          reachabilityCache == null
+              ? null
+              : reachabilityCache.get(session.source(), session.target());
+      if (cachedResult == null) {
+        toTrace.put(session, nc.getBgpPointToPointPeerConfig(session.source()));
+      } else if (cachedResult) {
+        reachable.add(session);
+      }
+    }
+    initiateBgpSessions(toTrace, tracerouteEngine)
+        .forEach(
+            (session, result) -> {
+              if (result.isSuccessful()) {
+                reachable.add(session);
+              }
+              if (reachabilityCache != null) {
+                reachabilityCache.put(
+                    session.source(),
+                    session.target(),
+                    result.isSuccessful(),
+                    Stream.concat(
+                            result.getForwardTraces().stream(), result.getReverseTraces().stream())
+                        .flatMap(trace -> trace.getHops().stream())
+                        .map(hop -> hop.getNode().getName())
+                        .collect(ImmutableSet.toImmutableSet()));
+              }
+            });
+    return reachable.build();
+  }
+
   private static void addUnnumberedPeerEdges(
       BgpPeerConfigId neighborId,
       MutableValueGraph<BgpPeerConfigId, BgpSessionProperties> graph,
@@ -369,10 +512,7 @@ public final class BgpTopologyUtils {
    * </ul>
    */
   private static boolean bgpConfigPassesSanityChecks(
-      BgpPeerConfig config,
-      String hostname,
-      String vrfName,
-      Map<Ip, Map<String, Set<String>>> ipOwners) {
+      BgpPeerConfig config, String hostname, String vrfName, IpVrfOwners ipOwners) {
     if (config instanceof BgpUnnumberedPeerConfig) {
       return true;
     }
@@ -380,8 +520,7 @@ public final class BgpTopologyUtils {
     Ip localIp = config.getLocalIp();
     return localIp == null
         || localIp.equals(Ip.AUTO) // dynamic
-        || (ipOwners.containsKey(localIp)
-            && ipOwners.get(localIp).getOrDefault(hostname, ImmutableSet.of()).contains(vrfName));
+        || ipOwners.isOwnedByVrf(localIp, hostname, vrfName);
   }
 
   /**
@@ -487,57 +626,128 @@ public final class BgpTopologyUtils {
       @Nonnull BgpPeerConfigId listenerId,
       @Nonnull BgpActivePeerConfig initiator,
       @Nonnull TracerouteEngine tracerouteEngine) {
-    assert initiatorId.getType() == BgpPeerConfigType.ACTIVE;
-    Flow flowFromSrc =
-        Flow.builder()
-            .setIpProtocol(IpProtocol.TCP)
-            .setTcpFlagsSyn(1)
-            .setIngressNode(initiatorId.getHostname())
-            .setIngressVrf(initiatorId.getVrfName())
-            .setSrcIp(initiator.getLocalIp())
-            .setDstIp(initiator.getPeerAddress())
-            .setSrcPort(NamedPort.EPHEMERAL_LOWEST.number())
-            .setDstPort(NamedPort.BGP.number())
-            .build();
-
-    List<TraceAndReverseFlow> forwardTracesAndReverseFlows =
-        tracerouteEngine
-            .computeTracesAndReverseFlows(ImmutableSet.of(flowFromSrc), false)
-            .get(flowFromSrc);
-
-    boolean bgpSingleHop =
-        BgpSessionProperties.getSessionType(initiator) == SessionType.EBGP_SINGLEHOP;
-
-    List<TraceAndReverseFlow> reverseTraces =
-        forwardTracesAndReverseFlows.stream()
-            .filter(
-                traceAndReverseFlow -> {
-                  Trace forwardTrace = traceAndReverseFlow.getTrace();
-                  return forwardTrace.getDisposition() == FlowDisposition.ACCEPTED
-                      && (!bgpSingleHop || forwardTrace.getHops().size() <= 2);
-                })
-            .filter(
-                traceAndReverseFlow ->
-                    traceAndReverseFlow.getReverseFlow() != null
-                        && traceAndReverseFlow
-                            .getReverseFlow()
-                            .getIngressNode()
-                            .equals(listenerId.getHostname())
-                        && traceAndReverseFlow
-                            .getReverseFlow()
-                            .getIngressVrf()
-                            .equals(listenerId.getVrfName()))
-            .flatMap(
-                traceAndReverseFlow ->
-                    tracerouteEngine
-                        .computeTracesAndReverseFlows(
-                            ImmutableSet.of(traceAndReverseFlow.getReverseFlow()),
-                            traceAndReverseFlow.getNewFirewallSessions(),
-                            false)
-                        .get(traceAndReverseFlow.getReverseFlow())
-                        .stream())
-            .collect(ImmutableList.toImmutableList());
+    EndpointPair<BgpPeerConfigId> session = EndpointPair.ordered(initiatorId, listenerId);
+    return initiateBgpSessions(ImmutableMap.of(session, initiator), tracerouteEngine).get(session);
+  }
+
+  /**
+   * Batched version of {@link #initiateBgpSession(BgpPeerConfigId, BgpPeerConfigId,
+   * BgpActivePeerConfig, TracerouteEngine)}: initiates each of the given sessions, directed from
+   * initiator to listener and mapped to the initiator's config. All forward flows are traced
+   * together, as are all reverse flows that share the same new firewall sessions.
+   *
+   * @return The result of initiating each session.
+   */
+  public static @Nonnull Map<EndpointPair<BgpPeerConfigId>, BgpSessionInitiationResult>
+      initiateBgpSessions(
+          Map<EndpointPair<BgpPeerConfigId>, BgpActivePeerConfig> sessions,
+          TracerouteEngine tracerouteEngine) {
+    if (sessions.isEmpty()) {
+      return ImmutableMap.of();
+    }
+    Map<EndpointPair<BgpPeerConfigId>, Flow> flows =
+        sessions.entrySet().stream()
+            .collect(
+                ImmutableMap.toImmutableMap(
+                    Entry::getKey,
+                    e -> {
+                      BgpPeerConfigId initiatorId = e.getKey().source();
+                      assert initiatorId.getType() == BgpPeerConfigType.ACTIVE;
+                      return bgpSessionFlow(initiatorId, e.getValue());
+                    }));
+    SortedMap<Flow, List<TraceAndReverseFlow>> forwardTracesByFlow =
+        tracerouteEngine.computeTracesAndReverseFlows(ImmutableSet.copyOf(flows.values()), false);
+
+    // For each session, the forward traces that reach the listener
+    Map<EndpointPair<BgpPeerConfigId>, List<TraceAndReverseFlow>> acceptedForwardTraces =
+        new HashMap<>();
+    // Reverse flows to trace, grouped by the firewall sessions they may match
+    Map<Set<FirewallSessionTraceInfo>, Set<Flow>> reverseFlowsBySessions = new HashMap<>();
+    sessions.forEach(
+        (session, initiator) -> {
+          BgpPeerConfigId listenerId = session.target();
+          boolean bgpSingleHop =
+              BgpSessionProperties.getSessionType(initiator) == SessionType.EBGP_SINGLEHOP;
+          List<TraceAndReverseFlow> accepted =
+              forwardTracesByFlow.get(flows.get(session)).stream()
+                  .filter(
+                      traceAndReverseFlow -> {
+                        Trace forwardTrace = traceAndReverseFlow.getTrace();
+                        return forwardTrace.getDisposition() == FlowDisposition.ACCEPTED
+                            && (!bgpSingleHop || forwardTrace.getHops().size() <= 2);
+                      })
+                  .filter(
+                      traceAndReverseFlow ->
+                          traceAndReverseFlow.getReverseFlow() != null
+                              && traceAndReverseFlow
+                                  .getReverseFlow()
+                                  .getIngressNode()
+                                  .equals(listenerId.getHostname())
+                              && traceAndReverseFlow
+                                  .getReverseFlow()
+                                  .getIngressVrf()
+                                  .equals(listenerId.getVrfName()))
+                  .collect(ImmutableList.toImmutableList());
+          acceptedForwardTraces.put(session, accepted);
+          accepted.forEach(
+              traceAndReverseFlow ->
+                  reverseFlowsBySessions
+                      .computeIfAbsent(
+                          traceAndReverseFlow.getNewFirewallSessions(), k -> new HashSet<>())
+                      .add(traceAndReverseFlow.getReverseFlow()));
+        });
+    Map<Set<FirewallSessionTraceInfo>, SortedMap<Flow, List<TraceAndReverseFlow>>>
+        reverseTracesBySessions =
+            reverseFlowsBySessions.entrySet().stream()
+                .collect(
+                    ImmutableMap.toImmutableMap(
+                        Entry::getKey,
+                        e ->
+                            tracerouteEngine.computeTracesAndReverseFlows(
+                                e.getValue(), e.getKey(), false)));
+
+    return sessions.keySet().stream()
+        .collect(
+            ImmutableMap.toImmutableMap(
+                Function.identity(),
+                session -> {
+                  List<TraceAndReverseFlow> reverseTraces =
+                      acceptedForwardTraces.get(session).stream()
+                          .flatMap(
+                              traceAndReverseFlow ->
+                                  reverseTracesBySessions
+                                      .get(traceAndReverseFlow.getNewFirewallSessions())
+                                      .get(traceAndReverseFlow.getReverseFlow())
+                                      .stream())
+                          .collect(ImmutableList.toImmutableList());
+                  return bgpSessionInitiationResult(
+                      session.source(),
+                      flows.get(session),
+                      forwardTracesByFlow.get(flows.get(session)),
+                      reverseTraces);
+                }));
+  }
+
+  /** Returns the flow with which {@code initiator} initiates a BGP session. */
+  private static @Nonnull Flow bgpSessionFlow(
+      BgpPeerConfigId initiatorId, BgpActivePeerConfig initiator) {
+    return Flow.builder()
+        .setIpProtocol(IpProtocol.TCP)
+        .setTcpFlagsSyn(1)
+        .setIngressNode(initiatorId.getHostname())
+        .setIngressVrf(initiatorId.getVrfName())
+        .setSrcIp(initiator.getLocalIp())
+        .setDstIp(initiator.getPeerAddress())
+        .setSrcPort(NamedPort.EPHEMERAL_LOWEST.number())
+        .setDstPort(NamedPort.BGP.number())
+        .build();
+  }
 
+  private static @Nonnull BgpSessionInitiationResult bgpSessionInitiationResult(
+      BgpPeerConfigId initiatorId,
+      Flow flowFromSrc,
+      List<TraceAndReverseFlow> forwardTracesAndReverseFlows,
+      List<TraceAndReverseFlow> reverseTraces) {
     boolean successful =
         reverseTraces.stream()
             .anyMatch(
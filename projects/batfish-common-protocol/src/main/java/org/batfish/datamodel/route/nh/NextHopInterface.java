@@ -3,12 +3,11 @@ package org.batfish.datamodel.route.nh;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.util.Objects;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.batfish.common.util.intern.Interners;
+import org.batfish.common.util.intern.WeakInterner;
 import org.batfish.datamodel.Interface;
 import org.batfish.datamodel.Ip;
 import org.batfish.datamodel.Route;
@@ -22,11 +21,10 @@ import org.batfish.datamodel.Route;
  */
 public final class NextHopInterface implements NextHop {
 
-  // Soft values: let it be garbage collected in times of pressure.
-  // Maximum size 2^20: Just some upper bound on cache size, well less than GiB.
-  //   (8 bytes seems smallest possible entry (long), would be 8 MiB total).
-  private static final LoadingCache<NextHopInterface, NextHopInterface> CACHE =
-      CacheBuilder.newBuilder().softValues().maximumSize(1 << 20).build(CacheLoader.from(x -> x));
+  // Weak values: let it be garbage collected when no longer in use.
+  // The lookup instance is the key, so the canonical instance must be a distinct copy.
+  private static final WeakInterner<NextHopInterface, NextHopInterface> INTERNER =
+      Interners.newWeakInterner(NextHopInterface.class.getSimpleName());
 
   /** The interface name to which the traffic should be routed */
   @Nonnull
@@ -49,7 +47,7 @@ public final class NextHopInterface implements NextHop {
    */
   @Nonnull
   public static NextHopInterface of(String interfaceName) {
-    return CACHE.getUnchecked(new NextHopInterface(interfaceName, null));
+    return intern(new NextHopInterface(interfaceName, null));
   }
 
   /**
@@ -62,7 +60,11 @@ public final class NextHopInterface implements NextHop {
    */
   @Nonnull
   public static NextHopInterface of(String interfaceName, Ip ip) {
-    return CACHE.getUnchecked(new NextHopInterface(interfaceName, ip));
+    return intern(new NextHopInterface(interfaceName, ip));
+  }
+
+  private static @Nonnull NextHopInterface intern(NextHopInterface key) {
+    return INTERNER.intern(key, k -> new NextHopInterface(k._interfaceName, k._ip));
   }
 
   @Override
@@ -4,9 +4,6 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import java.io.Serializable;
@@ -14,6 +11,8 @@ import java.util.Set;
 import java.util.SortedSet;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.batfish.common.util.intern.Interners;
+import org.batfish.common.util.intern.WeakInterner;
 import org.batfish.datamodel.bgp.community.Community;
 import org.batfish.datamodel.bgp.community.ExtendedCommunity;
 import org.batfish.datamodel.bgp.community.StandardCommunity;
@@ -42,18 +41,15 @@ public final class CommunitySet implements Serializable {
       // Skip a cache operation if the input is immutable.
       @SuppressWarnings("unchecked") // safe since you cannot insert into ImmutableSet
       ImmutableSet<Community> immutableKey = (ImmutableSet<Community>) communities;
-      return CACHE.getUnchecked(immutableKey);
+      return INTERNER.intern(immutableKey, CommunitySet::new);
     }
     // Skip a copy if a mutable copy of the key is already present.
-    CommunitySet ret = CACHE.getIfPresent(communities);
+    CommunitySet ret = INTERNER.getIfPresent(communities);
     if (ret != null) {
       return ret;
     }
     // The input communities might be mutable, so freeze them before caching.
-    ImmutableSet<Community> immutableKey = ImmutableSet.copyOf(communities);
-    ret = new CommunitySet(immutableKey);
-    CACHE.put(immutableKey, ret);
-    return ret;
+    return INTERNER.intern(ImmutableSet.copyOf(communities), CommunitySet::new);
   }
 
   public @Nonnull Set<Community> getCommunities() {
@@ -137,18 +133,9 @@ public final class CommunitySet implements Serializable {
     return ImmutableSortedSet.copyOf(_communities);
   }
 
-  // Soft values: let it be garbage collected in times of pressure.
-  // Maximum size 2^16: Just some upper bound on cache size, well less than GiB.
-  private static final LoadingCache<Set<Community>, CommunitySet> CACHE =
-      CacheBuilder.newBuilder()
-          .softValues()
-          .maximumSize(1 << 16)
-          .build(
-              CacheLoader.from(
-                  set -> {
-                    assert set instanceof ImmutableSet;
-                    return new CommunitySet((ImmutableSet<Community>) set);
-                  }));
+  // Weak values: let it be garbage collected when no longer in use.
+  private static final WeakInterner<ImmutableSet<Community>, CommunitySet> INTERNER =
+      Interners.newWeakInterner(CommunitySet.class.getSimpleName());
 
   /* Cache the hashcode */
   private transient int _hashCode = 0;
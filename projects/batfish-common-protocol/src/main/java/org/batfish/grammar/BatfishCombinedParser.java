@@ -1,17 +1,24 @@
 package org.batfish.grammar;
 
+import com.google.common.collect.ImmutableList;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.ANTLRErrorStrategy;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
 import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.batfish.common.BatfishException;
 import org.batfish.grammar.flattener.FlattenerLineMap;
 
@@ -192,8 +199,82 @@ public abstract class BatfishCombinedParser<P extends BatfishParser, L extends B
     return _warnings;
   }
 
+  /**
+   * Returns whether the input may be split into chunks that are parsed independently before line
+   * {@code index} of {@code lines}. Only called if {@link #newChunkParser(String)} is overridden.
+   *
+   * @see StanzaChunkParser
+   */
+  protected boolean isStanzaBoundary(String[] lines, int index) {
+    return false;
+  }
+
+  /**
+   * Returns a parser of the same grammar and settings as this one for {@code chunk}, a range of
+   * lines of the input, or {@code null} if this grammar does not support parsing in chunks.
+   *
+   * @see StanzaChunkParser
+   */
+  protected @Nullable BatfishCombinedParser<P, L> newChunkParser(String chunk) {
+    return null;
+  }
+
   public abstract ParserRuleContext parse();
 
+  /**
+   * Parses the input with {@link #parse()}, first trying faster prediction modes without error
+   * recovery.
+   *
+   * <ol>
+   *   <li>The input is parsed with SLL prediction, bailing out at the first error. SLL prediction
+   *       is faster than LL prediction, and any input it accepts without error is parsed into the
+   *       same tree as with LL prediction.
+   *   <li>If that fails, the input is parsed with LL prediction, again bailing out at the first
+   *       error. This only succeeds if SLL prediction failed on a valid input, which the configured
+   *       strategy would otherwise treat as an error.
+   *   <li>If that fails too, the input has a syntax error, e.g. an unrecognized line, and it is
+   *       parsed exactly as by {@link #parse()}, so that error recovery is unchanged.
+   * </ol>
+   *
+   * <p>The first two stages use the plain {@link ParserATNSimulator}, since {@link
+   * BatfishParserATNSimulator} performs recovery via {@link BatfishANTLRErrorStrategy}, and they
+   * do not report errors to the error listeners of the parser. All stages share the DFA cache of
+   * the grammar. An input with a syntax error is thus parsed up to its first error twice more than
+   * by {@link #parse()}.
+   */
+  public @Nonnull ParserRuleContext parseTwoStage() {
+    ANTLRErrorStrategy errorStrategy = _parser.getErrorHandler();
+    ParserATNSimulator interpreter = _parser.getInterpreter();
+    List<? extends ANTLRErrorListener> errorListeners =
+        ImmutableList.copyOf(_parser.getErrorListeners());
+    _parser.setErrorHandler(new BailErrorStrategy());
+    _parser.removeErrorListeners();
+    try {
+      for (PredictionMode mode : new PredictionMode[] {PredictionMode.SLL, PredictionMode.LL}) {
+        ParserATNSimulator bailInterpreter =
+            new ParserATNSimulator(
+                _parser,
+                interpreter.atn,
+                interpreter.decisionToDFA,
+                interpreter.getSharedContextCache());
+        bailInterpreter.setPredictionMode(mode);
+        _parser.setInterpreter(bailInterpreter);
+        try {
+          return parse();
+        } catch (ParseCancellationException e) {
+          // SLL prediction failed, or the input has a syntax error
+          _parser.reset();
+        }
+      }
+    } finally {
+      _parser.setErrorHandler(errorStrategy);
+      _parser.setInterpreter(interpreter);
+      errorListeners.forEach(_parser::addErrorListener);
+    }
+    // The input has a syntax error: recover from it as the single-stage parse does.
+    return parse();
+  }
+
   public void setLexerErrorListener(BatfishLexerErrorListener lexerErrorListener) {
     _lexerErrorListener = lexerErrorListener;
   }
@@ -1,6 +1,8 @@
 package org.batfish.grammar;
 
 import java.util.Set;
+import javax.annotation.Nullable;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.batfish.vendor.VendorConfiguration;
 
 /**
@@ -25,4 +27,14 @@ public interface ControlPlaneExtractor extends BatfishExtractor {
   default Set<String> implementedRuleNames() {
     return ImplementedRules.getImplementedRules(getClass());
   }
+
+  /**
+   * Returns the listener that {@link #processParseTree} walks over the parse tree, if that is all
+   * it does and the listener only inspects the subtree of each top-level stanza it visits, or
+   * {@code null} otherwise. A non-null listener may instead be run while parsing by a {@link
+   * StreamingExtractionListener}.
+   */
+  default @Nullable ParseTreeListener getStreamingListener() {
+    return null;
+  }
 }
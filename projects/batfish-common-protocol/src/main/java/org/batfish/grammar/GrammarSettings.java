@@ -34,6 +34,14 @@ public interface GrammarSettings {
    */
   int getMaxParseTreePrintLength();
 
+  /**
+   * Controls whether large inputs of line-oriented grammars are parsed in parallel, in chunks split
+   * at top-level stanzas. See {@link StanzaChunkParser}.
+   *
+   * @return true iff large inputs should be parsed in parallel chunks when possible
+   */
+  boolean getParseInChunks();
+
   /**
    * Controls whether parse trees are stored in parse job results.
    *
@@ -66,6 +74,15 @@ public interface GrammarSettings {
    */
   boolean getThrowOnParserError();
 
+  /**
+   * Controls whether parsing is first attempted with SLL and then LL prediction and no error
+   * recovery, falling back to the regular parse with recovery only for inputs with syntax errors.
+   * See {@link BatfishCombinedParser#parseTwoStage()}.
+   *
+   * @return true iff parsing should be done in two stages
+   */
+  boolean getTwoStageParsing();
+
   /**
    * See {@link GrammarSettings#getDisableUnrecognized()}
    *
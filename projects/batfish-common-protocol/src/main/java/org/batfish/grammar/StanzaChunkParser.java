@@ -0,0 +1,264 @@
+package org.batfish.grammar;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.antlr.v4.runtime.tree.TerminalNodeImpl;
+
+/**
+ * Parses the input of a {@link BatfishCombinedParser} for a line-oriented grammar in chunks, in
+ * parallel.
+ *
+ * <p>The input is split before lines at which {@link
+ * BatfishCombinedParser#isStanzaBoundary(String[], int)} holds, and each chunk is parsed by a
+ * parser from {@link BatfishCombinedParser#newChunkParser(String)}. The tokens of each chunk are
+ * then shifted to the lines, character indices, and token indices they have in the whole input,
+ * and the children of the top-level contexts of all chunks are merged into the top-level context
+ * of the first chunk. Labeled lists of the top-level context, such as {@code sl} in Cisco-like
+ * grammars, are not merged.
+ *
+ * <p>Chunking is abandoned in favor of parsing the whole input when a chunk boundary may not be a
+ * boundary of the whole-input parse: when a chunk other than the last ends outside the default
+ * lexer mode, when any chunk has errors, or when an unrecognized line is adjacent to a boundary.
+ */
+@ParametersAreNonnullByDefault
+public final class StanzaChunkParser {
+
+  /** Inputs are only split into chunks of at least this many lines. */
+  static final int MIN_CHUNK_LINES = 10_000;
+
+  /**
+   * Returns the parse tree of the input of {@code parser}, parsed in chunks, or {@code null} if
+   * the input must be parsed whole by {@link BatfishCombinedParser#parse()} instead. Does not
+   * modify the state of {@code parser}.
+   */
+  public static @Nullable ParserRuleContext parse(BatfishCombinedParser<?, ?> parser) {
+    return parse(parser, MIN_CHUNK_LINES, Runtime.getRuntime().availableProcessors());
+  }
+
+  @VisibleForTesting
+  static @Nullable ParserRuleContext parse(
+      BatfishCombinedParser<?, ?> parser, int minChunkLines, int maxChunks) {
+    String input = parser.getInput();
+    String[] lines = parser.getInputLines();
+    List<Integer> chunkStartLines = chunkStartLines(parser, lines, minChunkLines, maxChunks);
+    int numChunks = chunkStartLines.size();
+    if (numChunks < 2) {
+      return null;
+    }
+    // character offset of the start of each chunk, plus the end of the input
+    int[] chunkStarts = new int[numChunks + 1];
+    int line = 0;
+    int offset = 0;
+    for (int i = 0; i < numChunks; i++) {
+      for (; line < chunkStartLines.get(i); line++) {
+        offset += lines[line].length() + 1;
+      }
+      chunkStarts[i] = offset;
+    }
+    chunkStarts[numChunks] = input.length();
+
+    List<BatfishCombinedParser<?, ?>> chunkParsers = new ArrayList<>(numChunks);
+    for (int i = 0; i < numChunks; i++) {
+      BatfishCombinedParser<?, ?> chunkParser =
+          parser.newChunkParser(input.substring(chunkStarts[i], chunkStarts[i + 1]));
+      if (chunkParser == null) {
+        return null;
+      }
+      chunkParsers.add(chunkParser);
+    }
+    ParserRuleContext[] trees = new ParserRuleContext[numChunks];
+    IntStream.range(0, numChunks)
+        .parallel()
+        .forEach(
+            i -> {
+              try {
+                BatfishCombinedParser<?, ?> chunkParser = chunkParsers.get(i);
+                trees[i] =
+                    chunkParser.getSettings().getTwoStageParsing()
+                        ? chunkParser.parseTwoStage()
+                        : chunkParser.parse();
+              } catch (RuntimeException e) {
+                // leave null, which forces parsing of the whole input
+              }
+            });
+
+    int tokenOffset = 0;
+    for (int i = 0; i < numChunks; i++) {
+      BatfishCombinedParser<?, ?> chunkParser = chunkParsers.get(i);
+      ParserRuleContext tree = trees[i];
+      if (tree == null || !chunkParser.getErrors().isEmpty()) {
+        return null;
+      }
+      Lexer lexer = chunkParser.getLexer();
+      if (i < numChunks - 1 && (lexer._mode != Lexer.DEFAULT_MODE || !lexer._modeStack.isEmpty())) {
+        // the chunk ends in the middle of a multi-line construct
+        return null;
+      }
+      int lineOffset = chunkStartLines.get(i);
+      // lines of the chunk, numbered from 1, that are adjacent to boundaries between chunks
+      int firstBoundaryLine = i > 0 ? 1 : Integer.MIN_VALUE;
+      int lastBoundaryLine =
+          i < numChunks - 1 ? chunkStartLines.get(i + 1) - lineOffset : Integer.MAX_VALUE;
+      if (!shiftTokens(
+          chunkParser,
+          tree,
+          lineOffset,
+          chunkStarts[i],
+          tokenOffset,
+          firstBoundaryLine,
+          lastBoundaryLine)) {
+        return null;
+      }
+      // the EOF of the chunk is not part of the whole input
+      tokenOffset += chunkParser.getTokens().size() - 1;
+    }
+    return merge(trees);
+  }
+
+  /**
+   * Returns the indices of the lines at which chunks start, the first of which is always {@code 0}.
+   */
+  private static @Nonnull List<Integer> chunkStartLines(
+      BatfishCombinedParser<?, ?> parser, String[] lines, int minChunkLines, int maxChunks) {
+    List<Integer> starts = new ArrayList<>();
+    starts.add(0);
+    int numChunks = Math.min(maxChunks, lines.length / minChunkLines);
+    if (numChunks < 2) {
+      return starts;
+    }
+    int chunkLines = lines.length / numChunks;
+    int line = chunkLines;
+    while (line < lines.length - minChunkLines) {
+      if (parser.isStanzaBoundary(lines, line)) {
+        starts.add(line);
+        line += chunkLines;
+      } else {
+        line++;
+      }
+    }
+    return starts;
+  }
+
+  /**
+   * Shifts the tokens of a chunk so that they are positioned as in the whole input. Returns {@code
+   * false} if the chunk has an unrecognized line at or before {@code firstBoundaryLine} or at or
+   * after {@code lastBoundaryLine}, whose recovery may differ when parsing the whole input.
+   */
+  private static boolean shiftTokens(
+      BatfishCombinedParser<?, ?> chunkParser,
+      ParserRuleContext tree,
+      int lineOffset,
+      int charOffset,
+      int tokenOffset,
+      int firstBoundaryLine,
+      int lastBoundaryLine) {
+    chunkParser.getTokens().fill();
+    for (Token token : chunkParser.getTokens().getTokens()) {
+      shiftToken(token, lineOffset, charOffset, tokenOffset);
+    }
+    // Also shift tokens that were created during recovery and so are only in the tree.
+    Deque<ParseTree> toVisit = new ArrayDeque<>();
+    toVisit.push(tree);
+    while (!toVisit.isEmpty()) {
+      ParseTree node = toVisit.pop();
+      if (node instanceof TerminalNode) {
+        TerminalNodeImpl terminal = (TerminalNodeImpl) node;
+        Token token = terminal.getSymbol();
+        if (token instanceof UnrecognizedLineToken) {
+          if (token.getLine() <= firstBoundaryLine || token.getLine() >= lastBoundaryLine) {
+            return false;
+          }
+          UnrecognizedLineToken unrecognized = (UnrecognizedLineToken) token;
+          terminal.symbol =
+              new UnrecognizedLineToken(
+                  unrecognized.getText(),
+                  unrecognized.getLine() + lineOffset,
+                  unrecognized.getParserContext());
+        } else if (token.getTokenIndex() == -1) {
+          shiftToken(token, lineOffset, charOffset, 0);
+        }
+        continue;
+      }
+      for (int i = 0; i < node.getChildCount(); i++) {
+        toVisit.push(node.getChild(i));
+      }
+    }
+    return true;
+  }
+
+  private static void shiftToken(Token token, int lineOffset, int charOffset, int tokenOffset) {
+    if (!(token instanceof CommonToken)) {
+      return;
+    }
+    CommonToken commonToken = (CommonToken) token;
+    // Text is read from the chunk input by index, so fix it before shifting indices.
+    commonToken.setText(commonToken.getText());
+    commonToken.setLine(commonToken.getLine() + lineOffset);
+    if (commonToken.getStartIndex() >= 0) {
+      commonToken.setStartIndex(commonToken.getStartIndex() + charOffset);
+      commonToken.setStopIndex(commonToken.getStopIndex() + charOffset);
+    }
+    if (commonToken.getTokenIndex() >= 0) {
+      commonToken.setTokenIndex(commonToken.getTokenIndex() + tokenOffset);
+    }
+  }
+
+  /**
+   * Appends the children of the top-level contexts of all chunks to that of the first chunk,
+   * dropping the {@code EOF} of all but the last.
+   */
+  private static @Nonnull ParserRuleContext merge(ParserRuleContext[] trees) {
+    ParserRuleContext root = trees[0];
+    List<ParseTree> children = new ArrayList<>();
+    for (int i = 0; i < trees.length; i++) {
+      ParserRuleContext tree = trees[i];
+      if (tree.children == null) {
+        continue;
+      }
+      for (ParseTree child : tree.children) {
+        if (i < trees.length - 1
+            && child instanceof TerminalNode
+            && ((TerminalNode) child).getSymbol().getType() == Token.EOF) {
+          continue;
+        }
+        if (child instanceof ParserRuleContext) {
+          ((ParserRuleContext) child).setParent(root);
+        } else if (child instanceof TerminalNodeImpl) {
+          ((TerminalNodeImpl) child).setParent(root);
+        }
+        children.add(child);
+      }
+    }
+    root.children = children;
+    root.stop = trees[trees.length - 1].stop;
+    return root;
+  }
+
+  /**
+   * Returns whether line {@code index} of {@code lines} starts a top-level stanza of a Cisco-like
+   * configuration, i.e. is unindented and follows a {@code !} or blank line.
+   */
+  public static boolean isCiscoStyleStanzaBoundary(String[] lines, int index) {
+    String line = lines[index];
+    if (line.isEmpty() || Character.isWhitespace(line.charAt(0)) || line.charAt(0) == '!') {
+      return false;
+    }
+    String previous = lines[index - 1].trim();
+    return previous.isEmpty() || previous.equals("!");
+  }
+
+  private StanzaChunkParser() {}
+}
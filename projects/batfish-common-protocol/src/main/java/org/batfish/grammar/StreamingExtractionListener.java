@@ -0,0 +1,123 @@
+package org.batfish.grammar;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+/**
+ * A parse listener that walks an extraction listener over each top-level subtree of the parse tree
+ * as soon as it is complete, and then discards it, so that the whole tree is never retained.
+ *
+ * <p>A child of the top-level context is complete once the parser enters the next one, or the
+ * parse ends. Walking is deferred until then, rather than done when the child is exited, since
+ * recovery by {@link BatfishANTLRErrorStrategy} may still replace the last child of a context, and
+ * rules are also exited while an exception unwinds the parser. Once walked, children are removed
+ * from the top-level context and their own children are detached, so only labeled fields of the
+ * top-level context still refer to them.
+ *
+ * <p>Register with {@link org.antlr.v4.runtime.Parser#addParseListener}, and call {@link
+ * #finish()} once the parse completes successfully. The extraction listener must only inspect the
+ * subtree it is walking and its ancestors.
+ */
+@ParametersAreNonnullByDefault
+public final class StreamingExtractionListener implements ParseTreeListener {
+
+  public StreamingExtractionListener(
+      BatfishCombinedParser<?, ?> parser, ParseTreeListener listener) {
+    _walker = new BatfishParseTreeWalker(parser);
+    _listener = listener;
+  }
+
+  /** Returns the number of nodes in {@code tree}. */
+  public static int countNodes(ParseTree tree) {
+    int count = 0;
+    Deque<ParseTree> toVisit = new ArrayDeque<>();
+    toVisit.push(tree);
+    while (!toVisit.isEmpty()) {
+      ParseTree node = toVisit.pop();
+      count++;
+      for (int i = 0; i < node.getChildCount(); i++) {
+        toVisit.push(node.getChild(i));
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public void enterEveryRule(ParserRuleContext ctx) {
+    if (_root == null) {
+      _root = ctx;
+      _walker.enterRule(_listener, ctx);
+    } else if (ctx.getParent() == _root) {
+      // ctx has just been added as the last child, so all before it are complete
+      walkCompleteChildren(_root.getChildCount() - 1);
+    }
+  }
+
+  @Override
+  public void exitEveryRule(ParserRuleContext ctx) {}
+
+  /**
+   * Walks the extraction listener over the remaining children of the top-level context, and then
+   * exits it.
+   */
+  public void finish() {
+    checkState(_root != null, "Nothing was parsed");
+    walkCompleteChildren(_root.getChildCount());
+    _walker.exitRule(_listener, _root);
+  }
+
+  /** Returns the number of parse tree nodes walked so far. */
+  public int getNodesWalked() {
+    return _nodesWalked;
+  }
+
+  /**
+   * Returns the greatest number of parse tree nodes walked at once, which bounds the size of the
+   * retained part of the tree.
+   */
+  public int getPeakNodesWalked() {
+    return _peakNodesWalked;
+  }
+
+  @Override
+  public void visitErrorNode(ErrorNode node) {}
+
+  @Override
+  public void visitTerminal(TerminalNode node) {}
+
+  /** Walks and then discards the first {@code end} children of the top-level context. */
+  private void walkCompleteChildren(int end) {
+    assert _root != null;
+    if (end <= 0) {
+      return;
+    }
+    List<ParseTree> complete = _root.children.subList(0, end);
+    int nodes = 0;
+    for (ParseTree child : complete) {
+      nodes += countNodes(child);
+      _walker.walk(_listener, child);
+      if (child instanceof ParserRuleContext) {
+        ((ParserRuleContext) child).children = null;
+      }
+    }
+    complete.clear();
+    _nodesWalked += nodes;
+    _peakNodesWalked = Math.max(_peakNodesWalked, nodes);
+  }
+
+  private final BatfishParseTreeWalker _walker;
+  private final ParseTreeListener _listener;
+  private int _nodesWalked;
+  private int _peakNodesWalked;
+  private @Nullable ParserRuleContext _root;
+}
@@ -1,6 +1,5 @@
 package org.batfish.specifier;
 
-import com.google.common.collect.ImmutableSet;
 import java.util.Set;
 
 /** A {@link LocationSpecifier} specifying all interface links in the network. */
@@ -11,9 +10,6 @@ public final class AllInterfaceLinksLocationSpecifier implements LocationSpecifi
 
   @Override
   public Set<Location> resolve(SpecifierContext ctxt) {
-    return ctxt.getConfigs().values().stream()
-        .flatMap(node -> node.getAllInterfaces().values().stream())
-        .map(iface -> new InterfaceLinkLocation(iface.getOwner().getHostname(), iface.getName()))
-        .collect(ImmutableSet.toImmutableSet());
+    return ctxt.getLocationIndex().getAllInterfaceLinkLocations();
   }
 }
@@ -1,9 +1,11 @@
 package org.batfish.specifier;
 
 import com.google.common.collect.ImmutableSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
+import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.Interface;
 
 /**
@@ -37,9 +39,9 @@ public abstract class InterfaceNameRegexLocationSpecifier implements LocationSpe
 
   @Override
   public Set<Location> resolve(SpecifierContext ctxt) {
-    return ctxt.getConfigs().values().stream()
-        .flatMap(node -> node.getAllInterfaces().values().stream())
-        .filter(iface -> _pattern.matcher(iface.getName()).find())
+    Map<String, Configuration> configs = ctxt.getConfigs();
+    return ctxt.getLocationIndex().getInterfacesWithNameContaining(_pattern).stream()
+        .map(i -> configs.get(i.getHostname()).getAllInterfaces().get(i.getInterface()))
         .map(this::getLocation)
         .collect(ImmutableSet.toImmutableSet());
   }
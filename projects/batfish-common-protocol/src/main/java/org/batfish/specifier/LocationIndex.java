@@ -0,0 +1,254 @@
+package org.batfish.specifier;
+
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ListMultimap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.Interface;
+import org.batfish.datamodel.collections.NodeInterfacePair;
+import org.batfish.role.NodeRoleDimension;
+
+/**
+ * A columnar index of the nodes, VRFs, and interfaces of a snapshot, with memoized regex matches on
+ * their names and descriptions, memoized node roles, and the snapshot's {@link LocationInfo}, used
+ * by {@link LocationSpecifier LocationSpecifiers} to resolve without iterating over all
+ * configurations.
+ *
+ * <p>{@link SpecifierContextImpl} shares indexes across contexts over the same configurations
+ * object (by identity), so questions on a snapshot whose configurations are cached reuse the same
+ * index. The index holds no references to the configurations themselves.
+ */
+@ParametersAreNonnullByDefault
+public final class LocationIndex {
+
+  /**
+   * Indexes by the configurations they were built from. weakKeys() compares configurations by
+   * identity, and drops an index once its configurations are no longer referenced.
+   */
+  private static final Cache<Map<String, Configuration>, LocationIndex> INDEXES =
+      CacheBuilder.newBuilder().weakKeys().build();
+
+  /** The maximum number of memoized results of each kind of lookup. */
+  private static final int MAX_MEMOIZED_RESULTS = 256;
+
+  /**
+   * Returns the shared index of {@code configs}, building it if needed. {@code locationInfo} is
+   * called once when the index is built and is not retained, so it may capture state that
+   * references {@code configs}.
+   *
+   * <p>The {@code configs} and their location info must not change while the index is cached.
+   */
+  public static @Nonnull LocationIndex forConfigurations(
+      Map<String, Configuration> configs, Supplier<Map<Location, LocationInfo>> locationInfo) {
+    return INDEXES
+        .asMap()
+        .computeIfAbsent(
+            configs, c -> new LocationIndex(c, Suppliers.ofInstance(locationInfo.get())));
+  }
+
+  /**
+   * Builds an unshared index of {@code configs}. {@code locationInfo} is called at most once, when
+   * location info is first requested from the index.
+   */
+  LocationIndex(
+      Map<String, Configuration> configs, Supplier<Map<Location, LocationInfo>> locationInfo) {
+    _nodes = configs.keySet().toArray(new String[0]);
+    _nodeSet = ImmutableSet.copyOf(_nodes);
+    List<NodeInterfacePair> interfaces = new ArrayList<>();
+    List<String> descriptions = new ArrayList<>();
+    List<String> vrfNodes = new ArrayList<>();
+    List<String> vrfNames = new ArrayList<>();
+    configs.forEach(
+        (hostname, config) -> {
+          for (Interface iface : config.getAllInterfaces().values()) {
+            interfaces.add(NodeInterfacePair.of(hostname, iface.getName()));
+            descriptions.add(iface.getDescription());
+          }
+          for (String vrf : config.getVrfs().keySet()) {
+            vrfNodes.add(hostname);
+            vrfNames.add(vrf);
+          }
+        });
+    _interfaces = interfaces.toArray(new NodeInterfacePair[0]);
+    _interfaceDescriptions = descriptions.toArray(new String[0]);
+    _vrfNodes = vrfNodes.toArray(new String[0]);
+    _vrfNames = vrfNames.toArray(new String[0]);
+    _locationInfo = Suppliers.memoize(() -> ImmutableMap.copyOf(locationInfo.get()));
+    _allInterfaceLocations =
+        Suppliers.memoize(
+            () ->
+                toLocations(
+                    ImmutableList.copyOf(_interfaces),
+                    p -> new InterfaceLocation(p.getHostname(), p.getInterface())));
+    _allInterfaceLinkLocations =
+        Suppliers.memoize(
+            () ->
+                toLocations(
+                    ImmutableList.copyOf(_interfaces),
+                    p -> new InterfaceLinkLocation(p.getHostname(), p.getInterface())));
+  }
+
+  /** Returns the {@link InterfaceLocation InterfaceLocations} of all interfaces. */
+  public @Nonnull Set<Location> getAllInterfaceLocations() {
+    return _allInterfaceLocations.get();
+  }
+
+  /** Returns the {@link InterfaceLinkLocation InterfaceLinkLocations} of all interfaces. */
+  public @Nonnull Set<Location> getAllInterfaceLinkLocations() {
+    return _allInterfaceLinkLocations.get();
+  }
+
+  /** Returns the interfaces whose descriptions match {@code pattern} in full. */
+  public @Nonnull List<NodeInterfacePair> getInterfacesWithDescriptionMatching(Pattern pattern) {
+    return _interfacesByDescription.computeIfAbsent(
+        RegexKey.of(pattern),
+        k ->
+            select(
+                _interfaces,
+                i ->
+                    _interfaceDescriptions[i] != null
+                        && pattern.matcher(_interfaceDescriptions[i]).matches()));
+  }
+
+  /** Returns the interfaces with names in which {@code pattern} is found. */
+  public @Nonnull List<NodeInterfacePair> getInterfacesWithNameContaining(Pattern pattern) {
+    return _interfacesByName.computeIfAbsent(
+        RegexKey.of(pattern),
+        k -> select(_interfaces, i -> pattern.matcher(_interfaces[i].getInterface()).find()));
+  }
+
+  /** Returns the {@link LocationInfo} of all locations of the snapshot. */
+  public @Nonnull Map<Location, LocationInfo> getLocationInfo() {
+    return _locationInfo.get();
+  }
+
+  /**
+   * Returns the names of the nodes whose roles in {@code dimension} match {@code rolePattern} in
+   * full.
+   */
+  public @Nonnull List<String> getNodesWithRoleMatching(
+      NodeRoleDimension dimension, Pattern rolePattern) {
+    Map<String, SortedSet<String>> roleNodes =
+        _roleNodesByDimension.computeIfAbsent(
+            dimension, d -> ImmutableSortedMap.copyOf(d.createRoleNodesMap(_nodeSet)));
+    return roleNodes.entrySet().stream()
+        .filter(e -> rolePattern.matcher(e.getKey()).matches())
+        .flatMap(e -> e.getValue().stream())
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /** Returns the names of the nodes that match {@code pattern} in full. */
+  public @Nonnull List<String> getNodesMatching(Pattern pattern) {
+    return _nodesByName.computeIfAbsent(
+        RegexKey.of(pattern), k -> select(_nodes, i -> pattern.matcher(_nodes[i]).matches()));
+  }
+
+  /**
+   * Returns the VRFs whose names match {@code pattern} in full, as a multimap from node name to VRF
+   * names.
+   */
+  public @Nonnull ListMultimap<String, String> getVrfsMatching(Pattern pattern) {
+    return _vrfsByName.computeIfAbsent(
+        RegexKey.of(pattern),
+        k -> {
+          ImmutableListMultimap.Builder<String, String> vrfs = ImmutableListMultimap.builder();
+          for (int i = 0; i < _vrfNames.length; i++) {
+            if (pattern.matcher(_vrfNames[i]).matches()) {
+              vrfs.put(_vrfNodes[i], _vrfNames[i]);
+            }
+          }
+          return vrfs.build();
+        });
+  }
+
+  /**
+   * Returns a map of memoized results. Queries use arbitrary user regexes, and the index lives as
+   * long as its configurations are cached, so only the most recently used results are kept.
+   */
+  private static @Nonnull <K, V> Map<K, V> newMemo() {
+    return CacheBuilder.newBuilder().maximumSize(MAX_MEMOIZED_RESULTS).<K, V>build().asMap();
+  }
+
+  private static @Nonnull <T> List<T> select(T[] values, IntPredicate selected) {
+    return IntStream.range(0, values.length)
+        .filter(selected)
+        .mapToObj(i -> values[i])
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  private static @Nonnull Set<Location> toLocations(
+      List<NodeInterfacePair> interfaces, Function<NodeInterfacePair, Location> toLocation) {
+    return interfaces.stream().map(toLocation).collect(ImmutableSet.toImmutableSet());
+  }
+
+  /** A regex, identified by its pattern and flags, since {@link Pattern} has no equality. */
+  private static final class RegexKey {
+    static @Nonnull RegexKey of(Pattern pattern) {
+      return new RegexKey(pattern.pattern(), pattern.flags());
+    }
+
+    private RegexKey(String regex, int flags) {
+      _regex = regex;
+      _flags = flags;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof RegexKey)) {
+        return false;
+      }
+      RegexKey that = (RegexKey) o;
+      return _flags == that._flags && _regex.equals(that._regex);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * _regex.hashCode() + _flags;
+    }
+
+    private final String _regex;
+    private final int _flags;
+  }
+
+  private final @Nonnull String[] _nodes;
+  private final @Nonnull Set<String> _nodeSet;
+  private final @Nonnull NodeInterfacePair[] _interfaces;
+
+  /** Descriptions of {@code _interfaces}, or {@code null} for interfaces without one. */
+  private final @Nonnull String[] _interfaceDescriptions;
+
+  private final @Nonnull String[] _vrfNodes;
+  private final @Nonnull String[] _vrfNames;
+  private final @Nonnull Supplier<Map<Location, LocationInfo>> _locationInfo;
+  private final @Nonnull Supplier<Set<Location>> _allInterfaceLocations;
+  private final @Nonnull Supplier<Set<Location>> _allInterfaceLinkLocations;
+
+  private final Map<RegexKey, List<NodeInterfacePair>> _interfacesByDescription = newMemo();
+  private final Map<RegexKey, List<NodeInterfacePair>> _interfacesByName = newMemo();
+  private final Map<RegexKey, List<String>> _nodesByName = newMemo();
+  private final Map<NodeRoleDimension, Map<String, SortedSet<String>>> _roleNodesByDimension =
+      newMemo();
+  private final Map<RegexKey, ListMultimap<String, String>> _vrfsByName = newMemo();
+}
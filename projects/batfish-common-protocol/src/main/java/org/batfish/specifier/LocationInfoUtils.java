@@ -2,6 +2,7 @@ package org.batfish.specifier;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.batfish.common.util.CollectionUtil.toImmutableMap;
 import static org.batfish.datamodel.AclIpSpace.difference;
 import static org.batfish.datamodel.Prefix.HOST_SUBNET_MAX_PREFIX_LENGTH;
 
@@ -15,7 +16,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import org.batfish.common.topology.IpOwners;
+import org.batfish.common.topology.IpOwnershipIndex;
 import org.batfish.datamodel.AclIpSpace;
 import org.batfish.datamodel.ConcreteInterfaceAddress;
 import org.batfish.datamodel.Configuration;
@@ -73,24 +74,25 @@ public final class LocationInfoUtils {
 
   public static Map<Location, LocationInfo> computeLocationInfo(
       Map<String, Configuration> configs) {
-    return computeLocationInfo(new IpOwners(configs), configs);
+    return computeLocationInfo(IpOwnershipIndex.create(configs), configs);
   }
 
   public static Map<Location, LocationInfo> computeLocationInfo(
-      IpOwners ipOwners, Map<String, Configuration> configs) {
+      IpOwnershipIndex ipOwnershipIndex, Map<String, Configuration> configs) {
     /* Include inactive interfaces here so their IPs are considered part of the network (even though
      * they are unreachable). This means when ARP fails for those IPs we'll use NEIGHBOR_UNREACHABLE
      * or INSUFFICIENT_INFO dispositions rather than DELIVERED_TO_SUBNET or EXITS_NETWORK.
      */
-    IpSpace snapshotDeviceOwnedIps =
-        firstNonNull(
-            AclIpSpace.union(
-                ipOwners.getAllDeviceOwnedIps().keySet().stream()
-                    .map(Ip::toIpSpace)
-                    .collect(Collectors.toList())),
-            EmptyIpSpace.INSTANCE);
-
-    Map<String, Map<String, IpSpace>> interfaceOwnedIps = ipOwners.getInterfaceOwnedIpSpaces();
+    IpSpace snapshotDeviceOwnedIps = ipOwnershipIndex.getOwnedIpSpace();
+
+    Map<String, Map<String, IpSpace>> interfaceOwnedIps =
+        toImmutableMap(
+            ipOwnershipIndex.getVrfIfaceOwnedIpSpaces(),
+            Entry::getKey, /* host */
+            hostEntry ->
+                hostEntry.getValue().values().stream() /* Skip VRF keys */
+                    .flatMap(ifaceMap -> ifaceMap.entrySet().stream())
+                    .collect(ImmutableMap.toImmutableMap(Entry::getKey, Entry::getValue)));
     return computeLocationInfo(snapshotDeviceOwnedIps, interfaceOwnedIps, configs);
   }
 
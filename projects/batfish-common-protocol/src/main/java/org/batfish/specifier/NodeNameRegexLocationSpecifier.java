@@ -1,7 +1,7 @@
 package org.batfish.specifier;
 
 import com.google.common.collect.ImmutableSet;
-import java.util.Map.Entry;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -36,9 +36,9 @@ public abstract class NodeNameRegexLocationSpecifier implements LocationSpecifie
 
   @Override
   public Set<Location> resolve(SpecifierContext ctxt) {
-    return ctxt.getConfigs().entrySet().stream()
-        .filter(entry -> _pattern.matcher(entry.getKey()).matches())
-        .map(Entry::getValue)
+    Map<String, Configuration> configs = ctxt.getConfigs();
+    return ctxt.getLocationIndex().getNodesMatching(_pattern).stream()
+        .map(configs::get)
         .flatMap(this::getNodeLocations)
         .collect(ImmutableSet.toImmutableSet());
   }
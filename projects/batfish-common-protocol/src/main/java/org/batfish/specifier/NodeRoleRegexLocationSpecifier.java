@@ -5,7 +5,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.SortedSet;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import org.batfish.datamodel.Configuration;
@@ -46,13 +45,11 @@ public abstract class NodeRoleRegexLocationSpecifier implements LocationSpecifie
   public Set<Location> resolve(SpecifierContext ctxt) {
     Optional<NodeRoleDimension> dimension = ctxt.getNodeRoleDimension(_roleDimension);
     if (dimension.isPresent()) {
-      NodeRoleDimension nrdim = dimension.get();
-      Map<String, SortedSet<String>> roleNodesMap =
-          nrdim.createRoleNodesMap(ctxt.getConfigs().keySet());
-      return roleNodesMap.keySet().stream()
-          .filter(roleName -> _rolePattern.matcher(roleName).matches())
-          .flatMap(roleName -> roleNodesMap.get(roleName).stream())
-          .flatMap(nodeName -> getNodeLocations(ctxt.getConfigs().get(nodeName)))
+      Map<String, Configuration> configs = ctxt.getConfigs();
+      return ctxt.getLocationIndex()
+          .getNodesWithRoleMatching(dimension.get(), _rolePattern)
+          .stream()
+          .flatMap(nodeName -> getNodeLocations(configs.get(nodeName)))
           .collect(ImmutableSet.toImmutableSet());
     } else {
       return ImmutableSet.of();
@@ -32,4 +32,13 @@ public interface SpecifierContext {
 
   /** @return the {@link LocationInfo} for all {@link Location locations}. */
   Map<Location, LocationInfo> getLocationInfo();
+
+  /**
+   * @return a {@link LocationIndex} of the network configurations. By default, a new index is built
+   *     on each call.
+   */
+  @Nonnull
+  default LocationIndex getLocationIndex() {
+    return new LocationIndex(getConfigs(), this::getLocationInfo);
+  }
 }
@@ -1,6 +1,5 @@
 package org.batfish.specifier;
 
-import com.google.common.collect.ImmutableMap;
 import java.util.Map;
 import java.util.Optional;
 import javax.annotation.Nonnull;
@@ -16,12 +15,14 @@ public class SpecifierContextImpl implements SpecifierContext {
 
   private final @Nonnull Map<String, Configuration> _configs;
 
-  private final Map<Location, LocationInfo> _locationInfo;
+  private final @Nonnull LocationIndex _locationIndex;
 
   public SpecifierContextImpl(@Nonnull IBatfish batfish, @Nonnull NetworkSnapshot networkSnapshot) {
     _batfish = batfish;
     _configs = _batfish.loadConfigurations(networkSnapshot);
-    _locationInfo = ImmutableMap.copyOf(_batfish.getLocationInfo(networkSnapshot));
+    _locationIndex =
+        LocationIndex.forConfigurations(
+            _configs, () -> _batfish.getLocationInfo(networkSnapshot));
   }
 
   @Nonnull
@@ -43,11 +44,18 @@ public class SpecifierContextImpl implements SpecifierContext {
 
   @Override
   public LocationInfo getLocationInfo(Location location) {
-    return _locationInfo.get(location);
+    return _locationIndex.getLocationInfo().get(location);
   }
 
   @Override
   public Map<Location, LocationInfo> getLocationInfo() {
-    return _locationInfo;
+    return _locationIndex.getLocationInfo();
+  }
+
+  /** Returns the index shared by all contexts over the same (cached) configurations. */
+  @Nonnull
+  @Override
+  public LocationIndex getLocationIndex() {
+    return _locationIndex;
   }
 }
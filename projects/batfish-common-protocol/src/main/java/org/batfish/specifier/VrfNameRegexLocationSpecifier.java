@@ -1,6 +1,7 @@
 package org.batfish.specifier;
 
 import com.google.common.collect.ImmutableSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -39,12 +40,9 @@ public abstract class VrfNameRegexLocationSpecifier implements LocationSpecifier
 
   @Override
   public Set<Location> resolve(SpecifierContext ctxt) {
-    return ctxt.getConfigs().values().stream()
-        .flatMap(
-            node ->
-                node.getVrfs().values().stream()
-                    .filter(vrf -> _pattern.matcher(vrf.getName()).matches())
-                    .flatMap(v -> getVrfLocations(node, v.getName())))
+    Map<String, Configuration> configs = ctxt.getConfigs();
+    return ctxt.getLocationIndex().getVrfsMatching(_pattern).entries().stream()
+        .flatMap(vrf -> getVrfLocations(configs.get(vrf.getKey()), vrf.getValue()))
         .collect(ImmutableSet.toImmutableSet());
   }
 }
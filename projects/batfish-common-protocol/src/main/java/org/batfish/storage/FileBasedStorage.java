@@ -67,6 +67,7 @@ import org.batfish.common.CompletionMetadata;
 import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.plugin.PluginConsumer.Format;
 import org.batfish.common.runtime.SnapshotRuntimeData;
+import org.batfish.common.topology.IpOwnershipIndex;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.common.topology.Layer1Topology;
 import org.batfish.common.util.BatfishObjectMapper;
@@ -109,10 +110,12 @@ public class FileBasedStorage implements StorageProvider {
   private static final String SUFFIX_LOG_FILE = ".log";
   private static final String SUFFIX_ANSWER_JSON_FILE = ".json";
   private static final String RELPATH_COMPLETION_METADATA_FILE = "completion_metadata.json";
+  private static final String RELPATH_INDEXED_COMPLETION_METADATA = "indexed_completion_metadata";
   private static final String RELPATH_BGP_TOPOLOGY = "bgp_topology.json";
   private static final String RELPATH_EIGRP_TOPOLOGY = "eigrp_topology.json";
   private static final String RELPATH_SYNTHESIZED_LAYER1_TOPOLOGY =
       "synthesized_layer1_topology.json";
+  private static final String RELPATH_IP_OWNERSHIP_INDEX = "ip_ownership_index";
   private static final String RELPATH_LAYER3_TOPOLOGY = "layer3_topology.json";
   private static final String RELPATH_L3_ADJACENCIES = "l3_adjacencies";
   private static final String RELPATH_OSPF_TOPOLOGY = "ospf_topology.json";
@@ -450,6 +453,9 @@ public class FileBasedStorage implements StorageProvider {
       storeSynthesizedLayer1Topology(synthesizedLayer1Topology, network, snapshot);
     }
 
+    // Discard the IP ownership index computed from any previous configurations
+    Files.deleteIfExists(getIpOwnershipIndexPath(network, snapshot));
+
     Path outputDir = getVendorIndependentConfigDir(network, snapshot);
 
     String batchName =
@@ -988,6 +994,10 @@ public class FileBasedStorage implements StorageProvider {
         .resolve(RELPATH_EIGRP_TOPOLOGY);
   }
 
+  private @Nonnull Path getIpOwnershipIndexPath(NetworkId network, SnapshotId snapshot) {
+    return getSnapshotOutputDir(network, snapshot).resolve(RELPATH_IP_OWNERSHIP_INDEX);
+  }
+
   private @Nonnull Path getLayer3TopologyPath(NetworkSnapshot snapshot) {
     return getSnapshotOutputDir(snapshot.getNetwork(), snapshot.getSnapshot())
         .resolve(RELPATH_LAYER3_TOPOLOGY);
@@ -1075,6 +1085,14 @@ public class FileBasedStorage implements StorageProvider {
   @Override
   public CompletionMetadata loadCompletionMetadata(NetworkId networkId, SnapshotId snapshotId)
       throws IOException {
+    Path indexedPath = getSnapshotIndexedCompletionMetadataPath(networkId, snapshotId);
+    if (Files.exists(indexedPath)) {
+      try {
+        return deserializeObject(indexedPath, CompletionMetadata.class);
+      } catch (BatfishException e) {
+        LOGGER.warn("Could not load indexed completion metadata, falling back to JSON", e);
+      }
+    }
     Path completionMetadataPath = getSnapshotCompletionMetadataPath(networkId, snapshotId);
     if (!Files.exists(completionMetadataPath)) {
       return CompletionMetadata.EMPTY;
@@ -1090,6 +1108,14 @@ public class FileBasedStorage implements StorageProvider {
     Path completionMetadataPath = getSnapshotCompletionMetadataPath(networkId, snapshotId);
     mkdirs(completionMetadataPath.getParent());
     writeJsonFile(completionMetadataPath, completionMetadata);
+    // Also store the metadata with its autocomplete index built, so readers need not build it.
+    completionMetadata.getIndex();
+    try {
+      serializeObject(
+          completionMetadata, getSnapshotIndexedCompletionMetadataPath(networkId, snapshotId));
+    } catch (BatfishException e) {
+      throw new IOException(e);
+    }
   }
 
   private @Nonnull Path getSnapshotCompletionMetadataPath(
@@ -1097,6 +1123,12 @@ public class FileBasedStorage implements StorageProvider {
     return getSnapshotOutputDir(networkId, snapshotId).resolve(RELPATH_COMPLETION_METADATA_FILE);
   }
 
+  private @Nonnull Path getSnapshotIndexedCompletionMetadataPath(
+      NetworkId networkId, SnapshotId snapshotId) {
+    return getSnapshotOutputDir(networkId, snapshotId)
+        .resolve(RELPATH_INDEXED_COMPLETION_METADATA);
+  }
+
   /**
    * Make specified directory along with any parent directories if they do not already exist.
    *
@@ -1234,6 +1266,17 @@ public class FileBasedStorage implements StorageProvider {
         .readValue(getEigrpTopologyPath(networkSnapshot).toFile(), EigrpTopology.class);
   }
 
+  @Override
+  public @Nonnull Optional<IpOwnershipIndex> loadIpOwnershipIndex(NetworkSnapshot networkSnapshot)
+      throws IOException {
+    Path path =
+        getIpOwnershipIndexPath(networkSnapshot.getNetwork(), networkSnapshot.getSnapshot());
+    if (!Files.exists(path)) {
+      return Optional.empty();
+    }
+    return Optional.of(deserializeObject(path, IpOwnershipIndex.class));
+  }
+
   @Nonnull
   @Override
   public Optional<Layer1Topology> loadSynthesizedLayer1Topology(NetworkSnapshot snapshot)
@@ -1289,6 +1332,15 @@ public class FileBasedStorage implements StorageProvider {
     writeJsonFile(path, eigrpTopology);
   }
 
+  @Override
+  public void storeIpOwnershipIndex(
+      IpOwnershipIndex ipOwnershipIndex, NetworkSnapshot networkSnapshot) throws IOException {
+    Path path =
+        getIpOwnershipIndexPath(networkSnapshot.getNetwork(), networkSnapshot.getSnapshot());
+    mkdirs(path.getParent());
+    serializeObject(ipOwnershipIndex, path);
+  }
+
   @Override
   public void storeL3Adjacencies(L3Adjacencies l3Adjacencies, NetworkSnapshot networkSnapshot)
       throws IOException {
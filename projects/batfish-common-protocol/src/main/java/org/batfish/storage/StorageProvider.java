@@ -18,6 +18,7 @@ import javax.annotation.ParametersAreNonnullByDefault;
 import org.batfish.common.CompletionMetadata;
 import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.runtime.SnapshotRuntimeData;
+import org.batfish.common.topology.IpOwnershipIndex;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.common.topology.Layer1Topology;
 import org.batfish.datamodel.AnalysisMetadata;
@@ -470,7 +471,8 @@ public interface StorageProvider {
       throws IOException;
 
   /**
-   * Loads the JSON-serialized {@link CompletionMetadata} for the provided network and snapshot
+   * Loads the {@link CompletionMetadata} for the provided network and snapshot. Its {@link
+   * CompletionMetadata#getIndex() index} is loaded along with it if it was built when stored.
    *
    * @param networkId The ID of the network
    * @param snapshotId The ID of the snapshot
@@ -482,7 +484,8 @@ public interface StorageProvider {
       throws IOException;
 
   /**
-   * Writes the {@link CompletionMetadata} produced for the given network and snapshot
+   * Writes the {@link CompletionMetadata} produced for the given network and snapshot. May build
+   * its {@link CompletionMetadata#getIndex() index} and store it as well.
    *
    * @param completionMetadata The {@link CompletionMetadata} to write
    * @param networkId The ID of the network
@@ -511,6 +514,16 @@ public interface StorageProvider {
   @Nonnull
   EigrpTopology loadEigrpTopology(NetworkSnapshot networkSnapshot) throws IOException;
 
+  /**
+   * Loads the {@link IpOwnershipIndex} for the provided {@link NetworkSnapshot}, or returns {@link
+   * Optional#empty()} if none has been stored since the configurations were last stored.
+   *
+   * @throws IOException if there is an error reading the {@link IpOwnershipIndex}
+   */
+  @Nonnull
+  Optional<IpOwnershipIndex> loadIpOwnershipIndex(NetworkSnapshot networkSnapshot)
+      throws IOException;
+
   /**
    * Loads the {@link Layer1Topology} synthesized internally (e.g., for AWS).
    *
@@ -574,6 +587,15 @@ public interface StorageProvider {
   void storeEigrpTopology(EigrpTopology eigrpTopology, NetworkSnapshot networkSnapshot)
       throws IOException;
 
+  /**
+   * Stores the provided {@code ipOwnershipIndex}, computed from the configurations of the provided
+   * {@link NetworkSnapshot}. It is discarded when the configurations are stored again.
+   *
+   * @throws IOException if there is an error writing the {@code ipOwnershipIndex}
+   */
+  void storeIpOwnershipIndex(IpOwnershipIndex ipOwnershipIndex, NetworkSnapshot networkSnapshot)
+      throws IOException;
+
   /**
    * Stores the provided {@code layer3Topology} corresponding to the converged {@link
    * org.batfish.datamodel.DataPlane} for the provided {@link NetworkSnapshot}.
@@ -0,0 +1,93 @@
+package org.batfish.common.autocomplete;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Optional;
+import org.apache.commons.lang3.SerializationUtils;
+import org.batfish.common.CompletionMetadata;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.collections.NodeInterfacePair;
+import org.batfish.specifier.InterfaceLocation;
+import org.junit.Test;
+
+/** Tests of {@link CompletionMetadataIndex}. */
+public final class CompletionMetadataIndexTest {
+
+  private static final CompletionMetadata METADATA =
+      CompletionMetadata.builder()
+          .setFilterNames(ImmutableSet.of("acl_in", "acl_out", "other"))
+          .setInterfaces(
+              ImmutableSet.of(
+                  NodeInterfacePair.of("node1", "Ethernet1"),
+                  NodeInterfacePair.of("node2", "Ethernet1"),
+                  NodeInterfacePair.of("node2", "Loopback0")))
+          .setIps(
+              ImmutableMap.of(
+                  Ip.parse("10.0.0.1"),
+                  new IpCompletionMetadata(new IpCompletionRelevance("display", "node1", "eth")),
+                  Ip.parse("192.168.0.1"),
+                  new IpCompletionMetadata()))
+          .setLocations(
+              ImmutableSet.of(
+                  new LocationCompletionMetadata(
+                      new InterfaceLocation("node1", "Ethernet1"), true, false),
+                  new LocationCompletionMetadata(
+                      new InterfaceLocation("node2", "Loopback0"), false, true)))
+          .setNodes(
+              ImmutableMap.of(
+                  "node1", new NodeCompletionMetadata("core-router"),
+                  "node2", new NodeCompletionMetadata(null)))
+          .build();
+
+  @Test
+  public void testStringCandidates() {
+    CompletionMetadataIndex index = CompletionMetadataIndex.create(METADATA);
+    assertThat(index.getFilterNameCandidates("ACL_"), contains("acl_in", "acl_out"));
+    assertThat(index.getFilterNameCandidates("xyz"), empty());
+    assertThat(
+        index.getInterfaceCandidates("node2"),
+        containsInAnyOrder("node2[Ethernet1]", "node2[Loopback0]"));
+    assertThat(index.getInterfaceNameCandidates("ether"), contains("Ethernet1"));
+  }
+
+  @Test
+  public void testIpCandidates() {
+    CompletionMetadataIndex index = CompletionMetadataIndex.create(METADATA);
+    assertThat(index.getIpCandidates(new String[] {"168"}), contains(Ip.parse("192.168.0.1")));
+    // matches on IP and on tags
+    assertThat(
+        index.getIpCandidates(new String[] {"10.0", "node1"}), contains(Ip.parse("10.0.0.1")));
+    assertThat(index.getIpCandidates(new String[] {"168", "node1"}), empty());
+  }
+
+  @Test
+  public void testCandidatesWithDescriptions() {
+    CompletionMetadataIndex index = CompletionMetadataIndex.create(METADATA);
+    assertThat(
+        index.getNodeCandidates("core"),
+        equalTo(ImmutableMap.of("node1", Optional.of("core-router"))));
+    assertThat(
+        index.getSourceLocationCandidates("router"),
+        equalTo(ImmutableMap.of("node1[Ethernet1]", Optional.of("core-router"))));
+    assertThat(
+        index.getTracerouteSourceLocationCandidates("node"),
+        equalTo(ImmutableMap.of("node2[Loopback0]", Optional.empty())));
+  }
+
+  @Test
+  public void testJavaSerialization() {
+    // the index is serialized along with the metadata once built
+    CompletionMetadata metadata = SerializationUtils.clone(METADATA);
+    metadata.getIndex();
+    CompletionMetadata clone = SerializationUtils.clone(metadata);
+    assertThat(clone, equalTo(METADATA));
+    assertThat(clone.getIndex().getVrfCandidates("vrf"), empty());
+    assertThat(clone.getIndex().getNodeCandidates("node2").keySet(), contains("node2"));
+  }
+}
@@ -0,0 +1,63 @@
+package org.batfish.common.autocomplete;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+/** Tests of {@link SubstringIndex}. */
+public final class SubstringIndexTest {
+
+  private static final List<String> DOCUMENTS =
+      ImmutableList.of("Ethernet1", "ethernet2", "Loopback0", "GigabitEthernet0/0", "lo");
+
+  /** Returns the indices of the documents that actually contain {@code query}, ignoring case. */
+  private static int[] matches(String query) {
+    return IntStream.range(0, DOCUMENTS.size())
+        .filter(i -> DOCUMENTS.get(i).toLowerCase().contains(query.toLowerCase()))
+        .toArray();
+  }
+
+  @Test
+  public void testGetCandidates() {
+    SubstringIndex index = SubstringIndex.create(DOCUMENTS);
+    for (String query : ImmutableList.of("ETHER", "thernet", "net0", "back", "lo", "", "xyz")) {
+      int[] candidates = index.getCandidates(query);
+      // the only false positives are from queries without trigrams
+      if (query.length() < 3) {
+        assertArrayEquals(query, IntStream.range(0, DOCUMENTS.size()).toArray(), candidates);
+      } else {
+        assertArrayEquals(query, matches(query), candidates);
+      }
+    }
+  }
+
+  @Test
+  public void testGetCandidatesMultipleQueries() {
+    SubstringIndex index = SubstringIndex.create(DOCUMENTS);
+    assertArrayEquals(new int[] {0}, index.getCandidates(new String[] {"ether", "net1"}));
+    assertArrayEquals(new int[0], index.getCandidates(new String[] {"ether", "loop"}));
+    assertArrayEquals(
+        IntStream.range(0, DOCUMENTS.size()).toArray(), index.getCandidates(new String[0]));
+  }
+
+  @Test
+  public void testGetCandidatesSuperset() {
+    // every trigram of the query occurs in the document, but not the query itself
+    SubstringIndex index = SubstringIndex.create(ImmutableList.of("abcab", "xyz"));
+    assertArrayEquals(new int[] {0}, index.getCandidates("bcabc"));
+  }
+
+  @Test
+  public void testJavaSerialization() {
+    SubstringIndex index = SubstringIndex.create(DOCUMENTS);
+    SubstringIndex clone = SerializationUtils.clone(index);
+    assertThat(clone.size(), equalTo(DOCUMENTS.size()));
+    assertArrayEquals(index.getCandidates("ethernet"), clone.getCandidates("ethernet"));
+  }
+}
@@ -0,0 +1,112 @@
+package org.batfish.common.bdd;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import net.sf.javabdd.BDD;
+import org.batfish.datamodel.HeaderSpace;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpSpaceReference;
+import org.batfish.datamodel.Prefix;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/** Tests of {@link BDDConversionCache}. */
+public class BDDConversionCacheTest {
+  @Rule public ExpectedException _thrown = ExpectedException.none();
+
+  private BDDPacket _pkt;
+  private BDDConversionCache _cache;
+
+  @Before
+  public void setup() {
+    _pkt = new BDDPacket();
+    _cache = _pkt.getConversionCache();
+  }
+
+  @Test
+  public void testSharedAcrossConverters() {
+    HeaderSpace headerSpace =
+        HeaderSpace.builder().setDstIps(Prefix.parse("1.0.0.0/8").toIpSpace()).build();
+    BDD bdd = new HeaderSpaceToBDD(_pkt, ImmutableMap.of()).toBDD(headerSpace);
+    assertThat(bdd, equalTo(_pkt.getDstIpSpaceToBDD().toBDD(Prefix.parse("1.0.0.0/8"))));
+    assertThat(_cache.getHeaderSpaceStats().missCount(), equalTo(1L));
+
+    // an equal header space in another converter is a hit
+    HeaderSpace equalHeaderSpace =
+        HeaderSpace.builder().setDstIps(Prefix.parse("1.0.0.0/8").toIpSpace()).build();
+    assertThat(
+        new HeaderSpaceToBDD(_pkt, ImmutableMap.of()).toBDD(equalHeaderSpace), equalTo(bdd));
+    assertThat(_cache.getHeaderSpaceStats().hitCount(), equalTo(1L));
+  }
+
+  @Test
+  public void testReferencesResolved() {
+    HeaderSpace headerSpace =
+        HeaderSpace.builder().setSrcIps(new IpSpaceReference("servers")).build();
+    HeaderSpaceToBDD node1 =
+        new HeaderSpaceToBDD(
+            _pkt, ImmutableMap.of("servers", Prefix.parse("1.0.0.0/8").toIpSpace()));
+    HeaderSpaceToBDD node2 =
+        new HeaderSpaceToBDD(
+            _pkt, ImmutableMap.of("servers", Prefix.parse("1.0.0.0/8").toIpSpace()));
+    HeaderSpaceToBDD node3 =
+        new HeaderSpaceToBDD(_pkt, ImmutableMap.of("servers", Ip.parse("2.2.2.2").toIpSpace()));
+
+    BDD bdd = node1.toBDD(headerSpace);
+    assertThat(node2.toBDD(headerSpace), equalTo(bdd));
+    assertThat(_cache.getHeaderSpaceStats().hitCount(), equalTo(1L));
+    // the same reference to different IP spaces is a different key
+    assertThat(
+        node3.toBDD(headerSpace),
+        equalTo(_pkt.getSrcIpSpaceToBDD().toBDD(Ip.parse("2.2.2.2"))));
+    assertThat(_cache.getHeaderSpaceStats().missCount(), equalTo(2L));
+  }
+
+  @Test
+  public void testResultsAreCopies() {
+    HeaderSpace headerSpace =
+        HeaderSpace.builder().setDstIps(Ip.parse("1.1.1.1").toIpSpace()).build();
+    HeaderSpaceToBDD toBdd = new HeaderSpaceToBDD(_pkt, ImmutableMap.of());
+    BDD expected = _pkt.getDstIpSpaceToBDD().toBDD(Ip.parse("1.1.1.1"));
+
+    // consuming a result does not affect the cached BDD
+    toBdd.toBDD(headerSpace).andWith(_pkt.getSrcIpSpaceToBDD().toBDD(Ip.parse("2.2.2.2")));
+    assertThat(toBdd.toBDD(headerSpace), equalTo(expected));
+  }
+
+  @Test
+  public void testEviction() {
+    BDDConversionCache cache = new BDDConversionCache(_pkt, 1);
+    HeaderSpace headerSpace1 =
+        HeaderSpace.builder().setDstIps(Ip.parse("1.1.1.1").toIpSpace()).build();
+    HeaderSpace headerSpace2 =
+        HeaderSpace.builder().setDstIps(Ip.parse("2.2.2.2").toIpSpace()).build();
+    BDD expected = _pkt.getDstIpSpaceToBDD().toBDD(Ip.parse("1.1.1.1"));
+
+    assertThat(cache.toBdd(headerSpace1, ImmutableMap.of()), equalTo(expected));
+    cache.toBdd(headerSpace2, ImmutableMap.of());
+    assertThat(cache.getHeaderSpaceStats().evictionCount(), equalTo(1L));
+    // freeing the evicted BDD does not affect the packet's IP space conversions it came from
+    assertThat(_pkt.getDstIpSpaceToBDD().toBDD(Ip.parse("1.1.1.1")), equalTo(expected));
+    assertThat(cache.toBdd(headerSpace1, ImmutableMap.of()), equalTo(expected));
+    assertThat(cache.getHeaderSpaceStats().missCount(), equalTo(3L));
+  }
+
+  @Test
+  public void testUndefinedReference() {
+    HeaderSpace headerSpace =
+        HeaderSpace.builder().setSrcIps(new IpSpaceReference("undefined")).build();
+    HeaderSpaceToBDD toBdd =
+        new HeaderSpaceToBDD(_pkt, ImmutableMap.of("servers", Ip.parse("1.1.1.1").toIpSpace()));
+
+    // the converter reports the bad reference as it did before the lookup
+    _thrown.expect(UncheckedExecutionException.class);
+    _thrown.expectMessage("Undefined IpSpace reference: undefined");
+    toBdd.toBDD(headerSpace);
+  }
+}
@@ -15,7 +15,7 @@ import org.batfish.common.Answerer;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.bdd.BDDPacket;
-import org.batfish.common.topology.IpOwners;
+import org.batfish.common.topology.IpOwnershipIndex;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.common.topology.Layer1Topology;
 import org.batfish.common.topology.TopologyProvider;
@@ -73,8 +73,8 @@ public class IBatfishTestAdapter implements IBatfish {
 
     @Nonnull
     @Override
-    public IpOwners getIpOwners(NetworkSnapshot snapshot) {
-      return new IpOwners(_batfish.loadConfigurations(snapshot));
+    public IpOwnershipIndex getIpOwnershipIndex(NetworkSnapshot snapshot) {
+      return IpOwnershipIndex.create(_batfish.loadConfigurations(snapshot));
     }
 
     @Override
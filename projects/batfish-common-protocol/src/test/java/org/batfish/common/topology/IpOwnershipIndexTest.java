@@ -0,0 +1,180 @@
+package org.batfish.common.topology;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Map;
+import org.apache.commons.lang3.SerializationUtils;
+import org.batfish.datamodel.ConcreteInterfaceAddress;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.EmptyIpSpace;
+import org.batfish.datamodel.Interface;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.NetworkFactory;
+import org.batfish.datamodel.Vrf;
+import org.batfish.datamodel.hsrp.HsrpGroup;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of {@link IpOwnershipIndex}. */
+public class IpOwnershipIndexTest {
+
+  private static final Ip SHARED_IP = Ip.parse("10.0.0.1");
+  private static final Ip N1_IP = Ip.parse("10.0.0.2");
+  private static final Ip INACTIVE_IP = Ip.parse("10.0.0.3");
+  private static final Ip UNOWNED_IP = Ip.parse("10.0.0.4");
+
+  private Map<String, Configuration> _configs;
+
+  @Before
+  public void setup() {
+    NetworkFactory nf = new NetworkFactory();
+    Configuration.Builder cb =
+        nf.configurationBuilder().setConfigurationFormat(ConfigurationFormat.CISCO_IOS);
+    Configuration n1 = cb.setHostname("n1").build();
+    Configuration n2 = cb.setHostname("n2").build();
+    Vrf n1Default = nf.vrfBuilder().setOwner(n1).setName(Configuration.DEFAULT_VRF_NAME).build();
+    Vrf n1Other = nf.vrfBuilder().setOwner(n1).setName("other").build();
+    Vrf n2Default = nf.vrfBuilder().setOwner(n2).setName(Configuration.DEFAULT_VRF_NAME).build();
+    Interface.Builder ib = nf.interfaceBuilder();
+    ib.setOwner(n1)
+        .setVrf(n1Default)
+        .setName("i1")
+        .setAddress(ConcreteInterfaceAddress.create(SHARED_IP, 24))
+        .build();
+    ib.setOwner(n1)
+        .setVrf(n1Other)
+        .setName("i2")
+        .setAddress(ConcreteInterfaceAddress.create(N1_IP, 24))
+        .build();
+    ib.setOwner(n1)
+        .setVrf(n1Other)
+        .setName("i3")
+        .setAddress(ConcreteInterfaceAddress.create(INACTIVE_IP, 24))
+        .setActive(false)
+        .build();
+    ib.setOwner(n2)
+        .setVrf(n2Default)
+        .setName("i1")
+        .setAddress(ConcreteInterfaceAddress.create(SHARED_IP, 24))
+        .setActive(true)
+        .build();
+    _configs = ImmutableMap.of("n1", n1, "n2", n2);
+  }
+
+  @Test
+  public void testMatchesIpOwners() {
+    IpOwners ipOwners = new IpOwners(_configs);
+    IpOwnershipIndex index = IpOwnershipIndex.create(_configs);
+
+    assertThat(index.size(), equalTo(ipOwners.getAllDeviceOwnedIps().size()));
+    assertThat(index.getVrfIfaceOwnedIpSpaces(), equalTo(ipOwners.getVrfIfaceOwnedIpSpaces()));
+    assertThat(
+        index.getInterfaceOwnedIps(),
+        equalTo(IpOwners.computeInterfaceOwnedIps(_configs, /*excludeInactive=*/ false)));
+    ipOwners
+        .getAllDeviceOwnedIps()
+        .forEach(
+            (ip, owners) -> {
+              assertThat(index.getInterfaceOwners(ip, false), equalTo(owners));
+              assertThat(index.getNodeOwners(ip, false), equalTo(owners.keySet()));
+            });
+    ipOwners
+        .getIpVrfOwners()
+        .forEach((ip, owners) -> assertThat(index.getVrfOwners(ip), equalTo(owners)));
+    ipOwners
+        .getIpVrfOwners()
+        .forEach(
+            (ip, owners) ->
+                owners.forEach(
+                    (node, vrfs) ->
+                        vrfs.forEach(
+                            vrf ->
+                                assertTrue(
+                                    index
+                                        .getVrfOwnedIpSpace(node, vrf)
+                                        .containsIp(ip, ImmutableMap.of())))));
+  }
+
+  @Test
+  public void testLookups() {
+    IpOwnershipIndex index = IpOwnershipIndex.create(_configs);
+
+    assertThat(
+        index.getVrfOwners(SHARED_IP),
+        equalTo(
+            ImmutableMap.of(
+                "n1",
+                ImmutableSet.of(Configuration.DEFAULT_VRF_NAME),
+                "n2",
+                ImmutableSet.of(Configuration.DEFAULT_VRF_NAME))));
+    assertTrue(index.isOwnedByVrf(N1_IP, "n1", "other"));
+    assertFalse(index.isOwnedByVrf(N1_IP, "n1", Configuration.DEFAULT_VRF_NAME));
+    assertFalse(index.isOwnedByVrf(N1_IP, "n2", "other"));
+
+    // inactive interfaces own IPs, but not on behalf of their VRFs
+    assertTrue(index.isOwned(INACTIVE_IP));
+    assertThat(index.getNodeOwners(INACTIVE_IP, true), equalTo(ImmutableSet.of()));
+    assertThat(index.getNodeOwners(INACTIVE_IP, false), equalTo(ImmutableSet.of("n1")));
+    assertThat(
+        index.getInterfaceOwners(INACTIVE_IP, false),
+        equalTo(ImmutableMap.of("n1", ImmutableSet.of("i3"))));
+    assertThat(index.getVrfOwners(INACTIVE_IP), equalTo(ImmutableMap.of()));
+    assertTrue(index.getOwnedIpSpace().containsIp(INACTIVE_IP, ImmutableMap.of()));
+
+    assertFalse(index.isOwned(UNOWNED_IP));
+    assertThat(index.getVrfOwners(UNOWNED_IP), equalTo(ImmutableMap.of()));
+    assertFalse(
+        index.getVrfOwnedIpSpace("n1", "other").containsIp(SHARED_IP, ImmutableMap.of()));
+    assertThat(index.getVrfOwnedIpSpace("n2", "other"), equalTo(EmptyIpSpace.INSTANCE));
+    assertFalse(index.getOwnedIpSpace().containsIp(UNOWNED_IP, ImmutableMap.of()));
+  }
+
+  @Test
+  public void testHsrp() {
+    Ip virtualIp = Ip.parse("10.0.0.100");
+    _configs
+        .get("n1")
+        .getAllInterfaces()
+        .get("i1")
+        .setHsrpGroups(ImmutableMap.of(1, hsrpGroup(virtualIp, 100)));
+    _configs
+        .get("n2")
+        .getAllInterfaces()
+        .get("i1")
+        .setHsrpGroups(ImmutableMap.of(1, hsrpGroup(virtualIp, 200)));
+    IpOwners ipOwners = new IpOwners(_configs);
+    IpOwnershipIndex index = IpOwnershipIndex.create(_configs);
+
+    // only the elected master owns the virtual IP
+    assertThat(
+        index.getVrfOwners(virtualIp),
+        equalTo(ImmutableMap.of("n2", ImmutableSet.of(Configuration.DEFAULT_VRF_NAME))));
+    assertThat(index.getVrfOwners(virtualIp), equalTo(ipOwners.getIpVrfOwners().get(virtualIp)));
+    assertThat(index.getVrfIfaceOwnedIpSpaces(), equalTo(ipOwners.getVrfIfaceOwnedIpSpaces()));
+  }
+
+  private static HsrpGroup hsrpGroup(Ip ip, int priority) {
+    return HsrpGroup.builder()
+        .setGroupNumber(1)
+        .setPriority(priority)
+        .setIps(ImmutableSet.of(ip))
+        .build();
+  }
+
+  @Test
+  public void testSerialization() {
+    IpOwnershipIndex index = IpOwnershipIndex.create(_configs);
+    IpOwnershipIndex clone = SerializationUtils.clone(index);
+
+    assertThat(clone.getVrfOwners(SHARED_IP), equalTo(index.getVrfOwners(SHARED_IP)));
+    assertThat(clone.getVrfOwnedIpSpaces(), equalTo(index.getVrfOwnedIpSpaces()));
+    assertThat(clone.getVrfIfaceOwnedIpSpaces(), equalTo(index.getVrfIfaceOwnedIpSpaces()));
+    assertTrue(clone.isOwnedByVrf(SHARED_IP, "n2", Configuration.DEFAULT_VRF_NAME));
+  }
+}
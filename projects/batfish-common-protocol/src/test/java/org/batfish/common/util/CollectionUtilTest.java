@@ -2,6 +2,7 @@ package org.batfish.common.util;
 
 import static org.batfish.common.util.CollectionUtil.maxValues;
 import static org.batfish.common.util.CollectionUtil.toImmutableMap;
+import static org.batfish.common.util.CollectionUtil.toImmutableMapInParallel;
 import static org.batfish.common.util.CollectionUtil.toMap;
 import static org.batfish.common.util.CollectionUtil.toOrderedHashCode;
 import static org.batfish.common.util.CollectionUtil.toUnorderedHashCode;
@@ -20,6 +21,7 @@ import com.google.common.collect.Maps;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -47,6 +49,21 @@ public class CollectionUtilTest {
     assertThat(toImmutableMap(m), instanceOf(ImmutableMap.class));
   }
 
+  @Test
+  public void testToImmutableMapInParallel() {
+    ImmutableMap.Builder<Integer, Integer> builder = ImmutableMap.builder();
+    for (int i = 1000; i > 0; i--) {
+      builder.put(i, i);
+    }
+    Map<Integer, Integer> m = builder.build();
+    Map<Integer, Integer> doubled =
+        toImmutableMapInParallel(m, Entry::getKey, e -> 2 * e.getValue());
+
+    assertThat(doubled, instanceOf(ImmutableMap.class));
+    assertThat(doubled.keySet(), contains(m.keySet().toArray()));
+    assertThat(doubled, equalTo(toImmutableMap(m, Entry::getKey, e -> 2 * e.getValue())));
+  }
+
   @Test
   public void testToOrderedHashCode() {
     assertThat(Stream.of().collect(toOrderedHashCode()), equalTo(ImmutableList.of().hashCode()));
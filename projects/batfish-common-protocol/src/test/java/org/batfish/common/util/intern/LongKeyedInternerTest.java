@@ -0,0 +1,52 @@
+package org.batfish.common.util.intern;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/** Tests of {@link LongKeyedInterner}. */
+public class LongKeyedInternerTest {
+
+  private static final class Value {
+    private final long _key;
+
+    private Value(long key) {
+      _key = key;
+    }
+  }
+
+  @Test
+  public void testIntern() {
+    LongKeyedInterner<Value> interner = new LongKeyedInterner<>("test", v -> v._key);
+    Value v1 = interner.intern(1L, Value::new);
+    assertThat(interner.intern(1L, Value::new), sameInstance(v1));
+    Value v2 = interner.intern(2L, Value::new);
+    assertThat(v2, not(sameInstance(v1)));
+    assertThat(v2._key, equalTo(2L));
+
+    // keys colliding in the table of recent values still resolve to their own canonical value
+    for (long key = 0; key < 4 * LongKeyedInterner.RECENT_SIZE; key++) {
+      interner.intern(key, Value::new);
+    }
+    assertThat(interner.intern(1L, Value::new), sameInstance(v1));
+    assertThat(interner.intern(2L, Value::new), sameInstance(v2));
+    assertThat(interner.getStats().getMisses(), equalTo(4L * LongKeyedInterner.RECENT_SIZE));
+  }
+
+  @Test
+  public void testRegistered() {
+    LongKeyedInterner<Value> interner =
+        Interners.newLongKeyedInterner("LongKeyedInternerTest", v -> v._key);
+    interner.intern(1L, Value::new);
+    assertThat(
+        Interners.getStats().stream()
+            .filter(stats -> stats.getName().equals("LongKeyedInternerTest"))
+            .findFirst()
+            .get()
+            .getMisses(),
+        equalTo(1L));
+  }
+}
@@ -0,0 +1,47 @@
+package org.batfish.common.util.intern;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+/** Tests of {@link WeakInterner}. */
+public class WeakInternerTest {
+
+  @Test
+  public void testIntern() {
+    WeakInterner<ImmutableSet<Integer>, List<Integer>> interner = new WeakInterner<>("test");
+    List<Integer> value = interner.intern(ImmutableSet.of(1, 2), ImmutableList::copyOf);
+    assertThat(value, equalTo(ImmutableList.of(1, 2)));
+    assertThat(interner.intern(ImmutableSet.of(1, 2), ImmutableList::copyOf), sameInstance(value));
+
+    // lookup by an equal key of a different type
+    Set<Integer> mutableKey = new HashSet<>(ImmutableSet.of(1, 2));
+    assertThat(interner.getIfPresent(mutableKey), sameInstance(value));
+    assertThat(interner.getIfPresent(ImmutableSet.of(3)), nullValue());
+
+    assertThat(interner.getStats(), equalTo(new InternerStats("test", 2, 1, 1)));
+  }
+
+  @Test
+  public void testInternConcurrent() {
+    WeakInterner<Integer, String> interner = new WeakInterner<>("test");
+    // distinct but equal values would all be retained by an identity set
+    Set<String> values =
+        Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    IntStream.range(0, 100_000)
+        .parallel()
+        .forEach(i -> values.add(interner.intern(i % 100, key -> new String("v" + key))));
+    assertThat(values.size(), equalTo(100));
+  }
+}
@@ -0,0 +1,24 @@
+package org.batfish.common.util.intern;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.Test;
+
+/** Tests of {@link WeakSelfInterner}. */
+public class WeakSelfInternerTest {
+
+  @Test
+  public void testIntern() {
+    WeakSelfInterner<List<Integer>> interner = new WeakSelfInterner<>("test");
+    List<Integer> value = ImmutableList.of(1, 2);
+    assertThat(interner.intern(value), sameInstance(value));
+    assertThat(interner.intern(ImmutableList.of(1, 2)), sameInstance(value));
+    assertThat(interner.intern(ImmutableList.of(3)), equalTo(ImmutableList.of(3)));
+
+    assertThat(interner.getStats(), equalTo(new InternerStats("test", 1, 2, 2)));
+  }
+}
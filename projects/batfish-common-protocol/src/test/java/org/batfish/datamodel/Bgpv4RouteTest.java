@@ -1,6 +1,8 @@
 package org.batfish.datamodel;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import com.google.common.collect.ImmutableSet;
@@ -58,6 +60,29 @@ public class Bgpv4RouteTest {
     assertThat(br, equalTo(br.toBuilder().build()));
   }
 
+  @Test
+  public void testAttributesShared() {
+    Bgpv4Route.Builder builder =
+        Bgpv4Route.testBuilder()
+            .setNextHopInterface("blah")
+            .setOriginatorIp(Ip.parse("1.1.1.1"))
+            .setOriginType(OriginType.IGP)
+            .setProtocol(RoutingProtocol.BGP)
+            .setCommunities(ImmutableSet.of(StandardCommunity.of(1, 1)));
+    Bgpv4Route br1 = builder.setNetwork(Prefix.parse("1.1.1.0/24")).build();
+    Bgpv4Route br2 = builder.setNetwork(Prefix.parse("2.2.2.0/24")).build();
+    Bgpv4Route br3 = builder.setLocalPreference(200L).build();
+
+    // routes to different networks with the same path attributes share them
+    assertThat(br2._attributes, sameInstance(br1._attributes));
+    assertThat(br3._attributes, not(sameInstance(br2._attributes)));
+    // including after deserialization
+    assertThat(SerializationUtils.clone(br1)._attributes, sameInstance(br1._attributes));
+    assertThat(
+        BatfishObjectMapper.clone(br1, Bgpv4Route.class)._attributes,
+        sameInstance(br1._attributes));
+  }
+
   @Test
   public void testEquals() {
     Builder brb =
@@ -0,0 +1,123 @@
+package org.batfish.datamodel;
+
+import static com.google.common.collect.Maps.immutableEntry;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.lang3.SerializationUtils;
+import org.batfish.datamodel.PrefixTrieMultiMap.FoldOperator;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of {@link CompactPrefixTrieMultiMap}. */
+public class CompactPrefixTrieMultiMapTest {
+
+  private static final Prefix P1 = Prefix.parse("1.1.1.0/24");
+  private static final Prefix P2 = Prefix.parse("1.1.1.128/25");
+  private static final Prefix P3 = Prefix.parse("1.1.1.129/32");
+  private static final Prefix P4 = Prefix.parse("128.0.0.0/1");
+
+  private PrefixTrieMultiMap<Integer> _map;
+
+  private static <T> List<Entry<Prefix, Set<T>>> entriesPostOrder(
+      CompactPrefixTrieMultiMap<T> map) {
+    List<Entry<Prefix, Set<T>>> entries = new ArrayList<>();
+    map.traverseEntries((prefix, elems) -> entries.add(immutableEntry(prefix, elems)));
+    return entries;
+  }
+
+  private static <T> List<Entry<Prefix, Set<T>>> entriesPostOrder(PrefixTrieMultiMap<T> map) {
+    List<Entry<Prefix, Set<T>>> entries = new ArrayList<>();
+    map.traverseEntries((prefix, elems) -> entries.add(immutableEntry(prefix, elems)));
+    return entries;
+  }
+
+  @Before
+  public void setup() {
+    _map = new PrefixTrieMultiMap<>(Prefix.ZERO);
+    _map.put(P1, 1);
+    _map.put(P2, 2);
+    _map.put(P3, 3);
+    _map.put(P3, 4);
+    _map.put(P4, 5);
+  }
+
+  @Test
+  public void testLookups() {
+    CompactPrefixTrieMultiMap<Integer> compact = _map.compact();
+
+    for (String ip :
+        ImmutableList.of(
+            "1.1.1.1", "1.1.1.128", "1.1.1.129", "1.1.1.130", "2.2.2.2", "255.0.0.1")) {
+      assertThat(
+          compact.longestPrefixMatch(Ip.parse(ip)),
+          equalTo(_map.longestPrefixMatch(Ip.parse(ip))));
+    }
+    assertThat(compact.longestPrefixMatch(Ip.parse("1.1.1.129")), equalTo(ImmutableSet.of(3, 4)));
+    assertThat(compact.longestPrefixMatch(Ip.parse("1.1.1.129"), 25), equalTo(ImmutableSet.of(2)));
+    assertThat(compact.longestPrefixMatch(Ip.parse("1.1.1.128"), 1), empty());
+    assertThat(compact.longestPrefixMatch(Ip.parse("255.0.0.1")), equalTo(ImmutableSet.of(5)));
+
+    assertThat(compact.get(P2), equalTo(ImmutableSet.of(2)));
+    assertThat(compact.get(Prefix.ZERO), empty());
+    assertThat(compact.get(Prefix.parse("1.1.1.0/25")), empty());
+    assertThat(compact.getAllElements(), equalTo(_map.getAllElements()));
+  }
+
+  @Test
+  public void testTraversals() {
+    CompactPrefixTrieMultiMap<Integer> compact = _map.compact();
+    FoldOperator<Integer, List<Prefix>> postOrder =
+        new FoldOperator<Integer, List<Prefix>>() {
+          @Nonnull
+          @Override
+          public List<Prefix> fold(
+              Prefix prefix,
+              Set<Integer> elems,
+              @Nullable List<Prefix> leftResult,
+              @Nullable List<Prefix> rightResult) {
+            List<Prefix> result = new ArrayList<>();
+            if (leftResult != null) {
+              result.addAll(leftResult);
+            }
+            if (rightResult != null) {
+              result.addAll(rightResult);
+            }
+            result.add(prefix);
+            return result;
+          }
+        };
+
+    assertThat(compact.fold(postOrder), equalTo(_map.fold(postOrder)));
+    assertThat(entriesPostOrder(compact), equalTo(entriesPostOrder(_map)));
+    assertThat(compact.size(), equalTo(entriesPostOrder(_map).size()));
+  }
+
+  @Test
+  public void testEmpty() {
+    CompactPrefixTrieMultiMap<Integer> compact = new PrefixTrieMultiMap<Integer>().compact();
+
+    assertThat(compact.size(), equalTo(0));
+    assertThat(compact.longestPrefixMatch(Ip.parse("1.1.1.1")), empty());
+    assertThat(compact.get(Prefix.ZERO), empty());
+    assertThat(compact.getAllElements(), empty());
+    assertThat(compact.fold((prefix, elems, left, right) -> prefix), nullValue());
+  }
+
+  @Test
+  public void testSerialization() {
+    CompactPrefixTrieMultiMap<Integer> clone = SerializationUtils.clone(_map.compact());
+
+    assertThat(entriesPostOrder(clone), equalTo(entriesPostOrder(_map)));
+  }
+}
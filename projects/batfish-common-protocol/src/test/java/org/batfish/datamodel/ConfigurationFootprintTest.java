@@ -0,0 +1,44 @@
+package org.batfish.datamodel;
+
+import static org.batfish.datamodel.ConfigurationFootprint.TOTAL;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Map;
+import org.junit.Test;
+
+/** Tests of {@link ConfigurationFootprint}. */
+public class ConfigurationFootprintTest {
+
+  @Test
+  public void testMeasure() {
+    NetworkFactory nf = new NetworkFactory();
+    Configuration c =
+        nf.configurationBuilder()
+            .setHostname("c")
+            .setConfigurationFormat(ConfigurationFormat.CISCO_IOS)
+            .build();
+    Vrf vrf = nf.vrfBuilder().setOwner(c).setName(Configuration.DEFAULT_VRF_NAME).build();
+    nf.interfaceBuilder().setOwner(c).setVrf(vrf).setName("Ethernet1").build();
+    nf.aclBuilder()
+        .setOwner(c)
+        .setName("acl")
+        .setLines(ImmutableList.of(ExprAclLine.ACCEPT_ALL))
+        .build();
+
+    Map<String, Long> sizes = ConfigurationFootprint.measure(c);
+
+    assertThat(sizes.keySet().iterator().next(), equalTo(TOTAL));
+    assertThat(sizes.get("interfaces"), greaterThan(0L));
+    assertThat(sizes.get("ipAccessLists"), greaterThan(0L));
+    assertThat(sizes.get("ipAccessLists"), lessThan(sizes.get(TOTAL)));
+    assertThat(sizes.get("routingPolicies"), equalTo(0L));
+    assertThat(sizes, hasKey("vrfs"));
+    // the configuration is not modified
+    assertThat(c.getIpAccessLists(), hasKey("acl"));
+  }
+}
@@ -16,6 +16,7 @@ import static org.batfish.datamodel.ForwardingAnalysisImpl.computeMatchingIps;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeNeighborUnreachable;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeNextVrfIpsByNodeVrf;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeNullRoutedIps;
+import static org.batfish.datamodel.ForwardingAnalysisImpl.computeRouteMatchConditions;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeRoutesWhereDstIpCanBeArpIp;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeRoutesWithDestIpEdge;
 import static org.batfish.datamodel.ForwardingAnalysisImpl.computeRoutesWithNextHopIpArpFalse;
@@ -33,6 +34,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -902,6 +904,31 @@ public class ForwardingAnalysisImplTest {
                     AclIpSpaceLine.permit(IPSPACE1), AclIpSpaceLine.permit(IPSPACE2)))));
   }
 
+  @Test
+  public void testComputeRouteMatchConditionsMemoized() {
+    String c1 = "c1";
+    String v1 = "v1";
+    Map<String, Map<String, Fib>> fibs =
+        ImmutableMap.of(
+            c1,
+            ImmutableMap.of(
+                v1,
+                MockFib.builder()
+                    .setMatchingIps(ImmutableMap.of(P1, IPSPACE1, P2, IPSPACE2))
+                    .build()));
+    Map<Prefix, IpSpace> matchingIps = computeMatchingIps(fibs).get(c1).get(v1);
+    AbstractRoute r1 = new ConnectedRoute(P1, INTERFACE1);
+    AbstractRoute r2 = new ConnectedRoute(P2, INTERFACE2);
+    IpSpace ipSpace = computeRouteMatchConditions(ImmutableSet.of(r1, r2), matchingIps);
+
+    assertThat(matchingIps, equalTo(ImmutableMap.of(P1, IPSPACE1, P2, IPSPACE2)));
+    /* Route sets with the same networks share the same IpSpace */
+    AbstractRoute r3 = new ConnectedRoute(P1, INTERFACE2);
+    assertThat(
+        computeRouteMatchConditions(ImmutableSet.of(r2, r3, r1), matchingIps),
+        sameInstance(ipSpace));
+  }
+
   @Test
   public void testComputeRoutesWhereDstIpCanBeArpIp() {
     String c1 = "c1";
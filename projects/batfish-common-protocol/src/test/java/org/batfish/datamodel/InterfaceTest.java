@@ -3,13 +3,18 @@ package org.batfish.datamodel;
 import static org.batfish.datamodel.Interface.computeCiscoInterfaceType;
 import static org.batfish.datamodel.Interface.isRealInterfaceName;
 import static org.batfish.datamodel.matchers.InterfaceMatchers.isActive;
+import static org.hamcrest.Matchers.anEmptyMap;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import com.google.common.testing.EqualsTester;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.apache.commons.lang3.SerializationUtils;
 import org.batfish.common.util.BatfishObjectMapper;
 import org.batfish.datamodel.Interface.Dependency;
 import org.batfish.datamodel.Interface.DependencyType;
@@ -81,4 +86,30 @@ public class InterfaceTest {
     Interface iDeserial = BatfishObjectMapper.clone(i, Interface.class);
     assertThat(i, equalTo(iDeserial));
   }
+
+  @Test
+  public void testJavaSerializationInternsStrings() {
+    Interface i =
+        Interface.builder()
+            .setName(new String("Ethernet1"))
+            .setDescription(new String("uplink"))
+            .setZoneName(new String("trust"))
+            .build();
+    Interface clone1 = SerializationUtils.clone(i);
+    Interface clone2 = SerializationUtils.clone(i);
+
+    assertThat(clone1.getName(), sameInstance(i.getName()));
+    assertThat(clone2.getDescription(), sameInstance(clone1.getDescription()));
+    assertThat(clone2.getZoneName(), sameInstance(clone1.getZoneName()));
+  }
+
+  @Test
+  public void testSetVrrpGroupsCopies() {
+    Interface i = Interface.builder().setName("iface").build();
+    SortedMap<Integer, VrrpGroup> groups = new TreeMap<>();
+    i.setVrrpGroups(groups);
+    groups.put(1, VrrpGroup.builder().setName(1).build());
+
+    assertThat(i.getVrrpGroups(), anEmptyMap());
+  }
 }
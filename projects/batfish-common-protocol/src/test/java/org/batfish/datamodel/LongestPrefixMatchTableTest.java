@@ -0,0 +1,90 @@
+package org.batfish.datamodel;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+/** Tests of {@link LongestPrefixMatchTable}. */
+public class LongestPrefixMatchTableTest {
+
+  private static LongestPrefixMatchTable<Integer> table(PrefixTrieMultiMap<Integer> trie) {
+    return LongestPrefixMatchTable.create(trie.compact());
+  }
+
+  @Test
+  public void testGet() {
+    PrefixTrieMultiMap<Integer> trie = new PrefixTrieMultiMap<>(Prefix.ZERO);
+    trie.put(Prefix.parse("1.1.1.0/24"), 1);
+    trie.put(Prefix.parse("1.1.1.128/25"), 2);
+    trie.put(Prefix.parse("1.1.1.129/32"), 3);
+    trie.put(Prefix.parse("255.255.255.255/32"), 4);
+    LongestPrefixMatchTable<Integer> table = table(trie);
+
+    assertThat(table.get(Ip.parse("0.0.0.0")), empty());
+    assertThat(table.get(Ip.parse("1.1.0.255")), empty());
+    assertThat(table.get(Ip.parse("1.1.1.0")), equalTo(ImmutableSet.of(1)));
+    assertThat(table.get(Ip.parse("1.1.1.127")), equalTo(ImmutableSet.of(1)));
+    assertThat(table.get(Ip.parse("1.1.1.128")), equalTo(ImmutableSet.of(2)));
+    assertThat(table.get(Ip.parse("1.1.1.129")), equalTo(ImmutableSet.of(3)));
+    assertThat(table.get(Ip.parse("1.1.1.130")), equalTo(ImmutableSet.of(2)));
+    assertThat(table.get(Ip.parse("1.1.2.0")), empty());
+    assertThat(table.get(Ip.parse("255.255.255.254")), empty());
+    assertThat(table.get(Ip.parse("255.255.255.255")), equalTo(ImmutableSet.of(4)));
+    // [0, 1.1.1.0), 1, 2, 3, 2, (1.1.1.255, 255.255.255.255), 4
+    assertThat(table.size(), equalTo(7));
+  }
+
+  @Test
+  public void testGetDefaultRoute() {
+    PrefixTrieMultiMap<Integer> trie = new PrefixTrieMultiMap<>();
+    trie.put(Prefix.ZERO, 0);
+    trie.put(Prefix.parse("128.0.0.0/1"), 1);
+    LongestPrefixMatchTable<Integer> table = table(trie);
+
+    assertThat(table.get(Ip.parse("127.255.255.255")), equalTo(ImmutableSet.of(0)));
+    assertThat(table.get(Ip.parse("128.0.0.0")), equalTo(ImmutableSet.of(1)));
+    assertThat(table.size(), equalTo(2));
+  }
+
+  @Test
+  public void testGetEmpty() {
+    LongestPrefixMatchTable<Integer> table = table(new PrefixTrieMultiMap<>());
+
+    assertThat(table.get(Ip.parse("1.2.3.4")), empty());
+    assertThat(
+        table.get(ImmutableList.of(Ip.ZERO, Ip.MAX)),
+        equalTo(ImmutableList.of(ImmutableSet.of(), ImmutableSet.of())));
+  }
+
+  @Test
+  public void testMatchesTrie() {
+    Random random = new Random(0);
+    PrefixTrieMultiMap<Integer> trie = new PrefixTrieMultiMap<>(Prefix.ZERO);
+    for (int i = 0; i < 1000; i++) {
+      // prefixes within the first few /8s, so that many of them nest
+      Ip ip = Ip.create(random.nextInt(4) << 24 | random.nextInt(1 << 24));
+      trie.put(Prefix.create(ip, 8 + random.nextInt(25)), i);
+    }
+    CompactPrefixTrieMultiMap<Integer> compact = trie.compact();
+    LongestPrefixMatchTable<Integer> table = LongestPrefixMatchTable.create(compact);
+
+    ImmutableList.Builder<Ip> ips = ImmutableList.builder();
+    for (int i = 0; i < 10000; i++) {
+      ips.add(Ip.create(random.nextInt(5) << 24 | random.nextInt(1 << 24)));
+    }
+    List<Ip> queries = ips.build();
+    List<Set<Integer>> batch = table.get(queries);
+    for (int i = 0; i < queries.size(); i++) {
+      Ip ip = queries.get(i);
+      assertThat(table.get(ip), equalTo(trie.longestPrefixMatch(ip)));
+      assertThat(batch.get(i), equalTo(table.get(ip)));
+    }
+  }
+}
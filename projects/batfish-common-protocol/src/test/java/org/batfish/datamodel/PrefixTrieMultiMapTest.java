@@ -12,10 +12,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.EqualsTester;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import javax.annotation.Nonnull;
@@ -404,4 +406,46 @@ public class PrefixTrieMultiMapTest {
         map.intersectsPrefixSpace(
             new PrefixSpace(new PrefixRange(Prefix.strict("128.0.0.0/12"), new SubRange(14, 18)))));
   }
+
+  @Test
+  public void testCreate() {
+    Map<Prefix, Set<Integer>> entries =
+        ImmutableMap.<Prefix, Set<Integer>>builder()
+            .put(Prefix.parse("128.128.0.0/16"), ImmutableSet.of(1))
+            .put(Prefix.parse("0.0.0.0/8"), ImmutableSet.of(2, 3))
+            .put(Prefix.parse("1.1.1.129/32"), ImmutableSet.of(4))
+            .put(Prefix.parse("1.1.1.0/24"), ImmutableSet.of(5))
+            .put(Prefix.parse("128.0.0.0/16"), ImmutableSet.of(6))
+            .put(Prefix.parse("10.0.0.0/8"), ImmutableSet.of())
+            .put(Prefix.ZERO, ImmutableSet.of())
+            .build();
+    PrefixTrieMultiMap<Integer> incremental = new PrefixTrieMultiMap<>();
+    entries.forEach(incremental::putAll);
+
+    // same structure, including branching nodes, as building the trie one entry at a time
+    PrefixTrieMultiMap<Integer> bulk = PrefixTrieMultiMap.create(entries);
+    assertThat(bulk, equalTo(incremental));
+    assertThat(entriesPostOrder(bulk), equalTo(entriesPostOrder(incremental)));
+    assertThat(bulk.longestPrefixMatch(Ip.parse("1.1.1.129")), equalTo(ImmutableSet.of(4)));
+    assertThat(bulk.longestPrefixMatch(Ip.parse("10.1.1.1")), empty());
+  }
+
+  @Test
+  public void testCreateWithoutRoot() {
+    Prefix p1 = Prefix.parse("1.1.1.0/24");
+    Prefix p2 = Prefix.parse("1.1.2.0/24");
+    PrefixTrieMultiMap<Integer> incremental = new PrefixTrieMultiMap<>();
+    incremental.put(p2, 2);
+    incremental.put(p1, 1);
+
+    assertThat(
+        PrefixTrieMultiMap.create(ImmutableMap.of(p1, ImmutableSet.of(1), p2, ImmutableSet.of(2))),
+        equalTo(incremental));
+    assertThat(
+        PrefixTrieMultiMap.create(ImmutableMap.of(p1, ImmutableSet.of())),
+        equalTo(new PrefixTrieMultiMap<Integer>(p1)));
+    PrefixTrieMultiMap<Integer> empty = PrefixTrieMultiMap.create(ImmutableMap.of());
+    assertThat(empty, equalTo(new PrefixTrieMultiMap<Integer>()));
+    assertThat(empty.getAllElements(), empty());
+  }
 }
@@ -0,0 +1,89 @@
+package org.batfish.datamodel.acl;
+
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchDst;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.permittedByAcl;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import org.batfish.datamodel.AclIpSpace;
+import org.batfish.datamodel.ExprAclLine;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.datamodel.IpSpaceReference;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.TraceElement;
+import org.junit.Test;
+
+/** Tests of {@link AclHashConsing}. */
+public class AclHashConsingTest {
+
+  private static IpSpace newIpSpace() {
+    return AclIpSpace.union(
+        Prefix.parse("10.0.0.0/8").toIpSpace(), new IpSpaceReference("hash-consing-test"));
+  }
+
+  private static AclLineMatchExpr newExpr() {
+    return new AndMatchExpr(
+        ImmutableList.of(
+            matchDst(newIpSpace()), new NotMatchExpr(permittedByAcl("hash-consing-test"))));
+  }
+
+  @Test
+  public void testHashConsIpSpace() {
+    IpSpace ipSpace = AclHashConsing.hashCons(newIpSpace());
+    assertThat(ipSpace, equalTo(newIpSpace()));
+    assertThat(AclHashConsing.hashCons(newIpSpace()), sameInstance(ipSpace));
+    assertThat(AclHashConsing.hashCons(ipSpace), sameInstance(ipSpace));
+  }
+
+  @Test
+  public void testHashConsExpr() {
+    AclLineMatchExpr expr = AclHashConsing.hashCons(newExpr());
+    assertThat(expr, equalTo(newExpr()));
+    assertThat(AclHashConsing.hashCons(newExpr()), sameInstance(expr));
+
+    // equal subtrees of different trees are shared
+    AclLineMatchExpr other =
+        AclHashConsing.hashCons(new OrMatchExpr(ImmutableList.of(matchDst(newIpSpace()))));
+    assertThat(
+        ((OrMatchExpr) other).getDisjuncts().get(0),
+        sameInstance(((AndMatchExpr) expr).getConjuncts().get(0)));
+  }
+
+  @Test
+  public void testHashConsExprTraceElement() {
+    AclLineMatchExpr traced =
+        new NotMatchExpr(
+            permittedByAcl("hash-consing-test"), TraceElement.of("hash-consing-test"));
+    AclLineMatchExpr expr = AclHashConsing.hashCons(traced);
+    assertThat(expr.getTraceElement(), equalTo(TraceElement.of("hash-consing-test")));
+    assertThat(
+        AclHashConsing.hashCons(new NotMatchExpr(permittedByAcl("hash-consing-test"))),
+        not(sameInstance(expr)));
+  }
+
+  @Test
+  public void testHashConsAcl() {
+    IpAccessList acl1 =
+        IpAccessList.builder()
+            .setName("acl1")
+            .setLines(ExprAclLine.accepting("line", newExpr()))
+            .build();
+    IpAccessList acl2 =
+        IpAccessList.builder()
+            .setName("acl2")
+            .setLines(ExprAclLine.accepting("line", newExpr()))
+            .build();
+
+    IpAccessList hashConsed1 = AclHashConsing.hashCons(acl1);
+    IpAccessList hashConsed2 = AclHashConsing.hashCons(acl2);
+    assertThat(hashConsed1, equalTo(acl1));
+    assertThat(hashConsed2.getName(), equalTo("acl2"));
+    assertThat(hashConsed2.getLines().get(0), sameInstance(hashConsed1.getLines().get(0)));
+    // already canonical
+    assertThat(AclHashConsing.hashCons(hashConsed1), sameInstance(hashConsed1));
+  }
+}
@@ -0,0 +1,275 @@
+package org.batfish.datamodel.acl;
+
+import static org.batfish.datamodel.ExprAclLine.accepting;
+import static org.batfish.datamodel.ExprAclLine.rejecting;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.and;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchDst;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchDstPort;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchSrc;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchSrcInterface;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.not;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.or;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.permittedByAcl;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.batfish.datamodel.AclAclLine;
+import org.batfish.datamodel.AclIpSpace;
+import org.batfish.datamodel.AclLine;
+import org.batfish.datamodel.FilterResult;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.HeaderSpace;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.IpProtocol;
+import org.batfish.datamodel.IpSpace;
+import org.batfish.datamodel.IpSpaceReference;
+import org.batfish.datamodel.IpWildcard;
+import org.batfish.datamodel.LineAction;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.SubRange;
+import org.batfish.datamodel.acl.CompiledIpAccessList.Field;
+import org.junit.Test;
+
+/** Tests of {@link CompiledIpAccessList} and {@link CompiledIpAccessLists}. */
+public class CompiledIpAccessListTest {
+
+  private static Flow tcpFlow(String srcIp, String dstIp, int dstPort) {
+    return Flow.builder()
+        .setIngressNode("n")
+        .setIpProtocol(IpProtocol.TCP)
+        .setSrcIp(Ip.parse(srcIp))
+        .setDstIp(Ip.parse(dstIp))
+        .setSrcPort(12345)
+        .setDstPort(dstPort)
+        .build();
+  }
+
+  private static void assertSameResult(
+      CompiledIpAccessLists compiled,
+      IpAccessList acl,
+      Flow flow,
+      String srcInterface,
+      Map<String, IpAccessList> acls,
+      Map<String, IpSpace> namedIpSpaces) {
+    FilterResult expected = acl.filter(flow, srcInterface, acls, namedIpSpaces);
+    FilterResult actual = compiled.filter(acl, flow, srcInterface);
+    assertThat(flow.toString(), actual.getMatchLine(), equalTo(expected.getMatchLine()));
+    assertThat(flow.toString(), actual.getAction(), equalTo(expected.getAction()));
+  }
+
+  @Test
+  public void testFirstMatch() {
+    IpAccessList acl =
+        IpAccessList.builder()
+            .setName("acl")
+            .setLines(
+                rejecting(matchDst(Prefix.parse("10.0.1.0/24"))),
+                accepting(matchDst(Prefix.parse("10.0.0.0/16"))),
+                accepting(and(matchSrc(Prefix.parse("1.0.0.0/8")), matchDstPort(22))))
+            .build();
+    CompiledIpAccessLists compiled =
+        new CompiledIpAccessLists(ImmutableMap.of("acl", acl), ImmutableMap.of());
+
+    FilterResult denied = compiled.filter(acl, tcpFlow("1.1.1.1", "10.0.1.1", 80), null);
+    assertThat(denied.getMatchLine(), equalTo(0));
+    assertThat(denied.getAction(), equalTo(LineAction.DENY));
+
+    FilterResult permitted = compiled.filter(acl, tcpFlow("1.1.1.1", "10.0.2.1", 80), null);
+    assertThat(permitted.getMatchLine(), equalTo(1));
+    assertThat(permitted.getAction(), equalTo(LineAction.PERMIT));
+
+    FilterResult ssh = compiled.filter(acl, tcpFlow("1.1.1.1", "8.8.8.8", 22), null);
+    assertThat(ssh.getMatchLine(), equalTo(2));
+
+    FilterResult noMatch = compiled.filter(acl, tcpFlow("2.1.1.1", "8.8.8.8", 22), null);
+    assertThat(noMatch.getMatchLine(), nullValue());
+    assertThat(noMatch.getAction(), equalTo(LineAction.DENY));
+  }
+
+  @Test
+  public void testIndexedFields() {
+    IpAccessList dstOnly =
+        IpAccessList.builder()
+            .setName("acl")
+            .setLines(
+                accepting(matchDst(Prefix.parse("10.0.0.0/8"))),
+                accepting(matchSrcInterface("i1")),
+                rejecting(not(matchDst(Prefix.parse("10.0.0.0/8")))))
+            .build();
+    assertThat(
+        CompiledIpAccessList.compile(dstOnly, ImmutableMap.of()).getIndexedFields(),
+        contains(Field.DST_IP));
+
+    IpAccessList unconstrained =
+        IpAccessList.builder()
+            .setName("acl")
+            .setLines(accepting(matchSrcInterface("i1")), accepting(TrueExpr.INSTANCE))
+            .build();
+    assertThat(
+        CompiledIpAccessList.compile(unconstrained, ImmutableMap.of()).getIndexedFields(),
+        empty());
+  }
+
+  @Test
+  public void testReferences() {
+    IpAccessList referenced =
+        IpAccessList.builder()
+            .setName("referenced")
+            .setLines(rejecting(matchDstPort(22)), accepting(matchDst(Prefix.parse("10.0.0.0/8"))))
+            .build();
+    IpAccessList acl =
+        IpAccessList.builder()
+            .setName("acl")
+            .setLines(
+                new AclAclLine("nested", "referenced"),
+                accepting(and(permittedByAcl("referenced"), matchDstPort(80))),
+                accepting(matchDst(new IpSpaceReference("space"))))
+            .build();
+    Map<String, IpAccessList> acls = ImmutableMap.of("acl", acl, "referenced", referenced);
+    Map<String, IpSpace> namedIpSpaces =
+        ImmutableMap.of("space", Prefix.parse("10.0.0.0/8").toIpSpace());
+    CompiledIpAccessLists compiled = new CompiledIpAccessLists(acls, namedIpSpaces);
+
+    // Denied by the nested ACL's first line
+    FilterResult result = compiled.filter(acl, tcpFlow("1.1.1.1", "10.1.1.1", 22), null);
+    assertThat(result.getMatchLine(), equalTo(0));
+    assertThat(result.getAction(), equalTo(LineAction.DENY));
+
+    // Nested ACL does not match, so falls through to the reference to a named IP space
+    result = compiled.filter(acl, tcpFlow("1.1.1.1", "11.1.1.1", 80), null);
+    assertThat(result.getMatchLine(), nullValue());
+
+    for (Flow flow :
+        ImmutableList.of(
+            tcpFlow("1.1.1.1", "10.1.1.1", 80),
+            tcpFlow("1.1.1.1", "11.1.1.1", 22),
+            tcpFlow("1.1.1.1", "10.1.1.1", 443))) {
+      assertSameResult(compiled, acl, flow, null, acls, namedIpSpaces);
+    }
+  }
+
+  @Test
+  public void testFlowWithoutPorts() {
+    IpAccessList acl =
+        IpAccessList.builder()
+            .setName("acl")
+            .setLines(
+                accepting(matchDstPort(22)),
+                accepting(
+                    AclLineMatchExprs.match(
+                        HeaderSpace.builder().setIpProtocols(IpProtocol.ICMP).build())))
+            .build();
+    CompiledIpAccessLists compiled =
+        new CompiledIpAccessLists(ImmutableMap.of("acl", acl), ImmutableMap.of());
+    Flow icmp =
+        Flow.builder()
+            .setIngressNode("n")
+            .setIpProtocol(IpProtocol.ICMP)
+            .setIcmpType(8)
+            .setIcmpCode(0)
+            .setSrcIp(Ip.parse("1.1.1.1"))
+            .setDstIp(Ip.parse("2.2.2.2"))
+            .build();
+    assertThat(compiled.filter(acl, icmp, null).getMatchLine(), equalTo(1));
+  }
+
+  /** Checks agreement with {@link IpAccessList#filter} on a large randomly generated ACL. */
+  @Test
+  public void testAgreesWithIpAccessListFilter() {
+    Random random = new Random(0);
+    List<AclLine> lines = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      AclLineMatchExpr match =
+          and(
+              matchSrc(randomPrefix(random)),
+              matchDst(randomPrefix(random)),
+              random.nextBoolean() ? matchDstPort(random.nextInt(4)) : TrueExpr.INSTANCE);
+      switch (random.nextInt(10)) {
+        case 0:
+          match = not(match);
+          break;
+        case 1:
+          match = or(match, matchDst(randomPrefix(random)));
+          break;
+        case 2:
+          match =
+              and(
+                  matchSrcInterface("i1"),
+                  matchDst(
+                      AclIpSpace.difference(
+                          randomPrefix(random).toIpSpace(), randomPrefix(random).toIpSpace())));
+          break;
+        case 3:
+          match =
+              matchSrc(
+                  IpWildcard.ipWithWildcardMask(randomIp(random), 0x00FF00FFL).toIpSpace());
+          break;
+        default:
+          break;
+      }
+      lines.add(random.nextBoolean() ? accepting(match) : rejecting(match));
+    }
+    IpAccessList acl = IpAccessList.builder().setName("acl").setLines(lines).build();
+    Map<String, IpAccessList> acls = ImmutableMap.of("acl", acl);
+    CompiledIpAccessLists compiled = new CompiledIpAccessLists(acls, ImmutableMap.of());
+    for (int i = 0; i < 2000; i++) {
+      Flow flow =
+          Flow.builder()
+              .setIngressNode("n")
+              .setIpProtocol(IpProtocol.UDP)
+              .setSrcIp(randomIp(random))
+              .setDstIp(randomIp(random))
+              .setSrcPort(random.nextInt(4))
+              .setDstPort(random.nextInt(4))
+              .build();
+      assertSameResult(
+          compiled, acl, flow, random.nextBoolean() ? "i1" : null, acls, ImmutableMap.of());
+    }
+  }
+
+  private static Ip randomIp(Random random) {
+    // Use a small address space so that random flows often hit the random prefixes.
+    return Ip.create(0x0A000000L | random.nextInt(1 << 12));
+  }
+
+  private static Prefix randomPrefix(Random random) {
+    return Prefix.create(randomIp(random), 20 + random.nextInt(13));
+  }
+
+  @Test
+  public void testSubRangeSummary() {
+    IpAccessList acl =
+        IpAccessList.builder()
+            .setName("acl")
+            .setLines(
+                accepting(
+                    AclLineMatchExprs.match(
+                        HeaderSpace.builder()
+                            .setSrcPorts(new SubRange(100, 200), new SubRange(300, 300))
+                            .build())))
+            .build();
+    CompiledIpAccessLists compiled =
+        new CompiledIpAccessLists(ImmutableMap.of("acl", acl), ImmutableMap.of());
+    Flow.Builder fb =
+        Flow.builder()
+            .setIngressNode("n")
+            .setIpProtocol(IpProtocol.TCP)
+            .setSrcIp(Ip.ZERO)
+            .setDstIp(Ip.ZERO)
+            .setDstPort(0);
+    assertThat(compiled.filter(acl, fb.setSrcPort(99).build(), null).getMatchLine(), nullValue());
+    assertThat(compiled.filter(acl, fb.setSrcPort(150).build(), null).getMatchLine(), equalTo(0));
+    assertThat(compiled.filter(acl, fb.setSrcPort(250).build(), null).getMatchLine(), nullValue());
+    assertThat(compiled.filter(acl, fb.setSrcPort(300).build(), null).getMatchLine(), equalTo(0));
+  }
+}
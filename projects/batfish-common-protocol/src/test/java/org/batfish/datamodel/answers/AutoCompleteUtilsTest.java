@@ -1640,6 +1640,30 @@ public class AutoCompleteUtilsTest {
         equalTo(ImmutableSet.of(suggested)));
   }
 
+  @Test
+  public void testNullQuery() {
+    String network = "network";
+    String snapshot = "snapshot";
+    CompletionMetadata completionMetadata =
+        CompletionMetadata.builder()
+            .setRoutingPolicyNames(ImmutableSet.of("policy1", "policy2"))
+            .setVrfs(ImmutableSet.of("someVrf", "blah"))
+            .build();
+
+    // a missing query suggests everything, as the empty query does
+    for (Type type : ImmutableList.of(Type.ROUTING_POLICY_NAME, Type.VRF)) {
+      List<AutocompleteSuggestion> suggestions =
+          AutoCompleteUtils.autoComplete(
+              network, snapshot, type, null, 5, completionMetadata, null, null);
+      assertThat(
+          suggestions,
+          equalTo(
+              AutoCompleteUtils.autoComplete(
+                  network, snapshot, type, "", 5, completionMetadata, null, null)));
+      assertThat(suggestions.size(), equalTo(2));
+    }
+  }
+
   @Test
   public void testAutocompleteUnsupportedType() {
     Type type = Type.ANSWER_ELEMENT;
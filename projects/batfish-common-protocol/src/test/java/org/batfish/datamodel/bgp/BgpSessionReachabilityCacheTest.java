@@ -0,0 +1,91 @@
+package org.batfish.datamodel.bgp;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import java.util.Map;
+import org.batfish.datamodel.BgpPeerConfigId;
+import org.batfish.datamodel.Edge;
+import org.batfish.datamodel.Fib;
+import org.batfish.datamodel.FibEntry;
+import org.batfish.datamodel.FibForward;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.MockFib;
+import org.batfish.datamodel.Prefix;
+import org.batfish.datamodel.StaticRoute;
+import org.batfish.datamodel.Topology;
+import org.junit.Test;
+
+/** Tests of {@link BgpSessionReachabilityCache}. */
+public class BgpSessionReachabilityCacheTest {
+  private static final BgpPeerConfigId N1 =
+      new BgpPeerConfigId("n1", "default", Prefix.parse("2.2.2.2/32"), false);
+  private static final BgpPeerConfigId N2 =
+      new BgpPeerConfigId("n2", "default", Prefix.parse("1.1.1.1/32"), false);
+  private static final Topology TOPOLOGY =
+      new Topology(ImmutableSortedSet.of(Edge.of("n1", "i1", "n3", "i1")));
+
+  private static final StaticRoute ROUTE =
+      StaticRoute.testBuilder()
+          .setNetwork(Prefix.ZERO)
+          .setNextHopIp(Ip.parse("3.3.3.3"))
+          .setAdministrativeCost(1)
+          .build();
+
+  /** Returns FIBs of nodes n1 through n4, forwarding out the given interfaces. */
+  private static Map<String, Map<String, Fib>> fibs(String... interfaceNames) {
+    ImmutableMap.Builder<String, Map<String, Fib>> fibs = ImmutableMap.builder();
+    String[] nodes = {"n1", "n2", "n3", "n4"};
+    for (int i = 0; i < nodes.length; i++) {
+      fibs.put(
+          nodes[i],
+          ImmutableMap.of(
+              "default",
+              MockFib.builder()
+                  .setFibEntries(
+                      ImmutableMap.of(
+                          Ip.ZERO,
+                          ImmutableSet.of(
+                              new FibEntry(
+                                  new FibForward(Ip.ZERO, interfaceNames[i]),
+                                  ImmutableList.of(ROUTE)))))
+                  .build()));
+    }
+    return fibs.build();
+  }
+
+  @Test
+  public void testUpdate() {
+    BgpSessionReachabilityCache cache = new BgpSessionReachabilityCache();
+    cache.update(fibs("a", "a", "a", "a"), TOPOLOGY);
+    assertThat(cache.get(N1, N2), nullValue());
+    cache.put(N1, N2, true, ImmutableSet.of("n1", "n2"));
+    assertThat(cache.getNumChecked(), equalTo(1));
+
+    // Equal FIBs: result is reused
+    cache.update(fibs("a", "a", "a", "a"), TOPOLOGY);
+    assertThat(cache.getNumChecked(), equalTo(0));
+    assertThat(cache.get(N1, N2), equalTo(true));
+    assertThat(cache.get(N2, N1), nullValue());
+    assertThat(cache.getNumSkipped(), equalTo(1));
+
+    // FIB of an unrelated node changed: result is reused
+    cache.update(fibs("a", "a", "a", "b"), TOPOLOGY);
+    assertThat(cache.get(N1, N2), equalTo(true));
+
+    // FIB of a layer-3 neighbor of a traversed node changed: result is invalidated
+    cache.update(fibs("a", "a", "b", "b"), TOPOLOGY);
+    assertThat(cache.get(N1, N2), nullValue());
+    assertThat(cache.getNumSkipped(), equalTo(0));
+
+    // Layer-3 topology changed: all results are invalidated
+    cache.put(N1, N2, false, ImmutableSet.of("n1"));
+    cache.update(fibs("a", "a", "b", "b"), Topology.EMPTY);
+    assertThat(cache.get(N1, N2), nullValue());
+  }
+}
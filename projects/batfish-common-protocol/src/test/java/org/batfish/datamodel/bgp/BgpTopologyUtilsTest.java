@@ -21,10 +21,10 @@ import com.google.common.graph.EndpointPair;
 import com.google.common.graph.ValueGraph;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.topology.IpVrfOwners;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.datamodel.BgpActivePeerConfig;
 import org.batfish.datamodel.BgpPassivePeerConfig;
@@ -135,12 +135,13 @@ public class BgpTopologyUtilsTest {
             .build();
     _node2BgpProcess.setPassiveNeighbors(ImmutableSortedMap.of(peer2PeerPrefix, peer2));
 
-    Map<Ip, Map<String, Set<String>>> ipOwners =
-        ImmutableMap.of(
-            ip1,
-            ImmutableMap.of(NODE1, ImmutableSet.of(DEFAULT_VRF_NAME)),
-            ip2,
-            ImmutableMap.of(NODE2, ImmutableSet.of(DEFAULT_VRF_NAME)));
+    IpVrfOwners ipOwners =
+        IpVrfOwners.of(
+            ImmutableMap.of(
+                ip1,
+                ImmutableMap.of(NODE1, ImmutableSet.of(DEFAULT_VRF_NAME)),
+                ip2,
+                ImmutableMap.of(NODE2, ImmutableSet.of(DEFAULT_VRF_NAME))));
 
     ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology =
         initBgpTopology(_configs, ipOwners, true, false, null, null).getGraph();
@@ -171,8 +172,9 @@ public class BgpTopologyUtilsTest {
             .build();
     _node1BgpProcess.setNeighbors(ImmutableSortedMap.of(peer1PeerPrefix, peer1));
 
-    Map<Ip, Map<String, Set<String>>> ipOwners =
-        ImmutableMap.of(ip, ImmutableMap.of(NODE1, ImmutableSet.of(DEFAULT_VRF_NAME)));
+    IpVrfOwners ipOwners =
+        IpVrfOwners.of(
+            ImmutableMap.of(ip, ImmutableMap.of(NODE1, ImmutableSet.of(DEFAULT_VRF_NAME))));
 
     ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology =
         initBgpTopology(_configs, ipOwners, true, false, null, null).getGraph();
@@ -215,14 +217,15 @@ public class BgpTopologyUtilsTest {
     _node2BgpProcess.setPassiveNeighbors(ImmutableSortedMap.of(prefixForPeer1, peer2));
     _node3BgpProcess.setPassiveNeighbors(ImmutableSortedMap.of(prefixForPeer1, peer3));
 
-    Map<Ip, Map<String, Set<String>>> ipOwners =
-        ImmutableMap.of(
-            ip1,
-            ImmutableMap.of(NODE1, ImmutableSet.of(DEFAULT_VRF_NAME)),
-            ip2,
-            ImmutableMap.of(NODE2, ImmutableSet.of(DEFAULT_VRF_NAME)),
-            ip3,
-            ImmutableMap.of(NODE3, ImmutableSet.of(DEFAULT_VRF_NAME)));
+    IpVrfOwners ipOwners =
+        IpVrfOwners.of(
+            ImmutableMap.of(
+                ip1,
+                ImmutableMap.of(NODE1, ImmutableSet.of(DEFAULT_VRF_NAME)),
+                ip2,
+                ImmutableMap.of(NODE2, ImmutableSet.of(DEFAULT_VRF_NAME)),
+                ip3,
+                ImmutableMap.of(NODE3, ImmutableSet.of(DEFAULT_VRF_NAME))));
 
     ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology =
         initBgpTopology(_configs, ipOwners, true, false, null, null).getGraph();
@@ -267,7 +270,12 @@ public class BgpTopologyUtilsTest {
     // Shouldn't see session come up if nodes are not connected in layer 2
     ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology =
         initBgpTopology(
-                _configs, ImmutableMap.of(), true, false, null, new FixedL3Adjacencies(false))
+                _configs,
+                IpVrfOwners.of(ImmutableMap.of()),
+                true,
+                false,
+                null,
+                new FixedL3Adjacencies(false))
             .getGraph();
     assertThat(bgpTopology.nodes(), hasSize(2));
     assertThat(bgpTopology.edges(), empty());
@@ -275,7 +283,12 @@ public class BgpTopologyUtilsTest {
     // Should see session if they're connected
     bgpTopology =
         initBgpTopology(
-                _configs, ImmutableMap.of(), true, false, null, new FixedL3Adjacencies(true))
+                _configs,
+                IpVrfOwners.of(ImmutableMap.of()),
+                true,
+                false,
+                null,
+                new FixedL3Adjacencies(true))
             .getGraph();
     BgpPeerConfigId peer1Id = new BgpPeerConfigId(NODE1, DEFAULT_VRF_NAME, iface1);
     BgpPeerConfigId peer2To1Id = new BgpPeerConfigId(NODE2, DEFAULT_VRF_NAME, iface2);
@@ -347,7 +360,12 @@ public class BgpTopologyUtilsTest {
 
     ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology =
         initBgpTopology(
-                _configs, ImmutableMap.of(), true, false, null, new FixedL3Adjacencies(true))
+                _configs,
+                IpVrfOwners.of(ImmutableMap.of()),
+                true,
+                false,
+                null,
+                new FixedL3Adjacencies(true))
             .getGraph();
     BgpPeerConfigId peer1Id = new BgpPeerConfigId(NODE1, DEFAULT_VRF_NAME, iface1);
     BgpPeerConfigId peer2To1Id = new BgpPeerConfigId(NODE2, DEFAULT_VRF_NAME, iface2);
@@ -391,7 +409,12 @@ public class BgpTopologyUtilsTest {
     // Shouldn't see session come up because of incompatible remote AS
     ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology =
         initBgpTopology(
-                _configs, ImmutableMap.of(), true, false, null, new FixedL3Adjacencies(true))
+                _configs,
+                IpVrfOwners.of(ImmutableMap.of()),
+                true,
+                false,
+                null,
+                new FixedL3Adjacencies(true))
             .getGraph();
     assertThat(bgpTopology.nodes(), hasSize(2));
     assertThat(bgpTopology.edges(), empty());
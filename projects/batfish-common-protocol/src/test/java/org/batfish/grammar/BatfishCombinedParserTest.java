@@ -0,0 +1,83 @@
+package org.batfish.grammar;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.ANTLRErrorStrategy;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.batfish.grammar.recovery.RecoveryCombinedParser;
+import org.batfish.grammar.recovery.RecoveryExtractor;
+import org.junit.Test;
+
+/** Tests of {@link BatfishCombinedParser}. */
+public final class BatfishCombinedParserTest {
+
+  private static final GrammarSettings SETTINGS =
+      MockGrammarSettings.builder().setTwoStageParsing(true).build();
+
+  private static int numErrorNodes(RecoveryCombinedParser parser, ParserRuleContext tree) {
+    RecoveryExtractor extractor = new RecoveryExtractor();
+    new BatfishParseTreeWalker(parser).walk(extractor, tree);
+    return extractor.getNumErrorNodes();
+  }
+
+  @Test
+  public void testParseTwoStageMatchesParse() {
+    String input = Strings.repeat("block\ninner simple\nsimple block\n", 10);
+    RecoveryCombinedParser twoStage = new RecoveryCombinedParser(input, SETTINGS);
+    ParserRuleContext tree = twoStage.parseTwoStage();
+    RecoveryCombinedParser single = new RecoveryCombinedParser(input, SETTINGS);
+    ParserRuleContext singleTree = single.parse();
+
+    assertThat(
+        tree.toStringTree(twoStage.getParser()),
+        equalTo(singleTree.toStringTree(single.getParser())));
+    assertThat(tree.getStop().getLine(), equalTo(singleTree.getStop().getLine()));
+    assertThat(numErrorNodes(twoStage, tree), equalTo(0));
+    assertThat(twoStage.getErrors(), empty());
+  }
+
+  @Test
+  public void testParseTwoStageUnrecognizedLine() {
+    // the unrecognized line fails both bailing stages, so it is recovered from as in parse()
+    String input = Strings.repeat("simple\n", 5) + "other\n" + Strings.repeat("block\n", 5);
+    RecoveryCombinedParser twoStage = new RecoveryCombinedParser(input, SETTINGS);
+    ParserRuleContext tree = twoStage.parseTwoStage();
+    RecoveryCombinedParser single = new RecoveryCombinedParser(input, SETTINGS);
+    ParserRuleContext singleTree = single.parse();
+
+    assertThat(
+        tree.toStringTree(twoStage.getParser()),
+        equalTo(singleTree.toStringTree(single.getParser())));
+    assertThat(numErrorNodes(twoStage, tree), equalTo(1));
+    assertThat(numErrorNodes(twoStage, tree), equalTo(numErrorNodes(single, singleTree)));
+    // the bailing stages do not report the error again
+    assertThat(twoStage.getErrors(), equalTo(single.getErrors()));
+    assertThat(twoStage.getWarnings(), equalTo(single.getWarnings()));
+  }
+
+  @Test
+  public void testParseTwoStageRestoresParser() {
+    RecoveryCombinedParser twoStage =
+        new RecoveryCombinedParser("simple\nother\nsimple\n", SETTINGS);
+    ANTLRErrorStrategy errorStrategy = twoStage.getParser().getErrorHandler();
+    List<? extends ANTLRErrorListener> errorListeners =
+        ImmutableList.copyOf(twoStage.getParser().getErrorListeners());
+    twoStage.parseTwoStage();
+
+    assertThat(twoStage.getParser().getErrorHandler(), sameInstance(errorStrategy));
+    assertThat(twoStage.getParser().getErrorListeners(), equalTo(errorListeners));
+    assertThat(
+        twoStage.getParser().getInterpreter(), instanceOf(BatfishParserATNSimulator.class));
+    assertThat(
+        twoStage.getParser().getInterpreter().getPredictionMode(), equalTo(PredictionMode.SLL));
+  }
+}
@@ -16,10 +16,12 @@ public final class MockGrammarSettings implements GrammarSettings {
     private int _maxParserContextLines;
     private int _maxParserContextTokens;
     private int _maxParseTreePrintLength;
+    private boolean _parseInChunks;
     private boolean _printParseTree;
     private boolean _printParseTreeLineNums;
     private boolean _throwOnLexerError;
     private boolean _throwOnParserError;
+    private boolean _twoStageParsing;
 
     private Builder() {}
 
@@ -29,10 +31,12 @@ public final class MockGrammarSettings implements GrammarSettings {
           _maxParserContextLines,
           _maxParserContextTokens,
           _maxParseTreePrintLength,
+          _parseInChunks,
           _printParseTree,
           _printParseTreeLineNums,
           _throwOnLexerError,
-          _throwOnParserError);
+          _throwOnParserError,
+          _twoStageParsing);
     }
 
     public @Nonnull Builder setDisableUnrecognized(boolean disableUnrecognized) {
@@ -55,6 +59,11 @@ public final class MockGrammarSettings implements GrammarSettings {
       return this;
     }
 
+    public @Nonnull Builder setParseInChunks(boolean parseInChunks) {
+      _parseInChunks = parseInChunks;
+      return this;
+    }
+
     public @Nonnull Builder setPrintParseTree(boolean printParseTree) {
       _printParseTree = printParseTree;
       return this;
@@ -74,6 +83,11 @@ public final class MockGrammarSettings implements GrammarSettings {
       _throwOnParserError = throwOnParserError;
       return this;
     }
+
+    public @Nonnull Builder setTwoStageParsing(boolean twoStageParsing) {
+      _twoStageParsing = twoStageParsing;
+      return this;
+    }
   }
 
   public static @Nonnull Builder builder() {
@@ -84,10 +98,12 @@ public final class MockGrammarSettings implements GrammarSettings {
   private final int _maxParserContextLines;
   private final int _maxParserContextTokens;
   private final int _maxParseTreePrintLength;
+  private final boolean _parseInChunks;
   private final boolean _printParseTree;
   private final boolean _printParseTreeLineNums;
   private final boolean _throwOnLexerError;
   private final boolean _throwOnParserError;
+  private final boolean _twoStageParsing;
 
   /**
    * Constructor where all {@link GrammarSettings} settings must be explicitly provided
@@ -96,27 +112,33 @@ public final class MockGrammarSettings implements GrammarSettings {
    * @param maxParserContextLines See {@link GrammarSettings#getMaxParserContextLines()}
    * @param maxParserContextTokens See {@link GrammarSettings#getMaxParserContextTokens()}
    * @param maxParseTreePrintLength See {@link GrammarSettings#getMaxParseTreePrintLength()}
+   * @param parseInChunks See {@link GrammarSettings#getParseInChunks()}
    * @param printParseTree See {@link GrammarSettings#getPrintParseTree()}
    * @param throwOnLexerError See {@link GrammarSettings#getThrowOnLexerError()}
    * @param throwOnParserError See {@link GrammarSettings#getThrowOnParserError()}
+   * @param twoStageParsing See {@link GrammarSettings#getTwoStageParsing()}
    */
   private MockGrammarSettings(
       boolean disableUnrecognized,
       int maxParserContextLines,
       int maxParserContextTokens,
       int maxParseTreePrintLength,
+      boolean parseInChunks,
       boolean printParseTree,
       boolean printParseTreeLineNums,
       boolean throwOnLexerError,
-      boolean throwOnParserError) {
+      boolean throwOnParserError,
+      boolean twoStageParsing) {
     _disableUnrecognized = disableUnrecognized;
     _maxParserContextLines = maxParserContextLines;
     _maxParserContextTokens = maxParserContextTokens;
     _maxParseTreePrintLength = maxParseTreePrintLength;
+    _parseInChunks = parseInChunks;
     _printParseTree = printParseTree;
     _printParseTreeLineNums = printParseTreeLineNums;
     _throwOnLexerError = throwOnLexerError;
     _throwOnParserError = throwOnParserError;
+    _twoStageParsing = twoStageParsing;
   }
 
   @Override
@@ -139,6 +161,11 @@ public final class MockGrammarSettings implements GrammarSettings {
     return _maxParseTreePrintLength;
   }
 
+  @Override
+  public boolean getParseInChunks() {
+    return _parseInChunks;
+  }
+
   @Override
   public boolean getPrintParseTree() {
     return _printParseTree;
@@ -159,6 +186,11 @@ public final class MockGrammarSettings implements GrammarSettings {
     return _throwOnParserError;
   }
 
+  @Override
+  public boolean getTwoStageParsing() {
+    return _twoStageParsing;
+  }
+
   @Override
   public void setDisableUnrecognized(boolean b) {
     throw new UnsupportedOperationException("immutable");
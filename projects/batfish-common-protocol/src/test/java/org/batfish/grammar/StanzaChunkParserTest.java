@@ -0,0 +1,99 @@
+package org.batfish.grammar;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.base.Strings;
+import java.util.ArrayList;
+import java.util.List;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.batfish.grammar.recovery.RecoveryCombinedParser;
+import org.junit.Test;
+
+/** Tests of {@link StanzaChunkParser}. */
+public final class StanzaChunkParserTest {
+
+  private static final GrammarSettings SETTINGS = MockGrammarSettings.builder().build();
+
+  /** A {@link RecoveryCombinedParser} whose input may be split before any non-inner statement. */
+  private static final class ChunkedRecoveryCombinedParser extends RecoveryCombinedParser {
+
+    private ChunkedRecoveryCombinedParser(String input) {
+      super(input, SETTINGS);
+    }
+
+    @Override
+    protected boolean isStanzaBoundary(String[] lines, int index) {
+      return !lines[index].startsWith("inner");
+    }
+
+    @Override
+    protected ChunkedRecoveryCombinedParser newChunkParser(String chunk) {
+      return new ChunkedRecoveryCombinedParser(chunk);
+    }
+  }
+
+  /** Returns the position and text of each token in {@code tree}, in order. */
+  private static List<String> tokens(ParseTree tree) {
+    List<String> tokens = new ArrayList<>();
+    if (tree instanceof TerminalNode) {
+      Token token = ((TerminalNode) tree).getSymbol();
+      tokens.add(
+          String.format(
+              "%d:%d:%d:%s",
+              token.getLine(), token.getStartIndex(), token.getTokenIndex(), token.getText()));
+    }
+    for (int i = 0; i < tree.getChildCount(); i++) {
+      tokens.addAll(tokens(tree.getChild(i)));
+    }
+    return tokens;
+  }
+
+  @Test
+  public void testParseMatchesWholeParse() {
+    // 30 lines of block, inner, and simple statements
+    String input = Strings.repeat("block\ninner simple\nsimple block\n", 10);
+    ChunkedRecoveryCombinedParser chunked = new ChunkedRecoveryCombinedParser(input);
+    ParserRuleContext tree = StanzaChunkParser.parse(chunked, 5, 3);
+    ChunkedRecoveryCombinedParser whole = new ChunkedRecoveryCombinedParser(input);
+    ParserRuleContext wholeTree = whole.parse();
+
+    assertThat(tree, notNullValue());
+    assertThat(
+        tree.toStringTree(chunked.getParser()), equalTo(wholeTree.toStringTree(whole.getParser())));
+    assertThat(tokens(tree), equalTo(tokens(wholeTree)));
+    assertThat(tree.getStop().getLine(), equalTo(wholeTree.getStop().getLine()));
+  }
+
+  @Test
+  public void testSmallInputNotChunked() {
+    String input = Strings.repeat("simple\n", 8);
+    assertThat(
+        StanzaChunkParser.parse(new ChunkedRecoveryCombinedParser(input), 5, 3), nullValue());
+  }
+
+  @Test
+  public void testUnrecognizedLineAtBoundaryNotChunked() {
+    // the second chunk starts at line index 10, which is unrecognized
+    String input = Strings.repeat("simple\n", 10) + "other\n" + Strings.repeat("simple\n", 19);
+    assertThat(
+        StanzaChunkParser.parse(new ChunkedRecoveryCombinedParser(input), 5, 3), nullValue());
+  }
+
+  @Test
+  public void testUnrecognizedLineInsideChunk() {
+    String input = Strings.repeat("simple\n", 5) + "other\n" + Strings.repeat("simple\n", 24);
+    ChunkedRecoveryCombinedParser chunked = new ChunkedRecoveryCombinedParser(input);
+    ParserRuleContext tree = StanzaChunkParser.parse(chunked, 5, 3);
+    ChunkedRecoveryCombinedParser whole = new ChunkedRecoveryCombinedParser(input);
+    ParserRuleContext wholeTree = whole.parse();
+
+    assertThat(tree, notNullValue());
+    assertThat(tokens(tree), equalTo(tokens(wholeTree)));
+  }
+}
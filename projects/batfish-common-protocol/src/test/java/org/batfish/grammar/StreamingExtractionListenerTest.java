@@ -0,0 +1,66 @@
+package org.batfish.grammar;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.batfish.common.util.Resources.readResource;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.base.Strings;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.batfish.grammar.recovery.RecoveryCombinedParser;
+import org.batfish.grammar.recovery.RecoveryExtractor;
+import org.junit.Test;
+
+/** Tests of {@link StreamingExtractionListener}. */
+public final class StreamingExtractionListenerTest {
+
+  private static final GrammarSettings SETTINGS = MockGrammarSettings.builder().build();
+
+  private static void assertSameExtraction(RecoveryExtractor actual, RecoveryExtractor expected) {
+    assertThat(actual.getFirstErrorLine(), equalTo(expected.getFirstErrorLine()));
+    assertThat(actual.getNumBlockStatements(), equalTo(expected.getNumBlockStatements()));
+    assertThat(actual.getNumErrorNodes(), equalTo(expected.getNumErrorNodes()));
+    assertThat(actual.getNumInnerStatements(), equalTo(expected.getNumInnerStatements()));
+    assertThat(actual.getNumSimpleStatements(), equalTo(expected.getNumSimpleStatements()));
+    assertThat(actual.getNumStatements(), equalTo(expected.getNumStatements()));
+    assertThat(actual.getNumTailWords(), equalTo(expected.getNumTailWords()));
+  }
+
+  /**
+   * Extracts {@code input} with a {@link StreamingExtractionListener}, and asserts that the result
+   * is the same as extracting from the whole parse tree. Returns the streaming listener.
+   */
+  private static StreamingExtractionListener assertSameAsWholeTree(String input) {
+    RecoveryCombinedParser whole = new RecoveryCombinedParser(input, SETTINGS);
+    ParserRuleContext tree = whole.parse();
+    RecoveryExtractor expected = new RecoveryExtractor();
+    new BatfishParseTreeWalker(whole).walk(expected, tree);
+
+    RecoveryCombinedParser streamed = new RecoveryCombinedParser(input, SETTINGS);
+    RecoveryExtractor actual = new RecoveryExtractor();
+    StreamingExtractionListener streaming = new StreamingExtractionListener(streamed, actual);
+    streamed.getParser().addParseListener(streaming);
+    streamed.parse();
+    streaming.finish();
+
+    assertSameExtraction(actual, expected);
+    // all nodes but the top-level context are walked as part of some top-level subtree
+    assertThat(
+        streaming.getNodesWalked(), equalTo(StreamingExtractionListener.countNodes(tree) - 1));
+    return streaming;
+  }
+
+  @Test
+  public void testStatements() {
+    StreamingExtractionListener streaming =
+        assertSameAsWholeTree(Strings.repeat("block simple\ninner\nsimple block\n", 10));
+    // only one statement at a time is retained
+    assertThat(streaming.getPeakNodesWalked(), lessThan(streaming.getNodesWalked() / 10));
+  }
+
+  @Test
+  public void testRecovery() {
+    assertSameAsWholeTree(readResource("org/batfish/grammar/recovery/recovery_text", UTF_8));
+  }
+}
@@ -0,0 +1,152 @@
+package org.batfish.specifier;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.EmptyIpSpace;
+import org.batfish.datamodel.NetworkFactory;
+import org.batfish.datamodel.UniverseIpSpace;
+import org.batfish.datamodel.Vrf;
+import org.batfish.datamodel.collections.NodeInterfacePair;
+import org.batfish.role.NodeRoleDimension;
+import org.batfish.role.RoleDimensionMapping;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of {@link LocationIndex}. */
+public class LocationIndexTest {
+
+  private Map<String, Configuration> _configs;
+
+  @Before
+  public void setup() {
+    NetworkFactory nf = new NetworkFactory();
+    Configuration.Builder cb =
+        nf.configurationBuilder().setConfigurationFormat(ConfigurationFormat.CISCO_IOS);
+    Configuration n1 = cb.setHostname("n1").build();
+    Configuration n2 = cb.setHostname("n2").build();
+    Vrf n1Default = nf.vrfBuilder().setOwner(n1).setName(Configuration.DEFAULT_VRF_NAME).build();
+    Vrf n1Other = nf.vrfBuilder().setOwner(n1).setName("other").build();
+    Vrf n2Default = nf.vrfBuilder().setOwner(n2).setName(Configuration.DEFAULT_VRF_NAME).build();
+    nf.interfaceBuilder()
+        .setOwner(n1)
+        .setVrf(n1Default)
+        .setName("Ethernet1")
+        .setDescription("uplink")
+        .build();
+    nf.interfaceBuilder().setOwner(n1).setVrf(n1Other).setName("Loopback0").build();
+    nf.interfaceBuilder()
+        .setOwner(n2)
+        .setVrf(n2Default)
+        .setName("Ethernet1")
+        .setDescription("downlink")
+        .build();
+    _configs = ImmutableMap.of("n1", n1, "n2", n2);
+  }
+
+  @Test
+  public void testAllInterfaces() {
+    LocationIndex index = new LocationIndex(_configs, ImmutableMap::of);
+
+    assertThat(
+        index.getAllInterfaceLocations(),
+        equalTo(
+            ImmutableSet.of(
+                new InterfaceLocation("n1", "Ethernet1"),
+                new InterfaceLocation("n1", "Loopback0"),
+                new InterfaceLocation("n2", "Ethernet1"))));
+    assertThat(
+        index.getAllInterfaceLinkLocations(),
+        equalTo(
+            ImmutableSet.of(
+                new InterfaceLinkLocation("n1", "Ethernet1"),
+                new InterfaceLinkLocation("n1", "Loopback0"),
+                new InterfaceLinkLocation("n2", "Ethernet1"))));
+  }
+
+  @Test
+  public void testRegexMatches() {
+    LocationIndex index = new LocationIndex(_configs, ImmutableMap::of);
+
+    assertThat(index.getNodesMatching(Pattern.compile("n1")), contains("n1"));
+    assertThat(index.getNodesMatching(Pattern.compile("n")), empty());
+    assertThat(
+        index.getNodesMatching(Pattern.compile("N.", Pattern.CASE_INSENSITIVE)),
+        contains("n1", "n2"));
+    assertThat(
+        index.getInterfacesWithNameContaining(Pattern.compile("Loop")),
+        contains(NodeInterfacePair.of("n1", "Loopback0")));
+    // interfaces without descriptions never match
+    assertThat(
+        index.getInterfacesWithDescriptionMatching(Pattern.compile(".*link")),
+        contains(NodeInterfacePair.of("n1", "Ethernet1"), NodeInterfacePair.of("n2", "Ethernet1")));
+    assertThat(
+        index.getInterfacesWithDescriptionMatching(Pattern.compile(".*")).size(), equalTo(2));
+    assertThat(
+        index.getVrfsMatching(Pattern.compile("oth.*")),
+        equalTo(ImmutableListMultimap.of("n1", "other")));
+  }
+
+  @Test
+  public void testRoleMatches() {
+    LocationIndex index = new LocationIndex(_configs, ImmutableMap::of);
+    NodeRoleDimension dimension =
+        NodeRoleDimension.builder()
+            .setName("dim")
+            .setRoleDimensionMappings(
+                ImmutableList.of(
+                    new RoleDimensionMapping(
+                        "(.*)", null, ImmutableMap.of("n1", "border", "n2", "leaf"))))
+            .build();
+
+    assertThat(
+        index.getNodesWithRoleMatching(dimension, Pattern.compile("bord.*")), contains("n1"));
+    assertThat(index.getNodesWithRoleMatching(dimension, Pattern.compile("spine")), empty());
+  }
+
+  @Test
+  public void testLocationInfoIsLazy() {
+    AtomicInteger calls = new AtomicInteger();
+    Map<Location, LocationInfo> locationInfo =
+        ImmutableMap.of(
+            new InterfaceLocation("n1", "Ethernet1"),
+            new LocationInfo(true, UniverseIpSpace.INSTANCE, EmptyIpSpace.INSTANCE));
+    LocationIndex index =
+        new LocationIndex(
+            _configs,
+            () -> {
+              calls.incrementAndGet();
+              return locationInfo;
+            });
+
+    index.getNodesMatching(Pattern.compile(".*"));
+    assertThat(calls.get(), equalTo(0));
+    assertThat(index.getLocationInfo(), equalTo(locationInfo));
+    assertThat(index.getLocationInfo(), equalTo(locationInfo));
+    assertThat(calls.get(), equalTo(1));
+  }
+
+  @Test
+  public void testForConfigurations() {
+    LocationIndex index = LocationIndex.forConfigurations(_configs, ImmutableMap::of);
+
+    // shared by identity of the configurations
+    assertThat(
+        LocationIndex.forConfigurations(_configs, ImmutableMap::of), sameInstance(index));
+    assertThat(
+        index.getNodesMatching(Pattern.compile("n.")),
+        sameInstance(index.getNodesMatching(Pattern.compile("n."))));
+  }
+}
@@ -15,6 +15,7 @@ import javax.annotation.Nullable;
 import org.batfish.common.CompletionMetadata;
 import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.runtime.SnapshotRuntimeData;
+import org.batfish.common.topology.IpOwnershipIndex;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.common.topology.Layer1Topology;
 import org.batfish.datamodel.AnalysisMetadata;
@@ -330,6 +331,12 @@ public class TestStorageProvider implements StorageProvider {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public @Nonnull Optional<IpOwnershipIndex> loadIpOwnershipIndex(
+      NetworkSnapshot networkSnapshot) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public Optional<Layer1Topology> loadSynthesizedLayer1Topology(NetworkSnapshot snapshot) {
     throw new UnsupportedOperationException();
@@ -365,6 +372,12 @@ public class TestStorageProvider implements StorageProvider {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public void storeIpOwnershipIndex(
+      IpOwnershipIndex ipOwnershipIndex, NetworkSnapshot networkSnapshot) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public void storeLayer3Topology(Topology layer3Topology, NetworkSnapshot networkSnapshot) {
     throw new UnsupportedOperationException();
@@ -48,6 +48,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import net.sf.javabdd.BDD;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.batfish.bddreachability.IpsRoutedOutInterfacesFactory.IpsRoutedOutInterfaces;
 import org.batfish.bddreachability.transition.TransformationToTransition;
 import org.batfish.bddreachability.transition.Transition;
@@ -143,6 +145,8 @@ import org.batfish.symbolic.state.VrfAccept;
  */
 @ParametersAreNonnullByDefault
 public final class BDDReachabilityAnalysisFactory {
+  private static final Logger LOGGER = LogManager.getLogger(BDDReachabilityAnalysisFactory.class);
+
   // node name --> acl name --> set of packets denied by the acl.
   private final Map<String, Map<String, Supplier<BDD>>> _aclDenyBDDs;
 
@@ -1589,8 +1593,12 @@ public final class BDDReachabilityAnalysisFactory {
       edgeStream = instrumentForbiddenTransitNodes(forbiddenTransitNodes, edgeStream);
       edgeStream = instrumentRequiredTransitNodes(requiredTransitNodes, edgeStream);
 
-      return new BDDReachabilityAnalysis(
-          _bddPacket, roots.keySet(), edgeStream, finalHeaderSpaceBdd);
+      BDDReachabilityAnalysis analysis =
+          new BDDReachabilityAnalysis(_bddPacket, roots.keySet(), edgeStream, finalHeaderSpaceBdd);
+      LOGGER.debug(
+          "Header space conversion cache: {}",
+          _bddPacket.getConversionCache().getHeaderSpaceStats());
+      return analysis;
     } finally {
       span.finish();
     }
@@ -36,6 +36,12 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
   private static final String ARG_DEBUG_FLAGS = "debugflags";
 
+  private static final String ARG_PARSE_IN_CHUNKS = "parseinchunks";
+
+  private static final String ARG_PARSE_MEMORY_TELEMETRY = "parsememorytelemetry";
+
+  private static final String ARG_PARSER_WARMUP = "parserwarmup";
+
   private static final String ARG_PARSE_REUSE = "parsereuse";
 
   private static final String ARG_EXIT_ON_FIRST_ERROR = "ee";
@@ -80,6 +86,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
   public static final String ARG_SERVICE_PORT = "serviceport";
 
+  private static final String ARG_STREAMING_EXTRACTION = "streamingextraction";
+
+  private static final String ARG_TRACEROUTE_MEMOIZE = "traceroutememoize";
+
   private static final String ARG_TRACING_AGENT_HOST = "tracingagenthost";
 
   private static final String ARG_TRACING_AGENT_PORT = "tracingagentport";
@@ -92,6 +102,8 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
   private static final String ARG_TIMESTAMP = "timestamp";
 
+  private static final String ARG_TWO_STAGE_PARSING = "twostageparsing";
+
   private static final String ARG_VERSION = "version";
 
   private static final String ARGNAME_HOSTNAME = "hostname";
@@ -305,6 +317,19 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     return _config.getInt(ARG_MAX_RUNTIME_MS);
   }
 
+  @Override
+  public boolean getParseInChunks() {
+    return _config.getBoolean(ARG_PARSE_IN_CHUNKS);
+  }
+
+  public boolean getParseMemoryTelemetry() {
+    return _config.getBoolean(ARG_PARSE_MEMORY_TELEMETRY);
+  }
+
+  public boolean getParserWarmup() {
+    return _config.getBoolean(ARG_PARSER_WARMUP);
+  }
+
   @Override
   public boolean getPrintParseTree() {
     return _config.getBoolean(ARG_PRINT_PARSE_TREES);
@@ -328,6 +353,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     return _config.getBoolean(ARG_SEQUENTIAL);
   }
 
+  public boolean getStreamingExtraction() {
+    return _config.getBoolean(ARG_STREAMING_EXTRACTION);
+  }
+
   public boolean getSerializeIndependent() {
     return _config.getBoolean(BfConsts.COMMAND_PARSE_VENDOR_INDEPENDENT);
   }
@@ -396,6 +425,15 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     return _config.getBoolean(ARG_TIMESTAMP);
   }
 
+  @Override
+  public boolean getTwoStageParsing() {
+    return _config.getBoolean(ARG_TWO_STAGE_PARSING);
+  }
+
+  public boolean getTracerouteMemoize() {
+    return _config.getBoolean(ARG_TRACEROUTE_MEMOIZE);
+  }
+
   public String getTracingAgentHost() {
     return _config.getString(ARG_TRACING_AGENT_HOST);
   }
@@ -471,12 +509,16 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     setDefaultProperty(ARG_MAX_RUNTIME_MS, 0);
     setDefaultProperty(ARG_CHECK_BGP_REACHABILITY, true);
     setDefaultProperty(ARG_NO_SHUFFLE, false);
+    setDefaultProperty(ARG_PARSE_IN_CHUNKS, false);
+    setDefaultProperty(ARG_PARSE_MEMORY_TELEMETRY, false);
+    setDefaultProperty(ARG_PARSER_WARMUP, false);
     setDefaultProperty(ARG_PARSE_REUSE, true);
     setDefaultProperty(ARG_PRINT_PARSE_TREES, false);
     setDefaultProperty(ARG_PRINT_PARSE_TREE_LINE_NUMS, false);
     setDefaultProperty(BfConsts.ARG_QUESTION_NAME, null);
     setDefaultProperty(ARG_RUN_MODE, RunMode.WORKER.toString());
     setDefaultProperty(ARG_SEQUENTIAL, false);
+    setDefaultProperty(ARG_STREAMING_EXTRACTION, false);
     setDefaultProperty(ARG_SERVICE_BIND_HOST, "localhost");
     setDefaultProperty(ARG_SERVICE_HOST, "localhost");
     setDefaultProperty(ARG_SERVICE_NAME, "worker-service");
@@ -487,6 +529,8 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     setDefaultProperty(ARG_THROW_ON_LEXER_ERROR, true);
     setDefaultProperty(ARG_THROW_ON_PARSER_ERROR, true);
     setDefaultProperty(ARG_TIMESTAMP, false);
+    setDefaultProperty(ARG_TWO_STAGE_PARSING, false);
+    setDefaultProperty(ARG_TRACEROUTE_MEMOIZE, false);
     setDefaultProperty(ARG_TRACING_AGENT_HOST, "localhost");
     setDefaultProperty(ARG_TRACING_AGENT_PORT, 5775);
     setDefaultProperty(ARG_TRACING_ENABLE, false);
@@ -634,8 +678,20 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
     addBooleanOption(ARG_NO_SHUFFLE, "do not shuffle parallel jobs");
 
+    addBooleanOption(
+        ARG_PARSE_IN_CHUNKS,
+        "parse large line-oriented configurations in parallel chunks split at top-level stanzas");
+
+    addBooleanOption(
+        ARG_PARSE_MEMORY_TELEMETRY,
+        "log the memory allocated and the peak parse tree size when parsing each file");
+
     addBooleanOption(ARG_PARSE_REUSE, "reuse parse results when appropriate");
 
+    addBooleanOption(
+        ARG_PARSER_WARMUP,
+        "parse bundled sample configurations of each format at service startup to warm up parsers");
+
     addBooleanOption(ARG_PRINT_PARSE_TREES, "print parse trees");
 
     addBooleanOption(
@@ -650,6 +706,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
     addBooleanOption(ARG_SEQUENTIAL, "force sequential operation");
 
+    addBooleanOption(
+        ARG_STREAMING_EXTRACTION,
+        "extract top-level stanzas while parsing and discard their parse trees, when supported");
+
     addOption(
         ARG_SERVICE_BIND_HOST,
         "local hostname used bind service (default is 0.0.0.0 which listens on all interfaces)",
@@ -679,6 +739,14 @@ public final class Settings extends BaseSettings implements GrammarSettings {
 
     addBooleanOption(ARG_TIMESTAMP, "print timestamps in log messages");
 
+    addBooleanOption(
+        ARG_TWO_STAGE_PARSING,
+        "parse with SLL, then LL prediction without recovery first, recovering only on errors");
+
+    addBooleanOption(
+        ARG_TRACEROUTE_MEMOIZE,
+        "trace only one flow per class of flows that differ only in fields no device inspects");
+
     addOption(ARG_TRACING_AGENT_HOST, "jaeger agent host", "jaeger_agent_host");
 
     addOption(ARG_TRACING_AGENT_PORT, "jaeger agent port", "jaeger_agent_port");
@@ -803,6 +871,7 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     getStringOptionValue(BfConsts.ARG_QUESTION_NAME);
     getStringOptionValue(ARG_RUN_MODE);
     getBooleanOptionValue(ARG_SEQUENTIAL);
+    getBooleanOptionValue(ARG_STREAMING_EXTRACTION);
     getBooleanOptionValue(BfConsts.COMMAND_PARSE_VENDOR_INDEPENDENT);
     getBooleanOptionValue(BfConsts.COMMAND_PARSE_VENDOR_SPECIFIC);
     getStringOptionValue(ARG_SERVICE_BIND_HOST);
@@ -810,7 +879,10 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     getStringOptionValue(ARG_SERVICE_NAME);
     getIntOptionValue(ARG_SERVICE_PORT);
     getBooleanOptionValue(ARG_NO_SHUFFLE);
+    getBooleanOptionValue(ARG_PARSE_IN_CHUNKS);
+    getBooleanOptionValue(ARG_PARSE_MEMORY_TELEMETRY);
     getBooleanOptionValue(ARG_PARSE_REUSE);
+    getBooleanOptionValue(ARG_PARSER_WARMUP);
     getStringOptionValue(BfConsts.ARG_SNAPSHOT_NAME);
     getPathOptionValue(BfConsts.ARG_STORAGE_BASE);
     getStringOptionValue(BfConsts.ARG_TASK_PLUGIN);
@@ -818,6 +890,8 @@ public final class Settings extends BaseSettings implements GrammarSettings {
     getBooleanOptionValue(ARG_THROW_ON_LEXER_ERROR);
     getBooleanOptionValue(ARG_THROW_ON_PARSER_ERROR);
     getBooleanOptionValue(ARG_TIMESTAMP);
+    getBooleanOptionValue(ARG_TWO_STAGE_PARSING);
+    getBooleanOptionValue(ARG_TRACEROUTE_MEMOIZE);
     getStringOptionValue(ARG_TRACING_AGENT_HOST);
     getIntegerOptionValue(ARG_TRACING_AGENT_PORT);
     getBooleanOptionValue(ARG_TRACING_ENABLE);
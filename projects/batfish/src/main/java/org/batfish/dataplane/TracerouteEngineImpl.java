@@ -9,12 +9,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
 import org.batfish.common.plugin.TracerouteEngine;
 import org.batfish.common.traceroute.TraceDag;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.DataPlane;
 import org.batfish.datamodel.Flow;
 import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.acl.CompiledIpAccessLists;
 import org.batfish.datamodel.flow.FirewallSessionTraceInfo;
 import org.batfish.datamodel.flow.TraceAndReverseFlow;
 import org.batfish.dataplane.traceroute.TracerouteEngineImplContext;
@@ -24,12 +26,26 @@ public final class TracerouteEngineImpl implements TracerouteEngine {
   private final DataPlane _dataPlane;
   private final Topology _topology;
   private final Map<String, Configuration> _configurations;
+  /** ACLs compiled for fast flow evaluation, by hostname; shared across all computed traces. */
+  private final Map<String, CompiledIpAccessLists> _compiledAcls;
+  /** Whether to trace only one flow per class of flows with equivalent behavior. */
+  private final boolean _memoizeEquivalentFlows;
 
   public TracerouteEngineImpl(
       DataPlane dataPlane, Topology topology, Map<String, Configuration> configurations) {
+    this(dataPlane, topology, configurations, false);
+  }
+
+  public TracerouteEngineImpl(
+      DataPlane dataPlane,
+      Topology topology,
+      Map<String, Configuration> configurations,
+      boolean memoizeEquivalentFlows) {
     _dataPlane = dataPlane;
     _topology = topology;
     _configurations = configurations;
+    _compiledAcls = new ConcurrentHashMap<>();
+    _memoizeEquivalentFlows = memoizeEquivalentFlows;
   }
 
   @Override
@@ -56,7 +72,9 @@ public final class TracerouteEngineImpl implements TracerouteEngine {
             flows,
             _dataPlane.getFibs(),
             ignoreFilters,
-            _configurations)
+            _configurations,
+            _compiledAcls,
+            _memoizeEquivalentFlows)
         .buildTraceDags();
   }
 }
@@ -47,6 +47,7 @@ import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.batfish.common.topology.IpVrfOwners;
 import org.batfish.datamodel.AbstractRoute;
 import org.batfish.datamodel.AbstractRouteDecorator;
 import org.batfish.datamodel.AnnotatedRoute;
@@ -1783,8 +1784,7 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
    * @param externalAdverts a set of external BGP advertisements
    * @param ipVrfOwners mapping of IPs to their owners in our network
    */
-  void stageExternalAdvertisements(
-      Set<BgpAdvertisement> externalAdverts, Map<Ip, Map<String, Set<String>>> ipVrfOwners) {
+  void stageExternalAdvertisements(Set<BgpAdvertisement> externalAdverts, IpVrfOwners ipVrfOwners) {
     // Retain only advertisements that are valid, and stage them for processing once we start up.
     _externalAdvertisements =
         externalAdverts.stream()
@@ -1797,8 +1797,7 @@ final class BgpRoutingProcess implements RoutingProcess<BgpTopology, BgpRoute<?,
 
                   // If we don't own the IP for this advertisement, ignore it
                   Ip dstIp = advert.getDstIp();
-                  Map<String, Set<String>> dstIpOwners = ipVrfOwners.get(dstIp);
-                  if (dstIpOwners == null || !dstIpOwners.containsKey(_hostname)) {
+                  if (!ipVrfOwners.getVrfOwners(dstIp).containsKey(_hostname)) {
                     return false;
                   }
 
@@ -14,6 +14,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
 import javax.annotation.Nonnull;
+import org.batfish.common.topology.IpOwnershipIndex;
 import org.batfish.datamodel.AbstractRoute;
 import org.batfish.datamodel.AnnotatedRoute;
 import org.batfish.datamodel.Bgpv4Route;
@@ -48,8 +49,14 @@ public final class DataplaneUtil {
   static ForwardingAnalysis computeForwardingAnalysis(
       Map<String, Map<String, Fib>> fibs,
       Map<String, Configuration> configs,
-      Topology layer3Topology) {
-    return new ForwardingAnalysisImpl(configs, fibs, layer3Topology, computeLocationInfo(configs));
+      Topology layer3Topology,
+      IpOwnershipIndex ipOwnershipIndex) {
+    return new ForwardingAnalysisImpl(
+        configs,
+        fibs,
+        layer3Topology,
+        computeLocationInfo(ipOwnershipIndex, configs),
+        ipOwnershipIndex);
   }
 
   static SortedMap<String, SortedMap<String, GenericRib<AnnotatedRoute<AbstractRoute>>>>
@@ -35,18 +35,18 @@ import org.batfish.common.plugin.DataPlanePlugin.ComputeDataPlaneResult;
 import org.batfish.common.plugin.TracerouteEngine;
 import org.batfish.common.topology.GlobalBroadcastNoPointToPoint;
 import org.batfish.common.topology.HybridL3Adjacencies;
-import org.batfish.common.topology.IpOwners;
+import org.batfish.common.topology.IpOwnershipIndex;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.common.topology.Layer1Topology;
 import org.batfish.common.topology.TunnelTopology;
 import org.batfish.datamodel.AbstractRoute;
 import org.batfish.datamodel.BgpAdvertisement;
 import org.batfish.datamodel.Configuration;
-import org.batfish.datamodel.Ip;
 import org.batfish.datamodel.IsisRoute;
 import org.batfish.datamodel.NetworkConfigurations;
 import org.batfish.datamodel.Topology;
 import org.batfish.datamodel.answers.IncrementalBdpAnswerElement;
+import org.batfish.datamodel.bgp.BgpSessionReachabilityCache;
 import org.batfish.datamodel.bgp.BgpTopology;
 import org.batfish.datamodel.eigrp.EigrpTopology;
 import org.batfish.datamodel.eigrp.EigrpTopologyUtils;
@@ -94,13 +94,15 @@ final class IncrementalBdpEngine {
       List<VirtualRouter> vrs,
       TopologyContext initialTopologyContext,
       NetworkConfigurations networkConfigurations,
-      Map<Ip, Map<String, Set<String>>> ipVrfOwners) {
+      IpOwnershipIndex ipOwnershipIndex,
+      BgpSessionReachabilityCache bgpReachabilityCache) {
     // Force re-init of partial dataplane. Re-inits forwarding analysis, etc.
     computeFibs(vrs);
     PartialDataplane partialDataplane =
         PartialDataplane.builder()
             .setNodes(nodes)
             .setLayer3Topology(currentTopologyContext.getLayer3Topology())
+            .setIpOwnershipIndex(ipOwnershipIndex)
             .build();
 
     Map<String, Configuration> configurations = networkConfigurations.getMap();
@@ -143,14 +145,21 @@ final class IncrementalBdpEngine {
 
     // Initialize BGP topology
     LOGGER.info("Updating BGP topology");
+    bgpReachabilityCache.update(
+        partialDataplane.getFibs(), currentTopologyContext.getLayer3Topology());
     BgpTopology newBgpTopology =
         initBgpTopology(
             configurations,
-            ipVrfOwners,
+            ipOwnershipIndex,
             false,
             true,
             trEngCurrentL3Topology,
-            currentTopologyContext.getL3Adjacencies());
+            currentTopologyContext.getL3Adjacencies(),
+            bgpReachabilityCache);
+    LOGGER.info(
+        "BGP session reachability: {} sessions checked, {} skipped (unchanged FIBs)",
+        bgpReachabilityCache.getNumChecked(),
+        bgpReachabilityCache.getNumSkipped());
 
     // Update L3 adjacencies if necessary.
     L3Adjacencies newAdjacencies;
@@ -208,15 +217,24 @@ final class IncrementalBdpEngine {
       Map<String, Configuration> configurations,
       TopologyContext initialTopologyContext,
       Set<BgpAdvertisement> externalAdverts) {
+    return computeDataPlane(
+        configurations,
+        initialTopologyContext,
+        externalAdverts,
+        IpOwnershipIndex.create(configurations));
+  }
+
+  ComputeDataPlaneResult computeDataPlane(
+      Map<String, Configuration> configurations,
+      TopologyContext initialTopologyContext,
+      Set<BgpAdvertisement> externalAdverts,
+      IpOwnershipIndex ipOwnershipIndex) {
     Span span = GlobalTracer.get().buildSpan("Compute Data Plane").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
 
       LOGGER.info("Computing Data Plane using iBDP");
 
-      // TODO: switch to topologies and owners from TopologyProvider
-      Map<Ip, Map<String, Set<String>>> ipVrfOwners = new IpOwners(configurations).getIpVrfOwners();
-
       // Generate our nodes, keyed by name, sorted for determinism
       SortedMap<String, Node> nodes =
           toImmutableSortedMap(configurations.values(), Configuration::getHostname, Node::new);
@@ -246,7 +264,8 @@ final class IncrementalBdpEngine {
         assert innerScope != null; // avoid unused warning
         vrs.parallelStream()
             .forEach(
-                vr -> vr.initForEgpComputationBeforeTopologyLoop(externalAdverts, ipVrfOwners));
+                vr ->
+                    vr.initForEgpComputationBeforeTopologyLoop(externalAdverts, ipOwnershipIndex));
       } finally {
         initializationSpan.finish();
       }
@@ -255,6 +274,8 @@ final class IncrementalBdpEngine {
        * Perform a fixed-point computation, in which every round the topology is updated based
        * on what we have learned in the previous round.
        */
+      // Results of BGP session reachability checks, reused across topology iterations
+      BgpSessionReachabilityCache bgpReachabilityCache = new BgpSessionReachabilityCache();
       // Since the topology iterations are incremental, clear fields that are pruned to get the real
       // topology. They are not actually yet included in topologies.
       TopologyContext priorTopologyContext =
@@ -270,7 +291,8 @@ final class IncrementalBdpEngine {
               vrs,
               initialTopologyContext,
               networkConfigurations,
-              ipVrfOwners);
+              ipOwnershipIndex,
+              bgpReachabilityCache);
       int topologyIterations = 0;
       boolean converged = false;
       while (!converged && topologyIterations++ < MAX_TOPOLOGY_ITERATIONS) {
@@ -296,7 +318,8 @@ final class IncrementalBdpEngine {
                   vrs,
                   initialTopologyContext,
                   networkConfigurations,
-                  ipVrfOwners);
+                  ipOwnershipIndex,
+                  bgpReachabilityCache);
           converged = currentTopologyContext.equals(nextTopologyContext);
           currentTopologyContext = nextTopologyContext;
         } finally {
@@ -321,6 +344,7 @@ final class IncrementalBdpEngine {
           IncrementalDataPlane.builder()
               .setNodes(nodes)
               .setLayer3Topology(currentTopologyContext.getLayer3Topology())
+              .setIpOwnershipIndex(ipOwnershipIndex)
               .build();
       return new IbdpResult(answerElement, finalDataplane, currentTopologyContext, nodes);
     } finally {
@@ -832,6 +856,14 @@ final class IncrementalBdpEngine {
    * @return the number of iterations it took for internal OSPF routes to converge
    */
   private int initOspfInternalRoutes(Map<String, Node> allNodes, OspfTopology ospfTopology) {
+    if (_settings.getOspfLinkState()) {
+      OspfLinkStateDatabase linkStateDatabase =
+          OspfLinkStateDatabase.create(allNodes, ospfTopology);
+      allNodes.values().stream()
+          .flatMap(n -> n.getVirtualRouters().stream())
+          .flatMap(vr -> vr.getOspfProcesses().values().stream())
+          .forEach(process -> process.setLinkStateDatabase(linkStateDatabase));
+    }
     int ospfInternalIterations = 0;
     boolean dirty = true;
 
@@ -13,6 +13,7 @@ import java.util.SortedMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.topology.IpOwnershipIndex;
 import org.batfish.datamodel.AbstractRoute;
 import org.batfish.datamodel.AnnotatedRoute;
 import org.batfish.datamodel.Bgpv4Route;
@@ -89,6 +90,7 @@ public final class IncrementalDataPlane implements Serializable, DataPlane {
 
     @Nullable private Map<String, Node> _nodes;
     @Nullable private Topology _layer3Topology;
+    @Nullable private IpOwnershipIndex _ipOwnershipIndex;
 
     public Builder setNodes(@Nonnull Map<String, Node> nodes) {
       _nodes = ImmutableMap.copyOf(nodes);
@@ -100,6 +102,11 @@ public final class IncrementalDataPlane implements Serializable, DataPlane {
       return this;
     }
 
+    public Builder setIpOwnershipIndex(@Nonnull IpOwnershipIndex ipOwnershipIndex) {
+      _ipOwnershipIndex = ipOwnershipIndex;
+      return this;
+    }
+
     public IncrementalDataPlane build() {
       return new IncrementalDataPlane(this);
     }
@@ -132,6 +139,8 @@ public final class IncrementalDataPlane implements Serializable, DataPlane {
   private IncrementalDataPlane(Builder builder) {
     checkArgument(builder._nodes != null, "Dataplane must have nodes to be constructed");
     checkArgument(builder._layer3Topology != null, "Dataplane must have an L3 topology set");
+    checkArgument(
+        builder._ipOwnershipIndex != null, "Dataplane must have an IP ownership index set");
 
     Map<String, Node> nodes = builder._nodes;
     Map<String, Configuration> configs = DataplaneUtil.computeConfigurations(nodes);
@@ -143,7 +152,8 @@ public final class IncrementalDataPlane implements Serializable, DataPlane {
     _ribs = DataplaneUtil.computeRibs(nodes);
     _fibs = DataplaneUtil.computeFibs(nodes);
     _forwardingAnalysis =
-        DataplaneUtil.computeForwardingAnalysis(_fibs, configs, builder._layer3Topology);
+        DataplaneUtil.computeForwardingAnalysis(
+            _fibs, configs, builder._layer3Topology, builder._ipOwnershipIndex);
     _prefixTracerSummary = computePrefixTracingInfo(nodes);
     _vniSettings = DataplaneUtil.computeVniSettings(nodes);
   }
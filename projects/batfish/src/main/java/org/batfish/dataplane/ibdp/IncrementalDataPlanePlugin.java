@@ -49,7 +49,11 @@ public final class IncrementalDataPlanePlugin extends DataPlanePlugin {
             .build();
 
     ComputeDataPlaneResult answer =
-        _engine.computeDataPlane(configurations, topologyContext, externalAdverts);
+        _engine.computeDataPlane(
+            configurations,
+            topologyContext,
+            externalAdverts,
+            topologyProvider.getIpOwnershipIndex(snapshot));
     _logger.infof(
         "Generated data-plane for snapshot:%s; iterations:%s",
         snapshot.getSnapshot(),
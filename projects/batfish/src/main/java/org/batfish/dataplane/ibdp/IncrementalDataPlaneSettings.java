@@ -17,6 +17,7 @@ public final class IncrementalDataPlaneSettings {
   private Configuration _config;
 
   public static final String PROP_COLORING = "coloring";
+  public static final String PROP_OSPF_LINK_STATE = "ospflinkstate";
   public static final String PROP_SCHEDULE = "schedule";
 
   /**
@@ -48,6 +49,7 @@ public final class IncrementalDataPlaneSettings {
   /** Initialize defaults for all properties */
   private void initDefaults() {
     _config.setProperty(PROP_COLORING, SATURATION.toString());
+    _config.setProperty(PROP_OSPF_LINK_STATE, false);
     _config.setProperty(PROP_SCHEDULE, NODE_COLORED.toString());
   }
 
@@ -63,4 +65,12 @@ public final class IncrementalDataPlaneSettings {
   public Coloring getColoringType() {
     return Coloring.valueOf(_config.getString(PROP_COLORING));
   }
+
+  /**
+   * Whether OSPF intra-area routes should be computed with shortest-path-first over a link-state
+   * database, rather than by exchanging route advertisements between neighbors.
+   */
+  public boolean getOspfLinkState() {
+    return _config.getBoolean(PROP_OSPF_LINK_STATE);
+  }
 }
@@ -0,0 +1,190 @@
+package org.batfish.dataplane.ibdp;
+
+import static org.batfish.dataplane.ibdp.OspfRoutingProcess.getNeighborProcess;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.ospf.OspfSessionProperties;
+import org.batfish.datamodel.ospf.OspfTopology;
+import org.batfish.datamodel.ospf.OspfTopology.EdgeId;
+import org.batfish.datamodel.route.nh.NextHopInterface;
+
+/**
+ * Per-area graphs of the OSPF adjacencies between {@link OspfRoutingProcess routing processes},
+ * from which each process can compute its intra-area routes with shortest-path-first.
+ *
+ * <p>A link from router R to neighbor N means that N advertises its intra-area routes to R. Its
+ * cost is the incremental cost of R's receiving interface, which is what R adds to the metric of
+ * routes received over it.
+ */
+@ParametersAreNonnullByDefault
+final class OspfLinkStateDatabase {
+
+  /** Build the link-state database for all OSPF processes of {@code allNodes}. */
+  @Nonnull
+  static OspfLinkStateDatabase create(Map<String, Node> allNodes, OspfTopology topology) {
+    Map<Long, Map<OspfRoutingProcess, List<Link>>> linksByArea = new HashMap<>();
+    allNodes.values().stream()
+        .flatMap(node -> node.getVirtualRouters().stream())
+        .flatMap(vr -> vr.getOspfProcesses().values().stream())
+        .forEach(
+            process ->
+                process
+                    .getIncomingEdges()
+                    .forEach(
+                        edgeId -> {
+                          // The neighbor advertises over its own incoming edge from this process
+                          EdgeId reverse = edgeId.reverse();
+                          Optional<OspfSessionProperties> session = topology.getSession(reverse);
+                          OspfRoutingProcess neighbor =
+                              getNeighborProcess(edgeId.getTail(), allNodes);
+                          if (!session.isPresent()
+                              || neighbor == null
+                              || !neighbor.getIncomingEdges().contains(reverse)) {
+                            return;
+                          }
+                          String ifaceName = edgeId.getHead().getInterfaceName();
+                          linksByArea
+                              .computeIfAbsent(session.get().getArea(), a -> new HashMap<>())
+                              .computeIfAbsent(process, p -> new ArrayList<>())
+                              .add(
+                                  new Link(
+                                      neighbor,
+                                      process.getIncrementalCost(ifaceName, false),
+                                      NextHopInterface.of(
+                                          ifaceName, session.get().getIpLink().getIp2())));
+                        }));
+    return new OspfLinkStateDatabase(
+        linksByArea.entrySet().stream()
+            .collect(
+                ImmutableMap.toImmutableMap(
+                    Map.Entry::getKey, e -> ImmutableMap.copyOf(e.getValue()))));
+  }
+
+  /** A link to a neighbor that advertises its intra-area routes over it. */
+  private static final class Link {
+    @Nonnull private final OspfRoutingProcess _neighbor;
+    private final long _cost;
+    @Nonnull private final NextHopInterface _nextHop;
+
+    private Link(OspfRoutingProcess neighbor, long cost, NextHopInterface nextHop) {
+      _neighbor = neighbor;
+      _cost = cost;
+      _nextHop = nextHop;
+    }
+  }
+
+  /** The cost of the shortest paths to a router, and their first hops. */
+  static final class ShortestPath {
+    private final long _cost;
+    @Nonnull private final Set<NextHopInterface> _firstHops;
+
+    private ShortestPath(long cost, Set<NextHopInterface> firstHops) {
+      _cost = cost;
+      _firstHops = firstHops;
+    }
+
+    long getCost() {
+      return _cost;
+    }
+
+    /** The next hops of the root router on all the shortest paths (ECMP). */
+    @Nonnull
+    Set<NextHopInterface> getFirstHops() {
+      return _firstHops;
+    }
+  }
+
+  private OspfLinkStateDatabase(Map<Long, Map<OspfRoutingProcess, List<Link>>> linksByArea) {
+    _linksByArea = linksByArea;
+  }
+
+  /**
+   * Run Dijkstra's algorithm over the links of {@code area}, and return the shortest paths from
+   * {@code root} to every other router reachable in that area.
+   */
+  @Nonnull
+  Map<OspfRoutingProcess, ShortestPath> computeShortestPaths(OspfRoutingProcess root, long area) {
+    Map<OspfRoutingProcess, List<Link>> links = _linksByArea.getOrDefault(area, ImmutableMap.of());
+    Map<OspfRoutingProcess, Long> costs = new HashMap<>();
+    Set<OspfRoutingProcess> visited = new HashSet<>();
+    List<OspfRoutingProcess> visitOrder = new ArrayList<>();
+    PriorityQueue<Candidate> queue =
+        new PriorityQueue<>(Comparator.comparingLong(Candidate::getCost));
+    costs.put(root, 0L);
+    queue.add(new Candidate(root, 0L));
+    while (!queue.isEmpty()) {
+      Candidate candidate = queue.remove();
+      OspfRoutingProcess router = candidate._router;
+      if (!visited.add(router)) {
+        // stale entry for a router already reached at a lower cost
+        continue;
+      }
+      visitOrder.add(router);
+      for (Link link : links.getOrDefault(router, ImmutableList.of())) {
+        long cost = candidate._cost + link._cost;
+        Long known = costs.get(link._neighbor);
+        if (known == null || cost < known) {
+          costs.put(link._neighbor, cost);
+          queue.add(new Candidate(link._neighbor, cost));
+        }
+      }
+    }
+
+    // Propagate first hops along the shortest-path DAG, in visit order. Repeat in case of
+    // zero-cost links, where a router may be visited before an equally distant predecessor.
+    Map<OspfRoutingProcess, Set<NextHopInterface>> firstHops = new HashMap<>();
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (OspfRoutingProcess router : visitOrder) {
+        long cost = costs.get(router);
+        for (Link link : links.getOrDefault(router, ImmutableList.of())) {
+          if (link._neighbor == root || cost + link._cost != costs.get(link._neighbor)) {
+            continue;
+          }
+          Set<NextHopInterface> neighborHops =
+              firstHops.computeIfAbsent(link._neighbor, n -> new HashSet<>());
+          changed |=
+              router == root
+                  ? neighborHops.add(link._nextHop)
+                  : neighborHops.addAll(firstHops.getOrDefault(router, ImmutableSet.of()));
+        }
+      }
+    }
+    return firstHops.entrySet().stream()
+        .collect(
+            ImmutableMap.toImmutableMap(
+                Map.Entry::getKey,
+                e -> new ShortestPath(costs.get(e.getKey()), ImmutableSet.copyOf(e.getValue()))));
+  }
+
+  private static final class Candidate {
+    @Nonnull private final OspfRoutingProcess _router;
+    private final long _cost;
+
+    private Candidate(OspfRoutingProcess router, long cost) {
+      _router = router;
+      _cost = cost;
+    }
+
+    private long getCost() {
+      return _cost;
+    }
+  }
+
+  /** Area -&gt; router -&gt; links to the neighbors advertising to it in that area */
+  @Nonnull private final Map<Long, Map<OspfRoutingProcess, List<Link>>> _linksByArea;
+}
@@ -137,6 +137,18 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
    */
   @Nonnull private Set<OspfNeighborConfigId> _neighborsWhereDefaultIARouteWasInjected;
 
+  /* Link-state mode */
+
+  /**
+   * If set, intra-area routes are computed from this database with shortest-path-first, instead of
+   * being exchanged with neighbors in route advertisements
+   */
+  @Nullable private OspfLinkStateDatabase _linkStateDatabase;
+  /** Whether intra-area routes still need to be computed from {@link #_linkStateDatabase} */
+  private boolean _linkStateRoutesPending;
+  /** Intra-area routes originated by this process, by area */
+  @Nonnull private Map<Long, Set<OspfIntraAreaRoute>> _localIntraAreaRoutes;
+
   OspfRoutingProcess(
       OspfProcess process, String vrfName, Configuration configuration, OspfTopology topology) {
     _c = configuration;
@@ -185,6 +197,7 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
     _queuedForRedistribution = new ExternalDelta();
     _activatedGeneratedRoutes = RibDelta.empty();
     _neighborsWhereDefaultIARouteWasInjected = new HashSet<>(0);
+    _localIntraAreaRoutes = ImmutableMap.of();
   }
 
   @Override
@@ -192,6 +205,18 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
     initializeIntraAreaRoutes();
   }
 
+  /**
+   * Switch this process to link-state mode: on the next iteration, compute all intra-area routes
+   * from {@code linkStateDatabase} at once. Intra-area routes are then never sent to neighbors,
+   * since each router in the database computes its own.
+   *
+   * <p>Must be called after {@link #initialize(Node)} and before the first iteration.
+   */
+  void setLinkStateDatabase(OspfLinkStateDatabase linkStateDatabase) {
+    _linkStateDatabase = linkStateDatabase;
+    _linkStateRoutesPending = true;
+  }
+
   @Override
   public void executeIteration(Map<String, Node> allNodes) {
     if (!_initializationDelta.isEmpty()) {
@@ -330,6 +355,7 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
   @Override
   public boolean isDirty() {
     return !_changeset.isEmpty()
+        || _linkStateRoutesPending
         || !_queuedForRedistribution.isEmpty()
         || !_activatedGeneratedRoutes.isEmpty()
         || !_interAreaIncomingRoutes.values().stream().allMatch(Queue::isEmpty)
@@ -340,6 +366,11 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
 
   /** Initialize intra-area routes based on available interfaces. */
   private void initializeIntraAreaRoutes() {
+    _localIntraAreaRoutes =
+        _process.getAreas().values().stream()
+            .collect(
+                ImmutableMap.toImmutableMap(
+                    OspfArea::getAreaNumber, this::computeLocalIntraAreaRoutes));
     RibDelta.Builder<OspfIntraAreaRoute> intraAreaBuilder = RibDelta.builder();
     _process
         .getAreas()
@@ -386,7 +417,18 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
   @VisibleForTesting
   RibDelta<OspfIntraAreaRoute> initializeRoutesByArea(OspfArea area) {
     RibDelta.Builder<OspfIntraAreaRoute> deltaBuilder = RibDelta.builder();
+    computeLocalIntraAreaRoutes(area)
+        .forEach(r -> deltaBuilder.from(_intraAreaRib.mergeRouteGetDelta(r)));
+    return deltaBuilder.build();
+  }
 
+  /**
+   * Compute the intra-area routes originated by this process for the available interfaces in an
+   * OSPF area.
+   */
+  @Nonnull
+  private Set<OspfIntraAreaRoute> computeLocalIntraAreaRoutes(OspfArea area) {
+    ImmutableSet.Builder<OspfIntraAreaRoute> routes = ImmutableSet.builder();
     for (String ifaceName : area.getInterfaces()) {
       Interface iface = _c.getAllInterfaces().get(ifaceName);
       if (iface == null || !iface.getActive() || !iface.getOspfEnabled()) {
@@ -400,16 +442,19 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
       // Create a route for each interface address
       // Only create a /32 host address for this interface if 1. it is a loopback and the network
       // type is not P2P or 2. its type is p2mp (See RFC 2328 Section 2.1.1)
-      Set<OspfIntraAreaRoute> allRoutes =
-          getIfaceAddressesForIntraAreaRoutes(iface)
-              .map(
-                  ifaceAddr ->
-                      computeIntraAreaRouteFromInterface(area.getAreaNumber(), iface, ifaceAddr))
-              .collect(ImmutableSet.toImmutableSet());
-
-      allRoutes.forEach(r -> deltaBuilder.from(_intraAreaRib.mergeRouteGetDelta(r)));
+      getIfaceAddressesForIntraAreaRoutes(iface)
+          .map(
+              ifaceAddr ->
+                  computeIntraAreaRouteFromInterface(area.getAreaNumber(), iface, ifaceAddr))
+          .forEach(routes::add);
     }
-    return deltaBuilder.build();
+    return routes.build();
+  }
+
+  /** Return the intra-area routes originated by this process in the given area. */
+  @Nonnull
+  Set<OspfIntraAreaRoute> getLocalIntraAreaRoutes(long area) {
+    return _localIntraAreaRoutes.getOrDefault(area, ImmutableSet.of());
   }
 
   @VisibleForTesting
@@ -470,7 +515,7 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
    * OspfNeighborId}
    */
   @Nullable
-  private static OspfRoutingProcess getNeighborProcess(
+  static OspfRoutingProcess getNeighborProcess(
       OspfNeighborConfigId ospfNeighborId, Map<String, Node> allNodes) {
     return allNodes
         .get(ospfNeighborId.getHostname())
@@ -479,6 +524,12 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
         .get(ospfNeighborId.getProcName());
   }
 
+  /** Return the incoming edges over which this process receives routes from its neighbors. */
+  @Nonnull
+  Set<EdgeId> getIncomingEdges() {
+    return _intraAreaIncomingRoutes.keySet();
+  }
+
   /** Return the stream of incoming edges, for all neighbors that belong to this process. */
   @Nonnull
   private Stream<EdgeId> getIncomingEdgeStream(OspfTopology topology) {
@@ -526,7 +577,6 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
    *
    * @param interfaceName name of the interface
    */
-  @VisibleForTesting
   long getIncrementalCost(String interfaceName, boolean considerP2PasStub) {
     Interface iface = _c.getAllInterfaces().get(interfaceName);
     assert iface != null;
@@ -633,9 +683,54 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
                 intraAreaDelta, interAreaDelta, ifaceName, incrementalCost, routeAdvertisement);
           }
         });
+    if (_linkStateRoutesPending) {
+      assert _linkStateDatabase != null;
+      computeIntraAreaRoutesFromLinkState(_linkStateDatabase, intraAreaDelta, interAreaDelta);
+      _linkStateRoutesPending = false;
+    }
     return new InternalDelta(intraAreaDelta.build(), interAreaDelta.build(), RibDelta.empty());
   }
 
+  /**
+   * Compute the intra-area routes to the prefixes originated by all routers in this process's
+   * areas, and place them in the appropriate RIB(s).
+   *
+   * <p>The route to a prefix originated by a remote router has the originator's metric plus the
+   * cost of the shortest path to it, with a next hop for each shortest path. This is exactly the
+   * route that would be learned by exchanging route advertisements until convergence, where each
+   * router adds the cost of its receiving interface.
+   */
+  private void computeIntraAreaRoutesFromLinkState(
+      OspfLinkStateDatabase linkStateDatabase,
+      RibDelta.Builder<OspfIntraAreaRoute> intraAreaDelta,
+      RibDelta.Builder<OspfInterAreaRoute> interAreaDelta) {
+    for (long area : _process.getAreas().keySet()) {
+      linkStateDatabase
+          .computeShortestPaths(this, area)
+          .forEach(
+              (router, path) -> {
+                for (OspfIntraAreaRoute route : router.getLocalIntraAreaRoutes(area)) {
+                  for (NextHopInterface nextHop : path.getFirstHops()) {
+                    OspfIntraAreaRoute.Builder routeBuilder =
+                        route.toBuilder()
+                            .setMetric(route.getMetric() + path.getCost())
+                            .setAdmin(_process.getAdminCosts().get(route.getProtocol()))
+                            .setNextHop(nextHop)
+                            .setNonRouting(false)
+                            .setNonForwarding(false);
+                    applyDistributeList(_c, _vrfName, nextHop.getInterfaceName(), routeBuilder);
+                    importIntraAreaRoute(
+                        intraAreaDelta,
+                        interAreaDelta,
+                        RouteAdvertisement.<OspfIntraAreaRoute>builder()
+                            .setRoute(routeBuilder.build())
+                            .build());
+                  }
+                }
+              });
+    }
+  }
+
   /**
    * Process a intraArea advertisement from a neighbor. This will transform advertisement on import,
    * and place it in the appropriate RIB(s).
@@ -656,10 +751,22 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
 
     applyDistributeList(_c, _vrfName, ifaceName, ospfRouteBuilder);
 
-    OspfIntraAreaRoute intraAreaRoute = ospfRouteBuilder.build();
-    intraAreaDelta.from(
-        processRouteAdvertisement(
-            routeAdvertisement.toBuilder().setRoute(intraAreaRoute).build(), _intraAreaRib));
+    importIntraAreaRoute(
+        intraAreaDelta,
+        interAreaDelta,
+        routeAdvertisement.toBuilder().setRoute(ospfRouteBuilder.build()).build());
+  }
+
+  /**
+   * Place an imported intra-area route advertisement in the intra-area RIB, and if this is an ABR,
+   * in the inter-area RIB.
+   */
+  private void importIntraAreaRoute(
+      RibDelta.Builder<OspfIntraAreaRoute> intraAreaDelta,
+      RibDelta.Builder<OspfInterAreaRoute> interAreaDelta,
+      RouteAdvertisement<OspfIntraAreaRoute> routeAdvertisement) {
+    OspfIntraAreaRoute intraAreaRoute = routeAdvertisement.getRoute();
+    intraAreaDelta.from(processRouteAdvertisement(routeAdvertisement, _intraAreaRib));
 
     /*
     If we are an ABR, convert intra-area routes to inter-area routes (i.e., Type 1 -> Type 3) and put them
@@ -897,8 +1004,11 @@ final class OspfRoutingProcess implements RoutingProcess<OspfTopology, OspfRoute
     assert session.isPresent(); // Otherwise the edge should not have been established
 
     OspfArea areaConfig = _process.getAreas().get(session.get().getArea());
-    sendOutIntraAreaRoutesPerEdge(
-        delta._intraArea, edgeId, remoteProcess, areaConfig, session.get());
+    if (_linkStateDatabase == null) {
+      // In link-state mode, the neighbor computes its own intra-area routes
+      sendOutIntraAreaRoutesPerEdge(
+          delta._intraArea, edgeId, remoteProcess, areaConfig, session.get());
+    }
     if (isABR()) {
       sendOutInterAreaRoutesPerEdgeABR(
           delta._interArea, edgeId, remoteProcess, areaConfig, session.get());
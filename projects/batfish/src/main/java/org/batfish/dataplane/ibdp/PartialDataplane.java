@@ -13,6 +13,7 @@ import java.util.SortedMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.topology.IpOwnershipIndex;
 import org.batfish.datamodel.AbstractRoute;
 import org.batfish.datamodel.AnnotatedRoute;
 import org.batfish.datamodel.Bgpv4Route;
@@ -93,6 +94,7 @@ public final class PartialDataplane implements DataPlane {
 
     @Nullable private Map<String, Node> _nodes;
     @Nullable private Topology _layer3Topology;
+    @Nullable private IpOwnershipIndex _ipOwnershipIndex;
 
     public Builder setNodes(@Nonnull Map<String, Node> nodes) {
       _nodes = ImmutableMap.copyOf(nodes);
@@ -104,6 +106,11 @@ public final class PartialDataplane implements DataPlane {
       return this;
     }
 
+    public Builder setIpOwnershipIndex(@Nonnull IpOwnershipIndex ipOwnershipIndex) {
+      _ipOwnershipIndex = ipOwnershipIndex;
+      return this;
+    }
+
     public PartialDataplane build() {
       return new PartialDataplane(this);
     }
@@ -124,11 +131,15 @@ public final class PartialDataplane implements DataPlane {
   private PartialDataplane(Builder builder) {
     checkArgument(builder._nodes != null, "Dataplane must have nodes to be constructed");
     checkArgument(builder._layer3Topology != null, "Dataplane must have an L3 topology set");
+    checkArgument(
+        builder._ipOwnershipIndex != null, "Dataplane must have an IP ownership index set");
 
     Map<String, Node> nodes = builder._nodes;
     Map<String, Configuration> configs = computeConfigurations(nodes);
     _fibs = computeFibs(nodes);
-    _forwardingAnalysis = computeForwardingAnalysis(_fibs, configs, builder._layer3Topology);
+    _forwardingAnalysis =
+        computeForwardingAnalysis(
+            _fibs, configs, builder._layer3Topology, builder._ipOwnershipIndex);
     _vniSettings = DataplaneUtil.computeVniSettings(nodes);
   }
 }
@@ -39,6 +39,7 @@ import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.batfish.common.topology.IpVrfOwners;
 import org.batfish.datamodel.AbstractRoute;
 import org.batfish.datamodel.AbstractRouteBuilder;
 import org.batfish.datamodel.AnnotatedRoute;
@@ -397,7 +398,7 @@ public final class VirtualRouter {
    * relationships (i.e., purely local), but is allowed to process external bgp advertisements.
    */
   void initForEgpComputationBeforeTopologyLoop(
-      Set<BgpAdvertisement> externalAdverts, Map<Ip, Map<String, Set<String>>> ipVrfOwners) {
+      Set<BgpAdvertisement> externalAdverts, IpVrfOwners ipVrfOwners) {
     /*
     Merge post-IGP main rib in to a mainRibDelta.
     This effectively makes the entire IGP computation a "previous round".
@@ -251,7 +251,7 @@ public class DagTraceRecorder implements TraceRecorder {
   private final List<Node> _roots = new ArrayList<>();
   private final Multimap<NodeKey, Node> _nodeMap = HashMultimap.create();
   private NodeBuilder _rootBuilder = null;
-  private @Nullable TraceDag _builtTraceDag = null;
+  private @Nullable TraceDagImpl _builtTraceDag = null;
 
   private @Nullable Node findMatchingNode(NodeKey key, Set<Breadcrumb> breadcrumbs) {
     Collection<Node> nodes = _nodeMap.get(key);
@@ -288,7 +288,7 @@ public class DagTraceRecorder implements TraceRecorder {
     _rootBuilder = null;
   }
 
-  public TraceDag build() {
+  public TraceDagImpl build() {
     if (_builtTraceDag != null) {
       return _builtTraceDag;
     }
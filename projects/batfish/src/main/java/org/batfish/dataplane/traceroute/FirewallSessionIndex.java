@@ -0,0 +1,86 @@
+package org.batfish.dataplane.traceroute;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.acl.Evaluator;
+import org.batfish.datamodel.flow.FirewallSessionTraceInfo;
+import org.batfish.datamodel.flow.SessionMatchExpr;
+
+/**
+ * Index of the {@link FirewallSessionTraceInfo sessions} in a single scope (an incoming interface
+ * or an originating VRF of a node), keyed by the 5-tuple of their {@link SessionMatchExpr}.
+ *
+ * <p>A session whose match criteria have no ports matches flows with any ports (or none), so such
+ * sessions are stored under a wildcard key without ports that is looked up for every flow.
+ */
+@ParametersAreNonnullByDefault
+final class FirewallSessionIndex {
+  static final FirewallSessionIndex EMPTY = new FirewallSessionIndex(ImmutableList.of());
+
+  private final @Nonnull ListMultimap<SessionMatchExpr, FirewallSessionTraceInfo> _sessions;
+
+  FirewallSessionIndex(Collection<FirewallSessionTraceInfo> sessions) {
+    ImmutableListMultimap.Builder<SessionMatchExpr, FirewallSessionTraceInfo> builder =
+        ImmutableListMultimap.builder();
+    sessions.forEach(session -> builder.put(session.getMatchCriteria(), session));
+    _sessions = builder.build();
+  }
+
+  boolean isEmpty() {
+    return _sessions.isEmpty();
+  }
+
+  /** Returns the sessions matching {@code flow}. */
+  @Nonnull
+  List<FirewallSessionTraceInfo> getMatchingSessions(Flow flow) {
+    List<FirewallSessionTraceInfo> wildcardMatches =
+        _sessions.get(
+            new SessionMatchExpr(
+                flow.getIpProtocol(), flow.getSrcIp(), flow.getDstIp(), null, null));
+    if (flow.getSrcPort() == null || flow.getDstPort() == null) {
+      // sessions with ports cannot match a flow without both ports
+      return wildcardMatches;
+    }
+    List<FirewallSessionTraceInfo> exactMatches =
+        _sessions.get(
+            new SessionMatchExpr(
+                flow.getIpProtocol(),
+                flow.getSrcIp(),
+                flow.getDstIp(),
+                flow.getSrcPort(),
+                flow.getDstPort()));
+    if (wildcardMatches.isEmpty()) {
+      return exactMatches;
+    } else if (exactMatches.isEmpty()) {
+      return wildcardMatches;
+    }
+    return ImmutableList.<FirewallSessionTraceInfo>builder()
+        .addAll(exactMatches)
+        .addAll(wildcardMatches)
+        .build();
+  }
+
+  /**
+   * Reference implementation of {@link #getMatchingSessions(Flow)} that evaluates the match
+   * criteria of each session against {@code flow}.
+   */
+  @VisibleForTesting
+  static @Nonnull List<FirewallSessionTraceInfo> getMatchingSessionsLinear(
+      Collection<FirewallSessionTraceInfo> sessions, Flow flow) {
+    // session match expr cannot use MatchSrcInterface or ACL/IpSpace references.
+    Evaluator aclEval = new Evaluator(flow, null, ImmutableMap.of(), ImmutableMap.of());
+    return sessions.stream()
+        .filter(session -> aclEval.visit(session.getSessionFlows()))
+        .collect(toImmutableList());
+  }
+}
@@ -0,0 +1,421 @@
+package org.batfish.dataplane.traceroute;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.traceroute.TraceDagImpl;
+import org.batfish.datamodel.AclLine;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ExprAclLine;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.HeaderSpace;
+import org.batfish.datamodel.Interface;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.acl.AclLineMatchExpr;
+import org.batfish.datamodel.acl.AndMatchExpr;
+import org.batfish.datamodel.acl.DeniedByAcl;
+import org.batfish.datamodel.acl.FalseExpr;
+import org.batfish.datamodel.acl.GenericAclLineMatchExprVisitor;
+import org.batfish.datamodel.acl.MatchHeaderSpace;
+import org.batfish.datamodel.acl.MatchSrcInterface;
+import org.batfish.datamodel.acl.NotMatchExpr;
+import org.batfish.datamodel.acl.OrMatchExpr;
+import org.batfish.datamodel.acl.OriginatingFromDevice;
+import org.batfish.datamodel.acl.PermittedByAcl;
+import org.batfish.datamodel.acl.TrueExpr;
+import org.batfish.datamodel.flow.EnterInputIfaceStep;
+import org.batfish.datamodel.flow.ExitOutputIfaceStep;
+import org.batfish.datamodel.flow.ExitOutputIfaceStep.ExitOutputIfaceStepDetail;
+import org.batfish.datamodel.flow.FilterStep;
+import org.batfish.datamodel.flow.FilterStep.FilterStepDetail;
+import org.batfish.datamodel.flow.FirewallSessionTraceInfo;
+import org.batfish.datamodel.flow.Hop;
+import org.batfish.datamodel.flow.SessionMatchExpr;
+import org.batfish.datamodel.flow.SetupSessionStep;
+import org.batfish.datamodel.flow.SetupSessionStep.SetupSessionStepDetail;
+import org.batfish.datamodel.flow.Step;
+import org.batfish.datamodel.transformation.ApplyAll;
+import org.batfish.datamodel.transformation.ApplyAny;
+import org.batfish.datamodel.transformation.AssignIpAddressFromPool;
+import org.batfish.datamodel.transformation.AssignPortFromPool;
+import org.batfish.datamodel.transformation.Noop;
+import org.batfish.datamodel.transformation.PortField;
+import org.batfish.datamodel.transformation.ShiftIpAddressIntoSubnet;
+import org.batfish.datamodel.transformation.Transformation;
+import org.batfish.datamodel.transformation.TransformationStep;
+import org.batfish.datamodel.transformation.TransformationStepVisitor;
+
+/**
+ * Partitions {@link Flow flows} into equivalence classes whose traces are identical except for the
+ * values of header fields that no device on their paths inspects or modifies. Only one flow per
+ * class needs to be traced; the trace DAGs of the other flows in the class are obtained by
+ * substituting their field values into the traced DAG (see {@link #rewrite(TraceDagImpl, Flow)}).
+ *
+ * <p>Classes are computed per traced path (see {@link #forTrace(TraceDagImpl, Map)}). Currently the
+ * source and destination ports are considered. A port is inspected if a filter applied along the
+ * path or a transformation guard of a node on the path matches on it, if such a transformation
+ * assigns it, or if a node on the path has a packet policy (which may match arbitrary fields).
+ * Flows are only memoized when there are no existing firewall sessions, so steps that only occur
+ * when matching them (e.g. {@link org.batfish.datamodel.flow.MatchSessionStep}) never need
+ * rewriting.
+ */
+@ParametersAreNonnullByDefault
+final class FlowEquivalence {
+
+  /**
+   * Analyzes which fields are inspected or modified along the paths of {@code dag}, which must have
+   * been traced without existing firewall sessions. Flows in the same class as the traced flow
+   * follow the same paths, since no decision along them depends on the uninspected fields.
+   */
+  static @Nonnull FlowEquivalence forTrace(
+      TraceDagImpl dag, Map<String, Configuration> configurations) {
+    boolean srcPortInspected = false;
+    boolean dstPortInspected = false;
+    for (TraceDagImpl.Node node : dag.getNodes()) {
+      Hop hop = node.getHop();
+      Configuration c = configurations.get(hop.getNode().getName());
+      if (c == null || !c.getPacketPolicies().isEmpty()) {
+        return new FlowEquivalence(true, true);
+      }
+      srcPortInspected = srcPortInspected || inspectsPort(hop, c, PortField.SOURCE);
+      dstPortInspected = dstPortInspected || inspectsPort(hop, c, PortField.DESTINATION);
+      if (srcPortInspected && dstPortInspected) {
+        break;
+      }
+    }
+    return new FlowEquivalence(srcPortInspected, dstPortInspected);
+  }
+
+  /**
+   * Returns true if a filter or transformation that may be applied at {@code hop} matches on or
+   * assigns the port {@code field}.
+   */
+  private static boolean inspectsPort(Hop hop, Configuration c, PortField field) {
+    PortMatcher portMatcher = new PortMatcher(field, c.getIpAccessLists());
+    for (Step<?> step : hop.getSteps()) {
+      if (step instanceof FilterStep) {
+        if (portMatcher.inspectsAcl(((FilterStep) step).getDetail().getFilter())) {
+          return true;
+        }
+      } else if (step instanceof EnterInputIfaceStep) {
+        String ifaceName =
+            ((EnterInputIfaceStep) step).getDetail().getInputInterface().getInterface();
+        Interface iface = c.getAllInterfaces().get(ifaceName);
+        if (iface == null
+            || transformationInspectsPort(iface.getIncomingTransformation(), portMatcher)) {
+          return true;
+        }
+      }
+    }
+    // An outgoing transformation is applied before the egress filter, so a hop denied by that
+    // filter does not record its output interface. Consider those of all interfaces instead.
+    for (Interface iface : c.getAllInterfaces().values()) {
+      if (transformationInspectsPort(iface.getOutgoingTransformation(), portMatcher)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean transformationInspectsPort(
+      @Nullable Transformation transformation, PortMatcher portMatcher) {
+    if (transformation == null) {
+      return false;
+    }
+    return portMatcher.visit(transformation.getGuard())
+        || transformation.getTransformationSteps().stream()
+            .anyMatch(step -> step.accept(portMatcher))
+        || transformationInspectsPort(transformation.getAndThen(), portMatcher)
+        || transformationInspectsPort(transformation.getOrElse(), portMatcher);
+  }
+
+  /** The equivalence in which flows that only differ in their ports are equivalent. */
+  static final FlowEquivalence PORTS_UNINSPECTED = new FlowEquivalence(false, false);
+
+  private final boolean _srcPortInspected;
+  private final boolean _dstPortInspected;
+
+  @VisibleForTesting
+  FlowEquivalence(boolean srcPortInspected, boolean dstPortInspected) {
+    _srcPortInspected = srcPortInspected;
+    _dstPortInspected = dstPortInspected;
+  }
+
+  @VisibleForTesting
+  boolean isSrcPortInspected() {
+    return _srcPortInspected;
+  }
+
+  @VisibleForTesting
+  boolean isDstPortInspected() {
+    return _dstPortInspected;
+  }
+
+  /** Returns true if every flow is in its own equivalence class. */
+  boolean isTrivial() {
+    return _srcPortInspected && _dstPortInspected;
+  }
+
+  /**
+   * Returns the canonical representative of the class of {@code flow}, i.e. {@code flow} with
+   * uninspected fields set to a fixed value. Flows in the same class have the same representative.
+   */
+  @Nonnull
+  Flow representative(Flow flow) {
+    if (isTrivial()) {
+      return flow;
+    }
+    Flow.Builder representative = flow.toBuilder();
+    if (!_srcPortInspected && flow.getSrcPort() != null) {
+      representative.setSrcPort(0);
+    }
+    if (!_dstPortInspected && flow.getDstPort() != null) {
+      representative.setDstPort(0);
+    }
+    return representative.build();
+  }
+
+  /**
+   * Converts a trace DAG computed for a flow into the trace DAG for {@code flow}, which must be in
+   * the same equivalence class. Uninspected fields are never changed along a trace, so they are
+   * replaced with the values from {@code flow} in forward flows, and with the swapped values in
+   * return flows and sessions (which match return traffic).
+   */
+  @Nonnull
+  TraceDagImpl rewrite(TraceDagImpl dag, Flow flow) {
+    return new TraceDagImpl(
+        dag.getNodes().stream()
+            .map(
+                node ->
+                    new TraceDagImpl.Node(
+                        rewriteHop(node.getHop(), flow),
+                        rewriteSession(node.getFirewallSessionTraceInfo(), flow),
+                        node.getFlowDisposition(),
+                        node.getReturnFlow() == null
+                            ? null
+                            : rewriteReturnFlow(node.getReturnFlow(), flow),
+                        node.getSuccessors()))
+            .collect(toImmutableList()),
+        dag.getRootIds());
+  }
+
+  private @Nonnull Hop rewriteHop(Hop hop, Flow flow) {
+    return new Hop(
+        hop.getNode(),
+        hop.getSteps().stream().map(step -> rewriteStep(step, flow)).collect(toImmutableList()));
+  }
+
+  private @Nonnull Step<?> rewriteStep(Step<?> step, Flow flow) {
+    if (step instanceof FilterStep) {
+      FilterStepDetail detail = ((FilterStep) step).getDetail();
+      return new FilterStep(
+          new FilterStepDetail(
+              detail.getFilter(),
+              detail.getType(),
+              detail.getInputInterface(),
+              rewriteForwardFlow(detail.getFlow(), flow)),
+          step.getAction());
+    } else if (step instanceof ExitOutputIfaceStep) {
+      ExitOutputIfaceStepDetail detail = ((ExitOutputIfaceStep) step).getDetail();
+      Flow transformedFlow = detail.getTransformedFlow();
+      if (transformedFlow == null) {
+        return step;
+      }
+      return ExitOutputIfaceStep.builder()
+          .setDetail(
+              ExitOutputIfaceStepDetail.builder()
+                  .setOutputInterface(detail.getOutputInterface())
+                  .setTransformedFlow(rewriteForwardFlow(transformedFlow, flow))
+                  .build())
+          .setAction(step.getAction())
+          .build();
+    } else if (step instanceof SetupSessionStep) {
+      SetupSessionStepDetail detail = ((SetupSessionStep) step).getDetail();
+      return new SetupSessionStep(
+          SetupSessionStepDetail.builder()
+              .setSessionScope(detail.getSessionScope())
+              .setSessionAction(detail.getSessionAction())
+              .setMatchCriteria(rewriteSessionMatchExpr(detail.getMatchCriteria(), flow))
+              .setTransformation(detail.getTransformation())
+              .build());
+    }
+    // Other steps do not contain flow header fields.
+    return step;
+  }
+
+  private @Nullable FirewallSessionTraceInfo rewriteSession(
+      @Nullable FirewallSessionTraceInfo session, Flow flow) {
+    if (session == null) {
+      return null;
+    }
+    return new FirewallSessionTraceInfo(
+        session.getHostname(),
+        session.getAction(),
+        session.getSessionScope(),
+        rewriteSessionMatchExpr(session.getMatchCriteria(), flow),
+        session.getTransformation());
+  }
+
+  private @Nonnull Flow rewriteForwardFlow(Flow forwardFlow, Flow flow) {
+    Flow.Builder rewritten = forwardFlow.toBuilder();
+    if (!_srcPortInspected) {
+      rewritten.setSrcPort(flow.getSrcPort());
+    }
+    if (!_dstPortInspected) {
+      rewritten.setDstPort(flow.getDstPort());
+    }
+    return rewritten.build();
+  }
+
+  private @Nonnull Flow rewriteReturnFlow(Flow returnFlow, Flow flow) {
+    Flow.Builder rewritten = returnFlow.toBuilder();
+    if (!_srcPortInspected) {
+      rewritten.setDstPort(flow.getSrcPort());
+    }
+    if (!_dstPortInspected) {
+      rewritten.setSrcPort(flow.getDstPort());
+    }
+    return rewritten.build();
+  }
+
+  /** Session match expressions match return flows. */
+  private @Nonnull SessionMatchExpr rewriteSessionMatchExpr(SessionMatchExpr expr, Flow flow) {
+    if (expr.getSrcPort() == null) {
+      return expr;
+    }
+    return new SessionMatchExpr(
+        expr.getIpProtocol(),
+        expr.getSrcIp(),
+        expr.getDstIp(),
+        _dstPortInspected ? expr.getSrcPort() : flow.getDstPort(),
+        _srcPortInspected ? expr.getDstPort() : flow.getSrcPort());
+  }
+
+  /**
+   * Determines whether an {@link AclLineMatchExpr} may match on, or a {@link TransformationStep}
+   * may modify, a port field.
+   */
+  private static final class PortMatcher
+      implements GenericAclLineMatchExprVisitor<Boolean>, TransformationStepVisitor<Boolean> {
+    private final @Nonnull PortField _field;
+    private final @Nonnull Map<String, IpAccessList> _acls;
+    private final @Nonnull Set<String> _visitedAcls;
+
+    PortMatcher(PortField field, Map<String, IpAccessList> acls) {
+      _field = field;
+      _acls = acls;
+      _visitedAcls = new HashSet<>();
+    }
+
+    /** Returns true if the named ACL, or any ACL it references, may match on the port. */
+    boolean inspectsAcl(String aclName) {
+      if (!_visitedAcls.add(aclName)) {
+        // already checked, or being checked
+        return false;
+      }
+      IpAccessList acl = _acls.get(aclName);
+      if (acl == null) {
+        return true;
+      }
+      for (AclLine line : acl.getLines()) {
+        if (line instanceof ExprAclLine && visit(((ExprAclLine) line).getMatchCondition())) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Boolean visitAndMatchExpr(AndMatchExpr andMatchExpr) {
+      return andMatchExpr.getConjuncts().stream().anyMatch(this::visit);
+    }
+
+    @Override
+    public Boolean visitDeniedByAcl(DeniedByAcl deniedByAcl) {
+      return inspectsAcl(deniedByAcl.getAclName());
+    }
+
+    @Override
+    public Boolean visitFalseExpr(FalseExpr falseExpr) {
+      return false;
+    }
+
+    @Override
+    public Boolean visitMatchHeaderSpace(MatchHeaderSpace matchHeaderSpace) {
+      HeaderSpace headerSpace = matchHeaderSpace.getHeaderspace();
+      if (!headerSpace.getSrcOrDstPorts().isEmpty()) {
+        return true;
+      }
+      return _field == PortField.SOURCE
+          ? !headerSpace.getSrcPorts().isEmpty() || !headerSpace.getNotSrcPorts().isEmpty()
+          : !headerSpace.getDstPorts().isEmpty() || !headerSpace.getNotDstPorts().isEmpty();
+    }
+
+    @Override
+    public Boolean visitMatchSrcInterface(MatchSrcInterface matchSrcInterface) {
+      return false;
+    }
+
+    @Override
+    public Boolean visitNotMatchExpr(NotMatchExpr notMatchExpr) {
+      return visit(notMatchExpr.getOperand());
+    }
+
+    @Override
+    public Boolean visitOriginatingFromDevice(OriginatingFromDevice originatingFromDevice) {
+      return false;
+    }
+
+    @Override
+    public Boolean visitOrMatchExpr(OrMatchExpr orMatchExpr) {
+      return orMatchExpr.getDisjuncts().stream().anyMatch(this::visit);
+    }
+
+    @Override
+    public Boolean visitPermittedByAcl(PermittedByAcl permittedByAcl) {
+      return inspectsAcl(permittedByAcl.getAclName());
+    }
+
+    @Override
+    public Boolean visitTrueExpr(TrueExpr trueExpr) {
+      return false;
+    }
+
+    @Override
+    public Boolean visitApplyAll(ApplyAll applyAll) {
+      return applyAll.getSteps().stream().anyMatch(step -> step.accept(this));
+    }
+
+    @Override
+    public Boolean visitApplyAny(ApplyAny applyAny) {
+      return applyAny.getSteps().stream().anyMatch(step -> step.accept(this));
+    }
+
+    @Override
+    public Boolean visitAssignIpAddressFromPool(AssignIpAddressFromPool assignIpAddressFromPool) {
+      return false;
+    }
+
+    @Override
+    public Boolean visitAssignPortFromPool(AssignPortFromPool assignPortFromPool) {
+      return assignPortFromPool.getPortField() == _field;
+    }
+
+    @Override
+    public Boolean visitNoop(Noop noop) {
+      return false;
+    }
+
+    @Override
+    public Boolean visitShiftIpAddressIntoSubnet(
+        ShiftIpAddressIntoSubnet shiftIpAddressIntoSubnet) {
+      return false;
+    }
+  }
+}
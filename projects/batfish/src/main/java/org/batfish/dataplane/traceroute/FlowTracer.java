@@ -32,15 +32,12 @@ import static org.batfish.dataplane.traceroute.TracerouteUtils.sessionTransforma
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Interner;
 import com.google.common.collect.Interners;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Ordering;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
@@ -52,7 +49,6 @@ import java.util.Stack;
 import java.util.TreeMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.batfish.common.BatfishException;
@@ -75,7 +71,6 @@ import org.batfish.datamodel.IpAccessList;
 import org.batfish.datamodel.IpProtocol;
 import org.batfish.datamodel.IpSpace;
 import org.batfish.datamodel.Route;
-import org.batfish.datamodel.acl.Evaluator;
 import org.batfish.datamodel.collections.NodeInterfacePair;
 import org.batfish.datamodel.flow.Accept;
 import org.batfish.datamodel.flow.ArpErrorStep;
@@ -667,24 +662,24 @@ class FlowTracer {
         List<Ip> ips = fibLookupAction.getIps();
         // Determine the override next hop ip. This IP will be re-resolved in the FIB (and, if
         // applicable, used as ARP IP)
-        Ip lookupIp =
-            ips.stream()
-                .filter(
-                    ip -> {
-                      // Intentionally forcing crashes with .get() here
-                      Fib fib = _tracerouteContext.getFib(currentNodeName, lookupVrfName).get();
-                      Set<FibEntry> entries =
-                          fibLookupAction.requireConnected()
-                              ? fib.get(ip).stream()
-                                  // Filter entries if a directly connected hext hop is required
-                                  .filter(
-                                      entry -> entry.getTopLevelRoute() instanceof ConnectedRoute)
-                                  .collect(ImmutableSet.toImmutableSet())
-                              : fib.get(ip);
-                      return !entries.isEmpty();
-                    })
-                .findFirst()
-                .orElse(null);
+        // Intentionally forcing crashes with .get() here
+        Fib lookupFib = _tracerouteContext.getFib(currentNodeName, lookupVrfName).get();
+        // Look up all candidate IPs in one batch
+        List<Set<FibEntry>> ipsEntries = lookupFib.get(ips);
+        Ip lookupIp = null;
+        for (int i = 0; i < ips.size(); i++) {
+          Set<FibEntry> entries = ipsEntries.get(i);
+          boolean matched =
+              fibLookupAction.requireConnected()
+                  // Filter entries if a directly connected hext hop is required
+                  ? entries.stream()
+                      .anyMatch(entry -> entry.getTopLevelRoute() instanceof ConnectedRoute)
+                  : !entries.isEmpty();
+          if (matched) {
+            lookupIp = ips.get(i);
+            break;
+          }
+        }
 
         if (lookupIp == null) {
           // Nothing matched, execute default action
@@ -852,7 +847,7 @@ class FlowTracer {
     String inputIfaceName = _ingressInterface;
     String currentNodeName = _currentNode.getName();
 
-    Collection<FirewallSessionTraceInfo> sessions =
+    FirewallSessionIndex sessions =
         _ingressInterface != null
             ? _tracerouteContext.getSessionsForIncomingInterface(currentNodeName, inputIfaceName)
             // Flow originated here; check for sessions to match flows originating in current VRF
@@ -862,12 +857,7 @@ class FlowTracer {
       return false;
     }
 
-    // session match expr cannot use MatchSrcInterface or ACL/IpSpace references.
-    Evaluator aclEval = new Evaluator(_currentFlow, null, ImmutableMap.of(), ImmutableMap.of());
-    List<FirewallSessionTraceInfo> matchingSessions =
-        sessions.stream()
-            .filter(session -> aclEval.visit(session.getSessionFlows()))
-            .collect(Collectors.toList());
+    List<FirewallSessionTraceInfo> matchingSessions = sessions.getMatchingSessions(_currentFlow);
     checkState(matchingSessions.size() < 2, "Flow cannot match more than 1 session");
     if (matchingSessions.isEmpty()) {
       return false;
@@ -1399,8 +1389,7 @@ class FlowTracer {
             _ingressInterface,
             filter,
             filterType,
-            _currentConfig.getIpAccessLists(),
-            _currentConfig.getIpSpaces(),
+            _tracerouteContext.getCompiledAcls(_currentConfig),
             _tracerouteContext.getIgnoreFilters());
     _steps.add(filterStep);
     if (filterStep.getAction() == DENIED) {
@@ -6,10 +6,10 @@ import static org.batfish.dataplane.traceroute.TracerouteUtils.buildSessionsByOr
 import static org.batfish.dataplane.traceroute.TracerouteUtils.validateInputs;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
 import java.util.AbstractMap.SimpleEntry;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -17,9 +17,12 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.batfish.common.BatfishException;
 import org.batfish.common.traceroute.TraceDag;
+import org.batfish.common.traceroute.TraceDagImpl;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.DataPlane;
 import org.batfish.datamodel.Fib;
@@ -28,6 +31,7 @@ import org.batfish.datamodel.FlowDisposition;
 import org.batfish.datamodel.ForwardingAnalysis;
 import org.batfish.datamodel.Ip;
 import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.acl.CompiledIpAccessLists;
 import org.batfish.datamodel.collections.NodeInterfacePair;
 import org.batfish.datamodel.flow.FirewallSessionTraceInfo;
 import org.batfish.datamodel.flow.Hop;
@@ -42,11 +46,14 @@ import org.batfish.datamodel.flow.Trace;
  * the context is shared among each of the concurrent {@link FlowTracer FlowTracers}.
  */
 public class TracerouteEngineImplContext {
+  private final Map<String, CompiledIpAccessLists> _compiledAcls;
   private final Map<String, Configuration> _configurations;
-  private final Multimap<NodeInterfacePair, FirewallSessionTraceInfo> _sessionsByIngressInterface;
-  private final Map<String, Multimap<String, FirewallSessionTraceInfo>> _sessionsByOriginatingVrf;
+  private final Map<NodeInterfacePair, FirewallSessionIndex> _sessionsByIngressInterface;
+  private final Map<String, Map<String, FirewallSessionIndex>> _sessionsByOriginatingVrf;
   private final Map<String, Map<String, Fib>> _fibs;
   private final Set<Flow> _flows;
+  /** Whether flows equivalent per {@link FlowEquivalence} share a single traced flow. */
+  private final boolean _memoizeEquivalentFlows;
   private final ForwardingAnalysis _forwardingAnalysis;
   private final boolean _ignoreFilters;
   private final Topology _topology;
@@ -59,13 +66,49 @@ public class TracerouteEngineImplContext {
       Map<String, Map<String, Fib>> fibs,
       boolean ignoreFilters,
       Map<String, Configuration> configurations) {
+    this(
+        dataPlane,
+        topology,
+        sessions,
+        flows,
+        fibs,
+        ignoreFilters,
+        configurations,
+        new ConcurrentHashMap<>(),
+        false);
+  }
+
+  /**
+   * Creates a context that compiles ACLs into (and reuses compiled ACLs from) {@code
+   * compiledAcls}, a thread-safe map from hostname to that node's {@link CompiledIpAccessLists}.
+   *
+   * <p>If {@code memoizeEquivalentFlows} is set and there are no {@code sessions}, only one flow
+   * per {@link FlowEquivalence} equivalence class is traced, and the traces of the other flows in
+   * the class are derived from it.
+   */
+  public TracerouteEngineImplContext(
+      DataPlane dataPlane,
+      Topology topology,
+      Set<FirewallSessionTraceInfo> sessions,
+      Set<Flow> flows,
+      Map<String, Map<String, Fib>> fibs,
+      boolean ignoreFilters,
+      Map<String, Configuration> configurations,
+      Map<String, CompiledIpAccessLists> compiledAcls,
+      boolean memoizeEquivalentFlows) {
+    _compiledAcls = compiledAcls;
     _configurations = configurations;
+    // matching existing sessions is not memoized
+    _memoizeEquivalentFlows = memoizeEquivalentFlows && sessions.isEmpty();
     _flows = flows;
     _fibs = fibs;
     _ignoreFilters = ignoreFilters;
     _forwardingAnalysis = dataPlane.getForwardingAnalysis();
-    _sessionsByIngressInterface = buildSessionsByIngressInterface(sessions);
-    _sessionsByOriginatingVrf = buildSessionsByOriginatingVrf(sessions);
+    _sessionsByIngressInterface = indexSessions(buildSessionsByIngressInterface(sessions));
+    _sessionsByOriginatingVrf =
+        buildSessionsByOriginatingVrf(sessions).entrySet().stream()
+            .collect(
+                ImmutableMap.toImmutableMap(Entry::getKey, e -> indexSessions(e.getValue())));
     _topology = topology;
   }
 
@@ -76,20 +119,60 @@ public class TracerouteEngineImplContext {
    * @return {@link SortedMap} of {@link Flow} to a {@link List} of {@link Trace}s
    */
   public Map<Flow, TraceDag> buildTraceDags() {
+    if (_memoizeEquivalentFlows) {
+      return buildTraceDagsMemoized();
+    }
     return _flows.parallelStream()
-        .map(
-            flow -> {
-              validateInputs(_configurations, flow);
-              String ingressNodeName = flow.getIngressNode();
-              String ingressInterfaceName = flow.getIngressInterface();
-              DagTraceRecorder recorder = new DagTraceRecorder(flow);
-              initialFlowTracer(this, ingressNodeName, ingressInterfaceName, flow, recorder)
-                  .processHop();
-              return new SimpleEntry<>(flow, recorder.build());
-            })
+        .map(flow -> new SimpleEntry<>(flow, buildTraceDag(flow)))
         .collect(ImmutableMap.toImmutableMap(Entry::getKey, Entry::getValue));
   }
 
+  /**
+   * Traces one flow per {@link FlowEquivalence} class, and derives the traces of the other flows in
+   * each class from it. Since classes depend on the path of the traced flow, flows that only differ
+   * in their ports are grouped first, and each group is split up by the equivalence computed from
+   * the trace of its first flow.
+   */
+  private Map<Flow, TraceDag> buildTraceDagsMemoized() {
+    Map<Flow, TraceDag> traceDags = new ConcurrentHashMap<>();
+    _flows.stream()
+        .collect(Collectors.groupingBy(FlowEquivalence.PORTS_UNINSPECTED::representative))
+        .values()
+        .parallelStream()
+        .forEach(flows -> buildTraceDagsMemoized(flows, traceDags));
+    return ImmutableMap.copyOf(traceDags);
+  }
+
+  private void buildTraceDagsMemoized(List<Flow> flows, Map<Flow, TraceDag> traceDags) {
+    Flow traced = flows.get(0);
+    TraceDagImpl dag = buildTraceDag(traced);
+    traceDags.put(traced, dag);
+    if (flows.size() == 1) {
+      return;
+    }
+    FlowEquivalence flowEquivalence = FlowEquivalence.forTrace(dag, _configurations);
+    Flow tracedRepresentative = flowEquivalence.representative(traced);
+    Map<Flow, List<Flow>> untraced = new HashMap<>();
+    for (Flow flow : flows.subList(1, flows.size())) {
+      Flow representative = flowEquivalence.representative(flow);
+      if (representative.equals(tracedRepresentative)) {
+        traceDags.put(flow, flowEquivalence.rewrite(dag, flow));
+      } else {
+        untraced.computeIfAbsent(representative, r -> new ArrayList<>()).add(flow);
+      }
+    }
+    untraced.values().parallelStream().forEach(group -> buildTraceDagsMemoized(group, traceDags));
+  }
+
+  private @Nonnull TraceDagImpl buildTraceDag(Flow flow) {
+    validateInputs(_configurations, flow);
+    String ingressNodeName = flow.getIngressNode();
+    String ingressInterfaceName = flow.getIngressInterface();
+    DagTraceRecorder recorder = new DagTraceRecorder(flow);
+    initialFlowTracer(this, ingressNodeName, ingressInterfaceName, flow, recorder).processHop();
+    return recorder.build();
+  }
+
   /**
    * Returns dispositions for the special case when a {@link Flow} either exits the network, gets
    * delivered to subnet, gets terminated due to an unreachable neighbor or when information is not
@@ -141,6 +224,13 @@ public class TracerouteEngineImplContext {
     }
   }
 
+  /** Returns the {@link CompiledIpAccessLists} for the given node. */
+  @Nonnull
+  CompiledIpAccessLists getCompiledAcls(Configuration c) {
+    return _compiledAcls.computeIfAbsent(
+        c.getHostname(), hostname -> CompiledIpAccessLists.forConfiguration(c));
+  }
+
   public Map<String, Configuration> getConfigurations() {
     return _configurations;
   }
@@ -160,13 +250,25 @@ public class TracerouteEngineImplContext {
     return _ignoreFilters;
   }
 
-  Collection<FirewallSessionTraceInfo> getSessionsForIncomingInterface(
-      String node, String inputIface) {
-    return _sessionsByIngressInterface.get(NodeInterfacePair.of(node, inputIface));
+  private static <K> Map<K, FirewallSessionIndex> indexSessions(
+      Multimap<K, FirewallSessionTraceInfo> sessions) {
+    return sessions.asMap().entrySet().stream()
+        .collect(
+            ImmutableMap.toImmutableMap(
+                Entry::getKey, e -> new FirewallSessionIndex(e.getValue())));
   }
 
-  Collection<FirewallSessionTraceInfo> getSessionsForOriginatingVrf(String node, String vrf) {
-    return _sessionsByOriginatingVrf.getOrDefault(node, ImmutableMultimap.of()).get(vrf);
+  @Nonnull
+  FirewallSessionIndex getSessionsForIncomingInterface(String node, String inputIface) {
+    return _sessionsByIngressInterface.getOrDefault(
+        NodeInterfacePair.of(node, inputIface), FirewallSessionIndex.EMPTY);
+  }
+
+  @Nonnull
+  FirewallSessionIndex getSessionsForOriginatingVrf(String node, String vrf) {
+    return _sessionsByOriginatingVrf
+        .getOrDefault(node, ImmutableMap.of())
+        .getOrDefault(vrf, FirewallSessionIndex.EMPTY);
   }
 
   /**
@@ -36,9 +36,9 @@ import org.batfish.datamodel.FlowDisposition;
 import org.batfish.datamodel.Interface;
 import org.batfish.datamodel.Ip;
 import org.batfish.datamodel.IpAccessList;
-import org.batfish.datamodel.IpSpace;
 import org.batfish.datamodel.LineAction;
 import org.batfish.datamodel.TcpFlags;
+import org.batfish.datamodel.acl.CompiledIpAccessLists;
 import org.batfish.datamodel.collections.NodeInterfacePair;
 import org.batfish.datamodel.flow.EnterInputIfaceStep;
 import org.batfish.datamodel.flow.EnterInputIfaceStep.EnterInputIfaceStepDetail;
@@ -142,14 +142,12 @@ public final class TracerouteUtils {
       @Nullable String inInterfaceName,
       IpAccessList filter,
       FilterType filterType,
-      Map<String, IpAccessList> aclDefinitions,
-      Map<String, IpSpace> namedIpSpaces,
+      CompiledIpAccessLists compiledAcls,
       boolean ignoreFilters) {
     StepAction action = StepAction.PERMITTED;
     // check filter
     if (!ignoreFilters) {
-      FilterResult filterResult =
-          filter.filter(currentFlow, inInterfaceName, aclDefinitions, namedIpSpaces);
+      FilterResult filterResult = compiledAcls.filter(filter, currentFlow, inInterfaceName);
       if (filterResult.getAction() == LineAction.DENY) {
         action = StepAction.DENIED;
       }
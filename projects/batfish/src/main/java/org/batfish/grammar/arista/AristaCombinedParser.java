@@ -4,6 +4,7 @@ import org.batfish.grammar.BatfishANTLRErrorStrategy.BatfishANTLRErrorStrategyFa
 import org.batfish.grammar.BatfishCombinedParser;
 import org.batfish.grammar.BatfishLexerRecoveryStrategy;
 import org.batfish.grammar.GrammarSettings;
+import org.batfish.grammar.StanzaChunkParser;
 import org.batfish.grammar.arista.AristaParser.Arista_configurationContext;
 
 public class AristaCombinedParser extends BatfishCombinedParser<AristaParser, AristaLexer> {
@@ -21,6 +22,16 @@ public class AristaCombinedParser extends BatfishCombinedParser<AristaParser, Ar
         BatfishLexerRecoveryStrategy.WHITESPACE_AND_NEWLINES);
   }
 
+  @Override
+  protected boolean isStanzaBoundary(String[] lines, int index) {
+    return StanzaChunkParser.isCiscoStyleStanzaBoundary(lines, index);
+  }
+
+  @Override
+  protected AristaCombinedParser newChunkParser(String chunk) {
+    return new AristaCombinedParser(chunk, getSettings());
+  }
+
   @Override
   public Arista_configurationContext parse() {
     return _parser.arista_configuration();
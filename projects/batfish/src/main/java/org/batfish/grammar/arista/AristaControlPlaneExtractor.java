@@ -193,6 +193,7 @@ import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RuleContext;
 import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.batfish.common.BatfishException;
@@ -7057,6 +7058,11 @@ public class AristaControlPlaneExtractor extends AristaParserBaseListener
     walker.walk(this, tree);
   }
 
+  @Override
+  public @Nonnull ParseTreeListener getStreamingListener() {
+    return this;
+  }
+
   private AsExpr toAsExpr(As_exprContext ctx) {
     if (ctx.dec() != null) {
       int as = toInteger(ctx.dec());
@@ -5,6 +5,7 @@ import org.batfish.grammar.BatfishANTLRErrorStrategy.BatfishANTLRErrorStrategyFa
 import org.batfish.grammar.BatfishCombinedParser;
 import org.batfish.grammar.BatfishLexerRecoveryStrategy;
 import org.batfish.grammar.GrammarSettings;
+import org.batfish.grammar.StanzaChunkParser;
 import org.batfish.grammar.cisco.CiscoParser.Cisco_configurationContext;
 
 public class CiscoCombinedParser extends BatfishCombinedParser<CiscoParser, CiscoLexer> {
@@ -22,6 +23,16 @@ public class CiscoCombinedParser extends BatfishCombinedParser<CiscoParser, Cisc
         BatfishLexerRecoveryStrategy.WHITESPACE_AND_NEWLINES);
   }
 
+  @Override
+  protected boolean isStanzaBoundary(String[] lines, int index) {
+    return StanzaChunkParser.isCiscoStyleStanzaBoundary(lines, index);
+  }
+
+  @Override
+  protected CiscoCombinedParser newChunkParser(String chunk) {
+    return new CiscoCombinedParser(chunk, getSettings());
+  }
+
   @Override
   public Cisco_configurationContext parse() {
     return _parser.cisco_configuration();
@@ -306,6 +306,7 @@ import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RuleContext;
 import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.batfish.common.BatfishException;
@@ -9304,6 +9305,11 @@ public class CiscoControlPlaneExtractor extends CiscoParserBaseListener
     walker.walk(this, tree);
   }
 
+  @Override
+  public @Nonnull ParseTreeListener getStreamingListener() {
+    return this;
+  }
+
   private void pushPeer(@Nonnull BgpPeerGroup pg) {
     _peerGroupStack.add(_currentPeerGroup);
     _currentPeerGroup = pg;
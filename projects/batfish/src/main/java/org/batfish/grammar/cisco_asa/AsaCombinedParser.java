@@ -5,6 +5,7 @@ import org.batfish.grammar.BatfishANTLRErrorStrategy.BatfishANTLRErrorStrategyFa
 import org.batfish.grammar.BatfishCombinedParser;
 import org.batfish.grammar.BatfishLexerRecoveryStrategy;
 import org.batfish.grammar.GrammarSettings;
+import org.batfish.grammar.StanzaChunkParser;
 import org.batfish.grammar.cisco_asa.AsaParser.Asa_configurationContext;
 
 public class AsaCombinedParser extends BatfishCombinedParser<AsaParser, AsaLexer> {
@@ -22,6 +23,16 @@ public class AsaCombinedParser extends BatfishCombinedParser<AsaParser, AsaLexer
         BatfishLexerRecoveryStrategy.WHITESPACE_AND_NEWLINES);
   }
 
+  @Override
+  protected boolean isStanzaBoundary(String[] lines, int index) {
+    return StanzaChunkParser.isCiscoStyleStanzaBoundary(lines, index);
+  }
+
+  @Override
+  protected AsaCombinedParser newChunkParser(String chunk) {
+    return new AsaCombinedParser(chunk, getSettings());
+  }
+
   @Override
   public Asa_configurationContext parse() {
     return _parser.asa_configuration();
@@ -305,6 +305,7 @@ import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RuleContext;
 import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.batfish.common.BatfishException;
@@ -9202,6 +9203,11 @@ public class AsaControlPlaneExtractor extends AsaParserBaseListener
     walker.walk(this, tree);
   }
 
+  @Override
+  public @Nonnull ParseTreeListener getStreamingListener() {
+    return this;
+  }
+
   private void pushPeer(@Nonnull BgpPeerGroup pg) {
     _peerGroupStack.add(_currentPeerGroup);
     _currentPeerGroup = pg;
@@ -5,6 +5,7 @@ import org.batfish.grammar.BatfishANTLRErrorStrategy.BatfishANTLRErrorStrategyFa
 import org.batfish.grammar.BatfishCombinedParser;
 import org.batfish.grammar.BatfishLexerRecoveryStrategy;
 import org.batfish.grammar.GrammarSettings;
+import org.batfish.grammar.StanzaChunkParser;
 import org.batfish.grammar.cisco_nxos.CiscoNxosParser.Cisco_nxos_configurationContext;
 
 public class CiscoNxosCombinedParser
@@ -23,6 +24,16 @@ public class CiscoNxosCombinedParser
         BatfishLexerRecoveryStrategy.WHITESPACE_AND_NEWLINES);
   }
 
+  @Override
+  protected boolean isStanzaBoundary(String[] lines, int index) {
+    return StanzaChunkParser.isCiscoStyleStanzaBoundary(lines, index);
+  }
+
+  @Override
+  protected CiscoNxosCombinedParser newChunkParser(String chunk) {
+    return new CiscoNxosCombinedParser(chunk, getSettings());
+  }
+
   @Override
   public Cisco_nxos_configurationContext parse() {
     return _parser.cisco_nxos_configuration();
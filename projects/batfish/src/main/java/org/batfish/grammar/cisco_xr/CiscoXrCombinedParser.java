@@ -5,6 +5,7 @@ import org.batfish.grammar.BatfishANTLRErrorStrategy.BatfishANTLRErrorStrategyFa
 import org.batfish.grammar.BatfishCombinedParser;
 import org.batfish.grammar.BatfishLexerRecoveryStrategy;
 import org.batfish.grammar.GrammarSettings;
+import org.batfish.grammar.StanzaChunkParser;
 import org.batfish.grammar.cisco_xr.CiscoXrParser.Cisco_xr_configurationContext;
 
 public class CiscoXrCombinedParser extends BatfishCombinedParser<CiscoXrParser, CiscoXrLexer> {
@@ -22,6 +23,16 @@ public class CiscoXrCombinedParser extends BatfishCombinedParser<CiscoXrParser,
         BatfishLexerRecoveryStrategy.WHITESPACE_AND_NEWLINES);
   }
 
+  @Override
+  protected boolean isStanzaBoundary(String[] lines, int index) {
+    return StanzaChunkParser.isCiscoStyleStanzaBoundary(lines, index);
+  }
+
+  @Override
+  protected CiscoXrCombinedParser newChunkParser(String chunk) {
+    return new CiscoXrCombinedParser(chunk, getSettings());
+  }
+
   @Override
   public Cisco_xr_configurationContext parse() {
     return _parser.cisco_xr_configuration();
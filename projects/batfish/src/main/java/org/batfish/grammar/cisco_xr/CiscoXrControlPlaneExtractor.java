@@ -220,6 +220,7 @@ import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RuleContext;
 import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.batfish.common.BatfishException;
@@ -6904,6 +6905,11 @@ public class CiscoXrControlPlaneExtractor extends CiscoXrParserBaseListener
     walker.walk(this, tree);
   }
 
+  @Override
+  public @Nonnull ParseTreeListener getStreamingListener() {
+    return this;
+  }
+
   private void pushPeer(BgpPeerGroup pg) {
     _peerGroupStack.add(_currentPeerGroup);
     _currentPeerGroup = pg;
@@ -32,6 +32,17 @@ public class FlatJuniperCombinedParser
         lineMap);
   }
 
+  /** Set lines are independent, so the input may be split between any two of them. */
+  @Override
+  protected boolean isStanzaBoundary(String[] lines, int index) {
+    return lines[index].startsWith("set ") && lines[index - 1].startsWith("set ");
+  }
+
+  @Override
+  protected FlatJuniperCombinedParser newChunkParser(String chunk) {
+    return new FlatJuniperCombinedParser(chunk, getSettings(), null);
+  }
+
   @Override
   public Flat_juniper_configurationContext parse() {
     return _parser.flat_juniper_configuration();
@@ -308,6 +308,11 @@ public final class Hierarchy {
           return 0;
         }
 
+        @Override
+        public boolean getParseInChunks() {
+          return false;
+        }
+
         @Override
         public boolean getPrintParseTree() {
           return false;
@@ -328,6 +333,11 @@ public final class Hierarchy {
           return true;
         }
 
+        @Override
+        public boolean getTwoStageParsing() {
+          return false;
+        }
+
         @Override
         public void setDisableUnrecognized(boolean disableUnrecognized) {}
 
@@ -8,6 +8,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -16,12 +17,15 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.apache.commons.lang3.SerializationUtils;
 import org.batfish.common.BatfishException;
+import org.batfish.common.BatfishLogger;
 import org.batfish.common.Warnings;
 import org.batfish.common.runtime.SnapshotRuntimeData;
 import org.batfish.config.Settings;
 import org.batfish.datamodel.AsPathAccessList;
 import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFootprint;
 import org.batfish.datamodel.Interface;
 import org.batfish.datamodel.Ip6AccessList;
 import org.batfish.datamodel.IpAccessList;
@@ -30,6 +34,7 @@ import org.batfish.datamodel.Route6FilterList;
 import org.batfish.datamodel.RouteFilterList;
 import org.batfish.datamodel.SwitchportMode;
 import org.batfish.datamodel.Vrf;
+import org.batfish.datamodel.acl.AclHashConsing;
 import org.batfish.datamodel.answers.ConvertConfigurationAnswerElement;
 import org.batfish.datamodel.bgp.community.CommunityStructuresVerifier;
 import org.batfish.datamodel.packet_policy.PacketPolicy;
@@ -264,6 +269,65 @@ public class ConvertConfigurationJob extends BatfishJob<ConvertConfigurationResu
     }
   }
 
+  /**
+   * Replaces the ACLs and IP spaces of the given {@link Configuration} with {@link AclHashConsing
+   * hash-consed} versions, so that their structurally equal subtrees are shared with all other
+   * converted configurations, and points the interface filters to the replaced ACLs.
+   */
+  @VisibleForTesting
+  static void hashConsAclsAndIpSpaces(Configuration c) {
+    Map<IpAccessList, IpAccessList> replacements = new IdentityHashMap<>();
+    c.setIpAccessLists(
+        c.getIpAccessLists().entrySet().stream()
+            .collect(
+                ImmutableMap.toImmutableMap(
+                    Entry::getKey,
+                    e -> {
+                      IpAccessList acl = AclHashConsing.hashCons(e.getValue());
+                      if (acl != e.getValue()) {
+                        replacements.put(e.getValue(), acl);
+                      }
+                      return acl;
+                    })));
+    c.setIpSpaces(
+        c.getIpSpaces().entrySet().stream()
+            .collect(
+                ImmutableMap.toImmutableMap(
+                    Entry::getKey, e -> AclHashConsing.hashCons(e.getValue()))));
+    if (replacements.isEmpty()) {
+      return;
+    }
+    for (Interface iface : c.getAllInterfaces().values()) {
+      replaceFilter(replacements, iface::getInboundFilter, iface::setInboundFilter);
+      replaceFilter(replacements, iface::getIncomingFilter, iface::setIncomingFilter);
+      replaceFilter(replacements, iface::getOutgoingFilter, iface::setOutgoingFilter);
+      replaceFilter(
+          replacements, iface::getOutgoingOriginalFlowFilter, iface::setOutgoingOriginalFlowFilter);
+      replaceFilter(
+          replacements,
+          iface::getPostTransformationIncomingFilter,
+          iface::setPostTransformationIncomingFilter);
+      replaceFilter(
+          replacements,
+          iface::getPreTransformationOutgoingFilter,
+          iface::setPreTransformationOutgoingFilter);
+    }
+  }
+
+  private static void replaceFilter(
+      Map<IpAccessList, IpAccessList> replacements,
+      @Nonnull Supplier<IpAccessList> getter,
+      @Nonnull Consumer<IpAccessList> setter) {
+    @Nullable IpAccessList acl = getter.get();
+    if (acl == null) {
+      return;
+    }
+    @Nullable IpAccessList replacement = replacements.get(acl);
+    if (replacement != null) {
+      setter.accept(replacement);
+    }
+  }
+
   @Override
   public ConvertConfigurationResult call() {
     long startTime = System.currentTimeMillis();
@@ -303,6 +367,21 @@ public class ConvertConfigurationJob extends BatfishJob<ConvertConfigurationResu
         finalizeConfiguration(configuration, warnings);
 
         String hostname = configuration.getHostname();
+        if (_logger.isActive(BatfishLogger.LEVEL_DEBUG)) {
+          // measuring requires serializing the configuration several times
+          long sizeBefore = SerializationUtils.serialize(configuration).length;
+          hashConsAclsAndIpSpaces(configuration);
+          long sizeAfter = SerializationUtils.serialize(configuration).length;
+          _logger.debugf(
+              "Hash-consing ACLs and IP spaces of %s: %d -> %d serialized bytes\n",
+              hostname, sizeBefore, sizeAfter);
+          _logger.debugf(
+              "Serialized bytes by component of %s: %s\n",
+              hostname,
+              ConfigurationFootprint.measure(configuration));
+        } else {
+          hashConsAclsAndIpSpaces(configuration);
+        }
         configurations.put(hostname, configuration);
         warningsByHost.put(hostname, warnings);
         fileMap.put(filename, hostname);
@@ -9,12 +9,15 @@ import io.opentracing.Scope;
 import io.opentracing.Span;
 import io.opentracing.SpanContext;
 import io.opentracing.util.GlobalTracer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.nio.file.Paths;
 import java.util.Set;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.batfish.common.BatfishException;
 import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.ParseTreeSentences;
@@ -27,6 +30,7 @@ import org.batfish.grammar.BatfishCombinedParser;
 import org.batfish.grammar.BatfishParseException;
 import org.batfish.grammar.ControlPlaneExtractor;
 import org.batfish.grammar.ParseTreePrettyPrinter;
+import org.batfish.grammar.StreamingExtractionListener;
 import org.batfish.grammar.VendorConfigurationFormatDetector;
 import org.batfish.grammar.arista.AristaCombinedParser;
 import org.batfish.grammar.arista.AristaControlPlaneExtractor;
@@ -394,11 +398,32 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
     }
 
     ParserRuleContext tree;
+    ParseTreeListener streamingListener =
+        _settings.getStreamingExtraction() && !_settings.getPrintParseTree()
+            ? extractor.getStreamingListener()
+            : null;
+    StreamingExtractionListener streaming =
+        streamingListener == null
+            ? null
+            : new StreamingExtractionListener(combinedParser, streamingListener);
+    long allocatedBytesBefore = _settings.getParseMemoryTelemetry() ? allocatedBytes() : -1L;
     Span parsingSpan = GlobalTracer.get().buildSpan("Parsing").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(parsingSpan)) {
       assert scope != null; // avoid unused warning
       _logger.info("\tParsing...");
-      tree = Batfish.parse(combinedParser, _logger, _settings);
+      if (streaming != null) {
+        combinedParser.getParser().addParseListener(streaming);
+        try {
+          tree = Batfish.parse(combinedParser, _logger, _settings);
+        } catch (BatfishParseException e) {
+          _warnings.setErrorDetails(e.getErrorDetails());
+          throw new BatfishException("Error processing parse tree", e);
+        } finally {
+          combinedParser.getParser().removeParseListener(streaming);
+        }
+      } else {
+        tree = Batfish.parse(combinedParser, _logger, _settings);
+      }
 
       if (_settings.getPrintParseTree()) {
         _ptSentences =
@@ -424,7 +449,12 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
       _logger.info("\tPost-processing...");
 
       try {
-        extractor.processParseTree(_snapshot, tree);
+        if (streaming != null) {
+          // the parse tree has already been walked, apart from its last top-level subtree
+          streaming.finish();
+        } else {
+          extractor.processParseTree(_snapshot, tree);
+        }
       } catch (BatfishParseException e) {
         _warnings.setErrorDetails(e.getErrorDetails());
         throw new BatfishException("Error processing parse tree", e);
@@ -435,6 +465,9 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
       Batfish.logWarnings(_logger, _warnings);
       postProcessSpan.finish();
     }
+    if (_settings.getParseMemoryTelemetry()) {
+      logParseMemory(allocatedBytesBefore, streaming, tree);
+    }
 
     VendorConfiguration vc = extractor.getVendorConfiguration();
     vc.setVendor(format);
@@ -458,6 +491,49 @@ public class ParseVendorConfigurationJob extends BatfishJob<ParseVendorConfigura
     return vc;
   }
 
+  /**
+   * Returns the number of bytes allocated so far by the current thread, or {@code -1} if this JVM
+   * does not measure it.
+   */
+  private static long allocatedBytes() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+      return -1L;
+    }
+    com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+    return sunThreads.isThreadAllocatedMemorySupported()
+            && sunThreads.isThreadAllocatedMemoryEnabled()
+        ? sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId())
+        : -1L;
+  }
+
+  /**
+   * Logs the memory allocated while parsing and extracting this file, and the greatest number of
+   * parse tree nodes retained at once: the whole tree, unless extracted while streaming.
+   */
+  private void logParseMemory(
+      long allocatedBytesBefore,
+      @Nullable StreamingExtractionListener streaming,
+      ParserRuleContext tree) {
+    long allocatedBytesAfter = allocatedBytes();
+    long allocated =
+        allocatedBytesBefore < 0 || allocatedBytesAfter < 0
+            ? -1L
+            : allocatedBytesAfter - allocatedBytesBefore;
+    int totalNodes;
+    int peakNodes;
+    if (streaming != null) {
+      totalNodes = streaming.getNodesWalked();
+      peakNodes = streaming.getPeakNodesWalked();
+    } else {
+      totalNodes = StreamingExtractionListener.countNodes(tree);
+      peakNodes = totalNodes;
+    }
+    _logger.infof(
+        "\tParse memory for '%s': %d bytes allocated, peak %d of %d parse tree nodes retained%s\n",
+        _filename, allocated, peakNodes, totalNodes, streaming != null ? " (streaming)" : "");
+  }
+
   /**
    * Parses the given file and returns a {@link ParseResult} for this job.
    *
@@ -185,6 +185,7 @@ import org.batfish.grammar.BgpTableFormat;
 import org.batfish.grammar.GrammarSettings;
 import org.batfish.grammar.NopFlattener;
 import org.batfish.grammar.ParseTreePrettyPrinter;
+import org.batfish.grammar.StanzaChunkParser;
 import org.batfish.grammar.VendorConfigurationFormatDetector;
 import org.batfish.grammar.flattener.Flattener;
 import org.batfish.grammar.juniper.JuniperCombinedParser;
@@ -408,8 +409,22 @@ public class Batfish extends PluginConsumer implements IBatfish {
   public static ParserRuleContext parse(
       BatfishCombinedParser<?, ?> parser, BatfishLogger logger, GrammarSettings settings) {
     ParserRuleContext tree;
+    // Parse listeners must observe exactly one parse of the whole input.
+    boolean hasParseListeners = !parser.getParser().getParseListeners().isEmpty();
     try {
-      tree = parser.parse();
+      tree =
+          settings.getParseInChunks() && !hasParseListeners
+              ? StanzaChunkParser.parse(parser)
+              : null;
+      if (tree == null) {
+        tree =
+            settings.getTwoStageParsing() && !hasParseListeners
+                ? parser.parseTwoStage()
+                : parser.parse();
+      }
+    } catch (BatfishParseException e) {
+      // thrown by a parse listener, e.g. while extracting during the parse
+      throw e;
     } catch (BatfishException e) {
       throw new ParserBatfishException("Parser error", e);
     }
@@ -897,7 +912,7 @@ public class Batfish extends PluginConsumer implements IBatfish {
   @Override
   public Map<Location, LocationInfo> getLocationInfo(NetworkSnapshot snapshot) {
     return computeLocationInfo(
-        getTopologyProvider().getIpOwners(snapshot), loadConfigurations(snapshot));
+        getTopologyProvider().getIpOwnershipIndex(snapshot), loadConfigurations(snapshot));
   }
 
   private void disableUnusableVlanInterfaces(Map<String, Configuration> configurations) {
@@ -1878,7 +1893,8 @@ public class Batfish extends PluginConsumer implements IBatfish {
     return new TracerouteEngineImpl(
         loadDataPlane(snapshot),
         _topologyProvider.getLayer3Topology(snapshot),
-        loadConfigurations(snapshot));
+        loadConfigurations(snapshot),
+        _settings.getTracerouteMemoize());
   }
 
   /** Function that processes an interface blacklist across all configurations */
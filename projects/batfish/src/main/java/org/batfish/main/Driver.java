@@ -3,6 +3,7 @@ package org.batfish.main;
 import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
 import io.jaegertracing.Configuration.ReporterConfiguration;
 import io.jaegertracing.Configuration.SamplerConfiguration;
 import io.jaegertracing.Configuration.SenderConfiguration;
@@ -20,6 +21,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -61,6 +63,9 @@ public class Driver {
 
   private static Date _lastPollFromCoordinator = new Date();
 
+  /** The address under which this worker registered with the coordinator, if any */
+  @Nullable private static volatile String _registeredWorker = null;
+
   private static BatfishLogger _mainLogger = null;
 
   private static Settings _mainSettings = null;
@@ -125,6 +130,14 @@ public class Driver {
     return false;
   }
 
+  /** Returns the snapshots whose configurations or data plane are cached by this worker. */
+  public static Set<NetworkSnapshot> getCachedSnapshots() {
+    return ImmutableSet.<NetworkSnapshot>builder()
+        .addAll(CACHED_TESTRIGS.asMap().keySet())
+        .addAll(CACHED_DATA_PLANES.asMap().keySet())
+        .build();
+  }
+
   public static synchronized boolean getIdle() {
     _lastPollFromCoordinator = new Date();
     return _idle;
@@ -209,6 +222,11 @@ public class Driver {
       HttpServer server;
       server = GrizzlyHttpServerFactory.createHttpServer(baseUri, rc);
       int selectedListenPort = server.getListeners().iterator().next().getPort();
+      if (_mainSettings.getParserWarmup()) {
+        // warm up before registering, so that the coordinator does not assign work meanwhile
+        _mainSettings.setLogger(_mainLogger);
+        ParserWarmup.warmUp(_mainSettings);
+      }
       if (_mainSettings.getCoordinatorRegister()) {
         // this function does not return until registration succeeds
         registerWithCoordinatorPersistent(selectedListenPort);
@@ -243,13 +261,44 @@ public class Driver {
     _idle = true;
   }
 
+  /**
+   * Tells the coordinator that this worker finished its task, so that it assigns new work right
+   * away instead of on its next periodic check. Best effort, since the coordinator also polls.
+   */
+  private static void notifyCoordinatorTaskDone() {
+    String worker = _registeredWorker;
+    if (worker == null) {
+      return;
+    }
+    String url =
+        String.format(
+            "http://%s:%s%s/%s",
+            _mainSettings.getCoordinatorHost(),
+            _mainSettings.getCoordinatorPoolPort(),
+            CoordConsts.SVC_CFG_POOL_MGR,
+            CoordConsts.SVC_RSC_POOL_TASK_DONE);
+    Map<String, String> params = new HashMap<>();
+    params.put(CoordConsts.SVC_KEY_WORKER, worker);
+    try {
+      CoordinatorClient.talkToCoordinator(url, params, _mainSettings, _mainLogger);
+    } catch (Exception e) {
+      _mainLogger.errorf(
+          "Could not notify coordinator of task completion: %s\n",
+          Throwables.getStackTraceAsString(e));
+    }
+  }
+
   private static boolean registerWithCoordinator(String poolRegUrl, int listenPort) {
+    String worker = _mainSettings.getServiceHost() + ":" + listenPort;
     Map<String, String> params = new HashMap<>();
-    params.put(CoordConsts.SVC_KEY_ADD_WORKER, _mainSettings.getServiceHost() + ":" + listenPort);
+    params.put(CoordConsts.SVC_KEY_ADD_WORKER, worker);
     params.put(CoordConsts.SVC_KEY_VERSION, BatfishVersion.getVersionStatic());
 
     Object response =
         CoordinatorClient.talkToCoordinator(poolRegUrl, params, _mainSettings, _mainLogger);
+    if (response != null) {
+      _registeredWorker = worker;
+    }
     return response != null;
   }
 
@@ -458,6 +507,7 @@ public class Driver {
                   task.setTerminated(new Date());
                   jobLogger.close();
                   makeIdle();
+                  notifyCoordinatorTaskDone();
                 } finally {
                   runBatfishSpan.finish();
                 }
@@ -0,0 +1,81 @@
+package org.batfish.main;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.batfish.common.util.Resources.readResource;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSortedMap;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.Warnings;
+import org.batfish.config.Settings;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
+import org.batfish.job.ParseVendorConfigurationJob;
+import org.batfish.job.ParseVendorConfigurationResult;
+
+/**
+ * Parses a bundled sample configuration of each commonly used format, so that the ANTLR DFA caches
+ * of their grammars, which are shared by all parsers of a grammar, are populated before the first
+ * snapshot is parsed.
+ */
+@ParametersAreNonnullByDefault
+public final class ParserWarmup {
+
+  private static final String RESOURCE_PREFIX = "org/batfish/main/warmup/";
+
+  /** Names of the bundled sample configurations, one per format. */
+  private static final List<String> SAMPLES =
+      ImmutableList.of(
+          "arista",
+          "cisco_asa",
+          "cisco_ios",
+          "cisco_nxos",
+          "cisco_xr",
+          "flat_juniper",
+          "juniper",
+          "palo_alto_nested");
+
+  /**
+   * Parses each bundled sample configuration, and returns the total time in milliseconds taken to
+   * parse the samples of each detected format. The times are also logged at info level.
+   */
+  public static @Nonnull SortedMap<ConfigurationFormat, Long> warmUp(Settings settings) {
+    BatfishLogger logger = settings.getLogger();
+    NetworkSnapshot snapshot =
+        new NetworkSnapshot(new NetworkId("warmupNetwork"), new SnapshotId("warmupSnapshot"));
+    SortedMap<ConfigurationFormat, Long> times = new TreeMap<>();
+    for (String sample : SAMPLES) {
+      String fileText = readResource(RESOURCE_PREFIX + sample, UTF_8);
+      long start = System.nanoTime();
+      ParseVendorConfigurationResult result =
+          new ParseVendorConfigurationJob(
+                  settings,
+                  snapshot,
+                  fileText,
+                  sample,
+                  new Warnings(),
+                  ConfigurationFormat.UNKNOWN,
+                  ImmutableMultimap.of(),
+                  null)
+              .call();
+      long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      ConfigurationFormat format = result.getConfigurationFormat();
+      if (logger != null) {
+        logger.infof("Parser warm-up: %s (%s) parsed in %d ms\n", sample, format, millis);
+      }
+      times.merge(format, millis, Long::sum);
+    }
+    return ImmutableSortedMap.copyOfSorted(times);
+  }
+
+  private ParserWarmup() {}
+}
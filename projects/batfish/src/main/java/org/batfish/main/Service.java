@@ -12,6 +12,7 @@ import javax.ws.rs.core.MediaType;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BfConsts;
 import org.batfish.common.BfConsts.TaskStatus;
+import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.Task;
 import org.batfish.common.util.BatfishObjectMapper;
 import org.codehaus.jettison.json.JSONArray;
@@ -37,10 +38,21 @@ public class Service {
   @Produces(MediaType.APPLICATION_JSON)
   public JSONArray getStatus() {
     try {
+      // report cached snapshots so that the coordinator can send work on them to this worker
+      JSONArray cachedSnapshots = new JSONArray();
+      for (NetworkSnapshot snapshot : Driver.getCachedSnapshots()) {
+        cachedSnapshots.put(
+            new JSONObject()
+                .put(BfConsts.SVC_NETWORK_KEY, snapshot.getNetwork().getId())
+                .put(BfConsts.SVC_SNAPSHOT_KEY, snapshot.getSnapshot().getId()));
+      }
       return new JSONArray(
           Arrays.asList(
               BfConsts.SVC_SUCCESS_KEY,
-              (new JSONObject().put("idle", Driver.getIdle())).toString()));
+              new JSONObject()
+                  .put("idle", Driver.getIdle())
+                  .put(BfConsts.SVC_CACHED_SNAPSHOTS_KEY, cachedSnapshots)
+                  .toString()));
     } catch (Exception e) {
       return new JSONArray(Arrays.asList(BfConsts.SVC_FAILURE_KEY, e.getMessage()));
     }
@@ -19,7 +19,7 @@ import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.plugin.IBatfish;
 import org.batfish.common.topology.GlobalBroadcastNoPointToPoint;
 import org.batfish.common.topology.HybridL3Adjacencies;
-import org.batfish.common.topology.IpOwners;
+import org.batfish.common.topology.IpOwnershipIndex;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.common.topology.Layer1Topology;
 import org.batfish.common.topology.TopologyProvider;
@@ -45,8 +45,8 @@ public final class TopologyProviderImpl implements TopologyProvider {
   }
 
   @Override
-  public IpOwners getIpOwners(NetworkSnapshot snapshot) {
-    return _ipOwners.getUnchecked(snapshot);
+  public @Nonnull IpOwnershipIndex getIpOwnershipIndex(NetworkSnapshot snapshot) {
+    return _ipOwnershipIndexes.getUnchecked(snapshot);
   }
 
   @Override
@@ -173,11 +173,6 @@ public final class TopologyProviderImpl implements TopologyProvider {
   // ease developer iteration on BDP: if the dataplane is re-generated (presumably, via a call to
   // generate_dataplane), the backend will not cache dataplane-derived topologies.
 
-  private final LoadingCache<NetworkSnapshot, IpOwners> _ipOwners =
-      CacheBuilder.newBuilder()
-          .maximumSize(MAX_CACHED_SNAPSHOTS)
-          .build(CacheLoader.from(this::computeIpOwners));
-
   private final LoadingCache<NetworkSnapshot, Optional<Layer1Topology>> _layer1LogicalTopologies =
       CacheBuilder.newBuilder()
           .maximumSize(MAX_CACHED_SNAPSHOTS)
@@ -227,11 +222,29 @@ public final class TopologyProviderImpl implements TopologyProvider {
           .maximumSize(MAX_CACHED_SNAPSHOTS)
           .build(CacheLoader.from(this::computeVxlanTopology));
 
-  private @Nonnull IpOwners computeIpOwners(NetworkSnapshot snapshot) {
-    Span span = GlobalTracer.get().buildSpan("TopologyProviderImpl::computeIpOwners").start();
+  private final LoadingCache<NetworkSnapshot, IpOwnershipIndex> _ipOwnershipIndexes =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_CACHED_SNAPSHOTS)
+          .build(CacheLoader.from(this::loadOrComputeIpOwnershipIndex));
+
+  /**
+   * Loads the {@link IpOwnershipIndex} of {@code snapshot} from storage, or else computes it and
+   * stores it for later loads.
+   */
+  private @Nonnull IpOwnershipIndex loadOrComputeIpOwnershipIndex(NetworkSnapshot snapshot) {
+    Span span =
+        GlobalTracer.get().buildSpan("TopologyProviderImpl::loadOrComputeIpOwnershipIndex").start();
     try (Scope scope = GlobalTracer.get().scopeManager().activate(span)) {
       assert scope != null; // avoid unused warning
-      return new IpOwners(_batfish.loadConfigurations(snapshot));
+      Optional<IpOwnershipIndex> stored = _storage.loadIpOwnershipIndex(snapshot);
+      if (stored.isPresent()) {
+        return stored.get();
+      }
+      IpOwnershipIndex index = IpOwnershipIndex.create(_batfish.loadConfigurations(snapshot));
+      _storage.storeIpOwnershipIndex(index, snapshot);
+      return index;
+    } catch (IOException e) {
+      throw new BatfishException("Could not load or store IP ownership index", e);
     } finally {
       span.finish();
     }
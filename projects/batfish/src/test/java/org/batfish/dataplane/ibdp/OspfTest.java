@@ -11,6 +11,8 @@ import static org.batfish.datamodel.ospf.OspfAreaSummary.SummaryRouteBehavior.NO
 import static org.batfish.datamodel.ospf.OspfTopologyUtils.computeOspfTopology;
 import static org.batfish.dataplane.ibdp.TestUtils.assertNoRoute;
 import static org.batfish.dataplane.ibdp.TestUtils.assertRoute;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedMap;
@@ -168,6 +170,38 @@ public class OspfTest {
       Long maxMetricTransitLinks,
       @Nullable SummaryRouteBehavior summaryR1L0Behavior,
       Long summarizeR1L0Metric) {
+    return getOspfRoutes(
+        areaA,
+        areaB,
+        areaC,
+        areaD,
+        areaE,
+        areaF,
+        areaG,
+        maxMetricExternalNetworks,
+        maxMetricStubNetworks,
+        maxMetricSummaryNetworks,
+        maxMetricTransitLinks,
+        summaryR1L0Behavior,
+        summarizeR1L0Metric,
+        new IncrementalDataPlaneSettings());
+  }
+
+  private static SortedMap<String, SortedMap<String, Set<AbstractRoute>>> getOspfRoutes(
+      long areaA,
+      long areaB,
+      long areaC,
+      long areaD,
+      long areaE,
+      long areaF,
+      long areaG,
+      Long maxMetricExternalNetworks,
+      Long maxMetricStubNetworks,
+      Long maxMetricSummaryNetworks,
+      Long maxMetricTransitLinks,
+      @Nullable SummaryRouteBehavior summaryR1L0Behavior,
+      Long summarizeR1L0Metric,
+      IncrementalDataPlaneSettings settings) {
 
     String l0Name = "Loopback0";
     String l1Name = "Loopback1";
@@ -375,7 +409,7 @@ public class OspfTest {
             .put(c3.getHostname(), c3)
             .put(c4.getHostname(), c4)
             .build();
-    IncrementalBdpEngine engine = new IncrementalBdpEngine(new IncrementalDataPlaneSettings());
+    IncrementalBdpEngine engine = new IncrementalBdpEngine(settings);
     OspfTopologyUtils.initNeighborConfigs(NetworkConfigurations.of(configurations));
     Topology topology = TopologyUtil.synthesizeL3Topology(configurations);
     IncrementalDataPlane dp =
@@ -408,6 +442,15 @@ public class OspfTest {
    */
   private static SortedMap<String, SortedMap<String, Set<AbstractRoute>>> getOspfStubBehavior(
       boolean noSummaryStub1, boolean noSummaryNssa2, OspfDefaultOriginateType nssaDefaultType) {
+    return getOspfStubBehavior(
+        noSummaryStub1, noSummaryNssa2, nssaDefaultType, new IncrementalDataPlaneSettings());
+  }
+
+  private static SortedMap<String, SortedMap<String, Set<AbstractRoute>>> getOspfStubBehavior(
+      boolean noSummaryStub1,
+      boolean noSummaryNssa2,
+      OspfDefaultOriginateType nssaDefaultType,
+      IncrementalDataPlaneSettings settings) {
     String r0Name = "r0";
     String r1Name = "r1";
     String r2Name = "r2";
@@ -612,7 +655,7 @@ public class OspfTest {
             .put(r5.getHostname(), r5)
             .put(r6.getHostname(), r6)
             .build();
-    IncrementalBdpEngine engine = new IncrementalBdpEngine(new IncrementalDataPlaneSettings());
+    IncrementalBdpEngine engine = new IncrementalBdpEngine(settings);
     OspfTopologyUtils.initNeighborConfigs(NetworkConfigurations.of(configurations));
     Topology topology = TopologyUtil.synthesizeL3Topology(configurations);
     IncrementalDataPlane dp =
@@ -1275,6 +1318,80 @@ public class OspfTest {
     assertNoRoute(routesWithSummaries, "r3", Prefix.parse("10.10.10.10/32"));
   }
 
+  private static IncrementalDataPlaneSettings linkStateSettings() {
+    IncrementalDataPlaneSettings settings = new IncrementalDataPlaneSettings();
+    settings.getConfig().setProperty(IncrementalDataPlaneSettings.PROP_OSPF_LINK_STATE, true);
+    return settings;
+  }
+
+  @Test
+  public void testOspfLinkStateMatchesMessagePassing() {
+    // {areaA, ..., areaG} for single-area, dual-area, and multi-area networks
+    List<long[]> areaAssignments =
+        ImmutableList.of(
+            new long[] {0L, 0L, 0L, 0L, 0L, 0L, 0L},
+            new long[] {1L, 1L, 0L, 0L, 0L, 0L, 0L},
+            new long[] {0L, 0L, 1L, 1L, 1L, 1L, 1L},
+            new long[] {1L, 1L, 0L, 0L, 0L, 2L, 2L},
+            new long[] {0L, 0L, 1L, 1L, 1L, 2L, 2L});
+    for (long[] areas : areaAssignments) {
+      for (boolean maxMetric : new boolean[] {false, true}) {
+        for (SummaryRouteBehavior summaryBehavior :
+            new SummaryRouteBehavior[] {null, ADVERTISE_AND_INSTALL_DISCARD}) {
+          Long external = maxMetric ? MAX_METRIC_EXTERNAL_NETWORKS : null;
+          Long stub = maxMetric ? MAX_METRIC_STUB_NETWORKS : null;
+          Long summary = maxMetric ? MAX_METRIC_SUMMARY_NETWORKS : null;
+          Long transit = maxMetric ? MAX_METRIC_TRANSIT_LINKS : null;
+          assertThat(
+              getOspfRoutes(
+                  areas[0],
+                  areas[1],
+                  areas[2],
+                  areas[3],
+                  areas[4],
+                  areas[5],
+                  areas[6],
+                  external,
+                  stub,
+                  summary,
+                  transit,
+                  summaryBehavior,
+                  null,
+                  linkStateSettings()),
+              equalTo(
+                  getOspfRoutes(
+                      areas[0],
+                      areas[1],
+                      areas[2],
+                      areas[3],
+                      areas[4],
+                      areas[5],
+                      areas[6],
+                      external,
+                      stub,
+                      summary,
+                      transit,
+                      summaryBehavior,
+                      null)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testOspfLinkStateMatchesMessagePassingStubAreas() {
+    for (boolean noSummaryStub1 : new boolean[] {false, true}) {
+      for (boolean noSummaryNssa2 : new boolean[] {false, true}) {
+        for (OspfDefaultOriginateType nssaDefaultType : OspfDefaultOriginateType.values()) {
+          assertThat(
+              getOspfStubBehavior(
+                  noSummaryStub1, noSummaryNssa2, nssaDefaultType, linkStateSettings()),
+              equalTo(getOspfStubBehavior(noSummaryStub1, noSummaryNssa2, nssaDefaultType)));
+        }
+      }
+    }
+  }
+
   @Rule public TemporaryFolder _folder = new TemporaryFolder();
 
   @Test
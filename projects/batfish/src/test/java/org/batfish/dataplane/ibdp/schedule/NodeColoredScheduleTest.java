@@ -15,7 +15,8 @@ import com.google.common.collect.ImmutableSortedMap;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Map.Entry;
-import org.batfish.common.topology.IpOwners;
+import org.batfish.common.topology.IpOwnershipIndex;
+import org.batfish.common.topology.IpVrfOwners;
 import org.batfish.common.topology.TopologyUtil;
 import org.batfish.datamodel.BgpActivePeerConfig;
 import org.batfish.datamodel.BgpProcess;
@@ -152,7 +153,8 @@ public class NodeColoredScheduleTest {
     Node n = TestUtils.makeIosRouter("r1");
     Map<String, Node> nodes = ImmutableMap.of("r1", n);
     Map<String, Configuration> configs = ImmutableMap.of("r1", n.getConfiguration());
-    BgpTopology bgpTopology = initBgpTopology(configs, ImmutableMap.of(), false, null);
+    BgpTopology bgpTopology =
+        initBgpTopology(configs, IpVrfOwners.of(ImmutableMap.of()), false, null);
     NodeColoredSchedule schedule =
         new NodeColoredSchedule(
             nodes, _coloring, TopologyContext.builder().setBgpTopology(bgpTopology).build());
@@ -171,7 +173,8 @@ public class NodeColoredScheduleTest {
         nodes.entrySet().stream()
             .collect(
                 ImmutableMap.toImmutableMap(Entry::getKey, e -> e.getValue().getConfiguration()));
-    BgpTopology bgpTopology = initBgpTopology(configs, ImmutableMap.of(), false, null);
+    BgpTopology bgpTopology =
+        initBgpTopology(configs, IpVrfOwners.of(ImmutableMap.of()), false, null);
     NodeColoredSchedule schedule =
         new NodeColoredSchedule(
             nodes, _coloring, TopologyContext.builder().setBgpTopology(bgpTopology).build());
@@ -185,8 +188,7 @@ public class NodeColoredScheduleTest {
   @Test
   public void testTwoNodesConnectedDirectlyViaBGP() {
     BgpTopology bgpTopology =
-        initBgpTopology(
-            _configurations, new IpOwners(_configurations).getIpVrfOwners(), false, null);
+        initBgpTopology(_configurations, IpOwnershipIndex.create(_configurations), false, null);
     ImmutableMap<String, Node> nodes =
         _configurations.entrySet().stream()
             .collect(ImmutableMap.toImmutableMap(Entry::getKey, e -> new Node(e.getValue())));
@@ -0,0 +1,118 @@
+package org.batfish.dataplane.traceroute;
+
+import static org.batfish.dataplane.traceroute.FirewallSessionIndex.getMatchingSessionsLinear;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Random;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpProtocol;
+import org.batfish.datamodel.flow.Accept;
+import org.batfish.datamodel.flow.FirewallSessionTraceInfo;
+import org.batfish.datamodel.flow.IncomingSessionScope;
+import org.batfish.datamodel.flow.SessionMatchExpr;
+import org.junit.Test;
+
+/** Tests of {@link FirewallSessionIndex}. */
+public class FirewallSessionIndexTest {
+  private static final IncomingSessionScope SCOPE =
+      new IncomingSessionScope(ImmutableSet.of("i1"));
+
+  private static FirewallSessionTraceInfo session(SessionMatchExpr matchExpr) {
+    return new FirewallSessionTraceInfo("n1", Accept.INSTANCE, SCOPE, matchExpr, null);
+  }
+
+  private static Flow.Builder flowBuilder(String srcIp, String dstIp) {
+    return Flow.builder()
+        .setIngressNode("n1")
+        .setIngressInterface("i1")
+        .setSrcIp(Ip.parse(srcIp))
+        .setDstIp(Ip.parse(dstIp));
+  }
+
+  @Test
+  public void testGetMatchingSessions() {
+    Ip ip1 = Ip.parse("1.1.1.1");
+    Ip ip2 = Ip.parse("2.2.2.2");
+    FirewallSessionTraceInfo tcp =
+        session(new SessionMatchExpr(IpProtocol.TCP, ip1, ip2, 1000, 22));
+    FirewallSessionTraceInfo icmp =
+        session(new SessionMatchExpr(IpProtocol.ICMP, ip1, ip2, null, null));
+    FirewallSessionTraceInfo wildcardTcp =
+        session(new SessionMatchExpr(IpProtocol.TCP, ip2, ip1, null, null));
+    FirewallSessionIndex index = new FirewallSessionIndex(ImmutableList.of(tcp, icmp, wildcardTcp));
+
+    Flow.Builder fb = flowBuilder("1.1.1.1", "2.2.2.2").setIpProtocol(IpProtocol.TCP);
+    assertThat(
+        index.getMatchingSessions(fb.setSrcPort(1000).setDstPort(22).build()),
+        containsInAnyOrder(tcp));
+    assertThat(index.getMatchingSessions(fb.setSrcPort(1001).build()), empty());
+    assertThat(
+        index.getMatchingSessions(
+            fb.setIpProtocol(IpProtocol.ICMP)
+                .setSrcPort(null)
+                .setDstPort(null)
+                .setIcmpType(0)
+                .setIcmpCode(0)
+                .build()),
+        containsInAnyOrder(icmp));
+    assertThat(
+        index.getMatchingSessions(
+            flowBuilder("2.2.2.2", "1.1.1.1")
+                .setIpProtocol(IpProtocol.TCP)
+                .setSrcPort(1)
+                .setDstPort(2)
+                .build()),
+        containsInAnyOrder(wildcardTcp));
+    assertTrue(FirewallSessionIndex.EMPTY.isEmpty());
+  }
+
+  /** Checks agreement with the linear scan on randomly generated sessions and flows. */
+  @Test
+  public void testAgreesWithLinearScan() {
+    Random random = new Random(0);
+    ImmutableList.Builder<FirewallSessionTraceInfo> sessionsBuilder = ImmutableList.builder();
+    for (int i = 0; i < 200; i++) {
+      boolean hasPorts = random.nextInt(4) != 0;
+      sessionsBuilder.add(
+          session(
+              new SessionMatchExpr(
+                  hasPorts ? IpProtocol.TCP : IpProtocol.ICMP,
+                  randomIp(random),
+                  randomIp(random),
+                  hasPorts ? random.nextInt(4) : null,
+                  hasPorts ? random.nextInt(4) : null)));
+    }
+    List<FirewallSessionTraceInfo> sessions = sessionsBuilder.build();
+    FirewallSessionIndex index = new FirewallSessionIndex(sessions);
+    for (int i = 0; i < 2000; i++) {
+      Flow.Builder fb =
+          Flow.builder()
+              .setIngressNode("n1")
+              .setIngressInterface("i1")
+              .setSrcIp(randomIp(random))
+              .setDstIp(randomIp(random));
+      Flow flow =
+          random.nextBoolean()
+              ? fb.setIpProtocol(IpProtocol.TCP)
+                  .setSrcPort(random.nextInt(4))
+                  .setDstPort(random.nextInt(4))
+                  .build()
+              : fb.setIpProtocol(IpProtocol.ICMP).setIcmpType(0).setIcmpCode(0).build();
+      assertThat(
+          index.getMatchingSessions(flow),
+          containsInAnyOrder(getMatchingSessionsLinear(sessions, flow).toArray()));
+    }
+  }
+
+  private static Ip randomIp(Random random) {
+    // Use a small address space so that random flows often match the random sessions.
+    return Ip.create(0x0A000000L | random.nextInt(4));
+  }
+}
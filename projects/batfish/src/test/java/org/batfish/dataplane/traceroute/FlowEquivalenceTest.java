@@ -0,0 +1,299 @@
+package org.batfish.dataplane.traceroute;
+
+import static org.batfish.datamodel.ExprAclLine.ACCEPT_ALL;
+import static org.batfish.datamodel.ExprAclLine.accepting;
+import static org.batfish.datamodel.ExprAclLine.rejecting;
+import static org.batfish.datamodel.IpProtocol.TCP;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchDstPort;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchSrcPort;
+import static org.batfish.datamodel.acl.AclLineMatchExprs.permittedByAcl;
+import static org.batfish.datamodel.flow.FilterStep.FilterType.INGRESS_FILTER;
+import static org.batfish.datamodel.transformation.Transformation.always;
+import static org.batfish.datamodel.transformation.TransformationStep.assignSourceIp;
+import static org.batfish.datamodel.transformation.TransformationStep.assignSourcePort;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import java.io.IOException;
+import java.util.Set;
+import java.util.SortedMap;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.traceroute.TraceDag;
+import org.batfish.common.traceroute.TraceDagImpl;
+import org.batfish.datamodel.ConcreteInterfaceAddress;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.DataPlane;
+import org.batfish.datamodel.FirewallSessionInterfaceInfo;
+import org.batfish.datamodel.FirewallSessionInterfaceInfo.Action;
+import org.batfish.datamodel.Flow;
+import org.batfish.datamodel.FlowDisposition;
+import org.batfish.datamodel.Interface;
+import org.batfish.datamodel.Ip;
+import org.batfish.datamodel.IpAccessList;
+import org.batfish.datamodel.NetworkFactory;
+import org.batfish.datamodel.Topology;
+import org.batfish.datamodel.Vrf;
+import org.batfish.datamodel.collections.NodeInterfacePair;
+import org.batfish.datamodel.flow.EnterInputIfaceStep;
+import org.batfish.datamodel.flow.EnterInputIfaceStep.EnterInputIfaceStepDetail;
+import org.batfish.datamodel.flow.FilterStep;
+import org.batfish.datamodel.flow.FilterStep.FilterStepDetail;
+import org.batfish.datamodel.flow.Hop;
+import org.batfish.datamodel.flow.Step;
+import org.batfish.datamodel.flow.StepAction;
+import org.batfish.datamodel.packet_policy.Drop;
+import org.batfish.datamodel.packet_policy.PacketPolicy;
+import org.batfish.datamodel.packet_policy.Return;
+import org.batfish.datamodel.pojo.Node;
+import org.batfish.dataplane.TracerouteEngineImpl;
+import org.batfish.main.Batfish;
+import org.batfish.main.BatfishTestUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests of {@link FlowEquivalence}. */
+public class FlowEquivalenceTest {
+  @Rule public TemporaryFolder _tempFolder = new TemporaryFolder();
+
+  private NetworkFactory _nf;
+  private Configuration _c;
+  private Interface.Builder _ib;
+
+  @Before
+  public void setup() {
+    _nf = new NetworkFactory();
+    _c = _nf.configurationBuilder().setConfigurationFormat(ConfigurationFormat.CISCO_IOS).build();
+    Vrf vrf = _nf.vrfBuilder().setOwner(_c).build();
+    _ib = _nf.interfaceBuilder().setActive(true).setOwner(_c).setVrf(vrf);
+  }
+
+  private static Flow flow(int srcPort, int dstPort) {
+    return Flow.builder()
+        .setIngressNode("n")
+        .setIpProtocol(TCP)
+        .setSrcIp(Ip.parse("10.0.1.2"))
+        .setDstIp(Ip.parse("10.0.2.2"))
+        .setSrcPort(srcPort)
+        .setDstPort(dstPort)
+        .build();
+  }
+
+  /** A single-hop trace DAG at {@code _c} with the given steps. */
+  private TraceDagImpl dag(Step<?>... steps) {
+    return new TraceDagImpl(
+        ImmutableList.of(
+            new TraceDagImpl.Node(
+                new Hop(new Node(_c.getHostname()), ImmutableList.copyOf(steps)),
+                null,
+                FlowDisposition.DENIED_IN,
+                null,
+                ImmutableList.of())),
+        ImmutableList.of(0));
+  }
+
+  private static Step<?> enterInputIfaceStep(Interface iface) {
+    return EnterInputIfaceStep.builder()
+        .setDetail(
+            EnterInputIfaceStepDetail.builder()
+                .setInputInterface(NodeInterfacePair.of(iface))
+                .setInputVrf(iface.getVrfName())
+                .build())
+        .setAction(StepAction.RECEIVED)
+        .build();
+  }
+
+  private static Step<?> filterStep(IpAccessList acl) {
+    return new FilterStep(
+        new FilterStepDetail(acl.getName(), INGRESS_FILTER, "i1", flow(1000, 22)),
+        StepAction.DENIED);
+  }
+
+  private FlowEquivalence forTrace(TraceDagImpl dag) {
+    return FlowEquivalence.forTrace(dag, ImmutableMap.of(_c.getHostname(), _c));
+  }
+
+  @Test
+  public void testForTraceUninspected() {
+    Interface iface = _ib.setName("i1").build();
+    FlowEquivalence flowEquivalence = forTrace(dag(enterInputIfaceStep(iface)));
+    assertFalse(flowEquivalence.isSrcPortInspected());
+    assertFalse(flowEquivalence.isDstPortInspected());
+    assertThat(
+        flowEquivalence.representative(flow(1000, 22)),
+        equalTo(flowEquivalence.representative(flow(2000, 80))));
+  }
+
+  @Test
+  public void testForTraceAcl() {
+    IpAccessList acl =
+        _nf.aclBuilder()
+            .setOwner(_c)
+            .setLines(ImmutableList.of(rejecting(matchDstPort(22)), ACCEPT_ALL))
+            .build();
+    Interface iface = _ib.setName("i1").setIncomingFilter(acl).build();
+    FlowEquivalence flowEquivalence = forTrace(dag(enterInputIfaceStep(iface), filterStep(acl)));
+    assertFalse(flowEquivalence.isSrcPortInspected());
+    assertTrue(flowEquivalence.isDstPortInspected());
+    assertThat(
+        flowEquivalence.representative(flow(1000, 22)),
+        equalTo(flowEquivalence.representative(flow(2000, 22))));
+    assertThat(
+        flowEquivalence.representative(flow(1000, 22)),
+        not(equalTo(flowEquivalence.representative(flow(1000, 80)))));
+  }
+
+  @Test
+  public void testForTraceAclReference() {
+    IpAccessList referenced =
+        _nf.aclBuilder()
+            .setOwner(_c)
+            .setLines(ImmutableList.of(accepting(matchSrcPort(1000))))
+            .build();
+    IpAccessList acl =
+        _nf.aclBuilder()
+            .setOwner(_c)
+            .setLines(ImmutableList.of(accepting(permittedByAcl(referenced.getName()))))
+            .build();
+    FlowEquivalence flowEquivalence = forTrace(dag(filterStep(acl)));
+    assertTrue(flowEquivalence.isSrcPortInspected());
+    assertFalse(flowEquivalence.isDstPortInspected());
+  }
+
+  /** ACLs that are not applied along the path do not prevent memoization. */
+  @Test
+  public void testForTraceUnrelatedAcl() {
+    IpAccessList unrelated =
+        _nf.aclBuilder()
+            .setOwner(_c)
+            .setLines(ImmutableList.of(accepting(matchDstPort(22)), accepting(matchSrcPort(22))))
+            .build();
+    _ib.setName("i2").setIncomingFilter(unrelated).build();
+    Interface iface = _ib.setName("i1").setIncomingFilter(null).build();
+    FlowEquivalence flowEquivalence = forTrace(dag(enterInputIfaceStep(iface)));
+    assertFalse(flowEquivalence.isSrcPortInspected());
+    assertFalse(flowEquivalence.isDstPortInspected());
+  }
+
+  @Test
+  public void testForTraceTransformation() {
+    Interface iface = _ib.setName("i1").build();
+    _ib.setName("i2")
+        .setOutgoingTransformation(
+            always()
+                .apply(assignSourceIp(Ip.parse("9.9.9.9"), Ip.parse("9.9.9.9")))
+                .setAndThen(always().apply(assignSourcePort(2000, 3000)).build())
+                .build())
+        .build();
+    FlowEquivalence flowEquivalence = forTrace(dag(enterInputIfaceStep(iface)));
+    assertTrue(flowEquivalence.isSrcPortInspected());
+    assertFalse(flowEquivalence.isDstPortInspected());
+  }
+
+  @Test
+  public void testForTraceConservative() {
+    assertTrue(FlowEquivalence.forTrace(dag(), ImmutableMap.of()).isTrivial());
+
+    _c.setPacketPolicies(
+        ImmutableSortedMap.of(
+            "policy", new PacketPolicy("policy", ImmutableList.of(), new Return(Drop.instance()))));
+    assertTrue(forTrace(dag()).isTrivial());
+  }
+
+  /** Memoized traces, including firewall sessions and return flows, match the unmemoized ones. */
+  @Test
+  public void testMemoizedTraces() throws IOException {
+    IpAccessList acl =
+        _nf.aclBuilder()
+            .setOwner(_c)
+            .setLines(ImmutableList.of(rejecting(matchDstPort(22)), ACCEPT_ALL))
+            .build();
+    _ib.setName("i1")
+        .setAddresses(ConcreteInterfaceAddress.parse("10.0.1.1/24"))
+        .setIncomingFilter(acl)
+        .build();
+    _ib.setName("i2")
+        .setAddresses(ConcreteInterfaceAddress.parse("10.0.2.1/24"))
+        .setIncomingFilter(null)
+        .setFirewallSessionInterfaceInfo(
+            new FirewallSessionInterfaceInfo(
+                Action.POST_NAT_FIB_LOOKUP, ImmutableSet.of("i2"), null, null))
+        .build();
+    SortedMap<String, Configuration> configs = ImmutableSortedMap.of(_c.getHostname(), _c);
+    Batfish batfish = BatfishTestUtils.getBatfish(configs, _tempFolder);
+    NetworkSnapshot snapshot = batfish.getSnapshot();
+    batfish.computeDataPlane(snapshot);
+    DataPlane dp = batfish.loadDataPlane(snapshot);
+
+    ImmutableSet.Builder<Flow> flows = ImmutableSet.builder();
+    for (int srcPort = 1000; srcPort < 1010; srcPort++) {
+      for (int dstPort : new int[] {22, 80, 443}) {
+        flows.add(
+            flow(srcPort, dstPort).toBuilder()
+                .setIngressNode(_c.getHostname())
+                .setIngressInterface("i1")
+                .build());
+      }
+    }
+    Set<Flow> flowSet = flows.build();
+    assertThat(
+        new TracerouteEngineImpl(dp, Topology.EMPTY, configs, true)
+            .computeTracesAndReverseFlows(flowSet, false),
+        equalTo(
+            new TracerouteEngineImpl(dp, Topology.EMPTY, configs, false)
+                .computeTracesAndReverseFlows(flowSet, false)));
+  }
+
+  /**
+   * An ACL that matches on ports but is not applied to the traced flows does not prevent them from
+   * being memoized.
+   */
+  @Test
+  public void testMemoizedTracesUnrelatedAcl() throws IOException {
+    IpAccessList unrelated =
+        _nf.aclBuilder()
+            .setOwner(_c)
+            .setLines(ImmutableList.of(accepting(matchDstPort(22)), accepting(matchSrcPort(22))))
+            .build();
+    _ib.setName("i1").setAddresses(ConcreteInterfaceAddress.parse("10.0.1.1/24")).build();
+    _ib.setName("i2")
+        .setAddresses(ConcreteInterfaceAddress.parse("10.0.2.1/24"))
+        .setIncomingFilter(unrelated)
+        .build();
+    SortedMap<String, Configuration> configs = ImmutableSortedMap.of(_c.getHostname(), _c);
+    Batfish batfish = BatfishTestUtils.getBatfish(configs, _tempFolder);
+    NetworkSnapshot snapshot = batfish.getSnapshot();
+    batfish.computeDataPlane(snapshot);
+    DataPlane dp = batfish.loadDataPlane(snapshot);
+
+    Flow flow1 =
+        flow(1000, 22).toBuilder()
+            .setIngressNode(_c.getHostname())
+            .setIngressInterface("i1")
+            .build();
+    Flow flow2 = flow1.toBuilder().setSrcPort(2000).setDstPort(80).build();
+    Set<Flow> flows = ImmutableSet.of(flow1, flow2);
+    TraceDag dag =
+        new TracerouteEngineImpl(dp, Topology.EMPTY, configs, false)
+            .computeTraceDags(flows, ImmutableSet.of(), false)
+            .get(flow1);
+    FlowEquivalence flowEquivalence = forTrace((TraceDagImpl) dag);
+    assertFalse(flowEquivalence.isSrcPortInspected());
+    assertFalse(flowEquivalence.isDstPortInspected());
+    assertThat(
+        new TracerouteEngineImpl(dp, Topology.EMPTY, configs, true)
+            .computeTracesAndReverseFlows(flows, false),
+        equalTo(
+            new TracerouteEngineImpl(dp, Topology.EMPTY, configs, false)
+                .computeTracesAndReverseFlows(flows, false)));
+  }
+}
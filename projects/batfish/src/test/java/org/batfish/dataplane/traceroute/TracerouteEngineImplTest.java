@@ -102,6 +102,7 @@ import org.batfish.datamodel.TcpFlagsMatchConditions;
 import org.batfish.datamodel.Topology;
 import org.batfish.datamodel.Vrf;
 import org.batfish.datamodel.acl.AclLineMatchExprs;
+import org.batfish.datamodel.acl.CompiledIpAccessLists;
 import org.batfish.datamodel.acl.MatchSrcInterface;
 import org.batfish.datamodel.acl.OriginatingFromDevice;
 import org.batfish.datamodel.collections.NodeInterfacePair;
@@ -548,8 +549,7 @@ public class TracerouteEngineImplTest {
             iface1,
             filter,
             FilterType.INGRESS_FILTER,
-            ImmutableMap.of(filterName, filter),
-            ImmutableMap.of(),
+            new CompiledIpAccessLists(ImmutableMap.of(filterName, filter), ImmutableMap.of()),
             false);
 
     assertThat(step.getAction(), equalTo(StepAction.PERMITTED));
@@ -563,8 +563,7 @@ public class TracerouteEngineImplTest {
             iface2,
             filter,
             FilterType.INGRESS_FILTER,
-            ImmutableMap.of(filterName, filter),
-            ImmutableMap.of(),
+            new CompiledIpAccessLists(ImmutableMap.of(filterName, filter), ImmutableMap.of()),
             false);
 
     assertThat(step.getAction(), equalTo(StepAction.DENIED));
@@ -126,6 +126,7 @@ import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.Warnings;
 import org.batfish.common.matchers.WarningMatchers;
 import org.batfish.common.plugin.IBatfish;
+import org.batfish.common.topology.IpVrfOwners;
 import org.batfish.config.Settings;
 import org.batfish.datamodel.AbstractRoute;
 import org.batfish.datamodel.AclIpSpace;
@@ -527,8 +528,8 @@ public class AristaGrammarTest {
     Map<String, Configuration> configurations = batfish.loadConfigurations(batfish.getSnapshot());
     assertTrue(
         configurations.values().stream().allMatch(c -> c.getConfigurationFormat() == ARISTA));
-    Map<Ip, Map<String, Set<String>>> ipOwners =
-        batfish.getTopologyProvider().getIpOwners(batfish.getSnapshot()).getIpVrfOwners();
+    IpVrfOwners ipOwners =
+        batfish.getTopologyProvider().getIpOwnershipIndex(batfish.getSnapshot());
     ValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology =
         BgpTopologyUtils.initBgpTopology(configurations, ipOwners, false, null).getGraph();
 
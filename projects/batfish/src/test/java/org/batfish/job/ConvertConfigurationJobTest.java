@@ -1,14 +1,24 @@
 package org.batfish.job;
 
+import static org.batfish.datamodel.acl.AclLineMatchExprs.matchDst;
 import static org.batfish.job.ConvertConfigurationJob.finalizeConfiguration;
+import static org.batfish.job.ConvertConfigurationJob.hashConsAclsAndIpSpaces;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
 
 import com.google.common.collect.ImmutableMap;
 import org.batfish.common.VendorConversionException;
 import org.batfish.common.Warnings;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.ExprAclLine;
+import org.batfish.datamodel.Interface;
+import org.batfish.datamodel.IpAccessList;
 import org.batfish.datamodel.LineAction;
+import org.batfish.datamodel.NetworkFactory;
+import org.batfish.datamodel.Prefix;
 import org.batfish.datamodel.routing_policy.communities.CommunityMatchExprReference;
 import org.junit.Rule;
 import org.junit.Test;
@@ -31,4 +41,41 @@ public final class ConvertConfigurationJobTest {
     _thrown.expectMessage(containsString("Undefined reference"));
     finalizeConfiguration(c, new Warnings());
   }
+
+  private static Configuration newConfigurationWithAcl(NetworkFactory nf, String hostname) {
+    Configuration c =
+        nf.configurationBuilder()
+            .setHostname(hostname)
+            .setConfigurationFormat(ConfigurationFormat.CISCO_IOS)
+            .build();
+    IpAccessList acl =
+        nf.aclBuilder()
+            .setOwner(c)
+            .setName("acl")
+            .setLines(ExprAclLine.accepting(matchDst(Prefix.parse("10.0.0.0/8"))))
+            .build();
+    nf.interfaceBuilder().setOwner(c).setName("iface").setIncomingFilter(acl).build();
+    c.getIpSpaces().put("space", Prefix.parse("10.0.0.0/8").toIpSpace());
+    return c;
+  }
+
+  @Test
+  public void testHashConsAclsAndIpSpaces() {
+    NetworkFactory nf = new NetworkFactory();
+    Configuration c1 = newConfigurationWithAcl(nf, "c1");
+    Configuration c2 = newConfigurationWithAcl(nf, "c2");
+    IpAccessList acl2 = c2.getIpAccessLists().get("acl");
+
+    hashConsAclsAndIpSpaces(c1);
+    hashConsAclsAndIpSpaces(c2);
+
+    IpAccessList hashConsed1 = c1.getIpAccessLists().get("acl");
+    IpAccessList hashConsed2 = c2.getIpAccessLists().get("acl");
+    assertThat(hashConsed2, equalTo(acl2));
+    assertThat(hashConsed2.getLines().get(0), sameInstance(hashConsed1.getLines().get(0)));
+    // the interface filter is the ACL in the map
+    Interface iface2 = c2.getAllInterfaces().get("iface");
+    assertThat(iface2.getIncomingFilter(), sameInstance(hashConsed2));
+    assertThat(c2.getIpSpaces().get("space"), sameInstance(c1.getIpSpaces().get("space")));
+  }
 }
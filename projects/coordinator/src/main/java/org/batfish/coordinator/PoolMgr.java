@@ -1,11 +1,14 @@
 package org.batfish.coordinator;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
@@ -16,9 +19,13 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.batfish.common.BatfishLogger;
 import org.batfish.common.BfConsts;
+import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.util.CommonUtil;
 import org.batfish.coordinator.config.Settings;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
 import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
 public class PoolMgr {
@@ -37,6 +44,15 @@ public class PoolMgr {
   // the key should be of the form <ip or hostname>:<port>
   private Map<String, WorkerStatus> _workerPool;
 
+  /* Cache affinity statistics */
+
+  /** Number of workers chosen for work because they had one of its snapshots cached */
+  private long _affinityHits;
+  /** Number of workers chosen for work without having any of its snapshots cached */
+  private long _affinityMisses;
+  /** Number of times work was held back for a busy worker with one of its snapshots cached */
+  private long _affinityWaits;
+
   public PoolMgr(Settings settings, BatfishLogger logger) {
     _settings = settings;
     _logger = logger;
@@ -52,6 +68,11 @@ public class PoolMgr {
     thread.start();
   }
 
+  @VisibleForTesting
+  synchronized void addToPool(String worker, WorkerStatus status) {
+    _workerPool.put(worker, status);
+  }
+
   public synchronized void deleteFromPool(String worker) {
     _workerPool.remove(worker);
   }
@@ -76,17 +97,64 @@ public class PoolMgr {
     return copy;
   }
 
+  /**
+   * Claims an idle worker for work on the given snapshots, preferring one that has any of them
+   * cached.
+   *
+   * @param snapshots the snapshots the work needs
+   * @param waitForWarm if no idle worker has any of the snapshots cached but a busy one does,
+   *     whether to leave the work for that worker rather than claim a cold idle worker
+   * @return the claimed worker, or {@code null} if none was claimed
+   */
   @Nullable
-  public synchronized String getWorkerForAssignment() {
-
+  public synchronized String getWorkerForAssignment(
+      Set<NetworkSnapshot> snapshots, boolean waitForWarm) {
+    String coldWorker = null;
+    boolean busyWarmWorker = false;
     for (Entry<String, WorkerStatus> workerEntry : _workerPool.entrySet()) {
-      if (workerEntry.getValue().getStatus() == WorkerStatus.StatusCode.IDLE) {
-        updateWorkerStatus(workerEntry.getKey(), WorkerStatus.StatusCode.TRYINGTOASSIGN);
-        return workerEntry.getKey();
+      WorkerStatus status = workerEntry.getValue();
+      boolean warm = status.getCachedSnapshots().stream().anyMatch(snapshots::contains);
+      if (status.getStatus() == WorkerStatus.StatusCode.IDLE) {
+        if (warm) {
+          _affinityHits++;
+          return claimWorker(workerEntry.getKey());
+        } else if (coldWorker == null) {
+          coldWorker = workerEntry.getKey();
+        }
+      } else if (warm
+          && (status.getStatus() == WorkerStatus.StatusCode.BUSY
+              || status.getStatus() == WorkerStatus.StatusCode.TRYINGTOASSIGN)) {
+        busyWarmWorker = true;
       }
     }
+    if (coldWorker == null) {
+      return null;
+    } else if (waitForWarm && busyWarmWorker) {
+      _affinityWaits++;
+      return null;
+    }
+    _affinityMisses++;
+    return claimWorker(coldWorker);
+  }
 
-    return null;
+  private String claimWorker(String worker) {
+    updateWorkerStatus(worker, WorkerStatus.StatusCode.TRYINGTOASSIGN);
+    return worker;
+  }
+
+  public synchronized boolean hasIdleWorker() {
+    return _workerPool.values().stream()
+        .anyMatch(status -> status.getStatus() == WorkerStatus.StatusCode.IDLE);
+  }
+
+  /** Returns the cache affinity statistics of the worker choices made for assignments. */
+  public synchronized JSONObject getCacheAffinityJson() throws JSONException {
+    long choices = _affinityHits + _affinityMisses;
+    return new JSONObject()
+        .put("hits", _affinityHits)
+        .put("misses", _affinityMisses)
+        .put("waits", _affinityWaits)
+        .put("hit-rate", choices == 0 ? 0.0 : (double) _affinityHits / choices);
   }
 
   @Nullable
@@ -153,6 +221,12 @@ public class PoolMgr {
 
       boolean status = jObj.getBoolean("idle");
 
+      // older workers do not report their cached snapshots
+      if (jObj.has(BfConsts.SVC_CACHED_SNAPSHOTS_KEY)) {
+        updateCachedSnapshots(
+            worker, parseCachedSnapshots(jObj.getJSONArray(BfConsts.SVC_CACHED_SNAPSHOTS_KEY)));
+      }
+
       // update the status, except leave the ones with TRYINGTOASSIGN
       // alone
       if (getWorkerStatus(worker).getStatus() != WorkerStatus.StatusCode.TRYINGTOASSIGN) {
@@ -183,6 +257,27 @@ public class PoolMgr {
             TimeUnit.MILLISECONDS);
   }
 
+  @VisibleForTesting
+  static Set<NetworkSnapshot> parseCachedSnapshots(JSONArray cachedSnapshots)
+      throws JSONException {
+    ImmutableSet.Builder<NetworkSnapshot> snapshots = ImmutableSet.builder();
+    for (int i = 0; i < cachedSnapshots.length(); i++) {
+      JSONObject snapshot = cachedSnapshots.getJSONObject(i);
+      snapshots.add(
+          new NetworkSnapshot(
+              new NetworkId(snapshot.getString(BfConsts.SVC_NETWORK_KEY)),
+              new SnapshotId(snapshot.getString(BfConsts.SVC_SNAPSHOT_KEY))));
+    }
+    return snapshots.build();
+  }
+
+  private synchronized void updateCachedSnapshots(
+      String worker, Set<NetworkSnapshot> cachedSnapshots) {
+    if (_workerPool.containsKey(worker)) {
+      _workerPool.get(worker).updateCachedSnapshots(cachedSnapshots);
+    }
+  }
+
   private synchronized void updateWorkerStatus(String worker, WorkerStatus.StatusCode statusCode) {
     if (_workerPool.containsKey(worker)) {
       _workerPool.get(worker).updateStatus(statusCode);
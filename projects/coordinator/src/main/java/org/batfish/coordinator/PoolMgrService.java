@@ -2,6 +2,7 @@ package org.batfish.coordinator;
 
 import static org.batfish.common.CoordConstsV2.QP_VERBOSE;
 
+import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
 import java.util.Arrays;
 import java.util.LinkedList;
@@ -71,6 +72,7 @@ public class PoolMgrService {
       _logger.info("PMS:getStatus\n");
       Map<String, String> poolStatus = Main.getPoolMgr().getPoolStatus();
       JSONObject obj = new JSONObject(poolStatus);
+      obj.put("cache-affinity", Main.getPoolMgr().getCacheAffinityJson());
       return new JSONArray(Arrays.asList(CoordConsts.SVC_KEY_SUCCESS, obj.toString()));
     } catch (Exception e) {
       _logger.errorf("PMS:getStatus exception: %s\n", Throwables.getStackTraceAsString(e));
@@ -78,6 +80,27 @@ public class PoolMgrService {
     }
   }
 
+  /**
+   * Notification from a worker that it finished its task, so that the coordinator can process the
+   * result and assign new work right away.
+   */
+  @GET
+  @Path(CoordConsts.SVC_RSC_POOL_TASK_DONE)
+  @Produces(MediaType.APPLICATION_JSON)
+  public JSONArray taskDone(@QueryParam(CoordConsts.SVC_KEY_WORKER) String worker) {
+    try {
+      _logger.infof("PMS:taskDone got %s\n", worker);
+      if (Strings.isNullOrEmpty(worker)) {
+        return new JSONArray(Arrays.asList(CoordConsts.SVC_KEY_FAILURE, "Worker not specified"));
+      }
+      Main.getWorkMgr().taskDone(worker);
+    } catch (Exception e) {
+      _logger.errorf("PMS:taskDone exception: %s\n", Throwables.getStackTraceAsString(e));
+      return new JSONArray(Arrays.asList(CoordConsts.SVC_KEY_FAILURE, e.getMessage()));
+    }
+    return new JSONArray(Arrays.asList(CoordConsts.SVC_KEY_SUCCESS, "done"));
+  }
+
   // functions for pool management
   @GET
   @Path(CoordConsts.SVC_RSC_POOL_UPDATE)
@@ -51,6 +51,10 @@ public class QueuedWork {
     return _assignedWorker;
   }
 
+  public Date getDateAssigned() {
+    return _dateAssigned;
+  }
+
   public Date getDateCreated() {
     return _dateCreated;
   }
@@ -0,0 +1,70 @@
+package org.batfish.coordinator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.math.LongMath;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+/**
+ * A histogram of wait times in milliseconds, with power-of-two buckets: bucket {@code i > 0} counts
+ * the times in {@code [2^(i-1), 2^i)}, and bucket {@code 0} counts the zero times.
+ */
+@ThreadSafe
+final class WaitTimeHistogram {
+
+  private static final int NUM_BUCKETS = Long.SIZE;
+
+  WaitTimeHistogram() {
+    _counts = new long[NUM_BUCKETS];
+  }
+
+  /** Records a wait of {@code millis} milliseconds. Negative waits are recorded as zero. */
+  synchronized void record(long millis) {
+    long wait = Math.max(0L, millis);
+    _counts[bucketOf(wait)]++;
+    _count++;
+    _totalMillis = LongMath.saturatedAdd(_totalMillis, wait);
+    _maxMillis = Math.max(_maxMillis, wait);
+  }
+
+  synchronized long getCount() {
+    return _count;
+  }
+
+  /** Returns the number of recorded waits in the bucket containing {@code millis}. */
+  @VisibleForTesting
+  synchronized long getBucketCount(long millis) {
+    return _counts[bucketOf(millis)];
+  }
+
+  /**
+   * Returns the count, total, and maximum of the recorded waits, and the counts of the non-empty
+   * buckets keyed by their inclusive upper bounds, e.g. {@code "<=7"} for waits from 4 to 7 ms.
+   */
+  @Nonnull
+  synchronized JSONObject toJson() throws JSONException {
+    JSONObject buckets = new JSONObject();
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      if (_counts[i] > 0) {
+        // the upper bound of the last bucket overflows to Long.MAX_VALUE
+        buckets.put("<=" + ((1L << i) - 1), _counts[i]);
+      }
+    }
+    return new JSONObject()
+        .put("count", _count)
+        .put("total", _totalMillis)
+        .put("max", _maxMillis)
+        .put("buckets", buckets);
+  }
+
+  private static int bucketOf(long millis) {
+    return NUM_BUCKETS - Long.numberOfLeadingZeros(millis);
+  }
+
+  private final long[] _counts;
+  private long _count;
+  private long _maxMillis;
+  private long _totalMillis;
+}
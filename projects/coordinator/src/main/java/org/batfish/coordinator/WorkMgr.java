@@ -15,6 +15,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Comparators;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -56,11 +58,13 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor.DiscardOldestPolicy;
+import java.util.concurrent.ThreadPoolExecutor.DiscardPolicy;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -237,6 +241,10 @@ public class WorkMgr extends AbstractCoordinator {
     return builder.build().min(Instant::compareTo);
   }
 
+  /**
+   * Periodic fallback for the event-driven assignment passes: picks up status changes that no
+   * worker reported, e.g. from workers that do not send task-completion notifications.
+   */
   static final class AssignWorkTask implements Runnable {
     @Override
     public void run() {
@@ -251,6 +259,18 @@ public class WorkMgr extends AbstractCoordinator {
   private static final String SNAPSHOT_PACKAGING_INSTRUCTIONS_URL =
       "https://batfish.readthedocs.io/en/latest/notebooks/interacting.html#Packaging-snapshot-data";
 
+  /**
+   * Number of snapshots whose {@link CompletionMetadata} is kept in memory, so that successive
+   * autocomplete requests neither reload it nor rebuild its index.
+   */
+  private static final int MAX_CACHED_COMPLETION_METADATA = 8;
+
+  /**
+   * Loaded completion metadata by snapshot. Empty metadata, which may not have been stored yet, is
+   * not cached.
+   */
+  private final Cache<NetworkSnapshot, CompletionMetadata> _completionMetadata;
+
   private final IdManager _idManager;
   private final BatfishLogger _logger;
   private final Settings _settings;
@@ -259,6 +279,12 @@ public class WorkMgr extends AbstractCoordinator {
   private final StorageProvider _storage;
   private final ExecutorService _gcExecutor;
 
+  /** Runs the event-driven assignment passes, see {@link #triggerAssignWork()}. */
+  private final ExecutorService _assignWorkExecutor;
+
+  /** Workers that reported finishing their task since the last assignment pass */
+  private final Set<String> _workersWithFinishedTasks;
+
   public WorkMgr(
       Settings settings,
       BatfishLogger logger,
@@ -275,6 +301,14 @@ public class WorkMgr extends AbstractCoordinator {
     _gcExecutor =
         new ThreadPoolExecutor(
             0, 1, 0L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1), new DiscardOldestPolicy());
+    // Only one assignment pass runs at a time, and at most one more is queued. A queued pass has
+    // not started yet, so it will see everything that later triggers would, and they are dropped.
+    _assignWorkExecutor =
+        new ThreadPoolExecutor(
+            0, 1, 0L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1), new DiscardPolicy());
+    _workersWithFinishedTasks = ConcurrentHashMap.newKeySet();
+    _completionMetadata =
+        CacheBuilder.newBuilder().softValues().maximumSize(MAX_CACHED_COMPLETION_METADATA).build();
   }
 
   @VisibleForTesting
@@ -282,33 +316,87 @@ public class WorkMgr extends AbstractCoordinator {
     return _storage;
   }
 
+  /**
+   * Schedules an assignment pass, which checks the tasks of the workers that reported finishing
+   * them and then assigns as much queued work as there are idle workers. Call whenever work is
+   * queued or a worker may have become idle.
+   */
+  private void triggerAssignWork() {
+    _assignWorkExecutor.execute(this::runAssignWorkPass);
+  }
+
+  /**
+   * Handles a notification from {@code worker} that it finished its task, so that the task's
+   * result is processed and the worker gets new work without waiting for the periodic check.
+   */
+  public void taskDone(String worker) {
+    _workersWithFinishedTasks.add(worker);
+    triggerAssignWork();
+  }
+
+  private void runAssignWorkPass() {
+    for (String worker : ImmutableList.copyOf(_workersWithFinishedTasks)) {
+      _workersWithFinishedTasks.remove(worker);
+      checkTasks(worker);
+      Main.getPoolMgr().refreshWorkerStatus(worker);
+    }
+    assignWork();
+  }
+
+  /** Assigns queued work to idle workers, until either runs out. */
   private void assignWork() {
 
     try {
-      QueuedWork work = _workQueueMgr.getWorkForAssignment();
+      // work left for a busy worker that has its snapshot cached, skipped for the rest of this pass
+      Set<UUID> deferred = new HashSet<>();
+      // Bound the attempts so that a worker that keeps failing assignments cannot make this spin
+      for (int attempts = Main.getPoolMgr().getNumWorkers(); attempts > 0; ) {
+        QueuedWork work = _workQueueMgr.getWorkForAssignment(deferred);
+
+        // get out if no work was found
+        if (work == null) {
+          // _logger.info("WM:AssignWork: No unassigned work\n");
+          return;
+        }
 
-      // get out if no work was found
-      if (work == null) {
-        // _logger.info("WM:AssignWork: No unassigned work\n");
-        return;
-      }
+        boolean waitForWarm =
+            System.currentTimeMillis() - work.getDateCreated().getTime()
+                < _settings.getAffinityWaitMs();
+        String idleWorker =
+            Main.getPoolMgr().getWorkerForAssignment(getSnapshots(work.getDetails()), waitForWarm);
 
-      String idleWorker = Main.getPoolMgr().getWorkerForAssignment();
+        // release the work if no worker was chosen for it
+        if (idleWorker == null) {
+          _workQueueMgr.markAssignmentFailure(work);
 
-      // get out if no idle worker was found, but release the work first
-      if (idleWorker == null) {
-        _workQueueMgr.markAssignmentFailure(work);
+          // get out if no idle worker was found
+          if (!Main.getPoolMgr().hasIdleWorker()) {
+            _logger.info("WM:AssignWork: No idle worker\n");
+            return;
+          }
+          deferred.add(work.getId());
+          continue;
+        }
 
-        _logger.info("WM:AssignWork: No idle worker\n");
-        return;
+        assignWork(work, idleWorker);
+        attempts--;
       }
-
-      assignWork(work, idleWorker);
     } catch (Exception e) {
       _logger.errorf("Got exception in assignWork: %s\n", Throwables.getStackTraceAsString(e));
     }
   }
 
+  /** Returns the snapshots that the worker running the given work will load. */
+  @VisibleForTesting
+  static @Nonnull Set<NetworkSnapshot> getSnapshots(WorkDetails details) {
+    ImmutableSet.Builder<NetworkSnapshot> snapshots = ImmutableSet.builder();
+    snapshots.add(new NetworkSnapshot(details.getNetworkId(), details.getSnapshotId()));
+    if (details.getReferenceSnapshotId() != null) {
+      snapshots.add(new NetworkSnapshot(details.getNetworkId(), details.getReferenceSnapshotId()));
+    }
+    return snapshots.build();
+  }
+
   private void assignWork(QueuedWork work, String worker) {
 
     _logger.infof("WM:AssignWork: Trying to assign %s to %s\n", work, worker);
@@ -437,6 +525,17 @@ public class WorkMgr extends AbstractCoordinator {
     }
   }
 
+  /** Checks the tasks assigned to {@code worker}. */
+  private void checkTasks(String worker) {
+    try {
+      for (QueuedWork work : _workQueueMgr.getWorkForChecking(worker)) {
+        checkTask(work, worker);
+      }
+    } catch (Exception e) {
+      _logger.errorf("Got exception in checkTasks: %s\n", Throwables.getStackTraceAsString(e));
+    }
+  }
+
   private CompletionMetadata getCompletionMetadata(String network, String snapshot)
       throws IOException {
     checkArgument(!isNullOrEmpty(network), "Network name should be supplied");
@@ -452,7 +551,18 @@ public class WorkMgr extends AbstractCoordinator {
       return null;
     }
     SnapshotId snapshotId = snapshotIdOpt.get();
-    return _storage.loadCompletionMetadata(networkId, snapshotId);
+    NetworkSnapshot networkSnapshot = new NetworkSnapshot(networkId, snapshotId);
+    CompletionMetadata cached = _completionMetadata.getIfPresent(networkSnapshot);
+    if (cached != null) {
+      return cached;
+    }
+    CompletionMetadata completionMetadata = _storage.loadCompletionMetadata(networkId, snapshotId);
+    if (!completionMetadata.equals(CompletionMetadata.EMPTY)) {
+      // build the index now, rather than on the first autocomplete request that needs it
+      completionMetadata.getIndex();
+      _completionMetadata.put(networkSnapshot, completionMetadata);
+    }
+    return completionMetadata;
   }
 
   @Nullable
@@ -1929,10 +2039,9 @@ public class WorkMgr extends AbstractCoordinator {
     } catch (Exception e) {
       throw new BatfishException(String.format("Failed to queue work: %s", e.getMessage()), e);
     }
-    // as an optimization trigger AssignWork to see if we can schedule this (or another) work
+    // trigger an assignment pass rather than waiting for the periodic one
     if (success) {
-      Thread thread = new Thread(this::assignWork);
-      thread.start();
+      triggerAssignWork();
     }
     return success;
   }
@@ -2,6 +2,7 @@ package org.batfish.coordinator;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -52,12 +53,16 @@ public class WorkQueueMgr {
   @GuardedBy("this")
   private WorkQueue _queueIncompleteWork;
 
+  /** Time from queueing to successful assignment of each assigned work */
+  private final WaitTimeHistogram _queueWaitTimes;
+
   WorkQueueMgr(BatfishLogger logger, SnapshotMetadataMgr snapshotMetadataManager) {
     this(Main.getSettings().getQueueType(), logger, snapshotMetadataManager);
   }
 
   WorkQueueMgr(Type wqType, BatfishLogger logger, SnapshotMetadataMgr snapshotMetadataManager) {
     _blockingWork = new HashSet<>();
+    _queueWaitTimes = new WaitTimeHistogram();
     _logger = logger;
     _snapshotMetadataManager = snapshotMetadataManager;
     switch (wqType) {
@@ -297,6 +302,8 @@ public class WorkQueueMgr {
       jObject.put(work.getId().toString(), work.toString());
     }
 
+    jObject.put("queue-wait-ms", _queueWaitTimes.toJson());
+
     return jObject;
   }
 
@@ -342,9 +349,15 @@ public class WorkQueueMgr {
 
   @Nullable
   public synchronized QueuedWork getWorkForAssignment() {
+    return getWorkForAssignment(ImmutableSet.of());
+  }
+
+  /** Like {@link #getWorkForAssignment()}, but skips the work whose ID is in {@code excluded}. */
+  @Nullable
+  public synchronized QueuedWork getWorkForAssignment(Set<UUID> excluded) {
 
     for (QueuedWork work : _queueIncompleteWork) {
-      if (work.getStatus() == WorkStatusCode.UNASSIGNED) {
+      if (work.getStatus() == WorkStatusCode.UNASSIGNED && !excluded.contains(work.getId())) {
         work.setStatus(WorkStatusCode.TRYINGTOASSIGN);
         return work;
       }
@@ -365,6 +378,24 @@ public class WorkQueueMgr {
     return workToCheck;
   }
 
+  /** Like {@link #getWorkForChecking()}, but only for the work assigned to {@code worker}. */
+  @Nonnull
+  public synchronized List<QueuedWork> getWorkForChecking(String worker) {
+    List<QueuedWork> workToCheck = new ArrayList<>();
+    for (QueuedWork work : _queueIncompleteWork) {
+      if (work.getStatus() == WorkStatusCode.ASSIGNED && worker.equals(work.getAssignedWorker())) {
+        work.setStatus(WorkStatusCode.CHECKINGSTATUS);
+        workToCheck.add(work);
+      }
+    }
+    return workToCheck;
+  }
+
+  @Nonnull
+  WaitTimeHistogram getQueueWaitTimes() {
+    return _queueWaitTimes;
+  }
+
   public synchronized List<QueuedWork> listIncompleteWork(
       NetworkId networkId, @Nullable SnapshotId snapshotId, @Nullable WorkType workType) {
     List<QueuedWork> retList = new LinkedList<>();
@@ -397,6 +428,7 @@ public class WorkQueueMgr {
   public synchronized void markAssignmentSuccess(QueuedWork work, String assignedWorker)
       throws IOException {
     work.setAssignment(assignedWorker);
+    _queueWaitTimes.record(work.getDateAssigned().getTime() - work.getDateCreated().getTime());
 
     // update testrig metadata
     WorkDetails wDetails = work.getDetails();
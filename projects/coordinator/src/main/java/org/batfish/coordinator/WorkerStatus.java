@@ -1,6 +1,9 @@
 package org.batfish.coordinator;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.Date;
+import java.util.Set;
+import org.batfish.common.NetworkSnapshot;
 
 public class WorkerStatus {
 
@@ -12,14 +15,21 @@ public class WorkerStatus {
     UNREACHABLE
   }
 
+  private Set<NetworkSnapshot> _cachedSnapshots;
   private Date _lastUpdated;
   private StatusCode _statusCode;
 
   public WorkerStatus(StatusCode statusCode) {
+    _cachedSnapshots = ImmutableSet.of();
     _statusCode = statusCode;
     _lastUpdated = new Date();
   }
 
+  /** The snapshots whose configurations or data plane the worker last reported having cached */
+  public Set<NetworkSnapshot> getCachedSnapshots() {
+    return _cachedSnapshots;
+  }
+
   public Date getLastUpdateTime() {
     return _lastUpdated;
   }
@@ -33,6 +43,10 @@ public class WorkerStatus {
     return String.format("%s (%s)", _statusCode, _lastUpdated);
   }
 
+  public void updateCachedSnapshots(Set<NetworkSnapshot> cachedSnapshots) {
+    _cachedSnapshots = ImmutableSet.copyOf(cachedSnapshots);
+  }
+
   public void updateStatus(StatusCode statusCode) {
     _statusCode = statusCode;
     _lastUpdated = new Date();
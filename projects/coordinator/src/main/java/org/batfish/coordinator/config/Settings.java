@@ -14,6 +14,7 @@ import org.batfish.datamodel.Ip;
 
 public class Settings extends BaseSettings {
 
+  private static final String ARG_AFFINITY_WAIT_MS = "affinitywaitms";
   private static final String ARG_ALLOW_DEFAULT_KEY_LISTINGS = "allowdefaultkeylistings";
   private static final String ARG_AUTHORIZER_TYPE = "authorizertype";
   private static final String ARG_CONTAINERS_LOCATION = "containerslocation";
@@ -66,6 +67,7 @@ public class Settings extends BaseSettings {
 
   private static final String EXECUTABLE_NAME = "coordinator";
 
+  private long _affinityWaitMs;
   private Authorizer.Type _authorizerType;
   private Path _containersLocation;
   private String _dbAuthorizerConnString;
@@ -120,6 +122,14 @@ public class Settings extends BaseSettings {
     parseCommandLine(args);
   }
 
+  /**
+   * Returns how long queued work may wait for a busy worker that has one of its snapshots cached,
+   * rather than being assigned to an idle worker that would have to load the snapshot.
+   */
+  public long getAffinityWaitMs() {
+    return _affinityWaitMs;
+  }
+
   public Authorizer.Type getAuthorizationType() {
     return _authorizerType;
   }
@@ -285,6 +295,7 @@ public class Settings extends BaseSettings {
   }
 
   private void initConfigDefaults() {
+    setDefaultProperty(ARG_AFFINITY_WAIT_MS, 2000);
     setDefaultProperty(ARG_AUTHORIZER_TYPE, Authorizer.Type.none.toString());
     setDefaultProperty(ARG_ALLOW_DEFAULT_KEY_LISTINGS, false);
     setDefaultProperty(ARG_CONTAINERS_LOCATION, "containers");
@@ -364,6 +375,11 @@ public class Settings extends BaseSettings {
     addOption(
         ARG_PERIOD_CHECK_WORK_MS, "period with which to check work (ms)", "period_check_work_ms");
 
+    addOption(
+        ARG_AFFINITY_WAIT_MS,
+        "max time for work to wait for a worker with its snapshot cached (ms)",
+        "affinity_wait_ms");
+
     addListOption(
         ARG_QUESTION_TEMPLATE_DIRS, "paths to question template directories", ARGNAME_PATHS);
 
@@ -455,6 +471,7 @@ public class Settings extends BaseSettings {
     _periodWorkerStatusRefreshMs = getLongOptionValue(ARG_PERIOD_WORKER_STATUS_REFRESH_MS);
     _periodAssignWorkMs = getLongOptionValue(ARG_PERIOD_ASSIGN_WORK_MS);
     _periodCheckWorkMs = getLongOptionValue(ARG_PERIOD_CHECK_WORK_MS);
+    _affinityWaitMs = getLongOptionValue(ARG_AFFINITY_WAIT_MS);
     _logFile = getStringOptionValue(ARG_LOG_FILE);
     _logLevel = getStringOptionValue(ARG_LOG_LEVEL);
   }
@@ -0,0 +1,109 @@
+package org.batfish.coordinator;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import org.batfish.common.BatfishLogger;
+import org.batfish.common.BfConsts;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.coordinator.WorkerStatus.StatusCode;
+import org.batfish.coordinator.config.Settings;
+import org.batfish.identifiers.NetworkId;
+import org.batfish.identifiers.SnapshotId;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of {@link PoolMgr}. */
+public final class PoolMgrTest {
+
+  private static final NetworkSnapshot SNAPSHOT_1 =
+      new NetworkSnapshot(new NetworkId("net"), new SnapshotId("ss1"));
+  private static final NetworkSnapshot SNAPSHOT_2 =
+      new NetworkSnapshot(new NetworkId("net"), new SnapshotId("ss2"));
+
+  private PoolMgr _poolMgr;
+
+  @Before
+  public void initPoolMgr() {
+    _poolMgr = new PoolMgr(new Settings(new String[] {}), new BatfishLogger("debug", false));
+  }
+
+  private void addWorker(String worker, StatusCode statusCode, Set<NetworkSnapshot> cached) {
+    WorkerStatus status = new WorkerStatus(statusCode);
+    status.updateCachedSnapshots(cached);
+    _poolMgr.addToPool(worker, status);
+  }
+
+  @Test
+  public void testGetWorkerForAssignmentPrefersWarmIdleWorker() throws JSONException {
+    addWorker("cold", StatusCode.IDLE, ImmutableSet.of());
+    addWorker("warm", StatusCode.IDLE, ImmutableSet.of(SNAPSHOT_1));
+
+    assertThat(
+        _poolMgr.getWorkerForAssignment(ImmutableSet.of(SNAPSHOT_1), true), equalTo("warm"));
+    // the chosen worker is no longer idle
+    assertThat(
+        _poolMgr.getWorkerForAssignment(ImmutableSet.of(SNAPSHOT_1), false), equalTo("cold"));
+    assertThat(_poolMgr.getWorkerForAssignment(ImmutableSet.of(SNAPSHOT_1), true), nullValue());
+
+    JSONObject affinity = _poolMgr.getCacheAffinityJson();
+    assertThat(affinity.getLong("hits"), equalTo(1L));
+    assertThat(affinity.getLong("misses"), equalTo(1L));
+    assertThat(affinity.getLong("waits"), equalTo(0L));
+    assertThat(affinity.getDouble("hit-rate"), equalTo(0.5));
+  }
+
+  @Test
+  public void testGetWorkerForAssignmentWaitsForBusyWarmWorker() throws JSONException {
+    addWorker("cold", StatusCode.IDLE, ImmutableSet.of(SNAPSHOT_2));
+    addWorker("warm", StatusCode.BUSY, ImmutableSet.of(SNAPSHOT_1));
+
+    // wait while allowed
+    assertThat(_poolMgr.getWorkerForAssignment(ImmutableSet.of(SNAPSHOT_1), true), nullValue());
+    assertThat(_poolMgr.hasIdleWorker(), equalTo(true));
+    // no warm worker to wait for
+    assertThat(_poolMgr.getWorkerForAssignment(ImmutableSet.of(SNAPSHOT_2), true), equalTo("cold"));
+    assertThat(_poolMgr.hasIdleWorker(), equalTo(false));
+
+    JSONObject affinity = _poolMgr.getCacheAffinityJson();
+    assertThat(affinity.getLong("hits"), equalTo(1L));
+    assertThat(affinity.getLong("waits"), equalTo(1L));
+  }
+
+  @Test
+  public void testGetWorkerForAssignmentFallsBackAfterWait() throws JSONException {
+    addWorker("cold", StatusCode.IDLE, ImmutableSet.of());
+    addWorker("warm", StatusCode.BUSY, ImmutableSet.of(SNAPSHOT_1));
+
+    assertThat(
+        _poolMgr.getWorkerForAssignment(ImmutableSet.of(SNAPSHOT_1), false), equalTo("cold"));
+
+    JSONObject affinity = _poolMgr.getCacheAffinityJson();
+    assertThat(affinity.getLong("misses"), equalTo(1L));
+    assertThat(affinity.getLong("waits"), equalTo(0L));
+    assertThat(affinity.getDouble("hit-rate"), equalTo(0.0));
+  }
+
+  @Test
+  public void testParseCachedSnapshots() throws JSONException {
+    JSONArray cached =
+        new JSONArray()
+            .put(
+                new JSONObject()
+                    .put(BfConsts.SVC_NETWORK_KEY, "net")
+                    .put(BfConsts.SVC_SNAPSHOT_KEY, "ss1"))
+            .put(
+                new JSONObject()
+                    .put(BfConsts.SVC_NETWORK_KEY, "net")
+                    .put(BfConsts.SVC_SNAPSHOT_KEY, "ss2"));
+
+    assertThat(
+        PoolMgr.parseCachedSnapshots(cached), equalTo(ImmutableSet.of(SNAPSHOT_1, SNAPSHOT_2)));
+  }
+}
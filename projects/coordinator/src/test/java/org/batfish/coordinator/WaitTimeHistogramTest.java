@@ -0,0 +1,53 @@
+package org.batfish.coordinator;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Test;
+
+/** Tests of {@link WaitTimeHistogram}. */
+public final class WaitTimeHistogramTest {
+
+  @Test
+  public void testRecord() {
+    WaitTimeHistogram histogram = new WaitTimeHistogram();
+    histogram.record(0L);
+    histogram.record(-5L);
+    histogram.record(1L);
+    histogram.record(4L);
+    histogram.record(7L);
+    histogram.record(8L);
+    histogram.record(Long.MAX_VALUE);
+
+    assertThat(histogram.getCount(), equalTo(7L));
+    // zero and negative waits
+    assertThat(histogram.getBucketCount(0L), equalTo(2L));
+    assertThat(histogram.getBucketCount(1L), equalTo(1L));
+    assertThat(histogram.getBucketCount(2L), equalTo(0L));
+    // [4, 8)
+    assertThat(histogram.getBucketCount(5L), equalTo(2L));
+    // [8, 16)
+    assertThat(histogram.getBucketCount(15L), equalTo(1L));
+    assertThat(histogram.getBucketCount(Long.MAX_VALUE), equalTo(1L));
+  }
+
+  @Test
+  public void testToJson() throws JSONException {
+    WaitTimeHistogram histogram = new WaitTimeHistogram();
+    histogram.record(0L);
+    histogram.record(5L);
+    histogram.record(6L);
+    histogram.record(Long.MAX_VALUE);
+
+    JSONObject json = histogram.toJson();
+    assertThat(json.getLong("count"), equalTo(4L));
+    assertThat(json.getLong("max"), equalTo(Long.MAX_VALUE));
+    JSONObject buckets = json.getJSONObject("buckets");
+    assertThat(buckets.length(), equalTo(3));
+    assertThat(buckets.getLong("<=0"), equalTo(1L));
+    assertThat(buckets.getLong("<=7"), equalTo(2L));
+    assertThat(buckets.getLong("<=" + Long.MAX_VALUE), equalTo(1L));
+  }
+}
@@ -452,6 +452,32 @@ public final class WorkQueueMgrTest {
     assertThat(works, equalTo(Collections.singletonList(work1)));
   }
 
+  @Test
+  public void getWorkForCheckingByWorker() throws Exception {
+    String snapshot = "snapshot1";
+    initSnapshotMetadata(snapshot, ProcessingStatus.UNINITIALIZED);
+    WorkDetails details =
+        WorkDetails.builder()
+            .setWorkType(WorkType.UNKNOWN)
+            .setNetworkId(_networkId)
+            .setSnapshotId(_idManager.getSnapshotId(snapshot, _networkId).get())
+            .build();
+    QueuedWork work1 = new QueuedWork(new WorkItem(NETWORK, snapshot), details);
+    QueuedWork work2 = new QueuedWork(new WorkItem(NETWORK, snapshot), details);
+    _workQueueMgr.queueUnassignedWork(work1);
+    _workQueueMgr.queueUnassignedWork(work2);
+    _workQueueMgr.markAssignmentSuccess(_workQueueMgr.getWorkForAssignment(), "worker1");
+    _workQueueMgr.markAssignmentSuccess(_workQueueMgr.getWorkForAssignment(), "worker2");
+
+    // only the work assigned to the given worker is claimed for checking
+    assertThat(_workQueueMgr.getWorkForChecking("worker2"), contains(work2));
+    assertThat(work1.getStatus(), equalTo(WorkStatusCode.ASSIGNED));
+    assertThat(work2.getStatus(), equalTo(WorkStatusCode.CHECKINGSTATUS));
+
+    // each assignment records its queue wait time
+    assertThat(_workQueueMgr.getQueueWaitTimes().getCount(), equalTo(2L));
+  }
+
   @Test
   public void listIncompleteWorkForSpecificStatus() throws Exception {
     String snapshot = "snapshot1";
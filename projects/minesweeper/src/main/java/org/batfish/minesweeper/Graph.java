@@ -78,7 +78,6 @@ public class Graph {
 
   public static final String BGP_COMMON_FILTER_LIST_NAME = "BGP_COMMON_EXPORT_POLICY";
   private static final String NULL_INTERFACE_NAME = "null_interface";
-  private final IBatfish _batfish;
   private final Set<String> _routers;
   private final Map<String, Configuration> _configurations;
   private final NetworkSnapshot _snapshot;
@@ -128,6 +127,9 @@ public class Graph {
    * to be tracked. This is used by the BDD-based analyses to support user-defined constraints on
    * symbolic route analysis (e.g., the user is interested only in routes tagged with a particular
    * community).
+   *
+   * <p>{@code batfish} is only used during construction, so a graph may outlive the question that
+   * created it.
    */
   public Graph(
       IBatfish batfish,
@@ -136,7 +138,6 @@ public class Graph {
       @Nullable Set<String> routers,
       @Nullable Set<CommunityVar> communities,
       @Nullable Set<String> asPathRegexes) {
-    _batfish = batfish;
     _edgeMap = new HashMap<>();
     _allEdges = new HashSet<>();
     _allRealEdges = new HashSet<>();
@@ -160,7 +161,7 @@ public class Graph {
       // before that happens.
       // A simple way to do this is to create a deep clone of each entry using Java serialization.
       Map<String, Configuration> clonedConfigs =
-          _batfish.loadConfigurations(snapshot).entrySet().parallelStream()
+          batfish.loadConfigurations(snapshot).entrySet().parallelStream()
               .collect(toMap(Entry::getKey, entry -> SerializationUtils.clone(entry.getValue())));
 
       _configurations = clonedConfigs;
@@ -169,7 +170,7 @@ public class Graph {
     }
     _routers = _configurations.keySet();
 
-    Topology topology = _batfish.getTopologyProvider().getInitialLayer3Topology(snapshot);
+    Topology topology = batfish.getTopologyProvider().getInitialLayer3Topology(snapshot);
 
     // Remove the routers we don't want to model
     if (routers != null) {
@@ -1221,10 +1222,6 @@ public class Graph {
     return _otherEnd;
   }
 
-  public IBatfish getBatfish() {
-    return _batfish;
-  }
-
   public Set<GraphEdge> getAllRealEdges() {
     return _allRealEdges;
   }
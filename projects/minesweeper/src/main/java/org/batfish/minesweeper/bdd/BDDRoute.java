@@ -42,14 +42,13 @@ public class BDDRoute implements IDeepCopy<BDDRoute> {
    * symbolic integer, along with integer-specific operations.
    */
 
+  /** The factory of the BDDRoutes that are not given one. */
   static BDDFactory factory;
 
   private static List<Protocol> allProtos;
 
   private static List<OspfType> allMetricTypes;
 
-  private static BDDPairing pairing;
-
   private int _hcode = 0;
 
   static {
@@ -65,9 +64,7 @@ public class BDDRoute implements IDeepCopy<BDDRoute> {
     allProtos.add(Protocol.OSPF);
     allProtos.add(Protocol.BGP);
 
-    factory = JFactory.init(100000, 10000);
-    // factory.disableReorder();
-    factory.setCacheRatio(64);
+    factory = newFactory();
     /*
     try {
       // Disables printing
@@ -80,9 +77,13 @@ public class BDDRoute implements IDeepCopy<BDDRoute> {
       e.printStackTrace();
     }
     */
-    pairing = factory.makePair();
   }
 
+  private final BDDFactory _factory;
+
+  // created on first use, since JavaBDD leaks pairings
+  private BDDPairing _pairing;
+
   private BDDInteger _adminDist;
 
   private Map<Integer, String> _bitNames;
@@ -130,7 +131,13 @@ public class BDDRoute implements IDeepCopy<BDDRoute> {
    * from a given {@link org.batfish.minesweeper.Graph} object.
    */
   public BDDRoute(Graph g) {
+    this(factory, g);
+  }
+
+  /** Like {@link #BDDRoute(Graph)}, but with variables from the given factory. */
+  public BDDRoute(BDDFactory factory, Graph g) {
     this(
+        factory,
         g.getCommunityAtomicPredicates().getNumAtomicPredicates(),
         g.getAsPathRegexAtomicPredicates().getNumAtomicPredicates());
   }
@@ -142,6 +149,13 @@ public class BDDRoute implements IDeepCopy<BDDRoute> {
    * number of such atomic predicates is provided.
    */
   public BDDRoute(int numCommAtomicPredicates, int numAsPathRegexAtomicPredicates) {
+    this(factory, numCommAtomicPredicates, numAsPathRegexAtomicPredicates);
+  }
+
+  /** Like {@link #BDDRoute(int, int)}, but with variables from the given factory. */
+  public BDDRoute(
+      BDDFactory factory, int numCommAtomicPredicates, int numAsPathRegexAtomicPredicates) {
+    _factory = factory;
     int numVars = factory.varNum();
     int numNeeded = 32 * 6 + 6 + numCommAtomicPredicates + numAsPathRegexAtomicPredicates + 4;
     if (numVars < numNeeded) {
@@ -204,6 +218,7 @@ public class BDDRoute implements IDeepCopy<BDDRoute> {
    * there is no need for a deep copy.
    */
   public BDDRoute(BDDRoute other) {
+    _factory = other._factory;
     _asPathRegexAtomicPredicates = other._asPathRegexAtomicPredicates.clone();
     _communityAtomicPredicates = other._communityAtomicPredicates.clone();
     _prefixLength = new BDDInteger(other._prefixLength);
@@ -218,6 +233,17 @@ public class BDDRoute implements IDeepCopy<BDDRoute> {
     _bitNames = other._bitNames;
   }
 
+  /**
+   * Creates a new BDD factory for BDDRoutes. BDD factories are not thread-safe, so concurrent
+   * analyses must each use their own.
+   */
+  public static BDDFactory newFactory() {
+    BDDFactory newFactory = JFactory.init(100000, 10000);
+    // newFactory.disableReorder();
+    newFactory.setCacheRatio(64);
+    return newFactory;
+  }
+
   /*
    * Helper function that builds a map from BDD variable index
    * to some more meaningful name. Helpful for debugging.
@@ -247,7 +273,7 @@ public class BDDRoute implements IDeepCopy<BDDRoute> {
    * @return the bdd
    */
   public BDD anyCommunity() {
-    return factory.orAll(_communityAtomicPredicates);
+    return _factory.orAll(_communityAtomicPredicates);
   }
 
   /**
@@ -273,7 +299,7 @@ public class BDDRoute implements IDeepCopy<BDDRoute> {
     // regexes are all pairwise disjoint
     // Note: the same constraint does not apply to community regexes because a route has a set
     // of communities, so more than one regex can be simultaneously true
-    BDD asPathConstraint = factory.one();
+    BDD asPathConstraint = _factory.one();
     for (int i = 0; i < _asPathRegexAtomicPredicates.length; i++) {
       for (int j = i + 1; j < _asPathRegexAtomicPredicates.length; j++) {
         asPathConstraint.andWith(
@@ -355,7 +381,7 @@ public class BDDRoute implements IDeepCopy<BDDRoute> {
   }
 
   public BDDFactory getFactory() {
-    return factory;
+    return _factory;
   }
 
   public BDDInteger getLocalPref() {
@@ -494,10 +520,14 @@ public class BDDRoute implements IDeepCopy<BDDRoute> {
     BDD[] vals = new BDD[len];
     // NOTE: do not create a new pairing each time
     // JavaBDD will start to memory leak
+    if (_pairing == null) {
+      _pairing = _factory.makePair();
+    }
+    BDDPairing pairing = _pairing;
     pairing.reset();
     for (int i = 0; i < len; i++) {
       int var = _prefix.getBitvec()[i].var(); // prefixIndex + i;
-      BDD subst = Ip.getBitAtPosition(bits, i) ? factory.one() : factory.zero();
+      BDD subst = Ip.getBitAtPosition(bits, i) ? _factory.one() : _factory.zero();
       vars[i] = var;
       vals[i] = subst;
     }
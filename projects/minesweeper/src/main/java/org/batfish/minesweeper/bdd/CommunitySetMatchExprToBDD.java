@@ -59,7 +59,7 @@ public class CommunitySetMatchExprToBDD
   public BDD visitCommunitySetAcl(CommunitySetAcl communitySetAcl, Arg arg) {
     List<CommunitySetAclLine> lines = new ArrayList<>(communitySetAcl.getLines());
     Collections.reverse(lines);
-    BDD acc = BDDRoute.factory.zero();
+    BDD acc = arg.getBDDRoute().getFactory().zero();
     for (CommunitySetAclLine line : lines) {
       boolean action = (line.getAction() == LineAction.PERMIT);
       BDD lineBDD = line.getCommunitySetMatchExpr().accept(this, arg);
@@ -72,15 +72,17 @@ public class CommunitySetMatchExprToBDD
   public BDD visitCommunitySetMatchAll(CommunitySetMatchAll communitySetMatchAll, Arg arg) {
     return communitySetMatchAll.getExprs().stream()
         .map(expr -> expr.accept(this, arg))
-        .reduce(BDDRoute.factory.one(), BDD::and);
+        .reduce(arg.getBDDRoute().getFactory().one(), BDD::and);
   }
 
   @Override
   public BDD visitCommunitySetMatchAny(CommunitySetMatchAny communitySetMatchAny, Arg arg) {
-    return BDDRoute.factory.orAll(
-        communitySetMatchAny.getExprs().stream()
-            .map(expr -> expr.accept(this, arg))
-            .collect(ImmutableList.toImmutableList()));
+    return arg.getBDDRoute()
+        .getFactory()
+        .orAll(
+            communitySetMatchAny.getExprs().stream()
+                .map(expr -> expr.accept(this, arg))
+                .collect(ImmutableList.toImmutableList()));
   }
 
   @Override
@@ -131,7 +133,9 @@ public class CommunitySetMatchExprToBDD
      * exactlyOneAP function, because we are returning a BDD for a community set, which can satisfy
      * multiple atomic predicates due to multiple elements of the set.
      */
-    return BDDRoute.factory.orAll(disjuncts.mapToObj(i -> aps[i]).collect(Collectors.toList()));
+    return arg.getBDDRoute()
+        .getFactory()
+        .orAll(disjuncts.mapToObj(i -> aps[i]).collect(Collectors.toList()));
   }
 
   static BDD communityVarsToBDD(Set<CommunityVar> commVars, Arg arg) {
@@ -152,6 +156,6 @@ public class CommunitySetMatchExprToBDD
   static BDD exactlyOneAP(BDD[] aps, int i) {
     ArrayList<BDD> negs = new ArrayList<>(Arrays.asList(aps));
     negs.remove(i);
-    return aps[i].and(negs.stream().reduce(BDDRoute.factory.one(), BDD::diff));
+    return aps[i].and(negs.stream().reduce(aps[i].getFactory().one(), BDD::diff));
   }
 }
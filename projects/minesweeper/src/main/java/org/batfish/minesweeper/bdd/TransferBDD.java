@@ -94,8 +94,6 @@ import org.batfish.minesweeper.utils.PrefixUtils;
 /** @author Ryan Beckett */
 public class TransferBDD {
 
-  private static BDDFactory factory = BDDRoute.factory;
-
   /**
    * We track community and AS-path regexes by computing a set of atomic predicates for them. See
    * {@link org.batfish.minesweeper.RegexAtomicPredicates}. During the symbolic route analysis, we
@@ -108,6 +106,8 @@ public class TransferBDD {
 
   private final Configuration _conf;
 
+  private final BDDFactory _factory;
+
   private final Graph _graph;
 
   private Set<Prefix> _ignoredNetworks;
@@ -119,17 +119,35 @@ public class TransferBDD {
   private final boolean _useOutputAttributes;
 
   public TransferBDD(Graph g, Configuration conf, List<Statement> statements) {
-    this(g, conf, statements, Environment.useOutputAttributesFor(conf));
+    this(BDDRoute.factory, g, conf, statements);
+  }
+
+  /**
+   * Like {@link #TransferBDD(Graph, Configuration, List)}, but the analysis uses the given BDD
+   * factory, so that analyses on different factories can run concurrently.
+   */
+  public TransferBDD(BDDFactory factory, Graph g, Configuration conf, List<Statement> statements) {
+    this(factory, g, conf, statements, Environment.useOutputAttributesFor(conf));
   }
 
   @VisibleForTesting
   TransferBDD(
       Graph g, Configuration conf, List<Statement> statements, boolean useOutputAttributes) {
+    this(BDDRoute.factory, g, conf, statements, useOutputAttributes);
+  }
+
+  private TransferBDD(
+      BDDFactory factory,
+      Graph g,
+      Configuration conf,
+      List<Statement> statements,
+      boolean useOutputAttributes) {
+    _factory = factory;
     _graph = g;
     _conf = conf;
     _statements = statements;
 
-    _originalRoute = new BDDRoute(g);
+    _originalRoute = new BDDRoute(factory, g);
     _communityAtomicPredicates = _graph.getCommunityAtomicPredicates().getRegexAtomicPredicates();
     _asPathRegexAtomicPredicates =
         _graph.getAsPathRegexAtomicPredicates().getRegexAtomicPredicates();
@@ -146,7 +164,7 @@ public class TransferBDD {
    */
   public static BDD firstBitsEqual(BDD[] bits, Prefix p, int length) {
     long b = p.getStartIp().asLong();
-    BDD acc = factory.one();
+    BDD acc = bits[0].getFactory().one();
     for (int i = 0; i < length; i++) {
       boolean res = Ip.getBitAtPosition(b, i);
       if (res) {
@@ -225,16 +243,16 @@ public class TransferBDD {
     // TODO: right now everything is IPV4
     if (expr instanceof MatchIpv4) {
       p.debug("MatchIpv4 Result: true");
-      return result.setReturnValueBDD(factory.one());
+      return result.setReturnValueBDD(_factory.one());
 
     } else if (expr instanceof MatchIpv6) {
       p.debug("MatchIpv6 Result: false");
-      return result.setReturnValueBDD(factory.zero());
+      return result.setReturnValueBDD(_factory.zero());
 
     } else if (expr instanceof Conjunction) {
       p.debug("Conjunction");
       Conjunction c = (Conjunction) expr;
-      BDD acc = factory.one();
+      BDD acc = _factory.one();
       for (BooleanExpr be : c.getConjuncts()) {
         TransferResult resultCopy =
             result.setReturnValueBDDRoute(result.getReturnValue().getFirst().deepCopy());
@@ -249,7 +267,7 @@ public class TransferBDD {
     } else if (expr instanceof Disjunction) {
       p.debug("Disjunction");
       Disjunction d = (Disjunction) expr;
-      BDD acc = factory.zero();
+      BDD acc = _factory.zero();
       for (BooleanExpr be : d.getDisjuncts()) {
         TransferResult resultCopy =
             result.setReturnValueBDDRoute(result.getReturnValue().getFirst().deepCopy());
@@ -270,10 +288,10 @@ public class TransferBDD {
         conjuncts.add(be);
       }
       if (conjuncts.isEmpty()) {
-        return result.setReturnValueBDD(factory.one());
+        return result.setReturnValueBDD(_factory.one());
       } else {
         TransferParam<BDDRoute> record = p;
-        BDD acc = factory.zero();
+        BDD acc = _factory.zero();
         for (int i = conjuncts.size() - 1; i >= 0; i--) {
           BooleanExpr conjunct = conjuncts.get(i);
           TransferParam<BDDRoute> param =
@@ -302,7 +320,7 @@ public class TransferBDD {
         throw new BatfishException("Default policy is not set");
       }
       TransferParam<BDDRoute> record = p;
-      BDD acc = factory.zero();
+      BDD acc = _factory.zero();
       for (int i = chainPolicies.size() - 1; i >= 0; i--) {
         BooleanExpr policyMatcher = chainPolicies.get(i);
         TransferParam<BDDRoute> param =
@@ -334,7 +352,7 @@ public class TransferBDD {
       }
       RoutingProtocol rp = Iterables.getOnlyElement(rps);
       Protocol proto = Protocol.fromRoutingProtocol(rp);
-      BDD protBDD = proto == null ? factory.zero() : p.getData().getProtocolHistory().value(proto);
+      BDD protBDD = proto == null ? _factory.zero() : p.getData().getProtocolHistory().value(proto);
       return result.setReturnValueBDD(protBDD);
 
     } else if (expr instanceof MatchPrefixSet) {
@@ -347,7 +365,7 @@ public class TransferBDD {
       // TODO: implement me
     } else if (expr instanceof MatchPrefix6Set) {
       p.debug("MatchPrefix6Set");
-      return result.setReturnValueBDD(factory.zero());
+      return result.setReturnValueBDD(_factory.zero());
 
     } else if (expr instanceof CallExpr) {
       p.debug("CallExpr");
@@ -363,7 +381,7 @@ public class TransferBDD {
       TransferResult callResult =
           compute(
                   pol.getStatements(),
-                  new TransferBDDState(newParam, result.setReturnAssignedValue(factory.zero())))
+                  new TransferBDDState(newParam, result.setReturnAssignedValue(_factory.zero())))
               .getTransferResult();
 
       // restore the original returnAssigned value
@@ -409,10 +427,10 @@ public class TransferBDD {
           return result.setReturnValueBDD(x2);
         case True:
           p.debug("True");
-          return result.setReturnValueBDD(factory.one());
+          return result.setReturnValueBDD(_factory.one());
         case False:
           p.debug("False");
-          return result.setReturnValueBDD(factory.zero());
+          return result.setReturnValueBDD(_factory.zero());
         default:
           throw new BatfishException(
               "Unhandled " + BooleanExprs.class.getCanonicalName() + ": " + b.getType());
@@ -455,42 +473,42 @@ public class TransferBDD {
       switch (ss.getType()) {
         case ExitAccept:
           curP.debug("ExitAccept");
-          result = exitValue(result, factory.one());
+          result = exitValue(result, _factory.one());
           break;
 
         case ReturnTrue:
           curP.debug("ReturnTrue");
-          result = returnValue(result, factory.one());
+          result = returnValue(result, _factory.one());
           break;
 
         case ExitReject:
           curP.debug("ExitReject");
-          result = exitValue(result, factory.zero());
+          result = exitValue(result, _factory.zero());
           break;
 
         case ReturnFalse:
           curP.debug("ReturnFalse");
-          result = returnValue(result, factory.zero());
+          result = returnValue(result, _factory.zero());
           break;
 
         case SetDefaultActionAccept:
           curP.debug("SetDefaultActionAccept");
-          curP = curP.setDefaultAccept(factory.one());
+          curP = curP.setDefaultAccept(_factory.one());
           break;
 
         case SetDefaultActionReject:
           curP.debug("SetDefaultActionReject");
-          curP = curP.setDefaultAccept(factory.zero());
+          curP = curP.setDefaultAccept(_factory.zero());
           break;
 
         case SetLocalDefaultActionAccept:
           curP.debug("SetLocalDefaultActionAccept");
-          curP = curP.setDefaultAcceptLocal(factory.one());
+          curP = curP.setDefaultAcceptLocal(_factory.one());
           break;
 
         case SetLocalDefaultActionReject:
           curP.debug("SetLocalDefaultActionReject");
-          curP = curP.setDefaultAcceptLocal(factory.zero());
+          curP = curP.setDefaultAcceptLocal(_factory.zero());
           break;
 
         case ReturnLocalDefaultAction:
@@ -512,7 +530,7 @@ public class TransferBDD {
           curP.debug("Return");
           result =
               result.setReturnAssignedValue(
-                  ite(unreachable(result), result.getReturnAssignedValue(), factory.one()));
+                  ite(unreachable(result), result.getReturnAssignedValue(), _factory.one()));
           break;
 
         case Suppress:
@@ -556,7 +574,7 @@ public class TransferBDD {
                 i.getTrueStatements(),
                 new TransferBDDState(
                     pTrue,
-                    result.setReturnValue(new TransferReturn(pTrue.getData(), factory.zero()))));
+                    result.setReturnValue(new TransferReturn(pTrue.getData(), _factory.zero()))));
       }
       if (!guard.isOne()) {
         curP.debug("False Branch");
@@ -566,7 +584,7 @@ public class TransferBDD {
                 i.getFalseStatements(),
                 new TransferBDDState(
                     pFalse,
-                    result.setReturnValue(new TransferReturn(pFalse.getData(), factory.zero()))));
+                    result.setReturnValue(new TransferReturn(pFalse.getData(), _factory.zero()))));
       }
 
       // compute the new state of the analysis
@@ -695,7 +713,7 @@ public class TransferBDD {
       TransferResult callResult =
           compute(
                   pol.getStatements(),
-                  new TransferBDDState(newParam, result.setReturnAssignedValue(factory.zero())))
+                  new TransferBDDState(newParam, result.setReturnAssignedValue(_factory.zero())))
               .getTransferResult();
 
       // restore the original returnAssigned value
@@ -776,7 +794,7 @@ public class TransferBDD {
   private TransferResult fallthrough(TransferResult r, boolean val) {
     BDD notReached = unreachable(r);
     BDD fall = ite(notReached, r.getFallthroughValue(), mkBDD(val));
-    BDD retAsgn = ite(notReached, r.getReturnAssignedValue(), factory.one());
+    BDD retAsgn = ite(notReached, r.getReturnAssignedValue(), _factory.one());
     return r.setFallthroughValue(fall).setReturnAssignedValue(retAsgn);
   }
 
@@ -840,6 +858,7 @@ public class TransferBDD {
   BDDRoute ite(BDD guard, BDDRoute r1, BDDRoute r2) {
     BDDRoute ret =
         new BDDRoute(
+            _factory,
             _graph.getCommunityAtomicPredicates().getNumAtomicPredicates(),
             _graph.getAsPathRegexAtomicPredicates().getNumAtomicPredicates());
 
@@ -939,7 +958,7 @@ public class TransferBDD {
   private BDD matchAsPathAccessList(AsPathAccessList accessList, BDDRoute other) {
     List<AsPathAccessListLine> lines = new ArrayList<>(accessList.getLines());
     Collections.reverse(lines);
-    BDD acc = factory.zero();
+    BDD acc = _factory.zero();
     for (AsPathAccessListLine line : lines) {
       boolean action = (line.getAction() == LineAction.PERMIT);
       // each line's regex is represented as the disjunction of all of the regex's
@@ -955,7 +974,7 @@ public class TransferBDD {
    * Converts a route filter list to a boolean expression.
    */
   private BDD matchFilterList(TransferParam<BDDRoute> p, RouteFilterList x, BDDRoute other) {
-    BDD acc = factory.zero();
+    BDD acc = _factory.zero();
     List<RouteFilterLine> lines = new ArrayList<>(x.getLines());
     Collections.reverse(lines);
     for (RouteFilterLine line : lines) {
@@ -987,10 +1006,10 @@ public class TransferBDD {
       Set<PrefixRange> ranges = x.getPrefixSpace().getPrefixRanges();
       if (ranges.isEmpty()) {
         p.debug("empty");
-        return factory.one();
+        return _factory.one();
       }
 
-      BDD acc = factory.zero();
+      BDD acc = _factory.zero();
       for (PrefixRange range : ranges) {
         p.debug("Prefix Range: " + range);
         if (!PrefixUtils.isContainedBy(range.getPrefix(), _ignoredNetworks)) {
@@ -1039,7 +1058,7 @@ public class TransferBDD {
    * Return a BDD from a boolean
    */
   BDD mkBDD(boolean b) {
-    return b ? factory.one() : factory.zero();
+    return b ? _factory.one() : _factory.zero();
   }
 
   /*
@@ -1108,7 +1127,7 @@ public class TransferBDD {
     BDD notReached = unreachable(r);
     BDD b = ite(notReached, r.getReturnValue().getSecond(), val);
     TransferReturn ret = new TransferReturn(r.getReturnValue().getFirst(), b);
-    BDD retAsgn = ite(notReached, r.getReturnAssignedValue(), factory.one());
+    BDD retAsgn = ite(notReached, r.getReturnAssignedValue(), _factory.one());
     return r.setReturnValue(ret).setReturnAssignedValue(retAsgn);
   }
 
@@ -1119,7 +1138,7 @@ public class TransferBDD {
     BDD notReached = unreachable(r);
     BDD b = ite(notReached, r.getReturnValue().getSecond(), val);
     TransferReturn ret = new TransferReturn(r.getReturnValue().getFirst(), b);
-    BDD exitAsgn = ite(notReached, r.getExitAssignedValue(), factory.one());
+    BDD exitAsgn = ite(notReached, r.getExitAssignedValue(), _factory.one());
     return r.setReturnValue(ret).setExitAssignedValue(exitAsgn);
   }
 
@@ -1136,6 +1155,7 @@ public class TransferBDD {
   BDDRoute zeroedRecord() {
     BDDRoute rec =
         new BDDRoute(
+            _factory,
             _graph.getCommunityAtomicPredicates().getNumAtomicPredicates(),
             _graph.getAsPathRegexAtomicPredicates().getNumAtomicPredicates());
     rec.getMetric().setValue(0);
@@ -1146,10 +1166,10 @@ public class TransferBDD {
     rec.getTag().setValue(0);
     rec.getPrefix().setValue(0);
     for (int i = 0; i < rec.getCommunityAtomicPredicates().length; i++) {
-      rec.getCommunityAtomicPredicates()[i] = factory.zero();
+      rec.getCommunityAtomicPredicates()[i] = _factory.zero();
     }
     for (int i = 0; i < rec.getAsPathRegexAtomicPredicates().length; i++) {
-      rec.getAsPathRegexAtomicPredicates()[i] = factory.zero();
+      rec.getAsPathRegexAtomicPredicates()[i] = _factory.zero();
     }
     rec.getProtocolHistory().getInteger().setValue(0);
     return rec;
@@ -1161,8 +1181,8 @@ public class TransferBDD {
    */
   public TransferResult compute(@Nullable Set<Prefix> ignoredNetworks) {
     _ignoredNetworks = ignoredNetworks;
-    BDDRoute o = new BDDRoute(_graph);
-    TransferParam<BDDRoute> p = new TransferParam<>(o, false);
+    BDDRoute o = new BDDRoute(_factory, _graph);
+    TransferParam<BDDRoute> p = new TransferParam<>(o, _factory, false);
     TransferResult result = compute(_statements, p);
     // BDDRoute route = result.getReturnValue().getFirst();
     // System.out.println("DOT: \n" + route.dot(route.getLocalPref().getBitvec()[31]));
@@ -0,0 +1,294 @@
+package org.batfish.minesweeper.bdd;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.GuardedBy;
+import net.sf.javabdd.BDDFactory;
+import org.batfish.common.NetworkSnapshot;
+import org.batfish.common.plugin.IBatfish;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.routing_policy.Environment;
+import org.batfish.datamodel.routing_policy.RoutingPolicy;
+import org.batfish.datamodel.routing_policy.statement.Statement;
+import org.batfish.minesweeper.CommunityVar;
+import org.batfish.minesweeper.Graph;
+
+/**
+ * A cache of the symbolic analyses of route policies by {@link TransferBDD}, shared by the
+ * questions on a snapshot.
+ *
+ * <p>The BDD encoding of a route depends on the atomic predicates of the community and AS-path
+ * regexes tracked by the {@link Graph}, so there is one cache per universe of atomic predicates:
+ * the snapshot, the nodes, and the additional community and AS-path regexes. A question with a
+ * different universe gets a different cache. The {@link Graph} of the universe is cached along with
+ * the results, so its atomic predicates are only computed once.
+ *
+ * <p>BDD factories are not thread-safe, so the results are split into {@link Partition partitions},
+ * each with its own factory. A partition must only be used while holding its lock.
+ */
+@ParametersAreNonnullByDefault
+public final class TransferBDDCache {
+
+  /**
+   * Caches by universe. Soft values: let them be garbage collected in times of pressure. Maximum
+   * size: each cache keeps a Graph and BDD factories with all the nodes of its results alive.
+   */
+  private static final Cache<Universe, TransferBDDCache> CACHES =
+      CacheBuilder.newBuilder().softValues().maximumSize(16).build();
+
+  /**
+   * Returns the shared cache of the universe with the given snapshot, nodes, and additional
+   * community and AS-path regexes, creating its {@link Graph} if needed.
+   */
+  public static @Nonnull TransferBDDCache forUniverse(
+      IBatfish batfish,
+      NetworkSnapshot snapshot,
+      Set<String> nodes,
+      Set<CommunityVar> communities,
+      Set<String> asPathRegexes) {
+    Universe universe = new Universe(snapshot, nodes, communities, asPathRegexes);
+    try {
+      return CACHES.get(
+          universe,
+          () ->
+              new TransferBDDCache(
+                  new Graph(
+                      batfish,
+                      snapshot,
+                      null,
+                      universe._nodes,
+                      universe._communities,
+                      universe._asPathRegexes)));
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /** Removes all shared caches. */
+  @VisibleForTesting
+  static void clear() {
+    CACHES.invalidateAll();
+  }
+
+  @VisibleForTesting
+  TransferBDDCache(Graph graph) {
+    _graph = graph;
+    _partitions =
+        IntStream.range(0, Runtime.getRuntime().availableProcessors())
+            .mapToObj(i -> new Partition(graph))
+            .collect(ImmutableList.toImmutableList());
+    _definitions = CacheBuilder.newBuilder().weakKeys().build();
+    _canonicalDefinitions = new HashMap<>();
+  }
+
+  /** The graph of this cache's universe, which provides the atomic predicates. */
+  public @Nonnull Graph getGraph() {
+    return _graph;
+  }
+
+  /** Returns the key of the analysis of {@code policy}. */
+  public @Nonnull PolicyKey keyOf(RoutingPolicy policy) {
+    Configuration c = policy.getOwner();
+    PolicyDefinitions definitions = _definitions.getIfPresent(c);
+    if (definitions == null) {
+      synchronized (_canonicalDefinitions) {
+        // equal definitions share an instance, so most key comparisons are by identity
+        definitions = _canonicalDefinitions.computeIfAbsent(new PolicyDefinitions(c), d -> d);
+      }
+      _definitions.put(c, definitions);
+    }
+    return new PolicyKey(policy.getStatements(), definitions);
+  }
+
+  /** Returns the partition that caches the analysis with the given key. */
+  public @Nonnull Partition getPartition(PolicyKey key) {
+    return _partitions.get(Math.floorMod(key.hashCode(), _partitions.size()));
+  }
+
+  /**
+   * Identifies the route policies whose symbolic analysis is the same: those with the same
+   * statements, in configurations with the same definitions.
+   */
+  public static final class PolicyKey {
+    private final List<Statement> _statements;
+    private final PolicyDefinitions _definitions;
+
+    private PolicyKey(List<Statement> statements, PolicyDefinitions definitions) {
+      _statements = statements;
+      _definitions = definitions;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      } else if (!(o instanceof PolicyKey)) {
+        return false;
+      }
+      PolicyKey that = (PolicyKey) o;
+      return _definitions.equals(that._definitions) && _statements.equals(that._statements);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(_statements, _definitions);
+    }
+  }
+
+  /**
+   * A part of the cache, with its own BDD factory. The results of a partition are BDDs in its
+   * factory, so they must only be used while holding the partition's lock.
+   */
+  public static final class Partition {
+    private final Graph _graph;
+
+    @GuardedBy("this")
+    private @Nullable BDDFactory _factory;
+
+    @GuardedBy("this")
+    private @Nullable BDDRoute _inputRoute;
+
+    @GuardedBy("this")
+    private final Map<PolicyKey, TransferReturn> _results;
+
+    private Partition(Graph graph) {
+      _graph = graph;
+      _results = new HashMap<>();
+    }
+
+    /** The factory of the results of this partition, created when first needed. */
+    public synchronized @Nonnull BDDFactory getFactory() {
+      if (_factory == null) {
+        _factory = BDDRoute.newFactory();
+      }
+      return _factory;
+    }
+
+    /**
+     * The symbolic input route of the results of this partition, shared by all questions so that
+     * they do not each allocate its BDDs in the factory.
+     */
+    public synchronized @Nonnull BDDRoute getInputRoute() {
+      if (_inputRoute == null) {
+        _inputRoute = new BDDRoute(getFactory(), _graph);
+      }
+      return _inputRoute;
+    }
+
+    /**
+     * Returns the result of the symbolic analysis of {@code policy}, whose key is {@code key},
+     * running the analysis if it is not cached.
+     */
+    public synchronized @Nonnull TransferReturn getReturnValue(
+        PolicyKey key, RoutingPolicy policy) {
+      TransferReturn result = _results.get(key);
+      if (result == null) {
+        result =
+            new TransferBDD(getFactory(), _graph, policy.getOwner(), policy.getStatements())
+                .compute(ImmutableSet.of())
+                .getReturnValue();
+        _results.put(key, result);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * The definitions in a configuration that the symbolic analysis of its route policies may refer
+   * to, with a cached hash code.
+   */
+  private static final class PolicyDefinitions {
+    private final List<Object> _definitions;
+    private final int _hashCode;
+
+    private PolicyDefinitions(Configuration c) {
+      _definitions =
+          Arrays.asList(
+              Environment.useOutputAttributesFor(c),
+              c.getRoutingPolicies(),
+              c.getRouteFilterLists(),
+              c.getAsPathAccessLists(),
+              c.getAsPathMatchExprs(),
+              c.getCommunityMatchExprs(),
+              c.getCommunitySetExprs(),
+              c.getCommunitySetMatchExprs(),
+              c.getCommunitySets());
+      _hashCode = _definitions.hashCode();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      } else if (!(o instanceof PolicyDefinitions)) {
+        return false;
+      }
+      PolicyDefinitions that = (PolicyDefinitions) o;
+      return _hashCode == that._hashCode && _definitions.equals(that._definitions);
+    }
+
+    @Override
+    public int hashCode() {
+      return _hashCode;
+    }
+  }
+
+  /** The snapshot, nodes, and additional regexes from which the atomic predicates are computed. */
+  private static final class Universe {
+    private final NetworkSnapshot _snapshot;
+    private final Set<String> _nodes;
+    private final Set<CommunityVar> _communities;
+    private final Set<String> _asPathRegexes;
+
+    private Universe(
+        NetworkSnapshot snapshot,
+        Set<String> nodes,
+        Set<CommunityVar> communities,
+        Set<String> asPathRegexes) {
+      _snapshot = snapshot;
+      _nodes = ImmutableSet.copyOf(nodes);
+      _communities = ImmutableSet.copyOf(communities);
+      _asPathRegexes = ImmutableSet.copyOf(asPathRegexes);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      } else if (!(o instanceof Universe)) {
+        return false;
+      }
+      Universe that = (Universe) o;
+      return _snapshot.equals(that._snapshot)
+          && _nodes.equals(that._nodes)
+          && _communities.equals(that._communities)
+          && _asPathRegexes.equals(that._asPathRegexes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(_snapshot, _nodes, _communities, _asPathRegexes);
+    }
+  }
+
+  private final Graph _graph;
+  private final List<Partition> _partitions;
+  private final Cache<Configuration, PolicyDefinitions> _definitions;
+
+  @GuardedBy("_canonicalDefinitions")
+  private final Map<PolicyDefinitions, PolicyDefinitions> _canonicalDefinitions;
+}
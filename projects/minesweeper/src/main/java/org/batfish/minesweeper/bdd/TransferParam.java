@@ -2,6 +2,7 @@ package org.batfish.minesweeper.bdd;
 
 import javax.annotation.Nullable;
 import net.sf.javabdd.BDD;
+import net.sf.javabdd.BDDFactory;
 import org.batfish.datamodel.routing_policy.statement.SetDefaultPolicy;
 import org.batfish.minesweeper.IDeepCopy;
 import org.batfish.minesweeper.collections.PList;
@@ -39,13 +40,18 @@ public class TransferParam<T extends IDeepCopy<T>> {
   private boolean _debug;
 
   public TransferParam(T data, boolean debug) {
+    this(data, BDDRoute.factory, debug);
+  }
+
+  /** Like {@link #TransferParam(IDeepCopy, boolean)}, but with BDDs from the given factory. */
+  public TransferParam(T data, BDDFactory factory, boolean debug) {
     _data = data;
     _callContext = CallContext.NONE;
     _chainContext = ChainContext.NONE;
     _indent = 0;
     _scopes = PList.empty();
-    _defaultAccept = BDDRoute.factory.zero();
-    _defaultAcceptLocal = BDDRoute.factory.zero();
+    _defaultAccept = factory.zero();
+    _defaultAcceptLocal = factory.zero();
     _defaultPolicy = null;
     _debug = debug;
   }
@@ -12,7 +12,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Range;
 import dk.brics.automaton.Automaton;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,7 +23,6 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
@@ -57,7 +59,9 @@ import org.batfish.minesweeper.RegexAtomicPredicates;
 import org.batfish.minesweeper.SymbolicAsPathRegex;
 import org.batfish.minesweeper.SymbolicRegex;
 import org.batfish.minesweeper.bdd.BDDRoute;
-import org.batfish.minesweeper.bdd.TransferBDD;
+import org.batfish.minesweeper.bdd.TransferBDDCache;
+import org.batfish.minesweeper.bdd.TransferBDDCache.Partition;
+import org.batfish.minesweeper.bdd.TransferBDDCache.PolicyKey;
 import org.batfish.minesweeper.bdd.TransferReturn;
 import org.batfish.minesweeper.question.searchroutepolicies.SearchRoutePoliciesQuestion.Action;
 import org.batfish.question.testroutepolicies.TestRoutePoliciesAnswerer;
@@ -265,33 +269,50 @@ public final class SearchRoutePoliciesAnswerer extends Answerer {
   }
 
   /**
-   * Convert the results of symbolic route analysis into an answer to this question, if the
-   * resulting constraints are satisfiable.
+   * Convert the results of symbolic route analysis into an example input route, if the resulting
+   * constraints are satisfiable.
    *
    * @param constraints intersection of the input and output constraints provided as part of the
    *     question and the constraints on a solution that come from the symbolic route analysis
-   * @param policy the route policy that was analyzed
+   * @param r the symbolic input route that the constraints refer to
    * @param g the Graph, which provides information about the community and as-path atomic
    *     predicates
-   * @return an optional answer, which includes a concrete input route and (if the desired action is
-   *     PERMIT) concrete output route
+   * @return an optional concrete input route
    */
-  private Optional<Row> constraintsToResult(BDD constraints, RoutingPolicy policy, Graph g) {
+  private static Optional<Bgpv4Route> constraintsToInputRoute(
+      BDD constraints, BDDRoute r, Graph g) {
     if (constraints.isZero()) {
       return Optional.empty();
-    } else {
-      BDD fullModel = constraints.fullSatOne();
-      Bgpv4Route inRoute = satAssignmentToRoute(fullModel, new BDDRoute(g), g);
-      Row result = TestRoutePoliciesAnswerer.rowResultFor(policy, inRoute, _direction);
-      // sanity check: make sure that the accept/deny status produced by TestRoutePolicies is
-      // the same as what the user was asking for.  if this ever fails then either TRP or SRP
-      // is modeling something incorrectly (or both).
-      // TODO: We can also take this validation further by using satAssignmentToRoute to produce the
-      // output route from our fullModel and the final BDDRoute from the symbolic analysis (as we
-      // used to do) and then compare that to the TRP result.
-      assert result.get(TestRoutePoliciesAnswerer.COL_ACTION, STRING).equals(_action.toString());
-      return Optional.of(result);
     }
+    BDD fullModel = constraints.fullSatOne();
+    try {
+      // the automata of the atomic predicates are shared by all threads, and are not thread-safe
+      synchronized (g) {
+        return Optional.of(satAssignmentToRoute(fullModel, r, g));
+      }
+    } finally {
+      fullModel.free();
+    }
+  }
+
+  /**
+   * Convert an example input route into an answer to this question.
+   *
+   * @param inRoute the example input route found for the policy, or for an identical one
+   * @param policy the route policy that was analyzed
+   * @return the answer, which includes the input route and (if the desired action is PERMIT) the
+   *     output route
+   */
+  private Row inputRouteToResult(Bgpv4Route inRoute, RoutingPolicy policy) {
+    Row result = TestRoutePoliciesAnswerer.rowResultFor(policy, inRoute, _direction);
+    // sanity check: make sure that the accept/deny status produced by TestRoutePolicies is
+    // the same as what the user was asking for.  if this ever fails then either TRP or SRP
+    // is modeling something incorrectly (or both).
+    // TODO: We can also take this validation further by using satAssignmentToRoute to produce the
+    // output route from our fullModel and the final BDDRoute from the symbolic analysis (as we
+    // used to do) and then compare that to the TRP result.
+    assert result.get(TestRoutePoliciesAnswerer.COL_ACTION, STRING).equals(_action.toString());
+    return result;
   }
 
   private BDD prefixSpaceToBDD(PrefixSpace space, BDDRoute r, boolean complementPrefixes) {
@@ -301,11 +322,12 @@ public final class SearchRoutePoliciesAnswerer extends Answerer {
     } else {
       BDD result = factory.zero();
       for (PrefixRange range : space.getPrefixRanges()) {
-        BDD rangeBDD = isRelevantFor(r, range);
-        result = result.or(rangeBDD);
+        result.orWith(isRelevantFor(r, range));
       }
       if (complementPrefixes) {
-        result = result.not();
+        BDD complement = result.not();
+        result.free();
+        return complement;
       }
       return result;
     }
@@ -333,7 +355,7 @@ public final class SearchRoutePoliciesAnswerer extends Answerer {
       BDD result = bddInt.getFactory().zero();
       for (Range<Long> range : space.getRanges()) {
         Range<Long> closedRange = toClosedRange(range);
-        result = result.or(bddInt.range(closedRange.lowerEndpoint(), closedRange.upperEndpoint()));
+        result.orWith(bddInt.range(closedRange.lowerEndpoint(), closedRange.upperEndpoint()));
       }
       return result;
     }
@@ -418,14 +440,16 @@ public final class SearchRoutePoliciesAnswerer extends Answerer {
    * Search a particular route policy for behaviors of interest.
    *
    * @param policy the routing policy
+   * @param key the key of the policy's analysis in the cache
+   * @param partition the partition of the cache holding that analysis, whose lock must be held
    * @param g a Graph object providing information about the policy's owner configuration
-   * @return an optional result, if a behavior of interest was found
+   * @return an example input route, if a behavior of interest was found
    */
-  private Optional<Row> searchPolicy(RoutingPolicy policy, Graph g) {
+  private Optional<Bgpv4Route> searchPolicy(
+      RoutingPolicy policy, PolicyKey key, Partition partition, Graph g) {
     TransferReturn result;
     try {
-      TransferBDD tbdd = new TransferBDD(g, policy.getOwner(), policy.getStatements());
-      result = tbdd.compute(ImmutableSet.of()).getReturnValue();
+      result = partition.getReturnValue(key, policy);
     } catch (Exception e) {
       throw new BatfishException(
           "Unsupported features in route policy "
@@ -436,54 +460,106 @@ public final class SearchRoutePoliciesAnswerer extends Answerer {
     }
     BDD acceptedAnnouncements = result.getSecond();
     BDDRoute outputRoute = result.getFirst();
-    BDD intersection;
-    BDD inConstraints = routeConstraintsToBDD(_inputConstraints, new BDDRoute(g), g);
+    BDDRoute inputRoute = partition.getInputRoute();
+    // the factory outlives this question, so the constraints are consumed into the intersection,
+    // which is freed once the example route is found
+    BDD intersection = routeConstraintsToBDD(_inputConstraints, inputRoute, g);
     if (_action == PERMIT) {
       // incorporate the constraints on the output route as well
-      BDD outConstraints = routeConstraintsToBDD(_outputConstraints, outputRoute, g);
-      intersection = acceptedAnnouncements.and(inConstraints).and(outConstraints);
+      intersection
+          .andWith(routeConstraintsToBDD(_outputConstraints, outputRoute, g))
+          .andWith(acceptedAnnouncements.id());
     } else {
-      intersection = acceptedAnnouncements.not().and(inConstraints);
+      intersection.diffWith(acceptedAnnouncements.id());
     }
 
-    return constraintsToResult(intersection, policy, g);
+    try {
+      return constraintsToInputRoute(intersection, inputRoute, g);
+    } finally {
+      intersection.free();
+    }
   }
 
   /**
-   * Search all of the route policies of a particular node for behaviors of interest.
+   * Search the given route policies for behaviors of interest.
+   *
+   * <p>Identical policies (e.g. from nodes with the same configuration template) are analyzed only
+   * once, and their analyses are cached for later questions with the same atomic predicates. The
+   * partitions of the cache are searched in parallel.
    *
-   * @param node the node
-   * @param policies all route policies in that node
-   * @return all results from analyzing those route policies
+   * @param policies the route policies
+   * @param cache the cache of the analyses of the policies
+   * @return all results from analyzing those route policies, in the order of the policies
    */
-  private Stream<Row> searchPoliciesForNode(
-      String node, Set<RoutingPolicy> policies, NetworkSnapshot snapshot) {
-    Graph g =
-        new Graph(
-            _batfish,
-            snapshot,
-            null,
-            ImmutableSet.of(node),
-            _communityRegexes.stream()
-                .map(CommunityVar::from)
-                .collect(ImmutableSet.toImmutableSet()),
-            _asPathRegexes);
+  private List<Row> searchPolicies(List<RoutingPolicy> policies, TransferBDDCache cache) {
+    Map<PolicyKey, List<RoutingPolicy>> identicalPolicies = new LinkedHashMap<>();
+    for (RoutingPolicy policy : policies) {
+      identicalPolicies.computeIfAbsent(cache.keyOf(policy), k -> new ArrayList<>()).add(policy);
+    }
+    List<PolicyKey> keys = ImmutableList.copyOf(identicalPolicies.keySet());
+    Map<Partition, List<Integer>> keysByPartition = new LinkedHashMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      keysByPartition
+          .computeIfAbsent(cache.getPartition(keys.get(i)), p -> new ArrayList<>())
+          .add(i);
+    }
 
+    List<Optional<Bgpv4Route>> inputRoutes = new ArrayList<>(keys.size());
+    keys.forEach(key -> inputRoutes.add(Optional.empty()));
+    Graph g = cache.getGraph();
+    ImmutableList.copyOf(keysByPartition.entrySet()).parallelStream()
+        .forEach(
+            entry -> {
+              Partition partition = entry.getKey();
+              synchronized (partition) {
+                for (int i : entry.getValue()) {
+                  PolicyKey key = keys.get(i);
+                  Optional<Bgpv4Route> inputRoute =
+                      searchPolicy(identicalPolicies.get(key).get(0), key, partition, g);
+                  synchronized (inputRoutes) {
+                    inputRoutes.set(i, inputRoute);
+                  }
+                }
+              }
+            });
+
+    Map<RoutingPolicy, Bgpv4Route> inputRouteByPolicy = new IdentityHashMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      Optional<Bgpv4Route> inputRoute = inputRoutes.get(i);
+      if (inputRoute.isPresent()) {
+        identicalPolicies
+            .get(keys.get(i))
+            .forEach(policy -> inputRouteByPolicy.put(policy, inputRoute.get()));
+      }
+    }
     return policies.stream()
-        .map(policy -> searchPolicy(policy, g))
-        .filter(Optional::isPresent)
-        .map(Optional::get);
+        .filter(inputRouteByPolicy::containsKey)
+        .map(policy -> inputRouteToResult(inputRouteByPolicy.get(policy), policy))
+        .collect(ImmutableList.toImmutableList());
   }
 
   @Override
   public AnswerElement answer(NetworkSnapshot snapshot) {
     SpecifierContext context = _batfish.specifierContext(snapshot);
-    List<Row> rows =
-        _nodeSpecifier.resolve(context).stream()
-            .flatMap(
-                node ->
-                    searchPoliciesForNode(node, _policySpecifier.resolve(node, context), snapshot))
+    Set<String> nodes = _nodeSpecifier.resolve(context);
+    List<RoutingPolicy> policies =
+        nodes.stream()
+            .flatMap(node -> _policySpecifier.resolve(node, context).stream())
             .collect(ImmutableList.toImmutableList());
+    List<Row> rows = ImmutableList.of();
+    if (!policies.isEmpty()) {
+      // one graph for all nodes, so that all policies share the same atomic predicates
+      TransferBDDCache cache =
+          TransferBDDCache.forUniverse(
+              _batfish,
+              snapshot,
+              nodes,
+              _communityRegexes.stream()
+                  .map(CommunityVar::from)
+                  .collect(ImmutableSet.toImmutableSet()),
+              _asPathRegexes);
+      rows = searchPolicies(policies, cache);
+    }
 
     TableAnswerElement answerElement = new TableAnswerElement(TestRoutePoliciesAnswerer.metadata());
     answerElement.postProcessAnswer(_question, rows);
@@ -0,0 +1,121 @@
+package org.batfish.minesweeper.bdd;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import org.batfish.common.plugin.IBatfish;
+import org.batfish.datamodel.Configuration;
+import org.batfish.datamodel.ConfigurationFormat;
+import org.batfish.datamodel.NetworkFactory;
+import org.batfish.datamodel.routing_policy.RoutingPolicy;
+import org.batfish.datamodel.routing_policy.statement.Statements;
+import org.batfish.datamodel.routing_policy.statement.Statements.StaticStatement;
+import org.batfish.minesweeper.bdd.TransferBDDCache.Partition;
+import org.batfish.minesweeper.bdd.TransferBDDCache.PolicyKey;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of {@link TransferBDDCache}. */
+public class TransferBDDCacheTest {
+
+  private IBatfish _batfish;
+  private RoutingPolicy _accept1;
+  private RoutingPolicy _accept2;
+  private RoutingPolicy _reject2;
+
+  @Before
+  public void setup() {
+    NetworkFactory nf = new NetworkFactory();
+    Configuration c1 = newConfiguration(nf, "c1");
+    Configuration c2 = newConfiguration(nf, "c2");
+    _accept1 = newPolicy(nf, c1, "accept", Statements.ExitAccept);
+    newPolicy(nf, c1, "reject", Statements.ExitReject);
+    _accept2 = newPolicy(nf, c2, "accept", Statements.ExitAccept);
+    _reject2 = newPolicy(nf, c2, "reject", Statements.ExitReject);
+    _batfish = new TransferBDDTest.MockBatfish(ImmutableSortedMap.of("c1", c1, "c2", c2));
+  }
+
+  @After
+  public void clearCaches() {
+    TransferBDDCache.clear();
+  }
+
+  private static Configuration newConfiguration(NetworkFactory nf, String hostname) {
+    Configuration c =
+        nf.configurationBuilder()
+            .setHostname(hostname)
+            .setConfigurationFormat(ConfigurationFormat.CISCO_IOS)
+            .build();
+    nf.vrfBuilder().setOwner(c).setName(Configuration.DEFAULT_VRF_NAME).build();
+    return c;
+  }
+
+  private static RoutingPolicy newPolicy(
+      NetworkFactory nf, Configuration c, String name, Statements statement) {
+    return nf.routingPolicyBuilder()
+        .setOwner(c)
+        .setName(name)
+        .setStatements(ImmutableList.of(new StaticStatement(statement)))
+        .build();
+  }
+
+  private TransferBDDCache forUniverse(String... asPathRegexes) {
+    return TransferBDDCache.forUniverse(
+        _batfish,
+        _batfish.getSnapshot(),
+        ImmutableSet.of("c1", "c2"),
+        ImmutableSet.of(),
+        ImmutableSet.copyOf(asPathRegexes));
+  }
+
+  @Test
+  public void testForUniverse() {
+    TransferBDDCache cache = forUniverse("^40$");
+    assertThat(forUniverse("^40$"), sameInstance(cache));
+    assertThat(forUniverse("^50$"), not(sameInstance(cache)));
+  }
+
+  @Test
+  public void testKeyOf() {
+    TransferBDDCache cache = forUniverse();
+    // the configurations differ only in their hostnames, which the analysis does not depend on
+    assertThat(cache.keyOf(_accept1), equalTo(cache.keyOf(_accept2)));
+    assertThat(cache.keyOf(_accept1), not(equalTo(cache.keyOf(_reject2))));
+  }
+
+  @Test
+  public void testGetReturnValue() {
+    TransferBDDCache cache = forUniverse();
+    PolicyKey key = cache.keyOf(_accept1);
+    Partition partition = cache.getPartition(key);
+    TransferReturn result = partition.getReturnValue(key, _accept1);
+
+    assertThat(result.getSecond().isOne(), equalTo(true));
+    assertThat(result.getSecond().getFactory(), sameInstance(partition.getFactory()));
+    // identical policies share the cached result, including in later questions
+    assertThat(partition.getReturnValue(cache.keyOf(_accept2), _accept2), sameInstance(result));
+    PolicyKey laterKey = forUniverse().keyOf(_accept1);
+    assertThat(
+        forUniverse().getPartition(laterKey).getReturnValue(laterKey, _accept1),
+        sameInstance(result));
+  }
+
+  @Test
+  public void testGetInputRoute() {
+    TransferBDDCache cache = forUniverse();
+    Partition partition = cache.getPartition(cache.keyOf(_accept1));
+    BDDRoute inputRoute = partition.getInputRoute();
+
+    assertThat(inputRoute.getFactory(), sameInstance(partition.getFactory()));
+    // shared by later questions, so that they do not allocate their own in the cached factory
+    assertThat(
+        forUniverse().getPartition(cache.keyOf(_accept1)).getInputRoute(),
+        sameInstance(inputRoute));
+  }
+}
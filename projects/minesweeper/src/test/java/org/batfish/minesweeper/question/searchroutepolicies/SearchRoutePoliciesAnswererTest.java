@@ -29,6 +29,7 @@ import com.google.common.collect.Range;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.TreeMap;
 import org.apache.commons.lang3.SerializationUtils;
 import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.plugin.IBatfish;
@@ -1156,6 +1157,47 @@ public class SearchRoutePoliciesAnswererTest {
     assertEquals(0, answer.getRows().size());
   }
 
+  @Test
+  public void testIdenticalPoliciesOnMultipleNodes() {
+    NetworkFactory nf = new NetworkFactory();
+    Map<String, Configuration> configs = new TreeMap<>();
+    for (String hostname : ImmutableList.of("node1", "node2", "node3")) {
+      Configuration c =
+          nf.configurationBuilder()
+              .setHostname(hostname)
+              .setConfigurationFormat(ConfigurationFormat.CISCO_IOS)
+              .build();
+      nf.vrfBuilder().setOwner(c).setName(Configuration.DEFAULT_VRF_NAME).build();
+      nf.routingPolicyBuilder()
+          .setOwner(c)
+          .setName(POLICY_NAME)
+          .addStatement(
+              new StaticStatement(
+                  hostname.equals("node2") ? Statements.ExitReject : Statements.ExitAccept))
+          .build();
+      configs.put(hostname, c);
+    }
+    IBatfish batfish = new MockBatfish(ImmutableSortedMap.copyOf(configs));
+
+    SearchRoutePoliciesQuestion question =
+        new SearchRoutePoliciesQuestion(
+            DEFAULT_DIRECTION, EMPTY_CONSTRAINTS, EMPTY_CONSTRAINTS, null, null, Action.PERMIT);
+    SearchRoutePoliciesAnswerer answerer = new SearchRoutePoliciesAnswerer(question, batfish);
+
+    TableAnswerElement answer = (TableAnswerElement) answerer.answer(batfish.getSnapshot());
+
+    // node1 and node3 have the same policy, and both get a result
+    assertThat(
+        answer.getRows().getData(),
+        Matchers.contains(
+            allOf(
+                hasColumn(COL_NODE, equalTo(new Node("node1")), Schema.NODE),
+                hasColumn(COL_ACTION, equalTo(PERMIT.toString()), Schema.STRING)),
+            allOf(
+                hasColumn(COL_NODE, equalTo(new Node("node3")), Schema.NODE),
+                hasColumn(COL_ACTION, equalTo(PERMIT.toString()), Schema.STRING))));
+  }
+
   @Test
   public void testToClosedRange() {
     Range<Long> r1 = toClosedRange(Range.closed(5L, 10L));
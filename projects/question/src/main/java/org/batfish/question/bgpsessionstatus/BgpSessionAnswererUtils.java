@@ -1,13 +1,12 @@
 package org.batfish.question.bgpsessionstatus;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.graph.ValueGraph;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.batfish.common.topology.IpVrfOwners;
 import org.batfish.datamodel.BgpActivePeerConfig;
 import org.batfish.datamodel.BgpPassivePeerConfig;
 import org.batfish.datamodel.BgpPeerConfig;
@@ -53,7 +52,7 @@ public final class BgpSessionAnswererUtils {
       BgpPeerConfigId peerId,
       BgpActivePeerConfig activePeerConfig,
       SessionType sessionType,
-      Map<Ip, Map<String, Set<String>>> ipVrfOwners,
+      IpVrfOwners ipVrfOwners,
       ValueGraph<BgpPeerConfigId, BgpSessionProperties> configuredBgpTopology) {
     ConfiguredSessionStatus brokenStatus = getLocallyBrokenStatus(activePeerConfig, sessionType);
     if (brokenStatus != null) {
@@ -63,12 +62,9 @@ public final class BgpSessionAnswererUtils {
     Ip localIp = activePeerConfig.getLocalIp();
     Ip remoteIp = activePeerConfig.getPeerAddress();
 
-    if (!ipVrfOwners
-        .getOrDefault(localIp, ImmutableMap.of())
-        .getOrDefault(peerId.getHostname(), ImmutableSet.of())
-        .contains(peerId.getVrfName())) {
+    if (!ipVrfOwners.isOwnedByVrf(localIp, peerId.getHostname(), peerId.getVrfName())) {
       return ConfiguredSessionStatus.INVALID_LOCAL_IP;
-    } else if (!ipVrfOwners.containsKey(remoteIp)) {
+    } else if (ipVrfOwners.getVrfOwners(remoteIp).isEmpty()) {
       return ConfiguredSessionStatus.UNKNOWN_REMOTE;
     } else if (configuredBgpTopology.adjacentNodes(peerId).isEmpty()) {
       return ConfiguredSessionStatus.HALF_OPEN;
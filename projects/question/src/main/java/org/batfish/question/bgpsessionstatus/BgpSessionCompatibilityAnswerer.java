@@ -34,7 +34,7 @@ import org.batfish.common.Answerer;
 import org.batfish.common.BatfishException;
 import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.plugin.IBatfish;
-import org.batfish.common.topology.IpOwners;
+import org.batfish.common.topology.IpVrfOwners;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.datamodel.BgpActivePeerConfig;
 import org.batfish.datamodel.BgpPassivePeerConfig;
@@ -43,7 +43,6 @@ import org.batfish.datamodel.BgpSessionProperties;
 import org.batfish.datamodel.BgpSessionProperties.SessionType;
 import org.batfish.datamodel.BgpUnnumberedPeerConfig;
 import org.batfish.datamodel.Configuration;
-import org.batfish.datamodel.Ip;
 import org.batfish.datamodel.NetworkConfigurations;
 import org.batfish.datamodel.answers.AnswerElement;
 import org.batfish.datamodel.answers.Schema;
@@ -136,7 +135,7 @@ public class BgpSessionCompatibilityAnswerer extends Answerer {
     Set<String> nodes = question.getNodeSpecifier().resolve(specifierContext);
     Set<String> remoteNodes = question.getRemoteNodeSpecifier().resolve(specifierContext);
     L3Adjacencies l3Adjacencies = _batfish.getTopologyProvider().getInitialL3Adjacencies(snapshot);
-    Map<Ip, Map<String, Set<String>>> ipVrfOwners = new IpOwners(configurations).getIpVrfOwners();
+    IpVrfOwners ipVrfOwners = _batfish.getTopologyProvider().getIpOwnershipIndex(snapshot);
     ValueGraph<BgpPeerConfigId, BgpSessionProperties> configuredTopology =
         BgpTopologyUtils.initBgpTopology(configurations, ipVrfOwners, true, l3Adjacencies)
             .getGraph();
@@ -173,7 +172,7 @@ public class BgpSessionCompatibilityAnswerer extends Answerer {
   static Row getActivePeerRow(
       BgpPeerConfigId activeId,
       BgpActivePeerConfig activePeer,
-      Map<Ip, Map<String, Set<String>>> ipVrfOwners,
+      IpVrfOwners ipVrfOwners,
       ValueGraph<BgpPeerConfigId, BgpSessionProperties> configuredTopology) {
     // Determine peer's session type and status. If compatible, find its unique remote match
     SessionType type = getSessionType(activePeer);
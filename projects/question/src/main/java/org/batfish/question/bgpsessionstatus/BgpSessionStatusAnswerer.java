@@ -35,6 +35,7 @@ import org.batfish.common.Answerer;
 import org.batfish.common.BatfishException;
 import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.plugin.IBatfish;
+import org.batfish.common.topology.IpVrfOwners;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.common.topology.TopologyProvider;
 import org.batfish.datamodel.BgpActivePeerConfig;
@@ -45,7 +46,6 @@ import org.batfish.datamodel.BgpSessionProperties;
 import org.batfish.datamodel.BgpSessionProperties.SessionType;
 import org.batfish.datamodel.BgpUnnumberedPeerConfig;
 import org.batfish.datamodel.Configuration;
-import org.batfish.datamodel.Ip;
 import org.batfish.datamodel.NetworkConfigurations;
 import org.batfish.datamodel.answers.AnswerElement;
 import org.batfish.datamodel.answers.Schema;
@@ -137,8 +137,7 @@ public class BgpSessionStatusAnswerer extends Answerer {
     Set<String> nodes = question.getNodeSpecifier().resolve(specifierContext);
     Set<String> remoteNodes = question.getRemoteNodeSpecifier().resolve(specifierContext);
     TopologyProvider topologyProvider = _batfish.getTopologyProvider();
-    Map<Ip, Map<String, Set<String>>> ipVrfOwners =
-        topologyProvider.getIpOwners(snapshot).getIpVrfOwners();
+    IpVrfOwners ipVrfOwners = topologyProvider.getIpOwnershipIndex(snapshot);
     L3Adjacencies adjacencies = topologyProvider.getL3Adjacencies(snapshot);
     ValueGraph<BgpPeerConfigId, BgpSessionProperties> configuredTopology =
         BgpTopologyUtils.initBgpTopology(configurations, ipVrfOwners, true, adjacencies).getGraph();
@@ -187,7 +186,7 @@ public class BgpSessionStatusAnswerer extends Answerer {
   static Row getActivePeerRow(
       BgpPeerConfigId activeId,
       BgpActivePeerConfig activePeer,
-      Map<Ip, Map<String, Set<String>>> ipVrfOwners,
+      IpVrfOwners ipVrfOwners,
       ValueGraph<BgpPeerConfigId, BgpSessionProperties> configuredTopology,
       ValueGraph<BgpPeerConfigId, BgpSessionProperties> establishedTopology) {
     SessionType type = getSessionType(activePeer);
@@ -13,6 +13,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -21,8 +22,10 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 import net.sf.javabdd.BDD;
@@ -375,7 +378,8 @@ public class FilterLineReachabilityAnswerer extends Answerer {
       SortedMap<String, Configuration> configurations,
       Map<String, Set<IpAccessList>> specifiedAcls,
       FilterLineReachabilityRows answer) {
-    List<AclSpecs.Builder> aclSpecs = new ArrayList<>();
+    // Identical ACLs (typically from similar devices) share one entry, in order of first appearance
+    Map<CanonicalAcl, AclSpecs.Builder> aclSpecs = new LinkedHashMap<>();
 
     /*
      - For each ACL, build a CanonicalAcl structure with that ACL and referenced ACLs & interfaces
@@ -447,21 +451,13 @@ public class FilterLineReachabilityAnswerer extends Answerer {
                   node.getLinesInCycles());
 
           // If an identical ACL exists, add current hostname/aclName pair; otherwise, add new ACL
-          boolean added = false;
-          for (AclSpecs.Builder aclSpec : aclSpecs) {
-            if (aclSpec.getAcl().equals(currentAcl)) {
-              aclSpec.addSource(hostname, aclName);
-              added = true;
-              break;
-            }
-          }
-          if (!added) {
-            aclSpecs.add(AclSpecs.builder().setAcl(currentAcl).addSource(hostname, aclName));
-          }
+          aclSpecs
+              .computeIfAbsent(currentAcl, k -> AclSpecs.builder().setAcl(k))
+              .addSource(hostname, aclName);
         }
       }
     }
-    return aclSpecs.stream().map(AclSpecs.Builder::build).collect(Collectors.toList());
+    return aclSpecs.values().stream().map(AclSpecs.Builder::build).collect(Collectors.toList());
   }
 
   private static class LineAndWeight {
@@ -608,12 +604,23 @@ public class FilterLineReachabilityAnswerer extends Answerer {
     }
   }
 
+  /**
+   * Analyzes the given ACLs in parallel. BDD factories are not thread-safe, so each thread uses its
+   * own {@link BDDPacket}, and takes the next unanalyzed ACL until there are none left.
+   */
   private static void answerAclReachability(
       List<AclSpecs> aclSpecs, FilterLineReachabilityRows answerRows) {
-    BDDPacket bddPacket = new BDDPacket();
-
-    for (AclSpecs aclSpec : aclSpecs) {
-      answerAclReachabilityLine(aclSpec, bddPacket, answerRows);
-    }
+    int numThreads = Math.min(Runtime.getRuntime().availableProcessors(), aclSpecs.size());
+    AtomicInteger nextAclSpec = new AtomicInteger();
+    IntStream.range(0, numThreads)
+        .parallel()
+        .forEach(
+            thread -> {
+              BDDPacket bddPacket = new BDDPacket();
+              int i;
+              while ((i = nextAclSpec.getAndIncrement()) < aclSpecs.size()) {
+                answerAclReachabilityLine(aclSpecs.get(i), bddPacket, answerRows);
+              }
+            });
   }
 }
@@ -2,7 +2,7 @@ package org.batfish.question.filterlinereachability;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
 
-import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ConcurrentHashMultiset;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedSet;
@@ -23,7 +23,7 @@ import org.batfish.datamodel.table.Row;
 import org.batfish.datamodel.table.TableMetadata;
 import org.batfish.question.filterlinereachability.FilterLineReachabilityAnswerer.BlockingProperties;
 
-/** Represents answers to aclReachability. */
+/** Represents answers to aclReachability. Rows may be added concurrently. */
 @ParametersAreNonnullByDefault
 public class FilterLineReachabilityRows {
   public static final String COL_SOURCES = "Sources";
@@ -89,7 +89,7 @@ public class FilterLineReachabilityRows {
                   COL_ADDITIONAL_INFO, Schema.STRING, "Additional information", false, false))
           .build();
 
-  private final Multiset<Row> _rows = HashMultiset.create();
+  private final Multiset<Row> _rows = ConcurrentHashMultiset.create();
 
   /** Adds row for unmatchable line at index {@code lineNumber}. */
   public void addUnmatchableLine(AclSpecs aclSpecs, int lineNumber) {
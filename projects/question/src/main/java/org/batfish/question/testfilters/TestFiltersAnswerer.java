@@ -35,6 +35,7 @@ import org.batfish.datamodel.PacketHeaderConstraints;
 import org.batfish.datamodel.PacketHeaderConstraintsUtil;
 import org.batfish.datamodel.UniverseIpSpace;
 import org.batfish.datamodel.acl.AclTracer;
+import org.batfish.datamodel.acl.CompiledIpAccessLists;
 import org.batfish.datamodel.answers.Schema;
 import org.batfish.datamodel.pojo.Node;
 import org.batfish.datamodel.questions.DisplayHints;
@@ -206,6 +207,24 @@ public class TestFiltersAnswerer extends Answerer {
    * represented by {@code c}.
    */
   public static Row getRow(IpAccessList filter, Flow flow, Configuration c) {
+    return getRow(
+        filter,
+        flow,
+        c,
+        filter.filter(flow, flow.getIngressInterface(), c.getIpAccessLists(), c.getIpSpaces()));
+  }
+
+  /**
+   * Like {@link #getRow(IpAccessList, Flow, Configuration)}, but evaluates {@code filter} using
+   * {@code compiledAcls}, which should be shared across all rows for node {@code c}.
+   */
+  @VisibleForTesting
+  static Row getRow(
+      IpAccessList filter, Flow flow, Configuration c, CompiledIpAccessLists compiledAcls) {
+    return getRow(filter, flow, c, compiledAcls.filter(filter, flow, flow.getIngressInterface()));
+  }
+
+  private static Row getRow(IpAccessList filter, Flow flow, Configuration c, FilterResult result) {
     @Nullable
     List<TraceTree> trace =
         AclTracer.trace(
@@ -215,8 +234,6 @@ public class TestFiltersAnswerer extends Answerer {
             c.getIpAccessLists(),
             c.getIpSpaces(),
             c.getIpSpaceMetadata());
-    FilterResult result =
-        filter.filter(flow, flow.getIngressInterface(), c.getIpAccessLists(), c.getIpSpaces());
     Integer matchLine = result.getMatchLine();
     String lineDesc = "no-match";
     if (matchLine != null) {
@@ -271,9 +288,10 @@ public class TestFiltersAnswerer extends Answerer {
       foundMatchingFlow = true;
 
       // there should be another for loop for v6 filters when we add v6 support
+      CompiledIpAccessLists compiledAcls = CompiledIpAccessLists.forConfiguration(c);
       for (IpAccessList filter : filtersByName) {
         for (Flow flow : flows) {
-          rows.add(getRow(filter, flow, c));
+          rows.add(getRow(filter, flow, c, compiledAcls));
         }
       }
     }
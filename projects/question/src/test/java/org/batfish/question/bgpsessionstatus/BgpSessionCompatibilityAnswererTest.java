@@ -32,8 +32,6 @@ import com.google.common.collect.Range;
 import com.google.common.graph.MutableValueGraph;
 import com.google.common.graph.ValueGraphBuilder;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import javax.annotation.Nonnull;
@@ -42,6 +40,7 @@ import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.plugin.IBatfish;
 import org.batfish.common.plugin.IBatfishTestAdapter;
 import org.batfish.common.topology.GlobalBroadcastNoPointToPoint;
+import org.batfish.common.topology.IpVrfOwners;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.common.topology.TopologyProvider;
 import org.batfish.datamodel.BgpActivePeerConfig;
@@ -110,7 +109,7 @@ public class BgpSessionCompatibilityAnswererTest {
             .setIpv4UnicastAddressFamily(Ipv4UnicastAddressFamily.builder().build())
             .build();
 
-    Row row = getActivePeerRow(peerId, peer, ImmutableMap.of(), null);
+    Row row = getActivePeerRow(peerId, peer, IpVrfOwners.of(ImmutableMap.of()), null);
     Row expected =
         Row.builder()
             .put(COL_CONFIGURED_STATUS, ConfiguredSessionStatus.NO_LOCAL_IP)
@@ -154,12 +153,13 @@ public class BgpSessionCompatibilityAnswererTest {
             .setIpv4UnicastAddressFamily(Ipv4UnicastAddressFamily.builder().build())
             .build();
 
-    Map<Ip, Map<String, Set<String>>> ipVrfOwners =
-        ImmutableMap.of(
-            localIp,
-            ImmutableMap.of("c1", ImmutableSet.of("vrf1")),
-            remoteIp,
-            ImmutableMap.of("c2", ImmutableSet.of("vrf2")));
+    IpVrfOwners ipVrfOwners =
+        IpVrfOwners.of(
+            ImmutableMap.of(
+                localIp,
+                ImmutableMap.of("c1", ImmutableSet.of("vrf1")),
+                remoteIp,
+                ImmutableMap.of("c2", ImmutableSet.of("vrf2"))));
 
     MutableValueGraph<BgpPeerConfigId, BgpSessionProperties> bgpTopology =
         ValueGraphBuilder.directed().allowsSelfLoops(false).build();
@@ -34,14 +34,13 @@ import com.google.common.collect.Range;
 import com.google.common.graph.MutableValueGraph;
 import com.google.common.graph.ValueGraphBuilder;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.SortedMap;
 import javax.annotation.Nonnull;
 import org.batfish.common.NetworkSnapshot;
 import org.batfish.common.plugin.IBatfish;
 import org.batfish.common.plugin.IBatfishTestAdapter;
 import org.batfish.common.topology.GlobalBroadcastNoPointToPoint;
+import org.batfish.common.topology.IpVrfOwners;
 import org.batfish.common.topology.L3Adjacencies;
 import org.batfish.common.topology.TopologyProvider;
 import org.batfish.datamodel.BgpActivePeerConfig;
@@ -108,7 +107,7 @@ public class BgpSessionStatusAnswererTest {
         ValueGraphBuilder.directed().allowsSelfLoops(false).build();
     topology.addNode(peerId);
 
-    Row row = getActivePeerRow(peerId, peer, ImmutableMap.of(), topology, topology);
+    Row row = getActivePeerRow(peerId, peer, IpVrfOwners.of(ImmutableMap.of()), topology, topology);
     Row expected =
         Row.builder()
             .put(COL_ESTABLISHED_STATUS, BgpSessionStatus.NOT_COMPATIBLE)
@@ -152,12 +151,13 @@ public class BgpSessionStatusAnswererTest {
             .setIpv4UnicastAddressFamily(Ipv4UnicastAddressFamily.builder().build())
             .build();
 
-    Map<Ip, Map<String, Set<String>>> ipVrfOwners =
-        ImmutableMap.of(
-            localIp,
-            ImmutableMap.of("c1", ImmutableSet.of("vrf1")),
-            remoteIp,
-            ImmutableMap.of("c2", ImmutableSet.of("vrf2")));
+    IpVrfOwners ipVrfOwners =
+        IpVrfOwners.of(
+            ImmutableMap.of(
+                localIp,
+                ImmutableMap.of("c1", ImmutableSet.of("vrf1")),
+                remoteIp,
+                ImmutableMap.of("c2", ImmutableSet.of("vrf2"))));
 
     // Topology containing both peers, but no link between them
     MutableValueGraph<BgpPeerConfigId, BgpSessionProperties> unlinkedTopology =
@@ -518,18 +518,19 @@ public class BgpSessionStatusAnswererTest {
     establishedTopology.putEdgeValue(
         establishedId, peerXId, BgpSessionProperties.from(peerX, remotePeer, true));
 
-    Map<Ip, Map<String, Set<String>>> ipVrfOwners =
-        ImmutableMap.of(
-            localIp,
-            ImmutableMap.of("c", ImmutableSet.of(DEFAULT_VRF_NAME)),
-            remoteIp,
+    IpVrfOwners ipVrfOwners =
+        IpVrfOwners.of(
             ImmutableMap.of(
-                "c2",
-                ImmutableSet.of(DEFAULT_VRF_NAME),
-                "c3",
-                ImmutableSet.of(DEFAULT_VRF_NAME),
-                "c4",
-                ImmutableSet.of(DEFAULT_VRF_NAME)));
+                localIp,
+                ImmutableMap.of("c", ImmutableSet.of(DEFAULT_VRF_NAME)),
+                remoteIp,
+                ImmutableMap.of(
+                    "c2",
+                    ImmutableSet.of(DEFAULT_VRF_NAME),
+                    "c3",
+                    ImmutableSet.of(DEFAULT_VRF_NAME),
+                    "c4",
+                    ImmutableSet.of(DEFAULT_VRF_NAME))));
 
     Row row =
         getActivePeerRow(peerXId, peerX, ipVrfOwners, configuredTopology, establishedTopology);
@@ -31,6 +31,7 @@ import org.batfish.common.bdd.PermitAndDenyBdds;
 import org.batfish.common.util.CollectionUtil;
 import org.batfish.datamodel.AclIpSpace;
 import org.batfish.datamodel.AclIpSpaceLine;
+import org.batfish.datamodel.AclLine;
 import org.batfish.datamodel.Configuration;
 import org.batfish.datamodel.ConfigurationFormat;
 import org.batfish.datamodel.ExprAclLine;
@@ -53,6 +54,7 @@ import org.batfish.datamodel.acl.NotMatchExpr;
 import org.batfish.datamodel.acl.OrMatchExpr;
 import org.batfish.datamodel.acl.PermittedByAcl;
 import org.batfish.datamodel.answers.AclSpecs;
+import org.batfish.datamodel.answers.Schema;
 import org.batfish.question.filterlinereachability.FilterLineReachabilityAnswerer.BlockingProperties;
 import org.batfish.specifier.MockSpecifierContext;
 import org.batfish.specifier.SpecifierContext;
@@ -130,6 +132,44 @@ public class FilterLineReachabilityAnswererTest {
     assertThat(aclSpecs, hasSize(1));
   }
 
+  @Test
+  public void testComputeAnswerManyAcls() {
+    // c1 and c2 have the same distinct ACLs, each with its second line blocked by its first
+    int numAcls = 50;
+    for (int i = 0; i < numAcls; i++) {
+      List<AclLine> lines =
+          ImmutableList.of(
+              acceptingHeaderSpace(
+                  HeaderSpace.builder()
+                      .setSrcIps(Prefix.create(Ip.create(i << 8), 24).toIpSpace())
+                      .build()),
+              rejectingHeaderSpace(
+                  HeaderSpace.builder()
+                      .setSrcIps(Prefix.create(Ip.create(i << 8), 25).toIpSpace())
+                      .build()));
+      _aclb.setName("acl" + i).setLines(lines).build();
+      _aclb2.setName("acl" + i).setLines(lines).build();
+    }
+
+    SortedMap<String, Configuration> configs = ImmutableSortedMap.of("c1", _c1, "c2", _c2);
+    Map<String, Set<IpAccessList>> acls =
+        CollectionUtil.toImmutableMap(
+            configs,
+            Entry::getKey,
+            entry -> ImmutableSet.copyOf(entry.getValue().getIpAccessLists().values()));
+    FilterLineReachabilityRows rows = FilterLineReachabilityAnswerer.computeAnswer(configs, acls);
+
+    assertThat(rows.getRows(), hasSize(numAcls));
+    assertThat(
+        rows.getRows().stream()
+            .map(row -> row.get(FilterLineReachabilityRows.COL_SOURCES, Schema.list(Schema.STRING)))
+            .collect(ImmutableSet.toImmutableSet()),
+        equalTo(
+            IntStream.range(0, numAcls)
+                .mapToObj(i -> ImmutableList.of("c1: acl" + i, "c2: acl" + i))
+                .collect(ImmutableSet.toImmutableSet())));
+  }
+
   @Test
   public void testAclReferenceInAndOrNotExprIsFound() {
     _aclb.setLines(ImmutableList.of()).setName("acl0").build();